@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.benchmark.flow;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import cascading.flow.FlowProcess;
+import cascading.flow.planner.Scope;
+import cascading.flow.stream.element.AggregatorEveryStage;
+import cascading.flow.stream.element.ElementStage;
+import cascading.flow.stream.element.FunctionEachStage;
+import cascading.flow.stream.graph.StreamGraph;
+import cascading.operation.Insert;
+import cascading.operation.aggregator.Sum;
+import cascading.pipe.Each;
+import cascading.pipe.Every;
+import cascading.pipe.GroupBy;
+import cascading.pipe.Pipe;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the receive paths of the {@link FunctionEachStage} and {@link AggregatorEveryStage}, the stages every
+ * tuple passes through on all platforms. Throughput is reported in tuples.
+ * <p/>
+ * The stages are wired by hand with the scopes the planner would resolve, and terminated by a {@link TailStage}.
+ */
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StageBenchmark
+  {
+  private static final int NUM_TUPLES = 1024;
+  private static final int GROUP_SIZE = 16;
+
+  Fields fields = new Fields( "key", "value", "text" );
+
+  TupleEntry[] entries;
+  TupleEntry[] groupEntries;
+
+  FunctionEachStage eachStage;
+  AggregatorEveryStage everyStage;
+  TailStage eachTail;
+  TailStage everyTail;
+
+  @Setup
+  public void setup()
+    {
+    entries = new TupleEntry[ NUM_TUPLES ];
+    groupEntries = new TupleEntry[ NUM_TUPLES / GROUP_SIZE ];
+
+    for( int i = 0; i < NUM_TUPLES; i++ )
+      entries[ i ] = new TupleEntry( fields, new Tuple( i / GROUP_SIZE, i, "text" + i ) );
+
+    for( int i = 0; i < groupEntries.length; i++ )
+      groupEntries[ i ] = new TupleEntry( new Fields( "key" ), new Tuple( i ) );
+
+    Scope sourceScope = new Scope( fields );
+
+    sourceScope.setName( "head" );
+
+    Pipe head = new Pipe( "head" );
+
+    Each each = new Each( head, Fields.NONE, new Insert( new Fields( "constant" ), "constant" ), Fields.ALL );
+    eachTail = new TailStage( each );
+    eachStage = new FunctionEachStage( FlowProcess.NULL, each );
+
+    wire( eachStage, eachTail, sourceScope, each.outgoingScopeFor( Collections.singleton( sourceScope ) ) );
+
+    GroupBy groupBy = new GroupBy( head, new Fields( "key" ) );
+    Scope groupScope = groupBy.outgoingScopeFor( Collections.singleton( sourceScope ) );
+
+    Every every = new Every( groupBy, new Fields( "value" ), new Sum( new Fields( "sum" ), long.class ), Fields.ALL );
+    everyTail = new TailStage( every );
+    everyStage = new AggregatorEveryStage( FlowProcess.NULL, every );
+
+    wire( everyStage, everyTail, groupScope, every.outgoingScopeFor( Collections.singleton( groupScope ) ) );
+    }
+
+  private void wire( ElementStage stage, TailStage tail, Scope incomingScope, Scope outgoingScope )
+    {
+    stage.getIncomingScopes().add( incomingScope );
+    stage.getOutgoingScopes().add( outgoingScope );
+    tail.getIncomingScopes().add( outgoingScope );
+
+    StreamGraph streamGraph = new StreamGraph();
+
+    streamGraph.addHead( stage );
+    streamGraph.addPath( stage, tail );
+    streamGraph.addTail( tail );
+
+    streamGraph.bind();
+    streamGraph.prepare();
+    }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_TUPLES)
+  public long eachReceive()
+    {
+    for( TupleEntry entry : entries )
+      eachStage.receive( null, 0, entry );
+
+    return eachTail.count;
+    }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_TUPLES)
+  public long everyReceive()
+    {
+    int index = 0;
+
+    for( TupleEntry groupEntry : groupEntries )
+      {
+      everyStage.startGroup( null, groupEntry );
+
+      for( int i = 0; i < GROUP_SIZE; i++ )
+        everyStage.receive( null, 0, entries[ index++ ] );
+
+      everyStage.completeGroup( null, groupEntry );
+      }
+
+    return everyTail.count;
+    }
+  }
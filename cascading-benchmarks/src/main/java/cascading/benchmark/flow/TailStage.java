@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.benchmark.flow;
+
+import cascading.flow.FlowProcess;
+import cascading.flow.stream.duct.Duct;
+import cascading.flow.stream.duct.Reducing;
+import cascading.flow.stream.element.ElementStage;
+import cascading.operation.Identity;
+import cascading.pipe.Each;
+import cascading.pipe.Pipe;
+import cascading.tuple.TupleEntry;
+
+/**
+ * Class TailStage terminates a benchmarked stream, counting all received tuples and completed groups.
+ */
+public class TailStage extends ElementStage<TupleEntry, Void> implements Reducing<TupleEntry, TupleEntry>
+  {
+  long count;
+
+  public TailStage( Pipe previous )
+    {
+    super( FlowProcess.NULL, new Each( previous, new Identity() ) ); // stands in for the next operator
+    }
+
+  @Override
+  public void receive( Duct previous, int ordinal, TupleEntry tupleEntry )
+    {
+    count++;
+    }
+
+  @Override
+  public void startGroup( Duct previous, TupleEntry groupEntry )
+    {
+    }
+
+  @Override
+  public void completeGroup( Duct previous, TupleEntry resultEntry )
+    {
+    count++;
+    }
+  }
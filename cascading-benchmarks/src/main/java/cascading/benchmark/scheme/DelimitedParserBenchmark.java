@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.benchmark.scheme;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import cascading.scheme.util.DelimitedParser;
+import cascading.scheme.util.ScanningDelimitedParser;
+import cascading.tuple.Fields;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the regular expression based {@link DelimitedParser} with the {@link ScanningDelimitedParser} on
+ * plain, quoted, and quoted with escaped quote, comma delimited lines.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DelimitedParserBenchmark
+  {
+  public enum Input
+    {
+      PLAIN, QUOTED, ESCAPED
+    }
+
+  private static final int NUM_FIELDS = 10;
+  private static final int NUM_LINES = 1024; // power of two
+
+  @Param({"regex", "scanning"})
+  String parser;
+
+  @Param({"PLAIN", "QUOTED", "ESCAPED"})
+  Input input;
+
+  DelimitedParser delimitedParser;
+  String[] lines;
+  int index;
+
+  @Setup
+  public void setup()
+    {
+    Fields fields = Fields.size( NUM_FIELDS );
+
+    if( parser.equals( "regex" ) )
+      delimitedParser = new DelimitedParser( ",", "\"", null, true, true, fields, fields );
+    else
+      delimitedParser = new ScanningDelimitedParser( ",", "\"", null, true, true, fields, fields );
+
+    Random random = new Random( 1 );
+
+    lines = new String[ NUM_LINES ];
+
+    for( int i = 0; i < NUM_LINES; i++ )
+      lines[ i ] = createLine( random );
+    }
+
+  private String createLine( Random random )
+    {
+    StringBuilder builder = new StringBuilder();
+
+    for( int i = 0; i < NUM_FIELDS; i++ )
+      {
+      if( i != 0 )
+        builder.append( ',' );
+
+      String value = Integer.toString( random.nextInt( 1000000 ) );
+
+      switch( input )
+        {
+        case PLAIN:
+          builder.append( value );
+          break;
+        case QUOTED:
+          builder.append( '"' ).append( value ).append( ", " ).append( value ).append( '"' );
+          break;
+        case ESCAPED:
+          builder.append( '"' ).append( value ).append( " \"\"" ).append( value ).append( "\"\"" ).append( '"' );
+          break;
+        }
+      }
+
+    return builder.toString();
+    }
+
+  @Benchmark
+  public Object[] parseLine()
+    {
+    return delimitedParser.parseLine( lines[ index++ & ( NUM_LINES - 1 ) ] );
+    }
+  }
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.benchmark.tuple;
+
+import java.util.concurrent.TimeUnit;
+
+import cascading.tuple.Fields;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Fields} selection and resolution, as performed by the planner and when preparing each stage.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldsBenchmark
+  {
+  Fields fields = new Fields( "a", "b", "c", "d", "e", "f", "g", "h" );
+  Fields other = new Fields( "i", "j", "k" );
+  Fields selector = new Fields( "g", "b", "d" );
+  Fields positional = new Fields( -1, 1, 3 );
+
+  @Benchmark
+  public Fields select()
+    {
+    return fields.select( selector );
+    }
+
+  @Benchmark
+  public Fields selectPositional()
+    {
+    return fields.select( positional );
+    }
+
+  @Benchmark
+  public int[] getPos()
+    {
+    return fields.getPos( selector );
+    }
+
+  @Benchmark
+  public Fields resolveAll()
+    {
+    return Fields.resolve( Fields.ALL, fields, other );
+    }
+
+  @Benchmark
+  public Fields resolveSelector()
+    {
+    return Fields.resolve( selector, fields, other );
+    }
+
+  @Benchmark
+  public Fields append()
+    {
+    return fields.append( other );
+    }
+
+  @Benchmark
+  public Fields join()
+    {
+    return Fields.join( fields, other );
+    }
+  }
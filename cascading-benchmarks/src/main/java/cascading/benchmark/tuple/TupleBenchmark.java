@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.benchmark.tuple;
+
+import java.util.concurrent.TimeUnit;
+
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Tuple} and {@link TupleEntry} construction, access, and selection.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TupleBenchmark
+  {
+  Fields fields = new Fields( "a", "b", "c", "d", "e", "f" );
+  Fields selector = new Fields( "e", "b" );
+  Object[] values = new Object[]{1, 2L, "three", 4.0d, "five", 6};
+
+  int[] pos;
+  Tuple tuple;
+  TupleEntry entry;
+
+  @Setup
+  public void setup()
+    {
+    pos = fields.getPos( selector );
+    tuple = new Tuple( values );
+    entry = new TupleEntry( fields, tuple );
+    }
+
+  @Benchmark
+  public Tuple createTuple()
+    {
+    return new Tuple( values );
+    }
+
+  @Benchmark
+  public Tuple createTupleSize()
+    {
+    return Tuple.size( values.length );
+    }
+
+  @Benchmark
+  public TupleEntry createTupleEntry()
+    {
+    return new TupleEntry( fields, new Tuple( values ) );
+    }
+
+  @Benchmark
+  public Tuple tupleGetPos()
+    {
+    return tuple.get( pos );
+    }
+
+  @Benchmark
+  public Tuple entrySelectTuple()
+    {
+    return entry.selectTuple( selector );
+    }
+
+  @Benchmark
+  public Tuple entrySelectTupleCopy()
+    {
+    return entry.selectTupleCopy( selector );
+    }
+
+  @Benchmark
+  public Object entryGetObject()
+    {
+    return entry.getObject( "e" );
+    }
+
+  @Benchmark
+  public TupleEntry entrySetObject()
+    {
+    entry.setObject( "c", "three" );
+
+    return entry;
+    }
+  }
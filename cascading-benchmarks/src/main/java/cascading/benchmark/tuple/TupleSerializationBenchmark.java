@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.benchmark.tuple;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import cascading.tuple.Tuple;
+import cascading.tuple.hadoop.TupleSerialization;
+import cascading.tuple.hadoop.io.HadoopTupleInputStream;
+import cascading.tuple.hadoop.io.HadoopTupleOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures writing and reading tuples through the {@link TupleSerialization} element writer and reader, as done
+ * when shuffling and spilling. Throughput is reported in tuples.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TupleSerializationBenchmark
+  {
+  private static final int NUM_TUPLES = 1024;
+
+  Tuple[] tuples;
+  TupleSerialization tupleSerialization;
+  ByteArrayOutputStream bytes;
+  HadoopTupleOutputStream outputStream;
+  byte[] serialized;
+  Tuple reuse = Tuple.size( 6 );
+
+  @Setup
+  public void setup() throws IOException
+    {
+    tuples = new Tuple[ NUM_TUPLES ];
+
+    for( int i = 0; i < NUM_TUPLES; i++ )
+      tuples[ i ] = new Tuple( i, (long) i * 31, "value" + i, i / 3.0d, i % 2 == 0, null );
+
+    tupleSerialization = new TupleSerialization();
+    bytes = new ByteArrayOutputStream( NUM_TUPLES * 64 );
+    outputStream = new HadoopTupleOutputStream( bytes, tupleSerialization.getElementWriter() );
+
+    for( Tuple tuple : tuples )
+      outputStream.writeTuple( tuple );
+
+    outputStream.flush();
+
+    serialized = bytes.toByteArray();
+    }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_TUPLES)
+  public int writeTuples() throws IOException
+    {
+    bytes.reset();
+
+    for( Tuple tuple : tuples )
+      outputStream.writeTuple( tuple );
+
+    outputStream.flush();
+
+    return bytes.size();
+    }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_TUPLES)
+  public Tuple readTuples() throws IOException
+    {
+    HadoopTupleInputStream inputStream = new HadoopTupleInputStream( new ByteArrayInputStream( serialized ), tupleSerialization.getElementReader() );
+
+    for( int i = 0; i < NUM_TUPLES; i++ )
+      inputStream.readTuple( reuse );
+
+    return reuse;
+    }
+  }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.benchmark.util;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import cascading.util.cache.CascadingCache;
+import cascading.util.cache.DirectMappedCache;
+import cascading.util.cache.LRUHashMapCache;
+import cascading.util.cache.OpenAddressingCache;
+import cascading.util.cache.OrderedHashMapCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link CascadingCache} implementations used by AggregateBy and Unique, with a key space larger
+ * than the cache capacity so that evictions occur.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark
+  {
+  private static final int NUM_KEYS = 64 * 1024; // power of two
+
+  @Param({"LRUHashMapCache", "OrderedHashMapCache", "DirectMappedCache", "OpenAddressingCache"})
+  String cache;
+
+  @Param({"10000"})
+  int capacity;
+
+  CascadingCache<Object, Object> cascadingCache;
+  Object[] keys;
+  int index;
+
+  @Setup
+  public void setup()
+    {
+    switch( cache )
+      {
+      case "LRUHashMapCache":
+        cascadingCache = new LRUHashMapCache<>();
+        break;
+      case "OrderedHashMapCache":
+        cascadingCache = new OrderedHashMapCache<>();
+        break;
+      case "DirectMappedCache":
+        cascadingCache = new DirectMappedCache<>();
+        break;
+      case "OpenAddressingCache":
+        cascadingCache = new OpenAddressingCache<>();
+        break;
+      default:
+        throw new IllegalArgumentException( "unknown cache: " + cache );
+      }
+
+    cascadingCache.setCapacity( capacity );
+    cascadingCache.initialize();
+
+    Random random = new Random( 1 );
+
+    keys = new Object[ NUM_KEYS ];
+
+    // skewed, so some keys are hit repeatedly
+    for( int i = 0; i < NUM_KEYS; i++ )
+      keys[ i ] = "key" + (int) ( Math.abs( random.nextGaussian() ) * capacity );
+    }
+
+  @Benchmark
+  public Object getOrPut()
+    {
+    Object key = keys[ index++ & ( NUM_KEYS - 1 ) ];
+    Object value = cascadingCache.get( key );
+
+    if( value == null )
+      cascadingCache.put( key, key );
+
+    return value;
+    }
+  }
@@ -26,7 +26,9 @@ import java.util.Map;
 
 import cascading.cascade.planner.FlowGraph;
 import cascading.cascade.planner.IdentifierGraph;
+import cascading.cascade.planner.SharedScanPlanner;
 import cascading.flow.Flow;
+import cascading.property.PropertyUtil;
 import cascading.tap.Tap;
 import cascading.util.Util;
 
@@ -50,6 +52,10 @@ import static cascading.cascade.CascadeDef.cascadeDef;
  * <p/>
  * Use the {@link CascadeProps} fluent helper class to create global properties to pass to the CascadeConnector
  * constructor.
+ * <p/>
+ * If {@link CascadeProps#ENABLE_SHARED_SCAN} is enabled, independent Flows reading the same sources may be replaced
+ * by a single Flow planned from their combined {@link cascading.flow.FlowDef}s, see
+ * {@link cascading.cascade.planner.SharedScanPlanner}.
  *
  * @see CascadeDef
  * @see CascadeProps
@@ -131,12 +137,30 @@ public class CascadeConnector
 
   public Cascade connect( CascadeDef cascadeDef )
     {
+    if( PropertyUtil.getBooleanProperty( properties, CascadeProps.ENABLE_SHARED_SCAN, false ) )
+      cascadeDef = planSharedScans( cascadeDef );
+
     IdentifierGraph identifierGraph = new IdentifierGraph( cascadeDef.getFlowsArray() );
     FlowGraph flowGraph = new FlowGraph( identifierGraph );
 
     return new BaseCascade( cascadeDef, properties, flowGraph, identifierGraph );
     }
 
+  private CascadeDef planSharedScans( CascadeDef cascadeDef )
+    {
+    Flow[] flows = cascadeDef.getFlowsArray();
+    Flow[] planned = new SharedScanPlanner().plan( flows );
+
+    if( planned == flows )
+      return cascadeDef;
+
+    return cascadeDef()
+      .setName( cascadeDef.getName() )
+      .addTags( cascadeDef.getTags().split( "," ) )
+      .setMaxConcurrentFlows( cascadeDef.getMaxConcurrentFlows() )
+      .addFlows( planned );
+    }
+
   private String makeName( Flow[] flows )
     {
     String[] names = new String[ flows.length ];
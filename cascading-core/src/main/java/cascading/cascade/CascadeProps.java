@@ -32,8 +32,10 @@ import cascading.property.Props;
 public class CascadeProps extends Props
   {
   public static final String MAX_CONCURRENT_FLOWS = "cascading.cascade.maxconcurrentflows";
+  public static final String ENABLE_SHARED_SCAN = "cascading.cascade.sharedscan.enable";
 
   int maxConcurrentFlows = 0;
+  Boolean enableSharedScan;
 
   /**
    * Method setMaxConcurrentFlows sets the maximum number of Flows that a Cascade can run concurrently.
@@ -51,6 +53,19 @@ public class CascadeProps extends Props
     properties.put( MAX_CONCURRENT_FLOWS, Integer.toString( numConcurrentFlows ) );
     }
 
+  /**
+   * Method setEnableSharedScan, when set to {@code true}, allows the {@link CascadeConnector} to plan independent
+   * Flows reading the same sources as a single Flow, so the sources are read once. Disabled by default.
+   *
+   * @param properties       of type Map<Object, Object>
+   * @param enableSharedScan of type Boolean
+   */
+  public static void setEnableSharedScan( Map<Object, Object> properties, Boolean enableSharedScan )
+    {
+    if( enableSharedScan != null )
+      properties.put( ENABLE_SHARED_SCAN, enableSharedScan.toString() );
+    }
+
   /**
    * Creates a new CascadeProps instance.
    *
@@ -87,9 +102,34 @@ public class CascadeProps extends Props
     return this;
     }
 
+  public Boolean getEnableSharedScan()
+    {
+    return enableSharedScan;
+    }
+
+  /**
+   * Method setEnableSharedScan, when set to {@code true}, allows the {@link CascadeConnector} to plan Flows that
+   * read the same source identifiers, and do not depend on one another, as a single Flow so each source is only read
+   * once. It is disabled by default.
+   * <p/>
+   * Only Flows planned from a {@link cascading.flow.FlowDef} by the same {@link cascading.flow.FlowConnector}
+   * instance, without traps, checkpoints, listeners, or custom strategies, are combined. The combined Flow replaces
+   * the originals in the resulting {@link Cascade}.
+   *
+   * @param enableSharedScan of type boolean
+   * @return this
+   */
+  public CascadeProps setEnableSharedScan( boolean enableSharedScan )
+    {
+    this.enableSharedScan = enableSharedScan;
+
+    return this;
+    }
+
   @Override
   protected void addPropertiesTo( Properties properties )
     {
     setMaxConcurrentFlows( properties, maxConcurrentFlows );
+    setEnableSharedScan( properties, enableSharedScan );
     }
   }
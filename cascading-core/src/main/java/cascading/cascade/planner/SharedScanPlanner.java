@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.cascade.planner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import cascading.flow.BaseFlow;
+import cascading.flow.Flow;
+import cascading.flow.FlowConnector;
+import cascading.flow.FlowDef;
+import cascading.flow.FlowSkipIfSinkNotStale;
+import cascading.property.AppProps;
+import cascading.tap.Tap;
+import cascading.util.Util;
+import org.jgrapht.Graphs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class SharedScanPlanner combines {@link Flow} instances that read the same source identifiers into a single Flow,
+ * planned again by the {@link FlowConnector} that planned the originals, so that each source is read once instead
+ * of once per Flow.
+ * <p/>
+ * Flows are only combined if neither depends on the other, directly or through any other given Flow, and if they
+ * were planned by equivalent FlowConnector instances, and share the same submit priority and planner levels. Flows with traps, checkpoints,
+ * assembly planners, listeners, a {@link cascading.flow.FlowStepStrategy}, or a custom
+ * {@link cascading.flow.FlowSkipStrategy} are left as given, as are Flows whose sink names or identifiers overlap.
+ * <p/>
+ * If the combined {@link FlowDef} fails to plan, the original Flows are kept.
+ *
+ * @see cascading.cascade.CascadeProps#ENABLE_SHARED_SCAN
+ */
+public class SharedScanPlanner
+  {
+  /** Field LOG */
+  private static final Logger LOG = LoggerFactory.getLogger( SharedScanPlanner.class );
+
+  /** Field SESSION_PROPERTIES, written into the connector properties by each Flow it plans */
+  private static final Set<Object> SESSION_PROPERTIES = new HashSet<Object>( Arrays.asList(
+    Flow.CASCADING_FLOW_ID,
+    "cascading.flow.tags",
+    AppProps.APP_ID,
+    "cascading.app.name",
+    "cascading.app.version"
+  ) );
+
+  /**
+   * Method plan returns the given flows, with any that may share their source reads replaced by a single Flow.
+   *
+   * @param flows of type Flow[]
+   * @return Flow[]
+   */
+  public Flow[] plan( Flow[] flows )
+    {
+    FlowGraph flowGraph = new FlowGraph( new IdentifierGraph( flows ) );
+    Map<Set<String>, List<List<Flow>>> candidates = new LinkedHashMap<>();
+
+    for( Flow flow : flows )
+      {
+      if( !isCandidate( flow ) )
+        continue;
+
+      Set<String> sourceIdentifiers = getIdentifiers( flow, flow.getSourcesCollection() );
+      List<List<Flow>> groups = candidates.get( sourceIdentifiers );
+
+      if( groups == null )
+        {
+        groups = new ArrayList<>();
+        candidates.put( sourceIdentifiers, groups );
+        }
+
+      addToGroup( flowGraph, groups, flow );
+      }
+
+    List<Flow> results = new ArrayList<>();
+    Set<Flow> combined = new HashSet<>();
+
+    for( List<List<Flow>> groups : candidates.values() )
+      {
+      for( List<Flow> group : groups )
+        {
+        if( group.size() == 1 )
+          continue;
+
+        Flow flow = combine( group );
+
+        if( flow == null )
+          continue;
+
+        results.add( flow );
+        combined.addAll( group );
+        }
+      }
+
+    if( combined.isEmpty() )
+      return flows;
+
+    for( Flow flow : flows )
+      {
+      if( !combined.contains( flow ) )
+        results.add( flow );
+      }
+
+    return results.toArray( new Flow[ results.size() ] );
+    }
+
+  private static boolean isCandidate( Flow flow )
+    {
+    if( !( flow instanceof BaseFlow ) )
+      return false;
+
+    BaseFlow baseFlow = (BaseFlow) flow;
+    FlowDef flowDef = baseFlow.getFlowDef();
+
+    if( flowDef == null || baseFlow.getFlowConnector() == null )
+      return false;
+
+    // traps and checkpoints are bound by pipe name, and names may collide across assemblies
+    if( !flowDef.getTraps().isEmpty() || !flowDef.getCheckpoints().isEmpty() || !flowDef.getAssemblyPlanners().isEmpty() )
+      return false;
+
+    if( flow.hasListeners() || flow.getFlowStepStrategy() != null )
+      return false;
+
+    return flow.getFlowSkipStrategy().getClass() == FlowSkipIfSinkNotStale.class;
+    }
+
+  private static void addToGroup( FlowGraph flowGraph, List<List<Flow>> groups, Flow flow )
+    {
+    for( List<Flow> group : groups )
+      {
+      if( isCompatible( flowGraph, group, flow ) )
+        {
+        group.add( flow );
+        return;
+        }
+      }
+
+    List<Flow> group = new ArrayList<>();
+
+    group.add( flow );
+    groups.add( group );
+    }
+
+  private static boolean isCompatible( FlowGraph flowGraph, List<Flow> group, Flow flow )
+    {
+    FlowDef flowDef = ( (BaseFlow) flow ).getFlowDef();
+    Set<String> sinkIdentifiers = getIdentifiers( flow, flow.getSinksCollection() );
+
+    for( Flow member : group )
+      {
+      FlowDef memberDef = ( (BaseFlow) member ).getFlowDef();
+
+      if( !isSameConnector( ( (BaseFlow) member ).getFlowConnector(), ( (BaseFlow) flow ).getFlowConnector() ) )
+        return false;
+
+      if( member.getSubmitPriority() != flow.getSubmitPriority() )
+        return false;
+
+      if( memberDef.getAssertionLevel() != flowDef.getAssertionLevel() || memberDef.getDebugLevel() != flowDef.getDebugLevel() )
+        return false;
+
+      if( !isEqual( memberDef.getRunID(), flowDef.getRunID() ) || !memberDef.getClassPath().equals( flowDef.getClassPath() ) )
+        return false;
+
+      if( !isDisjoint( memberDef.getSinks().keySet(), flowDef.getSinks().keySet() ) )
+        return false;
+
+      // a name may not be a source in one assembly and a sink in the other
+      if( !isDisjoint( memberDef.getSources().keySet(), flowDef.getSinks().keySet() ) || !isDisjoint( memberDef.getSinks().keySet(), flowDef.getSources().keySet() ) )
+        return false;
+
+      if( !isDisjoint( getIdentifiers( member, member.getSinksCollection() ), sinkIdentifiers ) )
+        return false;
+
+      if( !haveSameSources( memberDef, flowDef ) )
+        return false;
+
+      if( isReachable( flowGraph, member, flow ) || isReachable( flowGraph, flow, member ) )
+        return false;
+      }
+
+    return true;
+    }
+
+  private static boolean isSameConnector( FlowConnector lhs, FlowConnector rhs )
+    {
+    if( lhs == rhs )
+      return true;
+
+    // rule registries are not compared, the combined flow is planned by the connector of the first flow
+    return lhs.getClass() == rhs.getClass() && isEqual( withoutSessionProperties( lhs ), withoutSessionProperties( rhs ) );
+    }
+
+  private static Map<Object, Object> withoutSessionProperties( FlowConnector flowConnector )
+    {
+    // each planned Flow writes its own ID and session values into the connector properties
+    Map<Object, Object> properties = new HashMap<>( flowConnector.getProperties() );
+
+    properties.keySet().removeAll( SESSION_PROPERTIES );
+
+    return properties;
+    }
+
+  private static boolean haveSameSources( FlowDef lhs, FlowDef rhs )
+    {
+    for( Map.Entry<String, Tap> entry : lhs.getSources().entrySet() )
+      {
+      Tap tap = rhs.getSources().get( entry.getKey() );
+
+      if( tap != null && !tap.equals( entry.getValue() ) )
+        return false;
+      }
+
+    return true;
+    }
+
+  private static boolean isEqual( Object lhs, Object rhs )
+    {
+    return lhs == null ? rhs == null : lhs.equals( rhs );
+    }
+
+  private static boolean isDisjoint( Set<String> lhs, Set<String> rhs )
+    {
+    for( String value : lhs )
+      {
+      if( rhs.contains( value ) )
+        return false;
+      }
+
+    return true;
+    }
+
+  private static boolean isReachable( FlowGraph flowGraph, Flow from, Flow to )
+    {
+    if( !flowGraph.containsVertex( from ) || !flowGraph.containsVertex( to ) )
+      return false;
+
+    Set<Flow> visited = new HashSet<>();
+    LinkedList<Flow> queue = new LinkedList<>();
+
+    queue.add( from );
+
+    while( !queue.isEmpty() )
+      {
+      for( Flow successor : Graphs.successorListOf( flowGraph, queue.removeFirst() ) )
+        {
+        if( successor == to )
+          return true;
+
+        if( visited.add( successor ) )
+          queue.add( successor );
+        }
+      }
+
+    return false;
+    }
+
+  private static Set<String> getIdentifiers( Flow flow, Iterable<Tap> taps )
+    {
+    Set<String> identifiers = new HashSet<>();
+
+    for( Tap tap : taps )
+      identifiers.add( tap.getFullIdentifier( flow.getConfig() ) );
+
+    return identifiers;
+    }
+
+  private static Flow combine( List<Flow> group )
+    {
+    FlowDef first = ( (BaseFlow) group.get( 0 ) ).getFlowDef();
+    FlowConnector flowConnector = ( (BaseFlow) group.get( 0 ) ).getFlowConnector();
+    String[] names = new String[ group.size() ];
+
+    FlowDef flowDef = FlowDef.flowDef()
+      .setAssertionLevel( first.getAssertionLevel() )
+      .setDebugLevel( first.getDebugLevel() )
+      .setRunID( first.getRunID() );
+
+    for( String artifact : first.getClassPath() )
+      flowDef.addToClassPath( artifact );
+
+    for( int i = 0; i < group.size(); i++ )
+      {
+      FlowDef memberDef = ( (BaseFlow) group.get( i ) ).getFlowDef();
+
+      names[ i ] = group.get( i ).getName();
+
+      for( Map.Entry<String, Tap> entry : memberDef.getSources().entrySet() )
+        {
+        if( !flowDef.getSources().containsKey( entry.getKey() ) )
+          flowDef.addSource( entry.getKey(), entry.getValue() );
+        }
+
+      flowDef.addSinks( memberDef.getSinks() );
+      flowDef.addTails( memberDef.getTails() );
+      flowDef.addDescriptions( memberDef.getFlowDescriptor() );
+
+      if( memberDef.getTags() != null )
+        flowDef.addTags( memberDef.getTags().split( "," ) );
+      }
+
+    flowDef.setName( Util.join( names, "+" ) );
+
+    LOG.info( "planning flows: {}, as one flow sharing their source reads", flowDef.getName() );
+
+    try
+      {
+      Flow flow = flowConnector.connect( flowDef );
+
+      flow.setSubmitPriority( group.get( 0 ).getSubmitPriority() );
+
+      return flow;
+      }
+    catch( Exception exception )
+      {
+      LOG.warn( "unable to plan flows: {}, as one flow, keeping them separate", flowDef.getName(), exception );
+
+      return null;
+      }
+    }
+  }
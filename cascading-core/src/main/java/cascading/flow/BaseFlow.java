@@ -56,10 +56,13 @@ import cascading.management.CascadingServices;
 import cascading.management.UnitOfWorkExecutorStrategy;
 import cascading.management.UnitOfWorkSpawnStrategy;
 import cascading.management.state.ClientState;
+import cascading.operation.Filter;
+import cascading.pipe.Each;
 import cascading.property.AppProps;
 import cascading.property.PropertyUtil;
 import cascading.stats.FlowStats;
 import cascading.tap.Tap;
+import cascading.tap.partition.BasePartitionTap;
 import cascading.tuple.Fields;
 import cascading.tuple.TupleEntryCollector;
 import cascading.tuple.TupleEntryIterator;
@@ -149,6 +152,11 @@ public abstract class BaseFlow<Config> implements Flow<Config>, ProcessLogger
 
   protected HashMap<String, String> flowDescriptor;
 
+  /** Field flowDef */
+  private transient FlowDef flowDef; // may remain null
+  /** Field flowConnector */
+  private transient FlowConnector flowConnector; // may remain null
+
   /**
    * Returns property stopJobsOnExit.
    *
@@ -201,6 +209,7 @@ public abstract class BaseFlow<Config> implements Flow<Config>, ProcessLogger
     if( platformInfo != null )
       this.platformInfo = platformInfo;
 
+    this.flowDef = flowDef;
     this.name = flowDef.getName();
     this.tags = flowDef.getTags();
     this.runID = flowDef.getRunID();
@@ -226,6 +235,32 @@ public abstract class BaseFlow<Config> implements Flow<Config>, ProcessLogger
     this.plannerInfo = plannerInfo;
     }
 
+  /**
+   * Method getFlowDef returns the {@link FlowDef} this Flow was planned from, if any.
+   *
+   * @return the flowDef (type FlowDef) of this Flow object, may be null.
+   */
+  public FlowDef getFlowDef()
+    {
+    return flowDef;
+    }
+
+  public void setFlowConnector( FlowConnector flowConnector )
+    {
+    this.flowConnector = flowConnector;
+    }
+
+  /**
+   * Method getFlowConnector returns the {@link FlowConnector} that planned this Flow, if any, so that the
+   * {@link #getFlowDef()} may be planned again, possibly combined with others.
+   *
+   * @return the flowConnector (type FlowConnector) of this Flow object, may be null.
+   */
+  public FlowConnector getFlowConnector()
+    {
+    return flowConnector;
+    }
+
   @Override
   public PlannerInfo getPlannerInfo()
     {
@@ -257,6 +292,10 @@ public abstract class BaseFlow<Config> implements Flow<Config>, ProcessLogger
     {
     presentSourceFields( pipeGraph );
 
+    presentSourceProjections( pipeGraph );
+
+    presentSourcePartitionFilters( pipeGraph );
+
     presentSinkFields( pipeGraph );
 
     return new FlowElementGraph( pipeGraph );
@@ -289,6 +328,74 @@ public abstract class BaseFlow<Config> implements Flow<Config>, ProcessLogger
       }
     }
 
+  /**
+   * Present the fields read from each source Tap, only computed if
+   * {@link FlowConnectorProps#ENABLE_PROJECTION_PUSHDOWN} is enabled
+   *
+   * @param pipeGraph
+   */
+  protected void presentSourceProjections( FlowElementGraph pipeGraph )
+    {
+    boolean enabled = Boolean.parseBoolean( getProperty( FlowConnectorProps.ENABLE_PROJECTION_PUSHDOWN ) );
+
+    for( Tap tap : sources.values() )
+      {
+      if( !pipeGraph.containsVertex( tap ) )
+        continue;
+
+      Fields projectedFields = Fields.ALL;
+
+      if( enabled )
+        projectedFields = ElementGraphs.findLiveSourceFields( pipeGraph, tap, getTraps().keySet() );
+
+      if( !projectedFields.isAll() )
+        logInfo( "source: {}, only reading fields: {}", tap, projectedFields.printVerbose() );
+
+      // always presented, a scheme shared with a prior flow must not retain its projection
+      tap.presentSourceProjection( getFlowProcess(), projectedFields );
+      }
+    }
+
+  /**
+   * Present the filters directly downstream of each {@link BasePartitionTap} source that may be applied to its
+   * partition values, only found if {@link FlowConnectorProps#ENABLE_PARTITION_PRUNING} is enabled
+   *
+   * @param pipeGraph
+   */
+  protected void presentSourcePartitionFilters( FlowElementGraph pipeGraph )
+    {
+    boolean enabled = Boolean.parseBoolean( getProperty( FlowConnectorProps.ENABLE_PARTITION_PRUNING ) );
+
+    for( Tap tap : sources.values() )
+      {
+      if( !( tap instanceof BasePartitionTap ) || !pipeGraph.containsVertex( tap ) )
+        continue;
+
+      BasePartitionTap partitionTap = (BasePartitionTap) tap;
+      List<Fields> argumentSelectors = new ArrayList<>();
+      List<Filter> filters = new ArrayList<>();
+
+      if( enabled )
+        {
+        for( Each each : ElementGraphs.findLeadingFilters( pipeGraph, tap, getTraps().keySet() ) )
+          {
+          // any filter after one that cannot be pushed may depend on the values it removes
+          if( !partitionTap.isSourcePartitionFilter( each.getArgumentSelector(), each.getFilter() ) )
+            break;
+
+          argumentSelectors.add( each.getArgumentSelector() );
+          filters.add( each.getFilter() );
+          }
+        }
+
+      if( !filters.isEmpty() )
+        logInfo( "source: {}, pruning partitions with filters: {}", tap, filters );
+
+      // always presented, so a tap shared with a prior flow only prunes partitions no flow reads
+      partitionTap.presentSourcePartitionFilters( getFlowProcess(), argumentSelectors.toArray( new Fields[ argumentSelectors.size() ] ), filters.toArray( new Filter[ filters.size() ] ) );
+      }
+    }
+
   /** Force a Scheme to fetch any fields from a meta-data store */
   protected void retrieveSinkFields()
     {
@@ -45,6 +45,11 @@ public class FlowConnectorProps extends Props
   public static final String TEMPORARY_TAP_DECORATOR_CLASS = "cascading.flowconnector.temporary_tap.decorator.classname";
   public static final String CHECKPOINT_TAP_DECORATOR_CLASS = "cascading.flowconnector.checkpoint_tap.decorator.classname";
   public static final String ENABLE_DECORATE_ACCUMULATED_TAP = "cascading.flowconnector.accumulated_tap.decorator.enable";
+  public static final String HASH_JOIN_THRESHOLD = "cascading.flowconnector.join.hashjoin.threshold";
+  public static final String CO_GROUP_THRESHOLD = "cascading.flowconnector.join.cogroup.threshold";
+  public static final String ENABLE_PARTIAL_AGGREGATION = "cascading.flowconnector.aggregate.partial.enable";
+  public static final String ENABLE_PROJECTION_PUSHDOWN = "cascading.flowconnector.projection.pushdown.enable";
+  public static final String ENABLE_PARTITION_PRUNING = "cascading.flowconnector.partition.pruning.enable";
 
   AssertionLevel assertionLevel;
   DebugLevel debugLevel;
@@ -52,6 +57,11 @@ public class FlowConnectorProps extends Props
   String temporaryTapDecoratorClassName;
   String checkpointTapDecoratorClassName;
   Boolean enableDecorateAccumulatedTap;
+  Long hashJoinThreshold;
+  Long coGroupThreshold;
+  Boolean enablePartialAggregation;
+  Boolean enableProjectionPushdown;
+  Boolean enablePartitionPruning;
 
   /**
    * Method setAssertionLevel sets the target planner {@link cascading.operation.AssertionLevel}.
@@ -125,6 +135,75 @@ public class FlowConnectorProps extends Props
       properties.put( CHECKPOINT_TAP_DECORATOR_CLASS, checkpointTapDecoratorClassName );
     }
 
+  /**
+   * Method setHashJoinThreshold sets the number of bytes at or below which the sources of all but the left most side
+   * of a {@link cascading.pipe.CoGroup} must total for the planner to replace it with an equivalent
+   * {@link cascading.pipe.HashJoin}. Disabled by default.
+   *
+   * @param properties        of type Map<Object, Object>
+   * @param hashJoinThreshold of type Long
+   */
+  public static void setHashJoinThreshold( Map<Object, Object> properties, Long hashJoinThreshold )
+    {
+    if( hashJoinThreshold != null )
+      properties.put( HASH_JOIN_THRESHOLD, Long.toString( hashJoinThreshold ) );
+    }
+
+  /**
+   * Method setCoGroupThreshold sets the number of bytes above which the sources of the accumulated sides of a
+   * {@link cascading.pipe.HashJoin} must total for the planner to replace it with an equivalent
+   * {@link cascading.pipe.CoGroup}. Disabled by default.
+   *
+   * @param properties       of type Map<Object, Object>
+   * @param coGroupThreshold of type Long
+   */
+  public static void setCoGroupThreshold( Map<Object, Object> properties, Long coGroupThreshold )
+    {
+    if( coGroupThreshold != null )
+      properties.put( CO_GROUP_THRESHOLD, Long.toString( coGroupThreshold ) );
+    }
+
+  /**
+   * Method setEnablePartialAggregation, when set to {@code true}, allows the planner to add a map side partial
+   * aggregation before any {@link cascading.pipe.GroupBy} only followed by built-in algebraic aggregators.
+   * Disabled by default.
+   *
+   * @param properties               of type Map<Object, Object>
+   * @param enablePartialAggregation of type Boolean
+   */
+  public static void setEnablePartialAggregation( Map<Object, Object> properties, Boolean enablePartialAggregation )
+    {
+    if( enablePartialAggregation != null )
+      properties.put( ENABLE_PARTIAL_AGGREGATION, enablePartialAggregation.toString() );
+    }
+
+  /**
+   * Method setEnableProjectionPushdown, when set to {@code true}, allows the planner to present to each source
+   * {@link cascading.scheme.Scheme} the fields read by the Flow. Disabled by default.
+   *
+   * @param properties               of type Map<Object, Object>
+   * @param enableProjectionPushdown of type Boolean
+   */
+  public static void setEnableProjectionPushdown( Map<Object, Object> properties, Boolean enableProjectionPushdown )
+    {
+    if( enableProjectionPushdown != null )
+      properties.put( ENABLE_PROJECTION_PUSHDOWN, enableProjectionPushdown.toString() );
+    }
+
+  /**
+   * Method setEnablePartitionPruning, when set to {@code true}, allows the planner to push filters directly
+   * downstream of a {@link cascading.tap.partition.BasePartitionTap} source into its partition listing. Disabled by
+   * default.
+   *
+   * @param properties             of type Map<Object, Object>
+   * @param enablePartitionPruning of type Boolean
+   */
+  public static void setEnablePartitionPruning( Map<Object, Object> properties, Boolean enablePartitionPruning )
+    {
+    if( enablePartitionPruning != null )
+      properties.put( ENABLE_PARTITION_PRUNING, enablePartitionPruning.toString() );
+    }
+
   /**
    * Creates a new FlowConnectorProps instance.
    *
@@ -299,6 +378,122 @@ public class FlowConnectorProps extends Props
     return this;
     }
 
+  public Long getHashJoinThreshold()
+    {
+    return hashJoinThreshold;
+    }
+
+  /**
+   * Method setHashJoinThreshold sets the number of bytes at or below which the sources of all but the left most side
+   * of a {@link cascading.pipe.CoGroup} must total for the planner to replace it with an equivalent
+   * {@link cascading.pipe.HashJoin}.
+   * <p>
+   * Only CoGroup pipes using an {@link cascading.pipe.joiner.InnerJoin} or {@link cascading.pipe.joiner.LeftJoin},
+   * and not followed by an {@link cascading.pipe.Every}, are considered. The size of a side is the size of the
+   * source resources it reads from, any side reading from a resource of unknown size is never replaced.
+   *
+   * @param hashJoinThreshold the hashJoinThreshold of type long
+   * @return FlowConnectorProps
+   */
+  public FlowConnectorProps setHashJoinThreshold( long hashJoinThreshold )
+    {
+    this.hashJoinThreshold = hashJoinThreshold;
+
+    return this;
+    }
+
+  public Long getCoGroupThreshold()
+    {
+    return coGroupThreshold;
+    }
+
+  /**
+   * Method setCoGroupThreshold sets the number of bytes above which the sources of the accumulated sides of a
+   * {@link cascading.pipe.HashJoin} must total for the planner to replace it with an equivalent
+   * {@link cascading.pipe.CoGroup}, trading the memory required to accumulate the sides for a shuffle.
+   *
+   * @param coGroupThreshold the coGroupThreshold of type long
+   * @return FlowConnectorProps
+   */
+  public FlowConnectorProps setCoGroupThreshold( long coGroupThreshold )
+    {
+    this.coGroupThreshold = coGroupThreshold;
+
+    return this;
+    }
+
+  public Boolean getEnablePartialAggregation()
+    {
+    return enablePartialAggregation;
+    }
+
+  /**
+   * Method setEnablePartialAggregation, when set to {@code true}, allows the planner to rewrite a
+   * {@link cascading.pipe.GroupBy} followed only by {@link cascading.pipe.Every} pipes holding
+   * {@link cascading.operation.aggregator.Sum}, {@link cascading.operation.aggregator.Count}, or
+   * {@link cascading.operation.aggregator.Average} aggregators as if it were written with
+   * {@link cascading.pipe.assembly.SumBy}, {@link cascading.pipe.assembly.CountBy}, and
+   * {@link cascading.pipe.assembly.AverageBy}. It is disabled by default.
+   * <p>
+   * When enabled, partial results are computed and cached before the grouping, as configured by
+   * {@link cascading.pipe.assembly.AggregateByProps}, reducing the number of tuples shuffled.
+   *
+   * @param enablePartialAggregation the enablePartialAggregation of type boolean
+   * @return FlowConnectorProps
+   */
+  public FlowConnectorProps setEnablePartialAggregation( boolean enablePartialAggregation )
+    {
+    this.enablePartialAggregation = enablePartialAggregation;
+
+    return this;
+    }
+
+  public Boolean getEnableProjectionPushdown()
+    {
+    return enableProjectionPushdown;
+    }
+
+  /**
+   * Method setEnableProjectionPushdown, when set to {@code true}, allows the planner to present to each source
+   * {@link cascading.scheme.Scheme} the source fields read by any element in the Flow, as resolved by the planner.
+   * It is disabled by default.
+   * <p>
+   * Schemes may then skip parsing or coercing the values of fields nobody reads, see
+   * {@link cascading.scheme.Scheme#getSourceProjection()}.
+   *
+   * @param enableProjectionPushdown the enableProjectionPushdown of type boolean
+   * @return FlowConnectorProps
+   */
+  public FlowConnectorProps setEnableProjectionPushdown( boolean enableProjectionPushdown )
+    {
+    this.enableProjectionPushdown = enableProjectionPushdown;
+
+    return this;
+    }
+
+  public Boolean getEnablePartitionPruning()
+    {
+    return enablePartitionPruning;
+    }
+
+  /**
+   * Method setEnablePartitionPruning, when set to {@code true}, allows the planner to present the
+   * {@link cascading.operation.StatelessFilter} filters found directly downstream of a
+   * {@link cascading.tap.partition.BasePartitionTap} source, and only over its partition fields, to the tap so whole
+   * partitions are skipped when listed. It is disabled by default.
+   * <p>
+   * The filters remain in the assembly, so values from partitions that were not pruned are still filtered.
+   *
+   * @param enablePartitionPruning the enablePartitionPruning of type boolean
+   * @return FlowConnectorProps
+   */
+  public FlowConnectorProps setEnablePartitionPruning( boolean enablePartitionPruning )
+    {
+    this.enablePartitionPruning = enablePartitionPruning;
+
+    return this;
+    }
+
   @Override
   protected void addPropertiesTo( Properties properties )
     {
@@ -310,5 +505,11 @@ public class FlowConnectorProps extends Props
 
     if( enableDecorateAccumulatedTap != null )
       properties.setProperty( ENABLE_DECORATE_ACCUMULATED_TAP, enableDecorateAccumulatedTap.toString() );
+
+    setHashJoinThreshold( properties, hashJoinThreshold );
+    setCoGroupThreshold( properties, coGroupThreshold );
+    setEnablePartialAggregation( properties, enablePartialAggregation );
+    setEnableProjectionPushdown( properties, enableProjectionPushdown );
+    setEnablePartitionPruning( properties, enablePartitionPruning );
     }
   }
@@ -29,6 +29,7 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -47,6 +48,7 @@ import cascading.flow.planner.graph.ElementGraph;
 import cascading.flow.planner.graph.ElementGraphs;
 import cascading.flow.planner.process.FlowNodeGraph;
 import cascading.flow.stream.annotations.StreamMode;
+import cascading.flow.stream.element.ElementTimer;
 import cascading.management.CascadingServices;
 import cascading.management.state.ClientState;
 import cascading.operation.Operation;
@@ -383,6 +385,48 @@ public abstract class BaseFlowStep<Config> implements FlowStep<Config>, ProcessL
     return flowNodeGraph.vertexSet().size();
     }
 
+  /**
+   * Method writeTimingsDOT writes the node graph of this step to the given filename as a DOT file, labeling each
+   * pipe element with the sampled self time and tuple count, and the start and complete time, reported in the step
+   * stats, if any.
+   *
+   * @param filename of type String
+   * @see cascading.flow.stream.graph.NodeStreamGraph#ELEMENT_TIMING_SAMPLE_RATE
+   */
+  public void writeTimingsDOT( String filename )
+    {
+    Map<String, Long> selfTimes = flowStepStats.getElementSelfTimes();
+    Map<String, Long> sampledTuples = flowStepStats.getElementSampledTuples();
+    Map<String, Long> lifecycleTimes = flowStepStats.getElementLifecycleTimes();
+    Map<FlowElement, String> details = new IdentityHashMap<>();
+
+    for( FlowElement flowElement : elementGraph.vertexSet() )
+      {
+      String key = ElementTimer.getTimingKey( flowElement );
+
+      if( key == null )
+        continue;
+
+      long tuples = sampledTuples.containsKey( key ) ? sampledTuples.get( key ) : 0;
+      long selfTime = selfTimes.containsKey( key ) ? selfTimes.get( key ) : 0;
+      long lifecycleTime = lifecycleTimes.containsKey( key ) ? lifecycleTimes.get( key ) : 0;
+
+      if( tuples == 0 && selfTime == 0 && lifecycleTime == 0 )
+        continue;
+
+      String detail = String.format( "self: %.3f ms|sampled: %d", selfTime / 1000000D, tuples );
+
+      if( tuples != 0 )
+        detail += String.format( "|avg: %d ns", selfTime / tuples );
+
+      detail += String.format( "|start/complete: %.3f ms", lifecycleTime / 1000000D );
+
+      details.put( flowElement, detail );
+      }
+
+    ElementGraphs.printProcessGraph( filename, elementGraph, flowNodeGraph, details );
+    }
+
   public Set<FlowElement> getSourceElements()
     {
     return ElementGraphs.findSources( getElementGraph(), FlowElement.class );
@@ -21,6 +21,7 @@
 
 package cascading.flow.planner;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -64,6 +65,7 @@ import cascading.property.PropertyUtil;
 import cascading.scheme.Scheme;
 import cascading.tap.Tap;
 import cascading.tap.TapException;
+import cascading.tap.type.FileType;
 import cascading.tuple.Fields;
 import cascading.util.Update;
 import cascading.util.Util;
@@ -104,6 +106,8 @@ public abstract class FlowPlanner<F extends BaseFlow, Config>
   /** Field LOG */
   private static final Logger LOG = LoggerFactory.getLogger( FlowPlanner.class );
 
+  /** Field flowConnector */
+  protected FlowConnector flowConnector;
   /** Field properties */
   protected Map<Object, Object> defaultProperties;
 
@@ -157,6 +161,7 @@ public abstract class FlowPlanner<F extends BaseFlow, Config>
 
   public void initialize( FlowConnector flowConnector, Map<Object, Object> properties )
     {
+    this.flowConnector = flowConnector;
     this.defaultProperties = properties;
     this.defaultAssertionLevel = getAssertionLevel( properties );
     this.defaultDebugLevel = getDebugLevel( properties );
@@ -202,6 +207,7 @@ public abstract class FlowPlanner<F extends BaseFlow, Config>
       traceWriter.writeTracePlanSteps( "4-final-flow-steps", flowStepGraph );
 
       flow.setPlannerInfo( getPlannerInfo( ruleResult.getRegistry().getName() ) );
+      flow.setFlowConnector( flowConnector );
 
       flow.initialize( finalFlowElementGraph, flowStepGraph );
 
@@ -851,6 +857,52 @@ public abstract class FlowPlanner<F extends BaseFlow, Config>
 
   protected abstract Tap makeTempTap( String prefix, String name );
 
+  /**
+   * Method makeTempTapLike returns a new temporary Tap equivalent to the given Tap previously created by this
+   * planner, or null if the given Tap cannot be re-created.
+   * <p/>
+   * Used when binding a cached plan to a new assembly, see {@link cascading.flow.planner.rule.PlanCache}.
+   *
+   * @param tap of type Tap
+   * @return Tap
+   */
+  public Tap makeTempTapLike( Tap tap )
+    {
+    return null;
+    }
+
+  /**
+   * Method getResourceSize returns the size in bytes of the resource the given source Tap reads from, or -1 if
+   * the size cannot be determined.
+   * <p/>
+   * Used by the planner to estimate the size of the streams feeding a {@link cascading.pipe.Splice}, see
+   * {@link cascading.flow.planner.rule.transformer.SelectJoinBySizeTransformer}.
+   *
+   * @param tap of type Tap
+   * @return long
+   */
+  public long getResourceSize( Tap tap )
+    {
+    if( !( tap instanceof FileType ) )
+      return -1;
+
+    Config config = getDefaultConfig();
+
+    try
+      {
+      if( !tap.resourceExists( config ) || ( (FileType<Config>) tap ).isDirectory( config ) )
+        return -1;
+
+      return ( (FileType<Config>) tap ).getSize( config );
+      }
+    catch( IOException exception )
+      {
+      LOG.warn( "unable to determine size of resource: {}", tap.getIdentifier(), exception );
+
+      return -1;
+      }
+    }
+
   private Set<ProcessLevel> getReverseOrderedProcessLevels( RuleResult ruleResult )
     {
     Set<ProcessLevel> ordered = new TreeSet<>( Collections.reverseOrder() );
@@ -54,11 +54,18 @@ import cascading.flow.planner.iso.subgraph.iterator.ExpressionSubGraphIterator;
 import cascading.flow.planner.process.FlowStepGraph;
 import cascading.flow.planner.process.ProcessGraph;
 import cascading.flow.planner.process.ProcessModel;
+import cascading.operation.Assertion;
+import cascading.operation.Filter;
+import cascading.operation.NoOp;
+import cascading.operation.Operation;
+import cascading.pipe.Boundary;
+import cascading.pipe.Each;
 import cascading.pipe.Group;
 import cascading.pipe.Operator;
 import cascading.pipe.Pipe;
 import cascading.pipe.Splice;
 import cascading.tap.Tap;
+import cascading.tuple.Fields;
 import cascading.util.DOTProcessGraphWriter;
 import cascading.util.EnumMultiMap;
 import cascading.util.Murmur3;
@@ -617,6 +624,21 @@ public class ElementGraphs
     }
 
   public static boolean printProcessGraph( String filename, final ElementGraph graph, final ProcessGraph<? extends ProcessModel> processGraph )
+    {
+    return printProcessGraph( filename, graph, processGraph, null );
+    }
+
+  /**
+   * Method printProcessGraph writes the given process graph, nesting the given element graph, to a DOT file,
+   * appending any given details to the label of each element, for example the element timings.
+   *
+   * @param filename       of type String
+   * @param graph          of type ElementGraph
+   * @param processGraph   of type ProcessGraph
+   * @param elementDetails of type Map<FlowElement, String>, may be null
+   * @return boolean
+   */
+  public static boolean printProcessGraph( String filename, final ElementGraph graph, final ProcessGraph<? extends ProcessModel> processGraph, Map<FlowElement, String> elementDetails )
     {
     try
       {
@@ -629,7 +651,7 @@ public class ElementGraphs
 
       DOTProcessGraphWriter graphWriter = new DOTProcessGraphWriter(
         new IntegerNameProvider<Pair<ElementGraph, FlowElement>>(),
-        new FlowElementVertexNameProvider( graph, null ),
+        new FlowElementVertexNameProvider( graph, null, elementDetails ),
         new ScopeEdgeNameProvider(),
         new VertexAttributeProvider(), new EdgeAttributeProvider(),
         new ProcessGraphNameProvider(), new ProcessGraphLabelProvider()
@@ -790,6 +812,200 @@ public class ElementGraphs
     return findSinks( elementGraph, Tap.class );
     }
 
+  /**
+   * Method findLeadingFilters returns, in stream order, the {@link Each} filters every value read from the given
+   * source must pass before reaching any other element.
+   * <p/>
+   * Only an unbranched chain of plain {@link Pipe} and filtering Each pipes is followed. A filter named in
+   * {@code trappedNames}, and any filter after it, is not returned.
+   *
+   * @param elementGraph of type ElementGraph
+   * @param source       of type FlowElement
+   * @param trappedNames of type Set<String>
+   * @return List<Each>
+   */
+  public static List<Each> findLeadingFilters( ElementGraph elementGraph, FlowElement source, Set<String> trappedNames )
+    {
+    List<Each> filters = new ArrayList<>();
+    FlowElement current = source;
+
+    while( elementGraph.outDegreeOf( current ) == 1 )
+      {
+      current = elementGraph.getEdgeTarget( getFirst( elementGraph.outgoingEdgesOf( current ) ) );
+
+      if( current.getClass() == Pipe.class )
+        continue;
+
+      if( !( current instanceof Each ) || !( (Each) current ).isFilter() || trappedNames.contains( ( (Each) current ).getName() ) )
+        break;
+
+      filters.add( (Each) current );
+      }
+
+    return filters;
+    }
+
+  /**
+   * Method findLiveSourceFields returns the fields of the given source Tap read by any element downstream of it,
+   * or {@link Fields#ALL} if every field may be read.
+   * <p/>
+   * The given graph must have resolved Scopes. The result is conservative, any element whose reads cannot be
+   * determined from its outgoing Scope, and any pipe named in {@code trappedNames}, is assumed to read every
+   * field it receives.
+   *
+   * @param elementGraph of type ElementGraph
+   * @param source       of type Tap
+   * @param trappedNames of type Set<String>
+   * @return Fields
+   */
+  public static Fields findLiveSourceFields( ElementGraph elementGraph, Tap source, Set<String> trappedNames )
+    {
+    Map<FlowElement, Set<String>> required = new IdentityHashMap<>(); // a null value reads every incoming field
+    Iterator<FlowElement> iterator = getReverseTopologicalIterator( elementGraph );
+
+    while( iterator.hasNext() )
+      {
+      FlowElement flowElement = iterator.next();
+
+      // every element downstream of the source was visited
+      if( flowElement == source )
+        break;
+
+      required.put( flowElement, findRequiredFields( elementGraph, flowElement, findRequiredOutgoing( elementGraph, required, flowElement ), trappedNames ) );
+      }
+
+    Set<String> live = findRequiredOutgoing( elementGraph, required, source );
+    Fields sourceFields = elementGraph.outgoingEdgesOf( source ).iterator().next().getOutValuesFields();
+
+    if( live == null || !addNames( new HashSet<String>(), sourceFields ) )
+      return Fields.ALL;
+
+    List<Comparable> names = new ArrayList<>();
+
+    for( Comparable field : sourceFields )
+      {
+      if( live.contains( field ) )
+        names.add( field );
+      }
+
+    if( names.size() == sourceFields.size() )
+      return Fields.ALL;
+
+    if( names.isEmpty() )
+      return Fields.NONE;
+
+    return sourceFields.select( new Fields( names.toArray( new Comparable[ names.size() ] ) ) );
+    }
+
+  private static Set<String> findRequiredOutgoing( ElementGraph elementGraph, Map<FlowElement, Set<String>> required, FlowElement flowElement )
+    {
+    Set<String> outgoing = new HashSet<>();
+
+    for( FlowElement successor : elementGraph.successorListOf( flowElement ) )
+      {
+      if( successor instanceof Extent )
+        continue;
+
+      Set<String> fields = required.get( successor );
+
+      if( fields == null )
+        return null;
+
+      outgoing.addAll( fields );
+      }
+
+    return outgoing;
+    }
+
+  private static Set<String> findRequiredFields( ElementGraph elementGraph, FlowElement flowElement, Set<String> outgoing, Set<String> trappedNames )
+    {
+    if( flowElement instanceof Extent )
+      return Collections.emptySet();
+
+    // taps write every field they receive
+    if( !( flowElement instanceof Pipe ) || trappedNames.contains( ( (Pipe) flowElement ).getName() ) )
+      return null;
+
+    if( flowElement.getClass() == Pipe.class || flowElement instanceof Boundary )
+      return outgoing;
+
+    Set<Scope> scopes = elementGraph.outgoingEdgesOf( flowElement );
+
+    if( scopes.isEmpty() )
+      return null;
+
+    Scope scope = scopes.iterator().next();
+
+    if( flowElement instanceof Operator )
+      {
+      Operator operator = (Operator) flowElement;
+      Operation operation = operator.getOperation();
+
+      // filters and assertions declare RESULTS but pass every incoming field through
+      boolean isResults = operator.getOutputSelector().isResults() && !( operation instanceof Filter ) && !( operation instanceof Assertion );
+
+      if( operation instanceof NoOp )
+        return isResults ? Collections.<String>emptySet() : outgoing;
+
+      if( !isResults && outgoing == null )
+        return null;
+
+      Set<String> fields = isResults ? new HashSet<String>() : new HashSet<>( outgoing );
+
+      return addNames( fields, scope.getArgumentsSelector() ) ? fields : null;
+      }
+
+    if( flowElement instanceof Splice )
+      {
+      // declared fields rename the incoming fields
+      if( outgoing == null || ( (Splice) flowElement ).getDeclaredFields() != null )
+        return null;
+
+      Set<String> fields = new HashSet<>( outgoing );
+
+      for( Fields selector : scope.getKeySelectors().values() )
+        {
+        if( !addNames( fields, selector ) )
+          return null;
+        }
+
+      if( scope.getSortingSelectors() != null )
+        {
+        for( Fields selector : scope.getSortingSelectors().values() )
+          {
+          if( !addNames( fields, selector ) )
+            return null;
+          }
+        }
+
+      return fields;
+      }
+
+    return null;
+    }
+
+  private static boolean addNames( Set<String> names, Fields fields )
+    {
+    if( fields == null )
+      return false;
+
+    if( fields.isNone() )
+      return true;
+
+    if( !fields.isDefined() )
+      return false;
+
+    for( Comparable field : fields )
+      {
+      if( !( field instanceof String ) )
+        return false;
+
+      names.add( (String) field );
+      }
+
+    return true;
+    }
+
   public static Set<Group> findAllGroups( ElementGraph elementGraph )
     {
     SubGraphIterator iterator = new ExpressionSubGraphIterator(
@@ -974,11 +1190,18 @@ public class ElementGraphs
     {
     private final ElementGraph elementGraph;
     private final PlatformInfo platformInfo;
+    private final Map<FlowElement, String> elementDetails;
 
     public FlowElementVertexNameProvider( ElementGraph elementGraph, PlatformInfo platformInfo )
+      {
+      this( elementGraph, platformInfo, null );
+      }
+
+    public FlowElementVertexNameProvider( ElementGraph elementGraph, PlatformInfo platformInfo, Map<FlowElement, String> elementDetails )
       {
       this.elementGraph = elementGraph;
       this.platformInfo = platformInfo;
+      this.elementDetails = elementDetails;
       }
 
     public String getVertexName( FlowElement object )
@@ -1019,6 +1242,9 @@ public class ElementGraphs
 
       label = "{" + label.replaceAll( "\\{", "\\\\{" ).replaceAll( "\\}", "\\\\}" ).replaceAll( "<", "\\\\<" ).replaceAll( ">", "\\\\>" ) + "}";
 
+      if( elementDetails != null && elementDetails.containsKey( object ) )
+        label += "|{" + elementDetails.get( object ) + "}";
+
       if( !( elementGraph instanceof AnnotatedGraph ) || !( (AnnotatedGraph) elementGraph ).hasAnnotations() )
         return label;
 
@@ -0,0 +1,531 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.flow.planner.rule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import cascading.flow.Flow;
+import cascading.flow.FlowConnectorProps;
+import cascading.flow.FlowDef;
+import cascading.flow.FlowElement;
+import cascading.flow.planner.FlowPlanner;
+import cascading.flow.planner.Scope;
+import cascading.flow.planner.ScopedElement;
+import cascading.flow.planner.graph.AnnotatedGraph;
+import cascading.flow.planner.graph.ElementGraph;
+import cascading.flow.planner.graph.ElementGraphs;
+import cascading.flow.planner.graph.ElementMultiGraph;
+import cascading.flow.planner.graph.FlowElementGraph;
+import cascading.pipe.Operator;
+import cascading.pipe.Pipe;
+import cascading.pipe.Splice;
+import cascading.property.ConfigDef;
+import cascading.property.PropertyUtil;
+import cascading.tap.Tap;
+import cascading.util.EnumMultiMap;
+import cascading.util.Util;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class PlanCache retains the results of prior planner executions so that an assembly structurally identical to
+ * one already planned, differing only by its source, sink, and trap {@link Tap} instances, need not be re-planned.
+ * <p/>
+ * An assembly is identified by a signature of its elements and their edges in topological order, along with the
+ * planner type, its rule registries, and its properties. A cached plan is re-bound to the new assembly by
+ * substituting its elements pair-wise, copying every {@link Scope}, and re-creating any temporary taps inserted by
+ * the planner via {@link FlowPlanner#makeTempTapLike(Tap)}. If a planner created Tap cannot be re-created, the
+ * assembly is planned as usual.
+ * <p/>
+ * The {@link ConfigDef} properties of each element, and of the sub-assemblies it belongs to, are part of the
+ * signature, as they may change how the element is planned.
+ * <p/>
+ * The cache is held in memory and shared by all planners in the current JVM only, plans are not persisted, so a new
+ * JVM always plans each assembly once. It is disabled by default, set {@link #PLAN_CACHE_SIZE} to the number of plans
+ * to retain to enable it.
+ */
+public class PlanCache
+  {
+  /** Property denoting the number of plans to retain, the least recently used plan is evicted first. */
+  public static final String PLAN_CACHE_SIZE = "cascading.planner.plan.cache.size";
+
+  private static final Logger LOG = LoggerFactory.getLogger( PlanCache.class );
+
+  private static final Map<String, CachedPlan> cache = new LinkedHashMap<>( 16, 0.75f, true );
+
+  private static long hitCount = 0;
+
+  private static class CachedPlan
+    {
+    final List<FlowElement> elements;
+    final RuleResult ruleResult;
+
+    CachedPlan( List<FlowElement> elements, RuleResult ruleResult )
+      {
+      this.elements = elements;
+      this.ruleResult = ruleResult;
+      }
+    }
+
+  public static int getPlanCacheSize( FlowPlanner flowPlanner )
+    {
+    return PropertyUtil.getIntProperty( flowPlanner.getDefaultProperties(), PLAN_CACHE_SIZE, 0 );
+    }
+
+  /**
+   * Method createKey returns the key identifying the plan of the given assembly, or null if the assembly cannot
+   * be cached.
+   */
+  public static String createKey( FlowPlanner flowPlanner, RuleRegistrySet registrySet, FlowDef flowDef, FlowElementGraph flowElementGraph )
+    {
+    // checkpoint taps are inserted by the planner and cannot be re-created
+    if( !flowDef.getCheckpoints().isEmpty() )
+      return null;
+
+    StringBuilder builder = new StringBuilder();
+
+    builder.append( flowPlanner.getClass().getName() );
+    builder.append( "|select:" ).append( registrySet.getSelect() );
+
+    for( RuleRegistry ruleRegistry : registrySet.ruleRegistries )
+      builder.append( "|registry:" ).append( ruleRegistry.getClass().getName() ).append( ":" ).append( ruleRegistry.getName() );
+
+    builder.append( "|assertion:" ).append( flowDef.getAssertionLevel() );
+    builder.append( "|debug:" ).append( flowDef.getDebugLevel() );
+
+    Map<Object, Object> defaultProperties = flowPlanner.getDefaultProperties();
+
+    // joins selected by the size of the sources depend on more than the assembly
+    if( !Util.isEmpty( PropertyUtil.getStringProperty( System.getProperties(), defaultProperties, FlowConnectorProps.HASH_JOIN_THRESHOLD ) ) )
+      return null;
+
+    if( !Util.isEmpty( PropertyUtil.getStringProperty( System.getProperties(), defaultProperties, FlowConnectorProps.CO_GROUP_THRESHOLD ) ) )
+      return null;
+
+    Map<String, String> properties = new TreeMap<>();
+
+    for( Map.Entry<Object, Object> entry : defaultProperties.entrySet() )
+      properties.put( String.valueOf( entry.getKey() ), String.valueOf( entry.getValue() ) );
+
+    // unique to every flow, but does not influence the plan
+    properties.remove( Flow.CASCADING_FLOW_ID );
+
+    builder.append( "|properties:" ).append( properties );
+
+    for( Map.Entry<String, Tap> entry : new TreeMap<>( flowElementGraph.getTrapMap() ).entrySet() )
+      builder.append( "|trap:" ).append( entry.getKey() ).append( ":" ).append( entry.getValue().getClass().getName() );
+
+    List<FlowElement> elements = getOrderedElements( flowElementGraph );
+    Map<FlowElement, Integer> indexes = new IdentityHashMap<>();
+    Map<String, Integer> identifiers = new HashMap<>();
+
+    for( FlowElement flowElement : elements )
+      {
+      int index = indexes.size();
+
+      indexes.put( flowElement, index );
+
+      builder.append( "|" ).append( index ).append( ":" );
+
+      appendSignature( builder, flowElement );
+
+      // taps sharing a resource are planned differently than independent ones
+      if( flowElement instanceof Tap )
+        {
+        String identifier = ( (Tap) flowElement ).getIdentifier();
+
+        if( !identifiers.containsKey( identifier ) )
+          identifiers.put( identifier, index );
+
+        builder.append( ":resource:" ).append( identifiers.get( identifier ) );
+        }
+      }
+
+    List<String> edges = new ArrayList<>();
+
+    for( Scope scope : flowElementGraph.edgeSet() )
+      {
+      int source = indexes.get( flowElementGraph.getEdgeSource( scope ) );
+      int target = indexes.get( flowElementGraph.getEdgeTarget( scope ) );
+
+      edges.add( source + ">" + target + ":" + scope.getOrdinal() );
+      }
+
+    Collections.sort( edges );
+
+    builder.append( "|edges:" ).append( edges );
+
+    return builder.toString();
+    }
+
+  private static List<FlowElement> getOrderedElements( FlowElementGraph flowElementGraph )
+    {
+    List<FlowElement> elements = new ArrayList<>();
+    Iterator<FlowElement> iterator = ElementGraphs.getTopologicalIterator( flowElementGraph );
+
+    while( iterator.hasNext() )
+      elements.add( iterator.next() );
+
+    return elements;
+    }
+
+  private static void appendSignature( StringBuilder builder, FlowElement flowElement )
+    {
+    builder.append( flowElement.getClass().getName() );
+
+    if( flowElement instanceof Tap )
+      {
+      Tap tap = (Tap) flowElement;
+
+      builder.append( ":" ).append( tap.getScheme() == null ? null : tap.getScheme().getClass().getName() );
+      builder.append( ":" ).append( tap.getSourceFields() );
+      builder.append( ":" ).append( tap.getSinkFields() );
+      builder.append( ":" ).append( tap.getSinkMode() );
+      }
+
+    if( flowElement instanceof Pipe )
+      builder.append( ":" ).append( ( (Pipe) flowElement ).getName() );
+
+    if( flowElement instanceof Operator )
+      {
+      Operator operator = (Operator) flowElement;
+
+      builder.append( ":" ).append( operator.getOperation().getClass().getName() );
+      builder.append( ":" ).append( operator.getOperation().getNumArgs() );
+      builder.append( ":" ).append( operator.getArgumentSelector() );
+      builder.append( ":" ).append( operator.getFieldDeclaration() );
+      builder.append( ":" ).append( operator.getOutputSelector() );
+      }
+
+    if( flowElement instanceof Splice )
+      {
+      Splice splice = (Splice) flowElement;
+
+      builder.append( ":" ).append( splice.getKeySelectors() );
+      builder.append( ":" ).append( splice.getSortingSelectors() );
+      builder.append( ":" ).append( splice.isSortReversed() );
+      builder.append( ":" ).append( splice.getNumSelfJoins() );
+      builder.append( ":" ).append( splice.getJoiner() == null ? null : splice.getJoiner().getClass().getName() );
+      }
+
+    // walk up the sub-assembly parent hierarchy, as their properties are applied to the element as well
+    while( flowElement instanceof ScopedElement )
+      {
+      ScopedElement scopedElement = (ScopedElement) flowElement;
+
+      if( scopedElement.hasConfigDef() )
+        appendConfigDef( builder, "config", scopedElement.getConfigDef() );
+
+      if( scopedElement.hasStepConfigDef() )
+        appendConfigDef( builder, "step", scopedElement.getStepConfigDef() );
+
+      if( scopedElement.hasNodeConfigDef() )
+        appendConfigDef( builder, "node", scopedElement.getNodeConfigDef() );
+
+      flowElement = flowElement instanceof Pipe ? ( (Pipe) flowElement ).getParent() : null;
+      }
+    }
+
+  private static void appendConfigDef( StringBuilder builder, String name, ConfigDef configDef )
+    {
+    final Map<String, String> values = new TreeMap<>();
+
+    for( final ConfigDef.Mode mode : ConfigDef.Mode.values() )
+      {
+      configDef.apply( mode, new ConfigDef.Setter()
+      {
+      @Override
+      public String set( String key, String value )
+        {
+        return values.put( mode + ":" + key, value );
+        }
+
+      @Override
+      public String update( String key, String value )
+        {
+        return values.put( mode + ":" + key, value );
+        }
+
+      @Override
+      public String get( String key )
+        {
+        return null; // so default values are always set
+        }
+      } );
+      }
+
+    builder.append( ":" ).append( name ).append( values );
+    }
+
+  /**
+   * Method get returns the cached plan for the given key re-bound to the given assembly, or null if no plan
+   * was cached or the cached plan could not be re-bound.
+   */
+  public static RuleResult get( String key, FlowPlanner flowPlanner, FlowElementGraph flowElementGraph )
+    {
+    CachedPlan cachedPlan;
+
+    synchronized( cache )
+      {
+      cachedPlan = cache.get( key );
+      }
+
+    if( cachedPlan == null )
+      return null;
+
+    List<FlowElement> elements = getOrderedElements( flowElementGraph );
+
+    if( elements.size() != cachedPlan.elements.size() )
+      return null;
+
+    Map<FlowElement, FlowElement> mapping = new IdentityHashMap<>();
+
+    for( int i = 0; i < elements.size(); i++ )
+      mapping.put( cachedPlan.elements.get( i ), elements.get( i ) );
+
+    RuleResult ruleResult = rebind( cachedPlan.ruleResult, flowElementGraph, mapping, flowPlanner );
+
+    if( ruleResult == null )
+      {
+      LOG.info( "unable to re-bind cached plan, planner created taps could not be re-created" );
+      return null;
+      }
+
+    synchronized( cache )
+      {
+      hitCount++;
+      }
+
+    return ruleResult;
+    }
+
+  /**
+   * Method put retains a private copy of the given successful planner result under the given key.
+   */
+  public static void put( String key, int size, FlowElementGraph flowElementGraph, RuleResult ruleResult )
+    {
+    List<FlowElement> elements = getOrderedElements( flowElementGraph );
+    Map<FlowElement, FlowElement> mapping = new IdentityHashMap<>();
+
+    for( FlowElement element : elements )
+      mapping.put( element, element );
+
+    // copies all scopes so later changes to the given result are not observed
+    RuleResult copy = rebind( ruleResult, flowElementGraph, mapping, null );
+
+    synchronized( cache )
+      {
+      cache.put( key, new CachedPlan( elements, copy ) );
+
+      Iterator<String> iterator = cache.keySet().iterator();
+
+      while( cache.size() > size && iterator.hasNext() )
+        {
+        iterator.next();
+        iterator.remove();
+        }
+      }
+    }
+
+  /** Method size returns the number of cached plans. */
+  public static int size()
+    {
+    synchronized( cache )
+      {
+      return cache.size();
+      }
+    }
+
+  /** Method getHitCount returns the number of times a cached plan was re-bound to a new assembly. */
+  public static long getHitCount()
+    {
+    synchronized( cache )
+      {
+      return hitCount;
+      }
+    }
+
+  /** Method clear removes all cached plans and resets the hit count. */
+  public static void clear()
+    {
+    synchronized( cache )
+      {
+      cache.clear();
+      hitCount = 0;
+      }
+    }
+
+  private static RuleResult rebind( RuleResult ruleResult, FlowElementGraph initialAssembly, Map<FlowElement, FlowElement> mapping, FlowPlanner flowPlanner )
+    {
+    Rebinder rebinder = new Rebinder( mapping );
+    FlowElementGraph assemblyGraph = ruleResult.getAssemblyGraph();
+    ProcessLevel[] levels = {ProcessLevel.Step, ProcessLevel.Node, ProcessLevel.Pipeline};
+
+    List<Tap> created = new ArrayList<>();
+
+    // planner created taps, if any, are the only elements not provided by the new assembly
+    for( FlowElement flowElement : assemblyGraph.vertexSet() )
+      {
+      if( !( flowElement instanceof Tap ) || mapping.containsKey( flowElement ) )
+        continue;
+
+      if( flowPlanner == null )
+        {
+        mapping.put( flowElement, flowElement );
+        continue;
+        }
+
+      Tap tap = flowPlanner.makeTempTapLike( (Tap) flowElement );
+
+      if( tap == null )
+        return null;
+
+      mapping.put( flowElement, tap );
+      created.add( tap );
+      }
+
+    FlowElementGraph reboundAssembly = rebinder.assembly( assemblyGraph, initialAssembly );
+
+    for( Tap tap : created )
+      tap.outgoingScopeFor( reboundAssembly.incomingEdgesOf( tap ) );
+
+    RuleResult result = new RuleResult( ruleResult.getRegistry(), initialAssembly );
+
+    result.setLevelResults( ProcessLevel.Assembly, initialAssembly, reboundAssembly );
+
+    for( ProcessLevel level : levels )
+      {
+      for( Map.Entry<ElementGraph, List<? extends ElementGraph>> entry : ruleResult.getLevelResults( level ).entrySet() )
+        {
+        List<ElementGraph> children = new ArrayList<>();
+
+        for( ElementGraph child : entry.getValue() )
+          children.add( rebinder.graph( child ) );
+
+        result.setLevelResults( level, rebinder.graph( entry.getKey() ), children );
+        }
+      }
+
+    return result;
+    }
+
+  /** Class Rebinder copies graphs substituting elements, retaining shared graph and scope instances. */
+  private static class Rebinder
+    {
+    final Map<FlowElement, FlowElement> elements;
+    final Map<Scope, Scope> scopes = new IdentityHashMap<>();
+    final Map<ElementGraph, ElementGraph> graphs = new IdentityHashMap<>();
+
+    Rebinder( Map<FlowElement, FlowElement> elements )
+      {
+      this.elements = elements;
+      }
+
+    FlowElementGraph assembly( FlowElementGraph assemblyGraph, FlowElementGraph initialAssembly )
+      {
+      // retains the source, sink, trap, and checkpoint maps of the new assembly
+      FlowElementGraph result = new FlowElementGraph( initialAssembly );
+
+      result.removeAllVertices( result.vertexSetCopy() );
+
+      for( Enum annotation : new ArrayList<>( result.getAnnotations().getKeys() ) )
+        result.getAnnotations().remove( annotation );
+
+      copyInto( assemblyGraph, result );
+
+      result.setResolved( assemblyGraph.isResolved() );
+
+      graphs.put( assemblyGraph, result );
+
+      return result;
+      }
+
+    ElementGraph graph( ElementGraph elementGraph )
+      {
+      ElementGraph result = graphs.get( elementGraph );
+
+      if( result != null )
+        return result;
+
+      result = new ElementMultiGraph();
+
+      copyInto( elementGraph, result );
+
+      graphs.put( elementGraph, result );
+
+      return result;
+      }
+
+    void copyInto( ElementGraph from, ElementGraph into )
+      {
+      for( FlowElement flowElement : from.vertexSet() )
+        into.addVertex( element( flowElement ) );
+
+      for( Scope scope : from.edgeSet() )
+        into.addEdge( element( from.getEdgeSource( scope ) ), element( from.getEdgeTarget( scope ) ), scope( scope ) );
+
+      if( !( from instanceof AnnotatedGraph ) || !( (AnnotatedGraph) from ).hasAnnotations() )
+        return;
+
+      EnumMultiMap<FlowElement> annotations = ( (AnnotatedGraph) from ).getAnnotations();
+
+      for( Enum annotation : annotations.getKeys() )
+        {
+        for( FlowElement flowElement : annotations.getValues( annotation ) )
+          ( (AnnotatedGraph) into ).getAnnotations().put( annotation, element( flowElement ) );
+        }
+      }
+
+    FlowElement element( FlowElement flowElement )
+      {
+      FlowElement result = elements.get( flowElement );
+
+      // extents and planner inserted pipes are shared
+      return result == null ? flowElement : result;
+      }
+
+    Scope scope( Scope scope )
+      {
+      Scope result = scopes.get( scope );
+
+      if( result != null )
+        return result;
+
+      result = new Scope( scope );
+
+      result.setOrdinal( scope.getOrdinal() );
+      result.setNonBlocking( scope.isNonBlocking() );
+
+      scopes.put( scope, result );
+
+      return result;
+      }
+    }
+  }
@@ -123,6 +123,21 @@ public class RuleSetExec
 
   public RuleResult exec()
     {
+    int planCacheSize = PlanCache.getPlanCacheSize( flowPlanner );
+    String planKey = planCacheSize > 0 ? PlanCache.createKey( flowPlanner, registrySet, flowDef, flowElementGraph ) : null;
+
+    if( planKey != null )
+      {
+      RuleResult cachedResult = PlanCache.get( planKey, flowPlanner, flowElementGraph );
+
+      if( cachedResult != null )
+        {
+        getFlowLogger().logInfo( "using cached plan from rule registry: {}", cachedResult.getRegistry().getName() );
+
+        return cachedResult;
+        }
+      }
+
     running = synchronizedSet( new HashSet<Callable>() );
     success = synchronizedList( new ArrayList<RuleResult>() );
     unsupported = synchronizedList( new ArrayList<RuleResult>() );
@@ -137,7 +152,12 @@ public class RuleSetExec
     notifyIllegal();
     notifyInterrupted();
 
-    return selectSuccess();
+    RuleResult ruleResult = selectSuccess();
+
+    if( planKey != null )
+      PlanCache.put( planKey, planCacheSize, flowElementGraph, ruleResult );
+
+    return ruleResult;
     }
 
   protected RuleResult execPlannerFor( RuleRegistry ruleRegistry )
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.flow.planner.rule.transformer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import cascading.flow.FlowElement;
+import cascading.flow.planner.PlannerContext;
+import cascading.flow.planner.Scope;
+import cascading.flow.planner.graph.ElementGraph;
+import cascading.flow.planner.graph.ElementGraphs;
+import cascading.flow.planner.iso.transformer.GraphTransformer;
+import cascading.flow.planner.iso.transformer.Transformed;
+import cascading.flow.planner.rule.PlanPhase;
+import cascading.flow.planner.rule.Rule;
+import cascading.operation.Aggregator;
+import cascading.operation.Operation;
+import cascading.operation.aggregator.Average;
+import cascading.operation.aggregator.Count;
+import cascading.operation.aggregator.Sum;
+import cascading.pipe.Each;
+import cascading.pipe.Every;
+import cascading.pipe.GroupBy;
+import cascading.pipe.assembly.AggregateBy;
+import cascading.pipe.assembly.AverageBy;
+import cascading.pipe.assembly.CountBy;
+import cascading.pipe.assembly.SumBy;
+import cascading.tuple.Fields;
+
+import static cascading.flow.FlowConnectorProps.ENABLE_PARTIAL_AGGREGATION;
+import static cascading.flow.planner.rule.PlanPhase.PreBalanceAssembly;
+
+/**
+ * Class PartialAggregateTransformer rewrites a {@link GroupBy} followed only by {@link Every} pipes holding
+ * {@link Sum}, {@link Count}, or {@link Average} aggregators into the equivalent of a {@link SumBy}, {@link CountBy},
+ * and {@link AverageBy} assembly, when enabled by {@link cascading.flow.FlowConnectorProps#ENABLE_PARTIAL_AGGREGATION}.
+ * <p/>
+ * An {@link Each} holding an {@link AggregateBy.CompositeFunction} is inserted on every incoming branch of the GroupBy
+ * so partial results are computed before the grouping, and each Every is replaced by one aggregating the partial
+ * results into the originally declared fields.
+ * <p/>
+ * Only aggregators of exactly these types are rewritten, sub-classes may not be algebraic. A GroupBy that sorts its
+ * values, groups on unnamed fields, has pipe level properties, or is followed by any other Every or Each pipe is
+ * left as declared.
+ * <p/>
+ * This rule must run before the assembly is balanced so that the partial aggregation is planned on the map side of
+ * the grouping.
+ */
+public class PartialAggregateTransformer extends GraphTransformer<ElementGraph, ElementGraph> implements Rule
+  {
+  @Override
+  public PlanPhase getRulePhase()
+    {
+    return PreBalanceAssembly;
+    }
+
+  @Override
+  public String getRuleName()
+    {
+    return getClass().getSimpleName();
+    }
+
+  @Override
+  public Transformed<ElementGraph> transform( PlannerContext plannerContext, ElementGraph rootGraph )
+    {
+    Transformed<ElementGraph> result = new Transformed<>( plannerContext, this, rootGraph );
+
+    if( !Boolean.parseBoolean( plannerContext.getStringProperty( ENABLE_PARTIAL_AGGREGATION ) ) )
+      return result;
+
+    ElementGraph graphCopy = rootGraph.copyElementGraph();
+    boolean replaced = false;
+
+    for( FlowElement flowElement : graphCopy.vertexSetCopy() )
+      {
+      if( !( flowElement instanceof GroupBy ) )
+        continue;
+
+      GroupBy groupBy = (GroupBy) flowElement;
+      Fields groupingFields = getGroupingFields( graphCopy, groupBy );
+
+      if( groupingFields == null )
+        continue;
+
+      List<Every> everies = getEveries( graphCopy, groupBy );
+
+      if( everies == null )
+        continue;
+
+      Fields[] argumentFields = new Fields[ everies.size() ];
+      AggregateBy.Functor[] functors = new AggregateBy.Functor[ everies.size() ];
+      Aggregator[] aggregators = new Aggregator[ everies.size() ];
+
+      if( !makePartials( groupingFields, everies, argumentFields, functors, aggregators ) )
+        continue;
+
+      plannerContext.getLogger().logInfo( "adding partial aggregation before GroupBy: {}, for {} aggregators", groupBy.getName(), everies.size() );
+
+      Fields argumentSelector = Fields.merge( groupingFields, Fields.merge( argumentFields ) );
+      AggregateBy.CompositeFunction function = new AggregateBy.CompositeFunction( groupingFields, argumentFields, functors, AggregateBy.USE_DEFAULT_THRESHOLD );
+
+      for( Scope scope : new ArrayList<>( graphCopy.incomingEdgesOf( groupBy ) ) )
+        ElementGraphs.insertFlowElementBetweenEdge( graphCopy, scope, new Each( scope.getName(), argumentSelector, function, Fields.RESULTS ) );
+
+      for( int i = 0; i < everies.size(); i++ )
+        {
+        Every every = everies.get( i );
+        Every replacement = new Every( every.getPrevious()[ 0 ], functors[ i ].getDeclaredFields(), aggregators[ i ], every.getOutputSelector() );
+
+        ElementGraphs.replaceElementWith( graphCopy, every, replacement );
+        }
+
+      replaced = true;
+      }
+
+    if( replaced )
+      result.setEndGraph( graphCopy );
+
+    return result;
+    }
+
+  private static Fields getGroupingFields( ElementGraph elementGraph, GroupBy groupBy )
+    {
+    if( groupBy.isSorted() || elementGraph.inDegreeOf( groupBy ) != groupBy.getPrevious().length )
+      return null;
+
+    // the replacement cannot carry the properties given to the original
+    if( groupBy.hasConfigDef() || groupBy.hasNodeConfigDef() || groupBy.hasStepConfigDef() )
+      return null;
+
+    Fields groupingFields = null;
+
+    for( Fields keySelector : groupBy.getKeySelectors().values() )
+      {
+      if( groupingFields != null && !groupingFields.equals( keySelector ) )
+        return null;
+
+      groupingFields = keySelector;
+      }
+
+    if( groupingFields == null || !isNamed( groupingFields ) )
+      return null;
+
+    return groupingFields;
+    }
+
+  private static List<Every> getEveries( ElementGraph elementGraph, GroupBy groupBy )
+    {
+    List<Every> everies = new ArrayList<>();
+    FlowElement current = groupBy;
+
+    while( true )
+      {
+      List<FlowElement> successors = elementGraph.successorListOf( current );
+
+      boolean hasEvery = false;
+
+      for( FlowElement successor : successors )
+        hasEvery |= successor instanceof Every;
+
+      if( !hasEvery )
+        break;
+
+      // values must only be seen by the rewritten aggregators
+      if( successors.size() != 1 )
+        return null;
+
+      Every every = (Every) successors.get( 0 );
+
+      if( every.hasConfigDef() || every.hasNodeConfigDef() || every.hasStepConfigDef() )
+        return null;
+
+      everies.add( every );
+      current = every;
+      }
+
+    if( everies.isEmpty() )
+      return null;
+
+    return everies;
+    }
+
+  private static boolean makePartials( Fields groupingFields, List<Every> everies, Fields[] argumentFields, AggregateBy.Functor[] functors, Aggregator[] aggregators )
+    {
+    Set<Comparable> names = new HashSet<>();
+
+    for( Comparable name : groupingFields )
+      names.add( name );
+
+    for( int i = 0; i < everies.size(); i++ )
+      {
+      Every every = everies.get( i );
+      Operation operation = every.getOperation();
+      Fields declared = every.getFieldDeclaration();
+      Fields arguments = every.getArgumentSelector();
+
+      if( !declared.isDeclarator() || declared.size() != 1 || !isNamed( declared ) )
+        return false;
+
+      if( operation.getClass() == Sum.class && isNamed( arguments ) && arguments.size() == 1 && ( (Sum) operation ).getType() instanceof Class )
+        {
+        argumentFields[ i ] = arguments;
+        functors[ i ] = new SumBy.SumPartials( declared, (Class) ( (Sum) operation ).getType() );
+        aggregators[ i ] = (Aggregator) operation;
+        }
+      else if( operation.getClass() == Count.class )
+        {
+        Fields countField = declared.hasTypes() ? declared : declared.applyTypes( Long.class );
+
+        argumentFields[ i ] = Fields.ALL; // counts every value, as Count ignores its arguments
+        functors[ i ] = new CountBy.CountPartials( countField );
+        aggregators[ i ] = new Sum( countField );
+        }
+      else if( operation.getClass() == Average.class && isNamed( arguments ) && arguments.size() == 1 )
+        {
+        argumentFields[ i ] = arguments;
+        functors[ i ] = new AverageBy.AveragePartials( declared );
+        aggregators[ i ] = new AverageBy.AverageFinal( declared.hasTypes() ? declared : declared.applyTypes( Double.class ) );
+        }
+      else
+        {
+        return false;
+        }
+
+      for( Comparable name : functors[ i ].getDeclaredFields() )
+        {
+        if( !names.add( name ) )
+          return false;
+        }
+      }
+
+    return true;
+    }
+
+  private static boolean isNamed( Fields fields )
+    {
+    if( !fields.isDefined() || fields.size() == 0 )
+      return false;
+
+    for( Comparable field : fields )
+      {
+      if( !( field instanceof String ) )
+        return false;
+      }
+
+    return true;
+    }
+  }
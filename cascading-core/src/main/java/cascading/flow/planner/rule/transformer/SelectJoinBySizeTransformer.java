@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.flow.planner.rule.transformer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import cascading.flow.FlowElement;
+import cascading.flow.planner.FlowPlanner;
+import cascading.flow.planner.PlannerContext;
+import cascading.flow.planner.Scope;
+import cascading.flow.planner.graph.ElementGraph;
+import cascading.flow.planner.graph.ElementGraphs;
+import cascading.flow.planner.graph.Extent;
+import cascading.flow.planner.iso.transformer.GraphTransformer;
+import cascading.flow.planner.iso.transformer.Transformed;
+import cascading.flow.planner.rule.PlanPhase;
+import cascading.flow.planner.rule.Rule;
+import cascading.pipe.CoGroup;
+import cascading.pipe.Every;
+import cascading.pipe.HashJoin;
+import cascading.pipe.Pipe;
+import cascading.pipe.Splice;
+import cascading.pipe.joiner.InnerJoin;
+import cascading.pipe.joiner.Joiner;
+import cascading.pipe.joiner.LeftJoin;
+import cascading.tap.Tap;
+import cascading.tuple.Fields;
+import cascading.util.Util;
+
+import static cascading.flow.FlowConnectorProps.CO_GROUP_THRESHOLD;
+import static cascading.flow.FlowConnectorProps.HASH_JOIN_THRESHOLD;
+import static cascading.flow.planner.rule.PlanPhase.PreBalanceAssembly;
+
+/**
+ * Class SelectJoinBySizeTransformer replaces a {@link CoGroup} with an equivalent {@link HashJoin} when the sources
+ * of its accumulated sides are small, and a HashJoin with an equivalent CoGroup when they are large, as configured by
+ * {@link cascading.flow.FlowConnectorProps#HASH_JOIN_THRESHOLD} and
+ * {@link cascading.flow.FlowConnectorProps#CO_GROUP_THRESHOLD}. Both are disabled by default.
+ * <p/>
+ * Only the left most side of a HashJoin is streamed, every other side is accumulated. The size of a side is the sum
+ * of the sizes of the source resources it reads from, as given by {@link FlowPlanner#getResourceSize(Tap)}, and
+ * any join with a side reading from a resource of unknown size is left as declared.
+ * <p/>
+ * This rule must run before the assembly is balanced so that platform specific rules, like those replicating the
+ * accumulated side of a HashJoin through the distributed cache, apply to the replacement.
+ */
+public class SelectJoinBySizeTransformer extends GraphTransformer<ElementGraph, ElementGraph> implements Rule
+  {
+  @Override
+  public PlanPhase getRulePhase()
+    {
+    return PreBalanceAssembly;
+    }
+
+  @Override
+  public String getRuleName()
+    {
+    return getClass().getSimpleName();
+    }
+
+  @Override
+  public Transformed<ElementGraph> transform( PlannerContext plannerContext, ElementGraph rootGraph )
+    {
+    Transformed<ElementGraph> result = new Transformed<>( plannerContext, this, rootGraph );
+
+    long hashJoinThreshold = getThreshold( plannerContext, HASH_JOIN_THRESHOLD );
+    long coGroupThreshold = getThreshold( plannerContext, CO_GROUP_THRESHOLD );
+
+    if( plannerContext.getFlowPlanner() == null || hashJoinThreshold < 0 && coGroupThreshold < 0 )
+      return result;
+
+    ElementGraph graphCopy = rootGraph.copyElementGraph();
+    boolean replaced = false;
+
+    for( FlowElement flowElement : graphCopy.vertexSetCopy() )
+      {
+      if( !( flowElement instanceof CoGroup || flowElement instanceof HashJoin ) || !isReplaceable( graphCopy, (Splice) flowElement ) )
+        continue;
+
+      Splice splice = (Splice) flowElement;
+      long size = getAccumulatedSize( plannerContext.getFlowPlanner(), graphCopy, splice );
+
+      if( size < 0 )
+        continue;
+
+      Splice replacement = null;
+
+      if( splice instanceof CoGroup && hashJoinThreshold >= 0 && size <= hashJoinThreshold && isHashJoinable( graphCopy, splice ) )
+        replacement = new HashJoin( splice.getName(), splice.getPrevious(), getKeys( splice ), splice.getDeclaredFields(), splice.getJoiner() );
+      else if( splice instanceof HashJoin && coGroupThreshold >= 0 && size > coGroupThreshold )
+        replacement = new CoGroup( splice.getName(), splice.getPrevious(), getKeys( splice ), splice.getDeclaredFields(), splice.getJoiner() );
+
+      if( replacement == null )
+        continue;
+
+      plannerContext.getLogger().logInfo( "replacing {}: {}, with {}, accumulated sides read: {} bytes", splice.getClass().getSimpleName(), splice.getName(), replacement.getClass().getSimpleName(), size );
+
+      ElementGraphs.replaceElementWith( graphCopy, splice, replacement );
+
+      replaced = true;
+      }
+
+    if( replaced )
+      result.setEndGraph( graphCopy );
+
+    return result;
+    }
+
+  private static long getThreshold( PlannerContext plannerContext, String property )
+    {
+    String value = plannerContext.getStringProperty( property );
+
+    if( Util.isEmpty( value ) )
+      return -1;
+
+    return Long.parseLong( value );
+    }
+
+  private static boolean isReplaceable( ElementGraph elementGraph, Splice splice )
+    {
+    // self joins have no distinct accumulated side
+    if( splice.getNumSelfJoins() != 0 || elementGraph.inDegreeOf( splice ) != splice.getPrevious().length )
+      return false;
+
+    if( splice.getKeySelectors().size() != splice.getPrevious().length )
+      return false;
+
+    // the replacement cannot carry the properties given to the original
+    return !splice.hasConfigDef() && !splice.hasNodeConfigDef() && !splice.hasStepConfigDef();
+    }
+
+  private static boolean isHashJoinable( ElementGraph elementGraph, Splice splice )
+    {
+    if( splice.isSorted() )
+      return false;
+
+    Joiner joiner = splice.getJoiner();
+
+    // outer joins on the streamed side would emit duplicates from every streamed partition
+    if( joiner != null && joiner.getClass() != InnerJoin.class && joiner.getClass() != LeftJoin.class )
+      return false;
+
+    for( FlowElement next : elementGraph.successorListOf( splice ) )
+      {
+      if( next instanceof Every )
+        return false;
+      }
+
+    return true;
+    }
+
+  private static Fields[] getKeys( Splice splice )
+    {
+    Pipe[] previous = splice.getPrevious();
+    Map<String, Fields> keySelectors = splice.getKeySelectors();
+    Fields[] keys = new Fields[ previous.length ];
+
+    for( int i = 0; i < previous.length; i++ )
+      keys[ i ] = keySelectors.get( previous[ i ].getName() );
+
+    return keys;
+    }
+
+  private static long getAccumulatedSize( FlowPlanner flowPlanner, ElementGraph elementGraph, Splice splice )
+    {
+    long total = 0;
+
+    for( Scope scope : elementGraph.incomingEdgesOf( splice ) )
+      {
+      if( scope.getOrdinal() == 0 ) // streamed
+        continue;
+
+      for( Tap tap : getSourceTaps( elementGraph, elementGraph.getEdgeSource( scope ) ) )
+        {
+        long size = flowPlanner.getResourceSize( tap );
+
+        if( size < 0 )
+          return -1;
+
+        total += size;
+        }
+      }
+
+    return total;
+    }
+
+  private static List<Tap> getSourceTaps( ElementGraph elementGraph, FlowElement flowElement )
+    {
+    Set<FlowElement> visited = Collections.newSetFromMap( new IdentityHashMap<FlowElement, Boolean>() );
+    LinkedList<FlowElement> pending = new LinkedList<>();
+    List<Tap> taps = new ArrayList<>();
+
+    pending.add( flowElement );
+
+    while( !pending.isEmpty() )
+      {
+      FlowElement current = pending.removeFirst();
+
+      if( current instanceof Extent || !visited.add( current ) )
+        continue;
+
+      if( current instanceof Tap )
+        taps.add( (Tap) current );
+      else
+        pending.addAll( elementGraph.predecessorListOf( current ) );
+      }
+
+    return taps;
+    }
+  }
@@ -79,6 +79,24 @@ public abstract class Duct<Incoming, Outgoing>
 
   public abstract void receive( Duct previous, int ordinal, Incoming incoming );
 
+  /**
+   * Method receiveBatch receives the first {@code size} values of the given batch, by default calling
+   * {@link #receive(Duct, int, Object)} with each value in turn.
+   * <p/>
+   * Ducts able to process a whole batch at once override this method, and may in turn pass a batch to the next duct.
+   * The batch array is owned by the caller and may be reused once this call returns.
+   *
+   * @param previous of type Duct
+   * @param ordinal  of type int
+   * @param batch    of type Incoming[]
+   * @param size     of type int
+   */
+  public void receiveBatch( Duct previous, int ordinal, Incoming[] batch, int size )
+    {
+    for( int i = 0; i < size; i++ )
+      receive( previous, ordinal, batch[ i ] );
+    }
+
   public void complete( Duct previous )
     {
     next.complete( this );
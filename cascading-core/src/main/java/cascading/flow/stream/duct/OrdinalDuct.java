@@ -39,6 +39,13 @@ public class OrdinalDuct<Incoming, Outgoing> extends Duct<Incoming, Outgoing>
     next.receive( previous, this.ordinal, (Outgoing) incoming );
     }
 
+  @Override
+  public void receiveBatch( Duct previous, int ordinal, Incoming[] batch, int size )
+    {
+    // override ordinal value
+    next.receiveBatch( previous, this.ordinal, (Outgoing[]) batch, size );
+    }
+
   @Override
   public String toString()
     {
@@ -20,11 +20,15 @@
 
 package cascading.flow.stream.element;
 
+import java.util.Arrays;
+
 import cascading.flow.FlowProcess;
+import cascading.flow.stream.duct.Duct;
 import cascading.pipe.Each;
 import cascading.pipe.Operator;
 import cascading.tuple.Fields;
 import cascading.tuple.TupleEntry;
+import cascading.tuple.util.TupleBuilder;
 
 /**
  *
@@ -33,12 +37,150 @@ public abstract class EachStage extends OperatorStage<TupleEntry>
   {
   final Each each;
 
+  /** filter stages immediately following this stage, evaluated inline, see {@link #setFusedFilters(FilterEachStage[])} */
+  private FilterEachStage[] fusedFilters;
+
+  /** argument entries of the current batch, see {@link #setBatchArguments(TupleEntry[], int)} */
+  protected TupleEntry[] batchArguments;
+  private TupleBuilder[] batchArgumentsBuilders;
+  /** outgoing entries of the current batch, passed on to the next duct */
+  protected TupleEntry[] outgoingBatch;
+
   public EachStage( FlowProcess flowProcess, Each each )
     {
     super( flowProcess, each );
     this.each = each;
     }
 
+  public FilterEachStage[] getFusedFilters()
+    {
+    return fusedFilters;
+    }
+
+  /**
+   * Method setFusedFilters sets the chain of filter stages immediately following this stage, each the next of
+   * the prior. Outgoing entries are then evaluated by the filters inline, and passed to the next of the last filter,
+   * instead of being passed through each filter stage in turn.
+   * <p/>
+   * The filter stages remain in the stream graph, so failures are handled by the same stages, in the same order.
+   *
+   * @param fusedFilters of type FilterEachStage[]
+   */
+  public void setFusedFilters( FilterEachStage[] fusedFilters )
+    {
+    Duct current = this;
+
+    for( FilterEachStage fusedFilter : fusedFilters )
+      {
+      if( current.getNext() != fusedFilter )
+        throw new IllegalArgumentException( "fused filters must immediately follow each other" );
+
+      current = fusedFilter;
+      }
+
+    this.fusedFilters = fusedFilters.length == 0 ? null : fusedFilters;
+    }
+
+  /**
+   * Method passOn passes the given outgoing entry to the next duct, or through the fused filters, if any.
+   *
+   * @param outgoingEntry of type TupleEntry
+   */
+  protected void passOn( TupleEntry outgoingEntry )
+    {
+    if( fusedFilters == null )
+      next.receive( this, 0, outgoingEntry );
+    else
+      receiveFused( outgoingEntry );
+    }
+
+  /**
+   * Method canPassBatch returns true if a batch of outgoing entries may be passed to the next duct at once.
+   * <p/>
+   * A trap bound to this stage handles failures downstream of each entry in turn, as do fused filters,
+   * so the entries are then received and passed on one at a time.
+   *
+   * @return boolean
+   */
+  protected boolean canPassBatch()
+    {
+    return fusedFilters == null && !hasTrap();
+    }
+
+  /**
+   * Method setBatchArguments sets the first {@code size} entries of {@link #batchArguments} to the arguments of the
+   * given batch, growing the batch arrays as needed.
+   *
+   * @param batch of type TupleEntry[]
+   * @param size  of type int
+   */
+  protected void setBatchArguments( TupleEntry[] batch, int size )
+    {
+    if( batchArguments == null || batchArguments.length < size )
+      growBatch( size );
+
+    for( int i = 0; i < size; i++ )
+      batchArguments[ i ].setTuple( batchArgumentsBuilders[ i ].makeResult( batch[ i ].getTuple(), null ) );
+    }
+
+  protected void growBatch( int size )
+    {
+    int current = batchArguments == null ? 0 : batchArguments.length;
+
+    batchArguments = batchArguments == null ? new TupleEntry[ size ] : Arrays.copyOf( batchArguments, size );
+    batchArgumentsBuilders = batchArgumentsBuilders == null ? new TupleBuilder[ size ] : Arrays.copyOf( batchArgumentsBuilders, size );
+    outgoingBatch = new TupleEntry[ size ];
+
+    // each entry needs its own builder, as builders may return a reused view
+    for( int i = current; i < size; i++ )
+      {
+      batchArguments[ i ] = new TupleEntry( argumentsEntry.getFields(), true );
+      batchArgumentsBuilders[ i ] = createArgumentsBuilder( getIncomingArgumentsFields(), argumentsSelector );
+      }
+    }
+
+  private void receiveFused( TupleEntry outgoingEntry )
+    {
+    int entered = 0;
+    boolean downstream = false;
+
+    try
+      {
+      while( entered < fusedFilters.length )
+        {
+        if( fusedFilters[ entered++ ].isRemove( outgoingEntry ) )
+          return;
+        }
+
+      downstream = true;
+
+      FilterEachStage last = fusedFilters[ fusedFilters.length - 1 ];
+
+      last.next.receive( last, 0, outgoingEntry );
+      }
+    catch( Throwable throwable )
+      {
+      // as if nested, the filters enclosing the failure handle it in reverse order until it is not rethrown
+      for( int i = downstream ? entered - 1 : entered - 2; i >= 0; i-- )
+        {
+        try
+          {
+          fusedFilters[ i ].handleFailure( throwable );
+          return;
+          }
+        catch( Throwable rethrown )
+          {
+          throwable = rethrown;
+          }
+        }
+
+      if( throwable instanceof Error )
+        throw (Error) throwable;
+
+      throw (RuntimeException) throwable;
+      }
+    }
+
   @Override
   public Operator getOperator()
     {
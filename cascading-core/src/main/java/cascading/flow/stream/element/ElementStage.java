@@ -99,6 +99,16 @@ public abstract class ElementStage<Incoming, Outgoing> extends Stage<Incoming, O
     return trapHandler != null;
     }
 
+  /**
+   * Method hasTrap returns true if a trap is bound to this element, so failures are trapped instead of rethrown.
+   *
+   * @return boolean
+   */
+  protected boolean hasTrap()
+    {
+    return trapHandler != null && trapHandler.trap != null;
+    }
+
   @Override
   public List<Scope> getOutgoingScopes()
     {
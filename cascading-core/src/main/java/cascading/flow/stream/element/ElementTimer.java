@@ -0,0 +1,388 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cascading.flow.stream.element;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import cascading.flow.FlowElement;
+import cascading.flow.FlowProcess;
+import cascading.flow.stream.duct.Duct;
+import cascading.flow.stream.duct.Reducing;
+import cascading.flow.stream.duct.Stage;
+import cascading.operation.Operation;
+import cascading.pipe.Operator;
+import cascading.pipe.Pipe;
+import cascading.stats.CascadingStats;
+
+/**
+ * Class ElementTimer samples the time spent within the calls into each timed {@link ElementStage}, for one in every
+ * N tuples or groups entering a stream graph.
+ * <p/>
+ * The {@code receive()}, {@code startGroup()} and {@code completeGroup()} calls are sampled. The sampling decision is
+ * made by the outermost timed call, so every stage reached by a sampled tuple or group is measured. The time spent in
+ * downstream timed stages is subtracted, leaving the self time of each stage. Only the sampled {@code receive()} calls
+ * are counted as sampled tuples, the self time of the group calls is added to the sampled self time.
+ * <p/>
+ * The {@code start()} and {@code complete()} calls are made once per stream, so are always timed, and their self time
+ * is reported separately. As a gate, like a GroupBy on the local platform, may emit all its values from within its
+ * {@code complete()} call, each call made by it into a timed stage makes a new sampling decision, and is measured
+ * so its time can be subtracted.
+ * <p/>
+ * Sampled self time in nanoseconds, the number of sampled tuples, and the start and complete time in nanoseconds are
+ * reported on cleanup as counters in the {@link CascadingStats#ELEMENT_SELF_TIME_GROUP},
+ * {@link CascadingStats#ELEMENT_SAMPLED_TUPLES_GROUP} and {@link CascadingStats#ELEMENT_LIFECYCLE_TIME_GROUP}
+ * groups, keyed by {@link #getTimingKey(FlowElement)}.
+ * <p/>
+ * A stream graph may be driven by many threads at once, so the sampling state is kept per thread, and timings are
+ * accumulated atomically.
+ */
+public class ElementTimer
+  {
+  /** No timed call is in progress. */
+  private static final int OUTSIDE = 0;
+  /** A start or complete call is in progress. */
+  private static final int LIFECYCLE = 1;
+  /** A sampled tuple or group call is in progress. */
+  private static final int SAMPLED = 2;
+  /** A tuple or group call that is not sampled is in progress. */
+  private static final int SKIPPED = 3;
+
+  private static final int SELF_NANOS = 0;
+  private static final int SAMPLED_TUPLES = 1;
+  private static final int LIFECYCLE_NANOS = 2;
+
+  private final int sampleRate;
+  private final Map<String, AtomicLongArray> timings = new LinkedHashMap<>();
+  private final ThreadLocal<Sampling> samplings = new ThreadLocal<Sampling>()
+  {
+  @Override
+  protected Sampling initialValue()
+    {
+    return new Sampling();
+    }
+  };
+
+  /** The sampling state of the calls made on the current thread. */
+  private static class Sampling
+    {
+    long count;
+    int call = OUTSIDE;
+    long childNanos;
+    }
+
+  /**
+   * Method getTimingKey returns the counter name the given element is timed under, the pipe name followed
+   * by the operation type, if any, and the leading characters of the pipe ID, so that two pipes with the same name
+   * and operation type are reported apart. Returns null if the element is not a {@link Pipe}.
+   *
+   * @param flowElement of type FlowElement
+   * @return String
+   */
+  public static String getTimingKey( FlowElement flowElement )
+    {
+    if( !( flowElement instanceof Pipe ) )
+      return null;
+
+    String name = ( (Pipe) flowElement ).getName();
+    String id = Pipe.id( (Pipe) flowElement ).substring( 0, 6 );
+
+    if( !( flowElement instanceof Operator ) )
+      return name + "/" + id;
+
+    Operation operation = ( (Operator) flowElement ).getOperation();
+    String type = operation.getClass().getSimpleName();
+
+    if( type.isEmpty() )
+      type = operation.getClass().getName();
+
+    return name + "/" + type + "/" + id;
+    }
+
+  public ElementTimer( int sampleRate )
+    {
+    if( sampleRate < 1 )
+      throw new IllegalArgumentException( "sample rate must be greater than zero, got: " + sampleRate );
+
+    this.sampleRate = sampleRate;
+    }
+
+  public int getSampleRate()
+    {
+    return sampleRate;
+    }
+
+  /**
+   * Method wrap returns a duct timing the calls to the given duct on behalf of the given element, or the duct
+   * itself if the element cannot be timed. If the given duct is {@link Reducing}, so is the returned duct.
+   *
+   * @param elementDuct of type ElementDuct
+   * @param duct        of type Duct, the given element or a wrapper around it
+   * @return Duct
+   */
+  public Duct wrap( ElementDuct elementDuct, Duct duct )
+    {
+    String key = getTimingKey( elementDuct.getFlowElement() );
+
+    if( key == null )
+      return duct;
+
+    AtomicLongArray timing = timings.get( key );
+
+    if( timing == null )
+      {
+      timing = new AtomicLongArray( 3 );
+      timings.put( key, timing );
+      }
+
+    if( duct instanceof Reducing )
+      return new TimedReducingDuct( this, timing, duct );
+
+    return new TimedDuct( this, timing, duct );
+    }
+
+  /**
+   * Method getTimings returns the sampled self time in nanoseconds, the sampled tuple count, and the start and
+   * complete self time in nanoseconds, of each timed element.
+   *
+   * @return Map<String, AtomicLongArray>
+   */
+  public Map<String, AtomicLongArray> getTimings()
+    {
+    return timings;
+    }
+
+  /**
+   * Method flush increments the timing counters on the given flowProcess and resets the current timings.
+   *
+   * @param flowProcess of type FlowProcess
+   */
+  public void flush( FlowProcess flowProcess )
+    {
+    for( Map.Entry<String, AtomicLongArray> entry : timings.entrySet() )
+      {
+      AtomicLongArray timing = entry.getValue();
+      long sampled = timing.getAndSet( SAMPLED_TUPLES, 0 );
+      long selfNanos = timing.getAndSet( SELF_NANOS, 0 );
+      long lifecycleNanos = timing.getAndSet( LIFECYCLE_NANOS, 0 );
+
+      if( sampled != 0 || selfNanos != 0 )
+        {
+        flowProcess.increment( CascadingStats.ELEMENT_SELF_TIME_GROUP, entry.getKey(), selfNanos );
+        flowProcess.increment( CascadingStats.ELEMENT_SAMPLED_TUPLES_GROUP, entry.getKey(), sampled );
+        }
+
+      if( lifecycleNanos != 0 )
+        flowProcess.increment( CascadingStats.ELEMENT_LIFECYCLE_TIME_GROUP, entry.getKey(), lifecycleNanos );
+      }
+    }
+
+  /**
+   * Method enter begins a timed call on the current thread, returning the start time in nanoseconds, or -1 if the
+   * call is not measured.
+   */
+  private long enter( Sampling state, boolean lifecycle )
+    {
+    int parent = state.call;
+    boolean measured;
+
+    if( lifecycle )
+      {
+      state.call = LIFECYCLE;
+      measured = true;
+      }
+    else if( parent == SAMPLED || parent == SKIPPED )
+      {
+      measured = parent == SAMPLED;
+      }
+    else
+      {
+      state.call = ++state.count % sampleRate == 0 ? SAMPLED : SKIPPED;
+      measured = state.call == SAMPLED || parent == LIFECYCLE; // the parent subtracts the time of all its children
+      }
+
+    if( !measured )
+      return -1;
+
+    state.childNanos = 0;
+
+    return System.nanoTime();
+    }
+
+  /**
+   * Method exit ends a timed call on the current thread, recording its self time if sampled, and adding its elapsed
+   * time to the children of the parent call.
+   */
+  private void exit( Sampling state, AtomicLongArray timing, int parent, long parentChildNanos, long start, boolean tuple )
+    {
+    if( start == -1 )
+      {
+      state.call = parent;
+      return;
+      }
+
+    long elapsed = System.nanoTime() - start;
+    long self = elapsed - state.childNanos;
+
+    if( state.call == LIFECYCLE )
+      {
+      timing.addAndGet( LIFECYCLE_NANOS, self );
+      }
+    else if( state.call == SAMPLED )
+      {
+      timing.addAndGet( SELF_NANOS, self );
+
+      if( tuple )
+        timing.incrementAndGet( SAMPLED_TUPLES );
+      }
+
+    state.childNanos = parentChildNanos + elapsed;
+    state.call = parent;
+    }
+
+  /**
+   * Forwards all calls to the wrapped duct unchanged, so the receiving element still sees the actual previous duct
+   * and ordinal.
+   */
+  private static class TimedDuct extends Stage
+    {
+    final ElementTimer timer;
+    final AtomicLongArray timing;
+
+    TimedDuct( ElementTimer timer, AtomicLongArray timing, Duct next )
+      {
+      this.timer = timer;
+      this.timing = timing;
+      this.next = next;
+      }
+
+    @Override
+    public void start( Duct previous )
+      {
+      Sampling state = timer.samplings.get();
+      int parent = state.call;
+      long parentChildNanos = state.childNanos;
+      long start = timer.enter( state, true );
+
+      try
+        {
+        next.start( previous );
+        }
+      finally
+        {
+        timer.exit( state, timing, parent, parentChildNanos, start, false );
+        }
+      }
+
+    @Override
+    public void receive( Duct previous, int ordinal, Object incoming )
+      {
+      Sampling state = timer.samplings.get();
+      int parent = state.call;
+      long parentChildNanos = state.childNanos;
+      long start = timer.enter( state, false );
+
+      try
+        {
+        next.receive( previous, ordinal, incoming );
+        }
+      finally
+        {
+        timer.exit( state, timing, parent, parentChildNanos, start, true );
+        }
+      }
+
+    @Override
+    public void complete( Duct previous )
+      {
+      Sampling state = timer.samplings.get();
+      int parent = state.call;
+      long parentChildNanos = state.childNanos;
+      long start = timer.enter( state, true );
+
+      try
+        {
+        next.complete( previous );
+        }
+      finally
+        {
+        timer.exit( state, timing, parent, parentChildNanos, start, false );
+        }
+      }
+
+    @Override
+    public String toString()
+      {
+      return getClass().getSimpleName() + "{next=" + next + '}';
+      }
+    }
+
+  /**
+   * Times the group calls into a reducing stage, like an aggregator Every, as well.
+   */
+  private static class TimedReducingDuct extends TimedDuct implements Reducing
+    {
+    private final Reducing reducing;
+
+    TimedReducingDuct( ElementTimer timer, AtomicLongArray timing, Duct next )
+      {
+      super( timer, timing, next );
+      this.reducing = (Reducing) next;
+      }
+
+    @Override
+    public void startGroup( Duct previous, Object group )
+      {
+      Sampling state = timer.samplings.get();
+      int parent = state.call;
+      long parentChildNanos = state.childNanos;
+      long start = timer.enter( state, false );
+
+      try
+        {
+        reducing.startGroup( previous, group );
+        }
+      finally
+        {
+        timer.exit( state, timing, parent, parentChildNanos, start, false );
+        }
+      }
+
+    @Override
+    public void completeGroup( Duct previous, Object result )
+      {
+      Sampling state = timer.samplings.get();
+      int parent = state.call;
+      long parentChildNanos = state.childNanos;
+      long start = timer.enter( state, false );
+
+      try
+        {
+        reducing.completeGroup( previous, result );
+        }
+      finally
+        {
+        timer.exit( state, timing, parent, parentChildNanos, start, false );
+        }
+      }
+    }
+  }
@@ -21,9 +21,12 @@
 
 package cascading.flow.stream.element;
 
+import java.util.Arrays;
+
 import cascading.CascadingException;
 import cascading.flow.FlowProcess;
 import cascading.flow.stream.duct.Duct;
+import cascading.operation.BatchFilter;
 import cascading.operation.Filter;
 import cascading.pipe.Each;
 import cascading.pipe.OperatorException;
@@ -36,6 +39,8 @@ import cascading.tuple.TupleEntry;
 public class FilterEachStage extends EachStage
   {
   private Filter filter;
+  private BatchFilter batchFilter;
+  private boolean[] removes;
 
   public FilterEachStage( FlowProcess flowProcess, Each each )
     {
@@ -60,6 +65,9 @@ public class FilterEachStage extends EachStage
     super.initialize();
 
     filter = each.getFilter();
+
+    if( filter instanceof BatchFilter )
+      batchFilter = (BatchFilter) filter;
     }
 
   @Override
@@ -72,15 +80,113 @@ public class FilterEachStage extends EachStage
       if( filter.isRemove( flowProcess, operationCall ) )
         return;
 
-      next.receive( this, 0, incomingEntry );
+      passOn( incomingEntry );
+      }
+    catch( Throwable throwable )
+      {
+      handleFailure( throwable );
+      }
+    }
+
+  /**
+   * Method receiveBatch passes on the entries of the given batch not removed by the filter as a batch, testing
+   * all entries with one call if the filter is a {@link BatchFilter}.
+   */
+  @Override
+  public void receiveBatch( Duct previous, int ordinal, TupleEntry[] batch, int size )
+    {
+    if( !canPassBatch() )
+      {
+      super.receiveBatch( previous, ordinal, batch, size );
+      return;
       }
-    catch( CascadingException exception )
+
+    int count = batchFilter == null ? removeEach( batch, size ) : removeBatch( batch, size );
+
+    if( count == 0 )
+      return;
+
+    try
       {
-      handleException( exception, argumentsEntry );
+      next.receiveBatch( this, 0, outgoingBatch, count );
       }
     catch( Throwable throwable )
       {
-      handleException( new OperatorException( each, "operator Each failed executing operation", throwable ), argumentsEntry );
+      handleFailure( throwable );
+      }
+    }
+
+  private int removeEach( TupleEntry[] batch, int size )
+    {
+    if( outgoingBatch == null || outgoingBatch.length < size )
+      growBatch( size );
+
+    int count = 0;
+
+    for( int i = 0; i < size; i++ )
+      {
+      if( !isRemove( batch[ i ] ) )
+        outgoingBatch[ count++ ] = batch[ i ];
       }
+
+    return count;
+    }
+
+  private int removeBatch( TupleEntry[] batch, int size )
+    {
+    setBatchArguments( batch, size );
+
+    if( removes == null || removes.length < size )
+      removes = new boolean[ batchArguments.length ];
+    else
+      Arrays.fill( removes, 0, size, false );
+
+    try
+      {
+      batchFilter.isRemove( flowProcess, operationCall, batchArguments, removes, size );
+      }
+    catch( Throwable throwable )
+      {
+      handleFailure( throwable ); // no trap is bound, so always rethrows
+      return 0;
+      }
+
+    int count = 0;
+
+    for( int i = 0; i < size; i++ )
+      {
+      if( !removes[ i ] )
+        outgoingBatch[ count++ ] = batch[ i ];
+      }
+
+    return count;
+    }
+
+  /**
+   * Method isRemove is used when this stage is fused into a prior stage, returning true if the given entry is removed
+   * by the filter, or failed and was trapped.
+   */
+  boolean isRemove( TupleEntry incomingEntry )
+    {
+    argumentsEntry.setTuple( argumentsBuilder.makeResult( incomingEntry.getTuple(), null ) );
+
+    try
+      {
+      return filter.isRemove( flowProcess, operationCall );
+      }
+    catch( Throwable throwable )
+      {
+      handleFailure( throwable );
+      return true;
+      }
+    }
+
+  /** Method handleFailure traps the current arguments, or rethrows, on the given failure. */
+  void handleFailure( Throwable throwable )
+    {
+    if( throwable instanceof CascadingException )
+      handleException( throwable, argumentsEntry );
+    else
+      handleException( new OperatorException( each, "operator Each failed executing operation", throwable ), argumentsEntry );
     }
   }
@@ -22,10 +22,12 @@
 package cascading.flow.stream.element;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import cascading.CascadingException;
 import cascading.flow.FlowProcess;
 import cascading.flow.stream.duct.Duct;
+import cascading.operation.BatchFunction;
 import cascading.operation.Function;
 import cascading.pipe.Each;
 import cascading.pipe.OperatorException;
@@ -34,6 +36,7 @@ import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
 import cascading.tuple.TupleEntryCollector;
 import cascading.tuple.Tuples;
+import cascading.tuple.util.TupleBuilder;
 
 /**
  *
@@ -41,6 +44,9 @@ import cascading.tuple.Tuples;
 public class FunctionEachStage extends EachStage
   {
   private Function function;
+  private BatchFunction batchFunction;
+  private Tuple[] results;
+  private TupleBuilder[] outgoingBuilders;
 
   public FunctionEachStage( FlowProcess flowProcess, Each each )
     {
@@ -66,6 +72,9 @@ public class FunctionEachStage extends EachStage
 
     function = each.getFunction();
 
+    if( function instanceof BatchFunction )
+      batchFunction = (BatchFunction) function;
+
     operationCall.setArguments( argumentsEntry );
 
     operationCall.setOutputCollector( new TupleEntryCollector( getOperationDeclaredFields() )
@@ -79,7 +88,7 @@ public class FunctionEachStage extends EachStage
 
         try
           {
-          next.receive( FunctionEachStage.this, 0, outgoingEntry );
+          passOn( outgoingEntry );
           }
         finally
           {
@@ -109,4 +118,87 @@ public class FunctionEachStage extends EachStage
       handleException( new OperatorException( each, "operator Each failed executing operation", throwable ), argumentsEntry );
       }
     }
+
+  /**
+   * Method receiveBatch passes on the results of a {@link BatchFunction} for the given batch as a batch, otherwise
+   * each entry is received in turn.
+   */
+  @Override
+  public void receiveBatch( Duct previous, int ordinal, TupleEntry[] batch, int size )
+    {
+    if( batchFunction == null || !canPassBatch() )
+      {
+      super.receiveBatch( previous, ordinal, batch, size );
+      return;
+      }
+
+    setBatchArguments( batch, size );
+
+    if( results == null || results.length < size )
+      growResults();
+    else
+      Arrays.fill( results, 0, size, null );
+
+    try
+      {
+      batchFunction.operate( flowProcess, operationCall, batchArguments, results, size );
+      }
+    catch( CascadingException exception )
+      {
+      handleException( exception, argumentsEntry ); // no trap is bound, so always rethrows
+      return;
+      }
+    catch( Throwable throwable )
+      {
+      handleException( new OperatorException( each, "operator Each failed executing operation", throwable ), argumentsEntry );
+      return;
+      }
+
+    int count = 0;
+
+    for( int i = 0; i < size; i++ )
+      {
+      if( results[ i ] != null )
+        outgoingBatch[ count++ ].setTuple( outgoingBuilders[ i ].makeResult( batch[ i ].getTuple(), results[ i ] ) );
+      }
+
+    if( count == 0 )
+      return;
+
+    try
+      {
+      next.receiveBatch( this, 0, outgoingBatch, count );
+      }
+    catch( CascadingException exception )
+      {
+      handleException( exception, argumentsEntry );
+      }
+    catch( Throwable throwable )
+      {
+      handleException( new OperatorException( each, "operator Each failed executing operation", throwable ), argumentsEntry );
+      }
+    finally
+      {
+      for( int i = 0; i < count; i++ )
+        Tuples.asModifiable( outgoingBatch[ i ].getTuple() );
+      }
+    }
+
+  private void growResults()
+    {
+    int size = batchArguments.length;
+    int current = outgoingBuilders == null ? 0 : outgoingBuilders.length;
+
+    results = new Tuple[ size ];
+    outgoingBuilders = outgoingBuilders == null ? new TupleBuilder[ size ] : Arrays.copyOf( outgoingBuilders, size );
+
+    // each result needs its own builder and entry, as builders may return a reused view
+    for( int i = 0; i < size; i++ )
+      {
+      outgoingBatch[ i ] = new TupleEntry( outgoingEntry.getFields(), true );
+
+      if( i >= current )
+        outgoingBuilders[ i ] = createOutgoingBuilder( getOperator(), getIncomingPassThroughFields(), argumentsSelector, remainderFields, getOperationDeclaredFields(), outgoingSelector );
+      }
+    }
   }
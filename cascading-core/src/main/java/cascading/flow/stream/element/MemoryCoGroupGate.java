@@ -21,11 +21,14 @@
 
 package cascading.flow.stream.element;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 
 import cascading.flow.FlowProcess;
 import cascading.flow.stream.duct.Duct;
@@ -35,15 +38,59 @@ import cascading.tuple.TupleEntry;
 import cascading.tuple.Tuples;
 
 /**
- *
+ * Class MemoryCoGroupGate joins all incoming tuples in memory.
+ * <p/>
+ * Each producer thread writes into its own buffer, all buffers are merged by the completing thread.
  */
 public class MemoryCoGroupGate extends MemorySpliceGate
   {
+  /** Per thread key and value tuples, by incoming ordinal. */
+  private static class Buffer
+    {
+    final List<Tuple>[] keys;
+    final List<Tuple>[] values;
+    int size;
+
+    Buffer( int numOrdinals )
+      {
+      keys = new List[ numOrdinals ];
+      values = new List[ numOrdinals ];
+
+      for( int i = 0; i < numOrdinals; i++ )
+        {
+        keys[ i ] = new ArrayList<>();
+        values[ i ] = new ArrayList<>();
+        }
+      }
+    }
+
+  private final ProducerBuffers<Buffer> buffers = new ProducerBuffers<Buffer>()
+  {
+  @Override
+  protected Buffer createBuffer()
+    {
+    return new Buffer( getNumDeclaredIncomingBranches() );
+    }
+
+  @Override
+  protected int size( Buffer buffer )
+    {
+    return buffer.size;
+    }
+  };
+
   public MemoryCoGroupGate( FlowProcess flowProcess, Splice splice )
     {
     super( flowProcess, splice );
     }
 
+  @Override
+  protected Set<Tuple> createKeySet()
+    {
+    // only accessed by the completing thread
+    return new TreeSet<Tuple>( getKeyComparator() );
+    }
+
   @Override
   protected boolean isBlockingStreamed()
     {
@@ -63,8 +110,35 @@ public class MemoryCoGroupGate extends MemorySpliceGate
 
     groupTuple = getDelegatedTuple( groupTuple ); // wrap so hasher/comparator is honored
 
-    keys.add( groupTuple );
-    keyValues[ ordinal ].get( groupTuple ).add( valuesTuple );
+    Buffer buffer = buffers.get();
+
+    buffer.keys[ ordinal ].add( groupTuple );
+    buffer.values[ ordinal ].add( valuesTuple );
+    buffer.size++;
+    }
+
+  private void mergeBuffers()
+    {
+    // all writer threads are completed
+    for( Buffer buffer : buffers.drain() )
+      {
+      for( int i = 0; i < buffer.keys.length; i++ )
+        {
+        List<Tuple> groupTuples = buffer.keys[ i ];
+        List<Tuple> valuesTuples = buffer.values[ i ];
+
+        for( int j = 0; j < groupTuples.size(); j++ )
+          {
+          Tuple groupTuple = groupTuples.get( j );
+
+          keys.add( groupTuple );
+          keyValues[ i ].get( groupTuple ).add( valuesTuples.get( j ) );
+          }
+
+        groupTuples.clear();
+        valuesTuples.clear();
+        }
+      }
     }
 
   @Override
@@ -73,6 +147,8 @@ public class MemoryCoGroupGate extends MemorySpliceGate
     if( count.decrementAndGet() != 0 )
       return;
 
+    mergeBuffers();
+
     next.start( this );
 
     Collection<Tuple>[] collections = new Collection[ keyValues.length ];
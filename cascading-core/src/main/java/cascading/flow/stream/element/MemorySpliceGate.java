@@ -24,9 +24,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import cascading.flow.FlowProcess;
@@ -43,6 +46,85 @@ import static cascading.tuple.util.TupleViews.createNarrow;
  */
 public abstract class MemorySpliceGate extends GroupingSpliceGate
   {
+  /**
+   * Num_Producer_Threads is the number of threads that concurrently wrote into the gate, each through its own
+   * {@link ProducerBuffers} buffer, instead of contending on a shared collection.
+   */
+  public enum Contention
+    {
+      Num_Producer_Threads, Num_Buffered_Tuples
+    }
+
+  /**
+   * Class ProducerBuffers hands each producer thread its own buffer, so that writes into a gate need no locking.
+   * <p/>
+   * All buffers are handed to the single completing thread via {@link #drain()}. The caller must guarantee
+   * all producers have completed, typically via the gate's incoming path count.
+   *
+   * @param <B> the buffer type
+   */
+  protected abstract class ProducerBuffers<B>
+    {
+    private volatile ThreadLocal<B> local = new ThreadLocal<>();
+    private final Queue<B> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger numBuffers = new AtomicInteger();
+
+    protected abstract B createBuffer();
+
+    protected abstract int size( B buffer );
+
+    public B get()
+      {
+      B buffer = local.get();
+
+      if( buffer == null )
+        {
+        buffer = createBuffer();
+        local.set( buffer );
+        buffers.add( buffer );
+        numBuffers.incrementAndGet();
+        }
+
+      return buffer;
+      }
+
+    /**
+     * Method getNumBuffers returns the number of producer threads that have written since the last drain.
+     *
+     * @return int
+     */
+    public int getNumBuffers()
+      {
+      return numBuffers.get();
+      }
+
+    /**
+     * Method drain returns all buffers written since the last drain, in the order first written to.
+     * Subsequent writes start with new buffers.
+     *
+     * @return List of buffers
+     */
+    public List<B> drain()
+      {
+      local = new ThreadLocal<>();
+
+      List<B> result = new ArrayList<>( buffers );
+
+      buffers.clear();
+      numBuffers.set( 0 );
+
+      long numTuples = 0;
+
+      for( B buffer : result )
+        numTuples += size( buffer );
+
+      flowProcess.increment( Contention.Num_Producer_Threads, result.size() );
+      flowProcess.increment( Contention.Num_Buffered_Tuples, numTuples );
+
+      return result;
+      }
+    }
+
   protected Set<Tuple> keys;
   protected Map<Tuple, Collection<Tuple>>[] keyValues;
 
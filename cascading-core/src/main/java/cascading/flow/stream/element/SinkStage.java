@@ -66,7 +66,7 @@ public class SinkStage extends ElementStage<TupleEntry, Void>
     try
       {
       // todo: pass the resolved fields down
-      collector = sink.openForWrite( flowProcess, getOutput() );
+      collector = openCollector();
 
       if( sink.getSinkFields().isAll() )
         {
@@ -80,6 +80,11 @@ public class SinkStage extends ElementStage<TupleEntry, Void>
       }
     }
 
+  protected TupleEntryCollector openCollector() throws IOException
+    {
+    return sink.openForWrite( flowProcess, getOutput() );
+    }
+
   protected Object getOutput()
     {
     return null;
@@ -43,6 +43,7 @@ public class SourceStage extends ElementStage<Void, TupleEntry> implements Calla
   private static final Logger LOG = LoggerFactory.getLogger( SourceStage.class );
 
   private final Tap source;
+  private int batchSize;
 
   public SourceStage( FlowProcess flowProcess, Tap source )
     {
@@ -55,6 +56,26 @@ public class SourceStage extends ElementStage<Void, TupleEntry> implements Calla
     return source;
     }
 
+  public int getBatchSize()
+    {
+    return batchSize;
+    }
+
+  /**
+   * Method setBatchSize sets the number of entries read before being passed to the next duct as a batch,
+   * see {@link Duct#receiveBatch(Duct, int, Object[], int)}. Each entry of a batch holds a copy of the tuple read.
+   * When zero, the default, each entry is passed on as it is read.
+   *
+   * @param batchSize of type int
+   */
+  public void setBatchSize( int batchSize )
+    {
+    if( batchSize < 0 )
+      throw new IllegalArgumentException( "batch size may not be negative, got: " + batchSize );
+
+    this.batchSize = batchSize;
+    }
+
   @Override
   public Throwable call() throws Exception
     {
@@ -74,6 +95,8 @@ public class SourceStage extends ElementStage<Void, TupleEntry> implements Calla
     {
     Throwable localThrowable = null;
     TupleEntryIterator iterator = null;
+    TupleEntry[] batch = batchSize == 0 ? null : new TupleEntry[ batchSize ];
+    int count = 0;
 
     try
       {
@@ -108,9 +131,28 @@ public class SourceStage extends ElementStage<Void, TupleEntry> implements Calla
           continue;
           }
 
-        next.receive( this, 0, tupleEntry );
+        if( batch == null )
+          {
+          next.receive( this, 0, tupleEntry );
+          continue;
+          }
+
+        // the iterator may reuse the tuple
+        if( batch[ count ] == null || batch[ count ].getFields() != tupleEntry.getFields() )
+          batch[ count ] = new TupleEntry( tupleEntry.getFields(), true );
+
+        batch[ count++ ].setTuple( tupleEntry.getTupleCopy() );
+
+        if( count == batchSize )
+          {
+          next.receiveBatch( this, 0, batch, count );
+          count = 0;
+          }
         }
 
+      if( count != 0 )
+        next.receiveBatch( this, 0, batch, count );
+
       next.complete( this );
       }
     catch( Throwable throwable )
@@ -21,6 +21,7 @@
 
 package cascading.flow.stream.graph;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -36,11 +37,14 @@ import cascading.flow.planner.graph.ElementGraph;
 import cascading.flow.planner.graph.Extent;
 import cascading.flow.stream.annotations.BlockingMode;
 import cascading.flow.stream.duct.Duct;
+import cascading.flow.stream.duct.DuctGraph;
 import cascading.flow.stream.duct.Gate;
 import cascading.flow.stream.element.AggregatorEveryStage;
 import cascading.flow.stream.element.BufferEveryWindow;
+import cascading.flow.stream.element.EachStage;
 import cascading.flow.stream.element.ElementDuct;
 import cascading.flow.stream.element.ElementFlowProcess;
+import cascading.flow.stream.element.ElementTimer;
 import cascading.flow.stream.element.FilterEachStage;
 import cascading.flow.stream.element.FunctionEachStage;
 import cascading.flow.stream.element.GroupAssertionEveryStage;
@@ -65,20 +69,46 @@ import cascading.tap.Tap;
 import cascading.util.Util;
 
 /**
- *
+ * Class NodeStreamGraph builds the stream graph of a {@link FlowNode}, one duct per {@link FlowElement}.
+ * <p/>
+ * When bound, consecutive filter {@link Each} stages are fused into the stage before them, so each outgoing
+ * entry is evaluated by every filter inline, see {@link EachStage#setFusedFilters(FilterEachStage[])}. Set the
+ * {@link #FILTER_FUSION} property to {@code false} to disable. Only filters are fused, function Each stages are
+ * always called through the stream graph.
+ * <p/>
+ * When the {@link #ELEMENT_TIMING_SAMPLE_RATE} property is set, the calls into each pipe element are sampled by an
+ * {@link ElementTimer}, and each filter Each stage remains a separate stage so its own time can be reported.
+ * <p/>
+ * When the {@link #BATCH_SIZE} property is set, each {@link SourceStage} passes batches of entries downstream, and
+ * filter Each stages are not fused, as each filter stage then processes a whole batch at once.
  */
 public abstract class NodeStreamGraph extends StreamGraph
   {
+  /** Property denoting whether consecutive filter Each stages are fused into the prior Each stage, true by default. */
+  public final static String FILTER_FUSION = "cascading.stream.filter.fusion";
+  /**
+   * Property denoting the rate, one in every N incoming tuples, at which the time spent by each pipe element is
+   * sampled, disabled by default.
+   */
+  public final static String ELEMENT_TIMING_SAMPLE_RATE = "cascading.stream.timing.sample.rate";
+  /**
+   * Property denoting the number of entries read by a source before being passed downstream as a batch, disabled by
+   * default. See {@link cascading.operation.BatchFilter} and {@link cascading.operation.BatchFunction}.
+   */
+  public final static String BATCH_SIZE = "cascading.stream.batch.size";
+
   protected FlowProcess flowProcess;
   protected final FlowNode node;
   protected FlowElement streamedSource;
   protected final ElementGraph elementGraph;
+  protected ElementTimer elementTimer;
 
   public NodeStreamGraph( FlowProcess flowProcess, FlowNode node )
     {
     this.flowProcess = flowProcess;
     this.node = node;
     this.elementGraph = node.getElementGraph();
+    this.elementTimer = createElementTimer();
     }
 
   public NodeStreamGraph( FlowProcess flowProcess, FlowNode node, FlowElement streamedSource )
@@ -87,6 +117,7 @@ public abstract class NodeStreamGraph extends StreamGraph
     this.node = node;
     this.elementGraph = streamedSource == null ? node.getElementGraph() : node.getPipelineGraphFor( streamedSource );
     this.streamedSource = streamedSource;
+    this.elementTimer = createElementTimer();
     }
 
   protected Object getProperty( String name )
@@ -94,6 +125,112 @@ public abstract class NodeStreamGraph extends StreamGraph
     return flowProcess.getProperty( name );
     }
 
+  private ElementTimer createElementTimer()
+    {
+    Object sampleRate = getProperty( ELEMENT_TIMING_SAMPLE_RATE );
+
+    if( sampleRate == null || Integer.parseInt( sampleRate.toString() ) <= 0 )
+      return null;
+
+    return new ElementTimer( Integer.parseInt( sampleRate.toString() ) );
+    }
+
+  public ElementTimer getElementTimer()
+    {
+    return elementTimer;
+    }
+
+  @Override
+  public void bind()
+    {
+    super.bind();
+
+    int batchSize = getBatchSize();
+
+    if( batchSize != 0 )
+      setBatchSize( batchSize );
+
+    // fused filters are never called through a timed duct, and would evaluate batches one entry at a time
+    if( elementTimer != null || batchSize != 0 )
+      return;
+
+    Object fusion = getProperty( FILTER_FUSION );
+
+    if( fusion == null || Boolean.parseBoolean( fusion.toString() ) )
+      fuseFilterStages();
+    }
+
+  @Override
+  public void cleanup()
+    {
+    super.cleanup();
+
+    if( elementTimer != null )
+      elementTimer.flush( flowProcess );
+    }
+
+  @Override
+  protected Duct wrapWithOrdinal( DuctGraph.Ordinal edge, Duct next )
+    {
+    Duct duct = super.wrapWithOrdinal( edge, next );
+
+    if( elementTimer == null || !( next instanceof ElementDuct ) )
+      return duct;
+
+    return elementTimer.wrap( (ElementDuct) next, duct );
+    }
+
+  @Override
+  protected Duct wrapWindowed( Duct next )
+    {
+    if( elementTimer == null || !( next instanceof ElementDuct ) )
+      return next;
+
+    return elementTimer.wrap( (ElementDuct) next, next );
+    }
+
+  private int getBatchSize()
+    {
+    Object batchSize = getProperty( BATCH_SIZE );
+
+    if( batchSize == null )
+      return 0;
+
+    return Math.max( 0, Integer.parseInt( batchSize.toString() ) );
+    }
+
+  protected void setBatchSize( int batchSize )
+    {
+    for( Duct duct : getAllDucts() )
+      {
+      if( duct instanceof SourceStage )
+        ( (SourceStage) duct ).setBatchSize( batchSize );
+      }
+    }
+
+  /** Fuses each chain of filter stages immediately following a function or filter stage into that stage. */
+  protected void fuseFilterStages()
+    {
+    for( Duct duct : getAllDucts() )
+      {
+      if( !( duct instanceof FunctionEachStage ) && !( duct instanceof FilterEachStage ) )
+        continue;
+
+      List<FilterEachStage> filters = new ArrayList<>();
+      Duct next = duct.getNext();
+
+      // a fork or ordinal wrapper is never a filter stage, so only straight chains are fused
+      while( next instanceof FilterEachStage )
+        {
+        filters.add( (FilterEachStage) next );
+        next = next.getNext();
+        }
+
+      if( !filters.isEmpty() )
+        ( (EachStage) duct ).setFusedFilters( filters.toArray( new FilterEachStage[ filters.size() ] ) );
+      }
+    }
+
   protected void handleDuct( FlowElement lhsElement, Duct lhsDuct )
     {
     List<FlowElement> successors = elementGraph.successorListOf( lhsElement );
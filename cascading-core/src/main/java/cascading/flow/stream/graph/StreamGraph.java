@@ -263,13 +263,13 @@ public class StreamGraph
         }
 
       if( next instanceof OpenWindow )
-        return next;
+        return wrapWindowed( next );
 
       if( edges.size() > 1 )
         return createOpenWindow( createFork( findAllNextFor( current ) ) );
 
       if( next instanceof Reducing )
-        return createOpenReducingWindow( next );
+        return createOpenReducingWindow( wrapWindowed( next ) );
 
       return createOpenWindow( wrapWithOrdinal( edge, next ) );
       }
@@ -277,7 +277,7 @@ public class StreamGraph
     if( current instanceof Reducing )
       {
       if( next instanceof Reducing )
-        return next;
+        return wrapWindowed( next );
 
       if( edges.size() > 1 )
         return createCloseWindow( createFork( findAllNextFor( current ) ) );
@@ -302,6 +302,18 @@ public class StreamGraph
     return next;
     }
 
+  /**
+   * Method wrapWindowed allows a sub-class to wrap the given {@link Reducing} or {@link OpenWindow} duct, which is
+   * bound without an ordinal. If the given duct is {@link Reducing}, so must be the returned duct.
+   *
+   * @param next of type Duct
+   * @return Duct
+   */
+  protected Duct wrapWindowed( Duct next )
+    {
+    return next;
+    }
+
   protected Duct createCloseWindow( Duct next )
     {
     return new CloseReducingDuct( next );
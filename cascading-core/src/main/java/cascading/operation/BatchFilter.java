@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cascading.operation;
+
+import cascading.flow.FlowProcess;
+import cascading.tuple.TupleEntry;
+
+/**
+ * Interface BatchFilter marks a given {@link Filter} as able to test a whole batch of arguments in one call.
+ * <p/>
+ * Batches are only passed when the {@link cascading.flow.stream.graph.NodeStreamGraph#BATCH_SIZE} property is set,
+ * and only when no trap is bound to the filtering {@link cascading.pipe.Each} pipe, otherwise
+ * {@link #isRemove(FlowProcess, FilterCall)} is called for each argument in turn. Both methods must agree.
+ */
+public interface BatchFilter<Context> extends Filter<Context>
+  {
+  /**
+   * Method isRemove sets the {@code remove} flag of each of the first {@code size} arguments to true if the
+   * argument should be removed from the tuple stream. All flags are false when called.
+   * <p/>
+   * The argument entries, and arrays, are only valid for the duration of the call.
+   *
+   * @param flowProcess of type FlowProcess
+   * @param filterCall  of type FilterCall
+   * @param arguments   of type TupleEntry[]
+   * @param remove      of type boolean[]
+   * @param size        of type int
+   */
+  void isRemove( FlowProcess flowProcess, FilterCall<Context> filterCall, TupleEntry[] arguments, boolean[] remove, int size );
+  }
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cascading.operation;
+
+import cascading.flow.FlowProcess;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+
+/**
+ * Interface BatchFunction marks a given {@link Function} as able to operate on a whole batch of arguments in one call,
+ * returning at most one result per argument.
+ * <p/>
+ * Batches are only passed when the {@link cascading.flow.stream.graph.NodeStreamGraph#BATCH_SIZE} property is set,
+ * and only when no trap is bound to the operating {@link cascading.pipe.Each} pipe, otherwise
+ * {@link #operate(FlowProcess, FunctionCall)} is called for each argument in turn. Both methods must agree.
+ */
+public interface BatchFunction<Context> extends Function<Context>
+  {
+  /**
+   * Method operate sets the result of each of the first {@code size} arguments to the same index of the
+   * {@code results} array, leaving null if the argument has no result. All results are null when called.
+   * <p/>
+   * Each result must be a distinct Tuple instance. The argument entries, and arrays, are only valid for the duration
+   * of the call.
+   *
+   * @param flowProcess  of type FlowProcess
+   * @param functionCall of type FunctionCall
+   * @param arguments    of type TupleEntry[]
+   * @param results      of type Tuple[]
+   * @param size         of type int
+   */
+  void operate( FlowProcess flowProcess, FunctionCall<Context> functionCall, TupleEntry[] arguments, Tuple[] results, int size );
+  }
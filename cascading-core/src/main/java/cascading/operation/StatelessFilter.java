@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.operation;
+
+/**
+ * Interface StatelessFilter marks a given {@link Filter} as one whose result depends only on the arguments of the
+ * current call, and not on any argument seen before it, or how many.
+ * <p/>
+ * Such a filter may be applied by the planner to values other than the stream they were declared against, for
+ * example to the partition values of a {@link cascading.tap.partition.BasePartitionTap} source, see
+ * {@link cascading.flow.FlowConnectorProps#ENABLE_PARTITION_PRUNING}.
+ */
+public interface StatelessFilter<Context> extends Filter<Context>
+  {
+  }
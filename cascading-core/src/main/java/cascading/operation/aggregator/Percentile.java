@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.operation.aggregator;
+
+import java.beans.ConstructorProperties;
+import java.util.Arrays;
+
+import cascading.flow.FlowProcess;
+import cascading.operation.Aggregator;
+import cascading.operation.AggregatorCall;
+import cascading.operation.BaseOperation;
+import cascading.operation.OperationCall;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+import cascading.tuple.coerce.Coercions;
+import cascading.tuple.type.CoercibleType;
+import cascading.util.TDigest;
+
+/**
+ * Class Percentile is an {@link Aggregator} that returns estimated percentiles, like the 50th or 99th, of all numeric
+ * values in the current group.
+ * <p/>
+ * Values are added to a {@link TDigest}, so the memory held per group is bounded by the {@code compression}
+ * regardless of the number of values, and no sort is required. Each given percentile, between 0 and 100 inclusive,
+ * is returned in the corresponding field of the field declaration. Null values are ignored, and null is returned
+ * for groups without values.
+ * <p/>
+ * See {@link cascading.pipe.assembly.PercentileBy} to additionally combine digests map-side.
+ */
+public class Percentile extends BaseOperation<Percentile.Context> implements Aggregator<Percentile.Context>
+  {
+  /** Field FIELD_NAME */
+  public static final String FIELD_NAME = "percentile";
+
+  private final double compression;
+  private final double[] percentiles;
+
+  /** Class Context is used to hold intermediate values. */
+  public static class Context
+    {
+    private final double compression;
+    private final double[] percentiles;
+    private final CoercibleType[] canonicals;
+
+    Tuple tuple;
+    TDigest digest;
+
+    public Context( Fields fieldDeclaration, double compression, double[] percentiles )
+      {
+      this.compression = compression;
+      this.percentiles = percentiles;
+      this.canonicals = new CoercibleType[ percentiles.length ];
+      this.tuple = Tuple.size( percentiles.length );
+
+      for( int i = 0; i < canonicals.length; i++ )
+        canonicals[ i ] = Coercions.coercibleTypeFor( fieldDeclaration.hasTypes() ? fieldDeclaration.getType( i ) : Double.class );
+      }
+
+    public Context reset()
+      {
+      digest = null;
+
+      return this;
+      }
+
+    public TDigest getDigest()
+      {
+      if( digest == null )
+        digest = new TDigest( compression );
+
+      return digest;
+      }
+
+    public void merge( TDigest digest )
+      {
+      if( this.digest == null )
+        this.digest = digest;
+      else
+        this.digest.merge( digest );
+      }
+
+    public Tuple result()
+      {
+      for( int i = 0; i < percentiles.length; i++ )
+        {
+        if( digest == null || digest.size() == 0 )
+          tuple.set( i, null );
+        else
+          tuple.set( i, canonicals[ i ].canonical( digest.quantile( percentiles[ i ] / 100 ) ) );
+        }
+
+      return tuple;
+      }
+    }
+
+  /**
+   * Method verify throws an IllegalArgumentException if the given percentiles are not between 0 and 100, or
+   * do not match the size of the given field declaration.
+   *
+   * @param fieldDeclaration of type Fields
+   * @param percentiles      of type double[]
+   */
+  public static void verify( Fields fieldDeclaration, double[] percentiles )
+    {
+    if( percentiles == null || percentiles.length == 0 )
+      throw new IllegalArgumentException( "at least one percentile must be given" );
+
+    for( double percentile : percentiles )
+      {
+      if( !( percentile >= 0 && percentile <= 100 ) )
+        throw new IllegalArgumentException( "percentile must be between 0 and 100, got: " + percentile );
+      }
+
+    if( fieldDeclaration.size() != percentiles.length )
+      throw new IllegalArgumentException( "fieldDeclaration must declare a field for each percentile, got: " + fieldDeclaration.size() + ", expected: " + percentiles.length );
+    }
+
+  /**
+   * Constructs a new instance that returns the given percentile of the values encountered in the field name "percentile".
+   *
+   * @param percentile of type double
+   */
+  @ConstructorProperties({"percentile"})
+  public Percentile( double percentile )
+    {
+    this( new Fields( FIELD_NAME, Double.class ), percentile );
+    }
+
+  /**
+   * Constructs a new instance that returns the given percentiles of the values encountered in the given
+   * fieldDeclaration field names.
+   *
+   * @param fieldDeclaration of type Fields
+   * @param percentiles      of type double...
+   */
+  @ConstructorProperties({"fieldDeclaration", "percentiles"})
+  public Percentile( Fields fieldDeclaration, double... percentiles )
+    {
+    this( fieldDeclaration, TDigest.DEFAULT_COMPRESSION, percentiles );
+    }
+
+  /**
+   * Constructs a new instance that returns the given percentiles of the values encountered in the given
+   * fieldDeclaration field names.
+   *
+   * @param fieldDeclaration of type Fields
+   * @param compression      of type double
+   * @param percentiles      of type double[]
+   */
+  @ConstructorProperties({"fieldDeclaration", "compression", "percentiles"})
+  public Percentile( Fields fieldDeclaration, double compression, double[] percentiles )
+    {
+    super( 1, fieldDeclaration );
+
+    verify( fieldDeclaration, percentiles );
+    new TDigest( compression ); // fail fast on an invalid compression
+
+    this.compression = compression;
+    this.percentiles = percentiles.clone();
+    }
+
+  public double getCompression()
+    {
+    return compression;
+    }
+
+  public double[] getPercentiles()
+    {
+    return percentiles.clone();
+    }
+
+  @Override
+  public void prepare( FlowProcess flowProcess, OperationCall<Context> operationCall )
+    {
+    operationCall.setContext( new Context( getFieldDeclaration(), compression, percentiles ) );
+    }
+
+  @Override
+  public void start( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+    {
+    aggregatorCall.getContext().reset();
+    }
+
+  @Override
+  public void aggregate( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+    {
+    TupleEntry arguments = aggregatorCall.getArguments();
+
+    if( arguments.getObject( 0 ) == null )
+      return;
+
+    aggregatorCall.getContext().getDigest().add( arguments.getDouble( 0 ) );
+    }
+
+  @Override
+  public void complete( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+    {
+    aggregatorCall.getOutputCollector().add( aggregatorCall.getContext().result() );
+    }
+
+  @Override
+  public boolean equals( Object object )
+    {
+    if( this == object )
+      return true;
+    if( !( object instanceof Percentile ) )
+      return false;
+    if( !super.equals( object ) )
+      return false;
+
+    Percentile that = (Percentile) object;
+
+    if( Double.compare( that.compression, compression ) != 0 )
+      return false;
+
+    return Arrays.equals( percentiles, that.percentiles );
+    }
+
+  @Override
+  public int hashCode()
+    {
+    int result = super.hashCode();
+    long bits = Double.doubleToLongBits( compression );
+    result = 31 * result + (int) ( bits ^ ( bits >>> 32 ) );
+    result = 31 * result + Arrays.hashCode( percentiles );
+    return result;
+    }
+  }
@@ -22,8 +22,11 @@ package cascading.operation.filter;
 
 import cascading.flow.FlowProcess;
 import cascading.operation.BaseOperation;
-import cascading.operation.Filter;
+import cascading.operation.BatchFilter;
 import cascading.operation.FilterCall;
+import cascading.operation.StatelessFilter;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
 
 /**
  * Class FilterNull verifies that every value in the argument values {@link cascading.tuple.Tuple}
@@ -31,12 +34,24 @@ import cascading.operation.FilterCall;
  *
  * @see FilterNotNull
  */
-public class FilterNull extends BaseOperation implements Filter
+public class FilterNull extends BaseOperation implements BatchFilter, StatelessFilter
   {
   @Override
   public boolean isRemove( FlowProcess flowProcess, FilterCall filterCall )
     {
-    for( Object value : filterCall.getArguments().getTuple() )
+    return isRemove( filterCall.getArguments().getTuple() );
+    }
+
+  @Override
+  public void isRemove( FlowProcess flowProcess, FilterCall filterCall, TupleEntry[] arguments, boolean[] remove, int size )
+    {
+    for( int i = 0; i < size; i++ )
+      remove[ i ] = isRemove( arguments[ i ].getTuple() );
+    }
+
+  private static boolean isRemove( Tuple tuple )
+    {
+    for( Object value : tuple )
       {
       if( value == null )
         return true;
@@ -24,8 +24,8 @@ import java.beans.ConstructorProperties;
 import java.util.regex.Matcher;
 
 import cascading.flow.FlowProcess;
-import cascading.operation.Filter;
 import cascading.operation.FilterCall;
+import cascading.operation.StatelessFilter;
 
 /**
  * Class RegexFilter will apply the regex patternString against every input Tuple value and filter
@@ -49,7 +49,7 @@ import cascading.operation.FilterCall;
  * @see java.util.regex.Matcher
  * @see java.util.regex.Pattern
  */
-public class RegexFilter extends RegexMatcher implements Filter<Matcher>
+public class RegexFilter extends RegexMatcher implements StatelessFilter<Matcher>
   {
   /** Field matchEachElement */
   protected final boolean matchEachElement;
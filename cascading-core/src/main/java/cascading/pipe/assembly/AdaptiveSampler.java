@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.pipe.assembly;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import cascading.flow.FlowProcess;
+import cascading.operation.BaseOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class AdaptiveSampler observes the cache hits and misses of a partial aggregation over the first tuples seen
+ * by a slice, and decides if the cache is paying off or if the slice should pass all further tuples through.
+ * <p/>
+ * A decision is retained for the lifetime of the JVM under the current step and operation, so that later slices
+ * executed in the same JVM skip sampling and reuse it.
+ */
+class AdaptiveSampler
+  {
+  /** logger */
+  private static final Logger LOG = LoggerFactory.getLogger( AdaptiveSampler.class );
+
+  /** most number of decisions retained. */
+  static final int MAX_DECISIONS = 1024;
+
+  private static final Map<String, Boolean> decisions = Collections.synchronizedMap( new LinkedHashMap<String, Boolean>()
+  {
+  @Override
+  protected boolean removeEldestEntry( Map.Entry<String, Boolean> eldest )
+    {
+    return size() > MAX_DECISIONS;
+    }
+  } );
+
+  private final String key;
+  private final long sampleSize;
+  private final double minHitRatio;
+
+  private long sampled;
+  private long hits;
+  private Boolean passThrough;
+
+  /**
+   * Method create returns a new AdaptiveSampler if the given enabled property is true, otherwise null.
+   */
+  static AdaptiveSampler create( FlowProcess flowProcess, BaseOperation operation, String enabledProperty, String sampleSizeProperty, int defaultSampleSize, String minHitRatioProperty, double defaultMinHitRatio )
+    {
+    if( !flowProcess.getBooleanProperty( enabledProperty, false ) )
+      return null;
+
+    int sampleSize = flowProcess.getIntegerProperty( sampleSizeProperty, defaultSampleSize );
+    String minHitRatio = flowProcess.getStringProperty( minHitRatioProperty );
+    double ratio = minHitRatio == null || minHitRatio.isEmpty() ? defaultMinHitRatio : Double.parseDouble( minHitRatio );
+
+    String key = flowProcess.getID() + ":" + operation.getClass().getName() + ":" + operation.hashCode() + ":" + operation.getTrace();
+
+    return new AdaptiveSampler( key, sampleSize, ratio );
+    }
+
+  AdaptiveSampler( String key, long sampleSize, double minHitRatio )
+    {
+    if( sampleSize < 1 )
+      throw new IllegalArgumentException( "sample size must be larger than 0, got: " + sampleSize );
+
+    this.key = key;
+    this.sampleSize = sampleSize;
+    this.minHitRatio = minHitRatio;
+    this.passThrough = decisions.get( key );
+
+    if( passThrough != null )
+      LOG.info( "reusing prior decision, passing through: {}, for: {}", passThrough, key );
+    }
+
+  /**
+   * Method isDecided returns true if sampling has completed, or a prior decision was reused.
+   */
+  boolean isDecided()
+    {
+    return passThrough != null;
+    }
+
+  /**
+   * Method isPassThrough returns true if the cache has been found not to pay off.
+   */
+  boolean isPassThrough()
+    {
+    return passThrough != null && passThrough;
+    }
+
+  /**
+   * Method sample records a cache hit or miss, and returns true once the sample is complete and a decision made.
+   */
+  boolean sample( boolean hit )
+    {
+    if( passThrough != null )
+      return false;
+
+    sampled++;
+
+    if( hit )
+      hits++;
+
+    if( sampled < sampleSize )
+      return false;
+
+    double hitRatio = (double) hits / sampled;
+
+    passThrough = hitRatio < minHitRatio;
+
+    decisions.put( key, passThrough );
+
+    LOG.info( "sampled {} tuples with cache hit ratio: {}, minimum hit ratio: {}, passing through: {}", sampled, hitRatio, minHitRatio, passThrough );
+
+    return true;
+    }
+
+  /** for testing */
+  static void clearDecisions()
+    {
+    decisions.clear();
+    }
+  }
@@ -55,6 +55,8 @@ import cascading.tuple.util.TupleViews;
 import cascading.util.cache.BaseCacheFactory;
 import cascading.util.cache.CacheEvictionCallback;
 import cascading.util.cache.CascadingCache;
+import cascading.util.cache.OffHeapDirectMappedCacheFactory;
+import cascading.util.cache.OpenAddressingCache;
 
 /**
  * Class AggregateBy is a {@link SubAssembly} that serves two roles for handling aggregate operations.
@@ -100,6 +102,17 @@ import cascading.util.cache.CascadingCache;
  * by setting {@link cascading.pipe.assembly.AggregateByProps#AGGREGATE_BY_CACHE_FACTORY} property to the name of a sub-class of
  * {@link cascading.util.cache.BaseCacheFactory}.
  * <p/>
+ * For keys of high cardinality, consider the {@link cascading.util.cache.OpenAddressingCacheFactory}, its caches hold
+ * more keys in the same memory and may be bounded by bytes instead of keys via the
+ * {@link cascading.pipe.assembly.AggregateByProps#AGGREGATE_BY_CAPACITY_BYTES} property. For caches of millions of
+ * keys, the {@link cascading.util.cache.OffHeapDirectMappedCacheFactory} keeps the keys and partial aggregates serialized
+ * off-heap, out of reach of the garbage collector.
+ * <p/>
+ * If the grouping keys are nearly unique, the cache costs more than it saves. Setting the
+ * {@link cascading.pipe.assembly.AggregateByProps#AGGREGATE_BY_ADAPTIVE} property samples the cache hit ratio over the
+ * first tuples of each slice, and passes all further tuples through un-aggregated if the ratio is too low. The
+ * {@link Cache#Num_Slices_Cached} and {@link Cache#Num_Slices_Passed_Through} counters report the decisions made.
+ * <p/>
  * Note using a AggregateBy instance automatically inserts a {@link GroupBy} into the resulting {@link cascading.flow.Flow}.
  * And passing multiple AggregateBy instances to a parent AggregateBy instance still results in one GroupBy.
  * <p/>
@@ -114,6 +127,8 @@ import cascading.util.cache.CascadingCache;
  * @see cascading.util.cache.DirectMappedCacheFactory
  * @see cascading.util.cache.LRUHashMapCache
  * @see cascading.util.cache.DirectMappedCache
+ * @see cascading.util.cache.OpenAddressingCacheFactory
+ * @see cascading.util.cache.OffHeapDirectMappedCacheFactory
  */
 public class AggregateBy extends SubAssembly
   {
@@ -131,7 +146,10 @@ public class AggregateBy extends SubAssembly
     {
       Num_Keys_Flushed,
       Num_Keys_Hit,
-      Num_Keys_Missed
+      Num_Keys_Missed,
+      Num_Keys_Passed_Through,
+      Num_Slices_Cached,
+      Num_Slices_Passed_Through
     }
 
   /**
@@ -195,6 +213,7 @@ public class AggregateBy extends SubAssembly
       CascadingCache<Tuple, Tuple[]> lru;
       TupleEntry[] arguments;
       Tuple result;
+      AdaptiveSampler sampler;
       }
 
     /**
@@ -304,7 +323,7 @@ public class AggregateBy extends SubAssembly
       if( factory == null )
         throw new CascadingException( "unable to load cache factory, please check your '" + AggregateByProps.AGGREGATE_BY_CACHE_FACTORY + "' setting." );
 
-      CascadingCache<Tuple, Tuple[]> cache = factory.create( flowProcess );
+      CascadingCache<Tuple, Tuple[]> cache = OffHeapDirectMappedCacheFactory.onHeapIfHashed( factory.create( flowProcess ), tupleHasher );
 
       cache.setCacheEvictionCallback( new AggregateByEviction() );
 
@@ -317,10 +336,24 @@ public class AggregateBy extends SubAssembly
           cacheCapacity = AggregateByProps.AGGREGATE_BY_DEFAULT_CAPACITY;
         }
       cache.setCapacity( cacheCapacity.intValue() );
+
+      String capacityBytes = flowProcess.getStringProperty( AggregateByProps.AGGREGATE_BY_CAPACITY_BYTES );
+
+      if( cache instanceof OpenAddressingCache && capacityBytes != null && !capacityBytes.isEmpty() )
+        ( (OpenAddressingCache) cache ).setCapacityBytes( Long.parseLong( capacityBytes ) );
+
       cache.initialize();
 
       context.lru = cache;
 
+      context.sampler = AdaptiveSampler.create( flowProcess, this,
+        AggregateByProps.AGGREGATE_BY_ADAPTIVE,
+        AggregateByProps.AGGREGATE_BY_ADAPTIVE_SAMPLE_SIZE, AggregateByProps.AGGREGATE_BY_ADAPTIVE_DEFAULT_SAMPLE_SIZE,
+        AggregateByProps.AGGREGATE_BY_ADAPTIVE_MIN_HIT_RATIO, AggregateByProps.AGGREGATE_BY_ADAPTIVE_DEFAULT_MIN_HIT_RATIO );
+
+      if( context.sampler != null && context.sampler.isDecided() )
+        flowProcess.increment( context.sampler.isPassThrough() ? Cache.Num_Slices_Passed_Through : Cache.Num_Slices_Cached, 1 );
+
       operationCall.setContext( context );
       }
 
@@ -328,12 +361,19 @@ public class AggregateBy extends SubAssembly
     public void operate( FlowProcess flowProcess, FunctionCall<CompositeFunction.Context> functionCall )
       {
       TupleEntry arguments = functionCall.getArguments();
-      Tuple key = TupleHasher.wrapTuple( this.tupleHasher, arguments.selectTupleCopy( groupingFields ) );
-
       Context context = functionCall.getContext();
+
+      if( context.sampler != null && context.sampler.isPassThrough() )
+        {
+        passThrough( flowProcess, functionCall, arguments );
+        return;
+        }
+
+      Tuple key = TupleHasher.wrapTuple( this.tupleHasher, arguments.selectTupleCopy( groupingFields ) );
       Tuple[] functorContext = context.lru.get( key );
+      boolean hit = functorContext != null;
 
-      if( functorContext == null )
+      if( !hit )
         {
         functorContext = new Tuple[ functors.length ];
         context.lru.put( key, functorContext );
@@ -344,6 +384,36 @@ public class AggregateBy extends SubAssembly
         flowProcess.increment( Cache.Num_Keys_Hit, 1 );
         }
 
+      aggregateFunctors( flowProcess, context, arguments, functorContext );
+
+      if( context.sampler != null && context.sampler.sample( hit ) )
+        {
+        if( context.sampler.isPassThrough() )
+          {
+          flowProcess.increment( Cache.Num_Slices_Passed_Through, 1 );
+          flush( flowProcess, functionCall ); // release the cache, all further keys pass through
+          }
+        else
+          {
+          flowProcess.increment( Cache.Num_Slices_Cached, 1 );
+          }
+        }
+      }
+
+    private void passThrough( FlowProcess flowProcess, FunctionCall<Context> functionCall, TupleEntry arguments )
+      {
+      Context context = functionCall.getContext();
+      Tuple[] functorContext = new Tuple[ functors.length ];
+
+      aggregateFunctors( flowProcess, context, arguments, functorContext );
+
+      completeFunctors( flowProcess, functionCall.getOutputCollector(), context.result, arguments.selectTupleCopy( groupingFields ), functorContext );
+
+      flowProcess.increment( Cache.Num_Keys_Passed_Through, 1 );
+      }
+
+    private void aggregateFunctors( FlowProcess flowProcess, Context context, TupleEntry arguments, Tuple[] functorContext )
+      {
       for( int i = 0; i < functors.length; i++ )
         {
         TupleViews.reset( context.arguments[ i ].getTuple(), arguments.getTuple() );
@@ -374,11 +444,14 @@ public class AggregateBy extends SubAssembly
 
     private void completeFunctors( FlowProcess flowProcess, TupleEntryCollector outputCollector, Tuple result, Map.Entry<Tuple, Tuple[]> entry )
       {
-      Tuple[] results = new Tuple[ functors.length + 1 ];
+      completeFunctors( flowProcess, outputCollector, result, entry.getKey(), entry.getValue() );
+      }
 
-      results[ 0 ] = entry.getKey();
+    private void completeFunctors( FlowProcess flowProcess, TupleEntryCollector outputCollector, Tuple result, Tuple key, Tuple[] values )
+      {
+      Tuple[] results = new Tuple[ functors.length + 1 ];
 
-      Tuple[] values = entry.getValue();
+      results[ 0 ] = key;
 
       for( int i = 0; i < functors.length; i++ )
         results[ i + 1 ] = functors[ i ].complete( flowProcess, values[ i ] );
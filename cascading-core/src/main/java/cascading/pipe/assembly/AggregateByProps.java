@@ -38,6 +38,30 @@ public class AggregateByProps extends Props
   /** property to control the capacity of the cache to use. */
   public static final String AGGREGATE_BY_CAPACITY = "cascading.aggregateby.cache.capacity";
 
+  /**
+   * property to control the approximate number of bytes retained by the cache, only honored by caches bounded by
+   * bytes, see {@link cascading.util.cache.OpenAddressingCache}.
+   */
+  public static final String AGGREGATE_BY_CAPACITY_BYTES = "cascading.aggregateby.cache.capacity.bytes";
+
+  /**
+   * property to enable sampling the cache hit ratio over the first tuples seen by each slice, passing all further
+   * tuples through un-aggregated if the ratio is below {@link #AGGREGATE_BY_ADAPTIVE_MIN_HIT_RATIO}.
+   */
+  public static final String AGGREGATE_BY_ADAPTIVE = "cascading.aggregateby.cache.adaptive";
+
+  /** property to control the number of tuples sampled before deciding to pass through. */
+  public static final String AGGREGATE_BY_ADAPTIVE_SAMPLE_SIZE = "cascading.aggregateby.cache.adaptive.samplesize";
+
+  /** property to control the cache hit ratio below which the cache is disabled. */
+  public static final String AGGREGATE_BY_ADAPTIVE_MIN_HIT_RATIO = "cascading.aggregateby.cache.adaptive.minhitratio";
+
+  /** default number of tuples sampled. */
+  public static int AGGREGATE_BY_ADAPTIVE_DEFAULT_SAMPLE_SIZE = 100000;
+
+  /** default minimum cache hit ratio. */
+  public static double AGGREGATE_BY_ADAPTIVE_DEFAULT_MIN_HIT_RATIO = 0.5;
+
   /** default capacity of caches used in AggregateBy. */
   public static int AGGREGATE_BY_DEFAULT_CAPACITY = BaseCacheFactory.DEFAULT_CAPACITY;
 
@@ -103,6 +127,71 @@ public class AggregateByProps extends Props
     return Integer.valueOf( capacityValue );
     }
 
+  /**
+   * Sets the approximate number of bytes retained by the cache, if the cache is bounded by bytes.
+   *
+   * @param capacityBytes The capacity of the cache in bytes.
+   */
+  public AggregateByProps setCapacityBytes( long capacityBytes )
+    {
+    properties.setProperty( AGGREGATE_BY_CAPACITY_BYTES, String.valueOf( capacityBytes ) );
+    return this;
+    }
+
+  /**
+   * Returns the capacity in bytes, zero if not set.
+   *
+   * @return The capacity in bytes.
+   */
+  public long getCapacityBytes()
+    {
+    String capacityValue = properties.getProperty( AGGREGATE_BY_CAPACITY_BYTES );
+
+    if( capacityValue == null )
+      return 0;
+
+    return Long.valueOf( capacityValue );
+    }
+
+  /**
+   * Enables sampling the cache hit ratio, so that partial aggregation is disabled when it does not pay off.
+   *
+   * @param adaptive true to enable
+   */
+  public AggregateByProps setAdaptive( boolean adaptive )
+    {
+    properties.setProperty( AGGREGATE_BY_ADAPTIVE, String.valueOf( adaptive ) );
+    return this;
+    }
+
+  /**
+   * Sets the number of tuples sampled before deciding to disable partial aggregation.
+   *
+   * @param sampleSize The number of tuples to sample.
+   */
+  public AggregateByProps setAdaptiveSampleSize( int sampleSize )
+    {
+    if( sampleSize < 1 )
+      throw new IllegalArgumentException( "sample size must be larger than 0, got: " + sampleSize );
+
+    properties.setProperty( AGGREGATE_BY_ADAPTIVE_SAMPLE_SIZE, String.valueOf( sampleSize ) );
+    return this;
+    }
+
+  /**
+   * Sets the cache hit ratio, between 0 and 1, below which partial aggregation is disabled.
+   *
+   * @param minHitRatio The minimum hit ratio.
+   */
+  public AggregateByProps setAdaptiveMinHitRatio( double minHitRatio )
+    {
+    if( minHitRatio < 0 || minHitRatio > 1 )
+      throw new IllegalArgumentException( "hit ratio must be between 0 and 1, got: " + minHitRatio );
+
+    properties.setProperty( AGGREGATE_BY_ADAPTIVE_MIN_HIT_RATIO, String.valueOf( minHitRatio ) );
+    return this;
+    }
+
   /**
    * Returns the name of the cache factory.
    *
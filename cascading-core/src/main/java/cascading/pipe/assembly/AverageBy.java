@@ -30,6 +30,7 @@ import cascading.operation.BaseOperation;
 import cascading.operation.OperationCall;
 import cascading.pipe.Pipe;
 import cascading.tuple.Fields;
+import cascading.tuple.PrimitiveTuple;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
 import cascading.tuple.coerce.Coercions;
@@ -110,13 +111,13 @@ public class AverageBy extends AggregateBy
     public Tuple aggregate( FlowProcess flowProcess, TupleEntry args, Tuple context )
       {
       if( context == null )
-        context = Tuple.size( 2 );
+        context = new PrimitiveTuple( double.class, long.class );
 
       if( include == Include.NO_NULLS && args.getObject( 0 ) == null )
         return context;
 
-      context.set( 0, context.getDouble( 0 ) + args.getDouble( 0 ) );
-      context.set( 1, context.getLong( 1 ) + 1 );
+      context.setDouble( 0, context.getDouble( 0 ) + args.getDouble( 0 ) );
+      context.setLong( 1, context.getLong( 1 ) + 1 );
 
       return context;
       }
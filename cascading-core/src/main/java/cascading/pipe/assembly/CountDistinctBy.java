@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.pipe.assembly;
+
+import java.beans.ConstructorProperties;
+import java.lang.reflect.Type;
+
+import cascading.flow.FlowProcess;
+import cascading.operation.Aggregator;
+import cascading.operation.AggregatorCall;
+import cascading.operation.BaseOperation;
+import cascading.operation.OperationCall;
+import cascading.pipe.Pipe;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+import cascading.tuple.Tuples;
+import cascading.tuple.coerce.Coercions;
+import cascading.tuple.type.CoercibleType;
+import cascading.util.HyperLogLog;
+
+/**
+ * Class CountDistinctBy is used to estimate the number of distinct values of the valueFields in each grouping of
+ * a tuple stream. The resulting estimate is output as a long value in the specified countField.
+ * <p/>
+ * Typically counting distinct values relies on a {@link Unique} followed by a {@link CountBy}, shuffling every
+ * distinct value twice. CountDistinctBy instead adds the values of each grouping, map-side, into a
+ * {@link HyperLogLog} sketch (via {@link CountDistinctBy.CountDistinctPartials} {@link AggregateBy.Functor}) and
+ * only shuffles the sketches, which are then merged (via {@link CountDistinctBy.CountDistinctFinal}). The result is
+ * an approximation.
+ * <p/>
+ * The {@code precision} sets the largest size of each sketch, {@code 2^precision} bytes, and so its error, about
+ * {@code 1.04 / sqrt(2^precision)}. It defaults to {@link HyperLogLog#DEFAULT_PRECISION}. Sketches of groupings with
+ * few distinct values are held and shuffled sparsely, so the map side cache of many small groupings stays small. All
+ * are shuffled as a String so no serialization needs to be registered.
+ * <p/>
+ * Argument tuples with all null values are not counted, this is the same behavior as {@code select count(distinct foo)}
+ * in SQL.
+ * <p/>
+ * The {@code threshold} value tells the underlying CountDistinctPartials functions how many unique key sketches to
+ * accumulate in the LRU cache, before emitting the least recently used entry.
+ *
+ * @see AggregateBy
+ * @see HyperLogLog
+ */
+public class CountDistinctBy extends AggregateBy
+  {
+  /**
+   * Class CountDistinctPartials is a {@link AggregateBy.Functor} that is used to add the observed values of each
+   * grouping to a sketch.
+   *
+   * @see CountDistinctBy
+   */
+  public static class CountDistinctPartials implements Functor
+    {
+    private final Fields declaredFields;
+    private final int precision;
+
+    /**
+     * Constructor CountDistinctPartials creates a new CountDistinctPartials instance.
+     *
+     * @param declaredFields of type Fields
+     * @param precision      of type int
+     */
+    public CountDistinctPartials( Fields declaredFields, int precision )
+      {
+      this.declaredFields = declaredFields;
+      this.precision = precision;
+
+      if( !declaredFields.isDeclarator() || declaredFields.size() != 1 )
+        throw new IllegalArgumentException( "declaredFields should declare only one field name" );
+
+      new HyperLogLog( precision ); // fail fast on an invalid precision
+      }
+
+    @Override
+    public Fields getDeclaredFields()
+      {
+      return new Fields( CountDistinctBy.class.getPackage().getName() + "." + declaredFields.get( 0 ) + ".sketch", String.class );
+      }
+
+    @Override
+    public Tuple aggregate( FlowProcess flowProcess, TupleEntry args, Tuple context )
+      {
+      if( context == null )
+        context = new Tuple( new HyperLogLog( precision ) );
+
+      if( Tuples.frequency( args, null ) == args.size() )
+        return context;
+
+      HyperLogLog sketch = (HyperLogLog) context.getObject( 0 );
+
+      if( args.size() == 1 )
+        sketch.add( args.getObject( 0 ) );
+      else
+        sketch.add( args.getTuple() );
+
+      return context;
+      }
+
+    @Override
+    public Tuple complete( FlowProcess flowProcess, Tuple context )
+      {
+      context.set( 0, ( (HyperLogLog) context.getObject( 0 ) ).encode() );
+
+      return context;
+      }
+    }
+
+  /**
+   * Class CountDistinctFinal is used to merge the sketches of a grouping created by {@link CountDistinctPartials}
+   * and to emit the estimated number of distinct values.
+   */
+  public static class CountDistinctFinal extends BaseOperation<CountDistinctFinal.Context> implements Aggregator<CountDistinctFinal.Context>
+    {
+    /** Class Context is used to hold intermediate values. */
+    protected static class Context
+      {
+      HyperLogLog sketch;
+      CoercibleType canonical;
+
+      Tuple tuple = Tuple.size( 1 );
+
+      public Context( Fields fieldDeclaration )
+        {
+        Type type = Long.TYPE;
+
+        if( fieldDeclaration.hasTypes() )
+          type = fieldDeclaration.getType( 0 );
+
+        this.canonical = Coercions.coercibleTypeFor( type );
+        }
+
+      public Context reset()
+        {
+        sketch = null;
+
+        return this;
+        }
+
+      public Tuple result()
+        {
+        tuple.set( 0, canonical.canonical( sketch == null ? 0L : sketch.estimate() ) );
+
+        return tuple;
+        }
+      }
+
+    /**
+     * Constructor CountDistinctFinal creates a new CountDistinctFinal instance.
+     *
+     * @param fieldDeclaration of type Fields
+     */
+    @ConstructorProperties({"fieldDeclaration"})
+    public CountDistinctFinal( Fields fieldDeclaration )
+      {
+      super( 1, makeFieldDeclaration( fieldDeclaration ) );
+
+      if( !fieldDeclaration.isSubstitution() && fieldDeclaration.size() != 1 )
+        throw new IllegalArgumentException( "fieldDeclaration may only declare 1 field, got: " + fieldDeclaration.size() );
+      }
+
+    private static Fields makeFieldDeclaration( Fields fieldDeclaration )
+      {
+      if( fieldDeclaration.hasTypes() )
+        return fieldDeclaration;
+
+      return fieldDeclaration.applyTypes( Long.TYPE );
+      }
+
+    @Override
+    public void prepare( FlowProcess flowProcess, OperationCall<Context> operationCall )
+      {
+      operationCall.setContext( new Context( getFieldDeclaration() ) );
+      }
+
+    @Override
+    public void start( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+      {
+      aggregatorCall.getContext().reset();
+      }
+
+    @Override
+    public void aggregate( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+      {
+      Context context = aggregatorCall.getContext();
+      HyperLogLog sketch = HyperLogLog.decode( aggregatorCall.getArguments().getString( 0 ) );
+
+      if( context.sketch == null )
+        context.sketch = sketch;
+      else
+        context.sketch.merge( sketch );
+      }
+
+    @Override
+    public void complete( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+      {
+      aggregatorCall.getOutputCollector().add( aggregatorCall.getContext().result() );
+      }
+    }
+
+  //// AggregateBy param constructors
+
+  /**
+   * Constructor CountDistinctBy creates a new CountDistinctBy instance. Use this constructor when used with a
+   * {@link AggregateBy} instance.
+   *
+   * @param valueFields of type Fields
+   * @param countField  of type Fields
+   */
+  @ConstructorProperties({"valueFields", "countField"})
+  public CountDistinctBy( Fields valueFields, Fields countField )
+    {
+    this( valueFields, countField, HyperLogLog.DEFAULT_PRECISION );
+    }
+
+  /**
+   * Constructor CountDistinctBy creates a new CountDistinctBy instance. Use this constructor when used with a
+   * {@link AggregateBy} instance.
+   *
+   * @param valueFields of type Fields
+   * @param countField  of type Fields
+   * @param precision   of type int
+   */
+  @ConstructorProperties({"valueFields", "countField", "precision"})
+  public CountDistinctBy( Fields valueFields, Fields countField, int precision )
+    {
+    super( valueFields, new CountDistinctPartials( countField, precision ), new CountDistinctFinal( countField ) );
+    }
+
+  ///////
+
+  /**
+   * Constructor CountDistinctBy creates a new CountDistinctBy instance.
+   *
+   * @param pipe           of type Pipe
+   * @param groupingFields of type Fields
+   * @param valueFields    of type Fields
+   * @param countField     of type Fields
+   */
+  @ConstructorProperties({"pipe", "groupingFields", "valueFields", "countField"})
+  public CountDistinctBy( Pipe pipe, Fields groupingFields, Fields valueFields, Fields countField )
+    {
+    this( null, pipe, groupingFields, valueFields, countField, HyperLogLog.DEFAULT_PRECISION, USE_DEFAULT_THRESHOLD );
+    }
+
+  /**
+   * Constructor CountDistinctBy creates a new CountDistinctBy instance.
+   *
+   * @param pipe           of type Pipe
+   * @param groupingFields of type Fields
+   * @param valueFields    of type Fields
+   * @param countField     of type Fields
+   * @param precision      of type int
+   */
+  @ConstructorProperties({"pipe", "groupingFields", "valueFields", "countField", "precision"})
+  public CountDistinctBy( Pipe pipe, Fields groupingFields, Fields valueFields, Fields countField, int precision )
+    {
+    this( null, pipe, groupingFields, valueFields, countField, precision, USE_DEFAULT_THRESHOLD );
+    }
+
+  /**
+   * Constructor CountDistinctBy creates a new CountDistinctBy instance.
+   *
+   * @param name           of type String
+   * @param pipe           of type Pipe
+   * @param groupingFields of type Fields
+   * @param valueFields    of type Fields
+   * @param countField     of type Fields
+   * @param precision      of type int
+   * @param threshold      of type int
+   */
+  @ConstructorProperties({"name", "pipe", "groupingFields", "valueFields", "countField", "precision", "threshold"})
+  public CountDistinctBy( String name, Pipe pipe, Fields groupingFields, Fields valueFields, Fields countField, int precision, int threshold )
+    {
+    this( name, Pipe.pipes( pipe ), groupingFields, valueFields, countField, precision, threshold );
+    }
+
+  /**
+   * Constructor CountDistinctBy creates a new CountDistinctBy instance.
+   *
+   * @param name           of type String
+   * @param pipes          of type Pipe[]
+   * @param groupingFields of type Fields
+   * @param valueFields    of type Fields
+   * @param countField     of type Fields
+   * @param precision      of type int
+   * @param threshold      of type int
+   */
+  @ConstructorProperties({"name", "pipes", "groupingFields", "valueFields", "countField", "precision", "threshold"})
+  public CountDistinctBy( String name, Pipe[] pipes, Fields groupingFields, Fields valueFields, Fields countField, int precision, int threshold )
+    {
+    super( name, pipes, groupingFields, valueFields, new CountDistinctPartials( countField, precision ), new CountDistinctFinal( countField ), threshold );
+    }
+  }
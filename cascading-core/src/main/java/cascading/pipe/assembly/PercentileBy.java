@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.pipe.assembly;
+
+import java.beans.ConstructorProperties;
+
+import cascading.flow.FlowProcess;
+import cascading.operation.Aggregator;
+import cascading.operation.AggregatorCall;
+import cascading.operation.BaseOperation;
+import cascading.operation.OperationCall;
+import cascading.operation.aggregator.Percentile;
+import cascading.pipe.Pipe;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+import cascading.util.TDigest;
+
+/**
+ * Class PercentileBy is used to estimate percentiles, like the 50th or 99th, of the numeric valueField in each
+ * grouping of a tuple stream. Each given percentile, between 0 and 100 inclusive, is output as a double value in the
+ * corresponding percentileFields field.
+ * <p/>
+ * Typically computing percentiles relies on a {@link cascading.pipe.GroupBy} and a
+ * {@link cascading.operation.Buffer} sorting every value of a grouping, shuffling every value. PercentileBy instead
+ * adds the values of each grouping, map-side, into a {@link TDigest} (via
+ * {@link PercentileBy.PercentilePartials} {@link AggregateBy.Functor}) and only shuffles the digests, which are then
+ * merged (via {@link PercentileBy.PercentileFinal}). The result is an approximation, most accurate at the tails.
+ * <p/>
+ * The {@code compression} bounds the size of each digest, and defaults to {@link TDigest#DEFAULT_COMPRESSION}.
+ * Digests are shuffled as a String so no serialization needs to be registered. Null values are ignored, and null is
+ * returned for groupings without values.
+ * <p/>
+ * The {@code threshold} value tells the underlying PercentilePartials functions how many unique key digests to
+ * accumulate in the LRU cache, before emitting the least recently used entry.
+ *
+ * @see AggregateBy
+ * @see Percentile
+ * @see TDigest
+ */
+public class PercentileBy extends AggregateBy
+  {
+  /**
+   * Class PercentilePartials is a {@link AggregateBy.Functor} that is used to add the observed values of each
+   * grouping to a digest.
+   *
+   * @see PercentileBy
+   */
+  public static class PercentilePartials implements Functor
+    {
+    private final Fields declaredFields;
+    private final double compression;
+
+    /**
+     * Constructor PercentilePartials creates a new PercentilePartials instance.
+     *
+     * @param declaredFields of type Fields
+     * @param compression    of type double
+     */
+    public PercentilePartials( Fields declaredFields, double compression )
+      {
+      this.declaredFields = declaredFields;
+      this.compression = compression;
+
+      if( !declaredFields.isDeclarator() || declaredFields.size() == 0 )
+        throw new IllegalArgumentException( "declaredFields should declare field names" );
+
+      new TDigest( compression ); // fail fast on an invalid compression
+      }
+
+    @Override
+    public Fields getDeclaredFields()
+      {
+      return new Fields( PercentileBy.class.getPackage().getName() + "." + declaredFields.get( 0 ) + ".digest", String.class );
+      }
+
+    @Override
+    public Tuple aggregate( FlowProcess flowProcess, TupleEntry args, Tuple context )
+      {
+      if( context == null )
+        context = new Tuple( new TDigest( compression ) );
+
+      if( args.getObject( 0 ) != null )
+        ( (TDigest) context.getObject( 0 ) ).add( args.getDouble( 0 ) );
+
+      return context;
+      }
+
+    @Override
+    public Tuple complete( FlowProcess flowProcess, Tuple context )
+      {
+      context.set( 0, ( (TDigest) context.getObject( 0 ) ).encode() );
+
+      return context;
+      }
+    }
+
+  /**
+   * Class PercentileFinal is used to merge the digests of a grouping created by {@link PercentilePartials}
+   * and to emit the estimated percentiles.
+   */
+  public static class PercentileFinal extends BaseOperation<Percentile.Context> implements Aggregator<Percentile.Context>
+    {
+    private final double compression;
+    private final double[] percentiles;
+
+    /**
+     * Constructor PercentileFinal creates a new PercentileFinal instance.
+     *
+     * @param fieldDeclaration of type Fields
+     * @param compression      of type double
+     * @param percentiles      of type double[]
+     */
+    @ConstructorProperties({"fieldDeclaration", "compression", "percentiles"})
+    public PercentileFinal( Fields fieldDeclaration, double compression, double[] percentiles )
+      {
+      super( 1, fieldDeclaration );
+
+      Percentile.verify( fieldDeclaration, percentiles );
+
+      this.compression = compression;
+      this.percentiles = percentiles.clone();
+      }
+
+    @Override
+    public void prepare( FlowProcess flowProcess, OperationCall<Percentile.Context> operationCall )
+      {
+      operationCall.setContext( new Percentile.Context( getFieldDeclaration(), compression, percentiles ) );
+      }
+
+    @Override
+    public void start( FlowProcess flowProcess, AggregatorCall<Percentile.Context> aggregatorCall )
+      {
+      aggregatorCall.getContext().reset();
+      }
+
+    @Override
+    public void aggregate( FlowProcess flowProcess, AggregatorCall<Percentile.Context> aggregatorCall )
+      {
+      aggregatorCall.getContext().merge( TDigest.decode( aggregatorCall.getArguments().getString( 0 ) ) );
+      }
+
+    @Override
+    public void complete( FlowProcess flowProcess, AggregatorCall<Percentile.Context> aggregatorCall )
+      {
+      aggregatorCall.getOutputCollector().add( aggregatorCall.getContext().result() );
+      }
+    }
+
+  //// AggregateBy param constructors
+
+  /**
+   * Constructor PercentileBy creates a new PercentileBy instance. Use this constructor when used with a
+   * {@link AggregateBy} instance.
+   *
+   * @param valueField       of type Fields
+   * @param percentileFields of type Fields
+   * @param percentiles      of type double...
+   */
+  @ConstructorProperties({"valueField", "percentileFields", "percentiles"})
+  public PercentileBy( Fields valueField, Fields percentileFields, double... percentiles )
+    {
+    this( valueField, percentileFields, TDigest.DEFAULT_COMPRESSION, percentiles );
+    }
+
+  /**
+   * Constructor PercentileBy creates a new PercentileBy instance. Use this constructor when used with a
+   * {@link AggregateBy} instance.
+   *
+   * @param valueField       of type Fields
+   * @param percentileFields of type Fields
+   * @param compression      of type double
+   * @param percentiles      of type double[]
+   */
+  @ConstructorProperties({"valueField", "percentileFields", "compression", "percentiles"})
+  public PercentileBy( Fields valueField, Fields percentileFields, double compression, double[] percentiles )
+    {
+    super( verify( valueField ), new PercentilePartials( percentileFields, compression ), new PercentileFinal( percentileFields, compression, percentiles ) );
+    }
+
+  ///////
+
+  /**
+   * Constructor PercentileBy creates a new PercentileBy instance.
+   *
+   * @param pipe             of type Pipe
+   * @param groupingFields   of type Fields
+   * @param valueField       of type Fields
+   * @param percentileFields of type Fields
+   * @param percentiles      of type double...
+   */
+  @ConstructorProperties({"pipe", "groupingFields", "valueField", "percentileFields", "percentiles"})
+  public PercentileBy( Pipe pipe, Fields groupingFields, Fields valueField, Fields percentileFields, double... percentiles )
+    {
+    this( null, pipe, groupingFields, valueField, percentileFields, TDigest.DEFAULT_COMPRESSION, percentiles, USE_DEFAULT_THRESHOLD );
+    }
+
+  /**
+   * Constructor PercentileBy creates a new PercentileBy instance.
+   *
+   * @param name             of type String
+   * @param pipe             of type Pipe
+   * @param groupingFields   of type Fields
+   * @param valueField       of type Fields
+   * @param percentileFields of type Fields
+   * @param compression      of type double
+   * @param percentiles      of type double[]
+   * @param threshold        of type int
+   */
+  @ConstructorProperties({"name", "pipe", "groupingFields", "valueField", "percentileFields", "compression", "percentiles", "threshold"})
+  public PercentileBy( String name, Pipe pipe, Fields groupingFields, Fields valueField, Fields percentileFields, double compression, double[] percentiles, int threshold )
+    {
+    this( name, Pipe.pipes( pipe ), groupingFields, valueField, percentileFields, compression, percentiles, threshold );
+    }
+
+  /**
+   * Constructor PercentileBy creates a new PercentileBy instance.
+   *
+   * @param name             of type String
+   * @param pipes            of type Pipe[]
+   * @param groupingFields   of type Fields
+   * @param valueField       of type Fields
+   * @param percentileFields of type Fields
+   * @param compression      of type double
+   * @param percentiles      of type double[]
+   * @param threshold        of type int
+   */
+  @ConstructorProperties({"name", "pipes", "groupingFields", "valueField", "percentileFields", "compression", "percentiles", "threshold"})
+  public PercentileBy( String name, Pipe[] pipes, Fields groupingFields, Fields valueField, Fields percentileFields, double compression, double[] percentiles, int threshold )
+    {
+    super( name, pipes, groupingFields, verify( valueField ), new PercentilePartials( percentileFields, compression ), new PercentileFinal( percentileFields, compression, percentiles ), threshold );
+    }
+
+  private static Fields verify( Fields valueField )
+    {
+    if( valueField.size() != 1 )
+      throw new IllegalArgumentException( "valueField may only declare 1 field, got: " + valueField.size() );
+
+    return valueField;
+    }
+  }
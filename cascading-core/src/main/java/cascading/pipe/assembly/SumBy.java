@@ -27,6 +27,7 @@ import cascading.flow.FlowProcess;
 import cascading.operation.aggregator.Sum;
 import cascading.pipe.Pipe;
 import cascading.tuple.Fields;
+import cascading.tuple.PrimitiveTuple;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
 import cascading.tuple.coerce.Coercions;
@@ -110,11 +111,17 @@ public class SumBy extends AggregateBy
     public Tuple aggregate( FlowProcess flowProcess, TupleEntry args, Tuple context )
       {
       if( context == null )
-        return args.getTupleCopy();
-      else if( args.getObject( 0 ) == null )
+        {
+        context = new PrimitiveTuple( double.class );
+        context.set( 0, args.getObject( 0 ) ); // a lone value retains its type until complete
+
+        return context;
+        }
+
+      if( args.getObject( 0 ) == null )
         return context;
 
-      context.set( 0, context.getDouble( 0 ) + args.getDouble( 0 ) );
+      context.setDouble( 0, context.getDouble( 0 ) + args.getDouble( 0 ) );
 
       return context;
       }
@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.pipe.assembly;
+
+import java.beans.ConstructorProperties;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import cascading.flow.FlowProcess;
+import cascading.operation.Aggregator;
+import cascading.operation.AggregatorCall;
+import cascading.operation.BaseOperation;
+import cascading.operation.OperationCall;
+import cascading.pipe.Pipe;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+
+/**
+ * Class TopNBy is used to return the {@code n} greatest Tuples in each grouping of a tuple stream, ordered by the
+ * {@code topFields} values.
+ * <p/>
+ * Typically finding the top Tuples in a grouping relies on a {@link cascading.pipe.GroupBy}, sorted by the secondary
+ * sort fields, and a {@link cascading.operation.buffer.FirstNBuffer}, shuffling every Tuple.
+ * <p/>
+ * This SubAssembly uses the {@link TopNBy.TopNPartials} {@link AggregateBy.Functor} to keep, map-side, a bounded
+ * heap of the {@code n} greatest Tuples of each grouping. Only these candidates are shuffled, and
+ * {@link TopNBy.TopNFinal} merges them and emits up to {@code n} Tuples per grouping, greatest first.
+ * <p/>
+ * If the {@code topFields} argument has custom {@link java.util.Comparator} instances, they define the order. If
+ * {@code reverseOrder} is true, the {@code n} least Tuples are returned, least first.
+ * <p/>
+ * The {@code threshold} value tells the underlying TopNPartials functions how many unique key heaps to accumulate
+ * in the LRU cache, before emitting the least recently used entry. This accumulation happens map-side, and thus is
+ * bounded by the size of your map task JVM, the typical size of each group key, and {@code n}.
+ * <p/>
+ * By default, either the value of {@link cascading.pipe.assembly.AggregateByProps#AGGREGATE_BY_CAPACITY} System property
+ * or {@link cascading.pipe.assembly.AggregateByProps#AGGREGATE_BY_DEFAULT_CAPACITY} will be used.
+ * <p/>
+ * Note TopNBy emits multiple Tuples per grouping, so should not be combined with other AggregateBy instances
+ * in a parent AggregateBy.
+ *
+ * @see AggregateBy
+ * @see FirstBy
+ */
+public class TopNBy extends AggregateBy
+  {
+  /**
+   * Method offer adds the given tuple to the heap if it ranks within the first {@code n}, evicting the lowest ranked.
+   * The heap head is the lowest ranked tuple, so its comparator is the reverse of the given order.
+   */
+  static void offer( PriorityQueue<Tuple> heap, int n, Comparator<Tuple> order, Tuple tuple, boolean copy )
+    {
+    if( heap.size() < n )
+      {
+      heap.add( copy ? new Tuple( tuple ) : tuple );
+      return;
+      }
+
+    if( order.compare( tuple, heap.peek() ) >= 0 )
+      return;
+
+    heap.poll();
+    heap.add( copy ? new Tuple( tuple ) : tuple );
+    }
+
+  /** Returns the topFields without comparators, so they are not used as GroupBy sort fields. */
+  static Fields argumentsFor( Fields topFields )
+    {
+    Comparable[] names = new Comparable[ topFields.size() ];
+
+    for( int i = 0; i < names.length; i++ )
+      names[ i ] = topFields.get( i );
+
+    return new Fields( names );
+    }
+
+  static Comparator<Tuple> orderFor( Fields topFields, boolean reverseOrder )
+    {
+    // Fields compares via its comparators, or natural order, greatest first unless reversed
+    return reverseOrder ? topFields : Collections.reverseOrder( topFields );
+    }
+
+  /**
+   * Class TopNPartials is a {@link AggregateBy.Functor} that is used to retain the {@code n} greatest observed
+   * tuples of each grouping.
+   *
+   * @see TopNBy
+   */
+  public static class TopNPartials implements Functor
+    {
+    private final Fields topFields;
+    private final int n;
+    private final boolean reverseOrder;
+    private transient Comparator<Tuple> order;
+
+    /**
+     * Constructor TopNPartials creates a new TopNPartials instance.
+     *
+     * @param topFields    of type Fields
+     * @param n            of type int
+     * @param reverseOrder of type boolean
+     */
+    public TopNPartials( Fields topFields, int n, boolean reverseOrder )
+      {
+      if( n < 1 )
+        throw new IllegalArgumentException( "n must be greater than zero, got: " + n );
+
+      this.topFields = topFields;
+      this.n = n;
+      this.reverseOrder = reverseOrder;
+      }
+
+    @Override
+    public Fields getDeclaredFields()
+      {
+      return new Fields( TopNBy.class.getPackage().getName() + "." + topFields.get( 0 ) + ".topn", Tuple.class );
+      }
+
+    @Override
+    public Tuple aggregate( FlowProcess flowProcess, TupleEntry args, Tuple context )
+      {
+      if( order == null )
+        order = orderFor( topFields, reverseOrder );
+
+      if( context == null )
+        context = new Tuple( new PriorityQueue<Tuple>( n + 1, Collections.reverseOrder( order ) ) );
+
+      offer( (PriorityQueue<Tuple>) context.getObject( 0 ), n, order, args.getTuple(), true );
+
+      return context;
+      }
+
+    @Override
+    public Tuple complete( FlowProcess flowProcess, Tuple context )
+      {
+      PriorityQueue<Tuple> heap = (PriorityQueue<Tuple>) context.getObject( 0 );
+      Tuple candidates = new Tuple();
+
+      for( Tuple tuple : heap )
+        candidates.add( tuple );
+
+      context.set( 0, candidates );
+
+      return context;
+      }
+    }
+
+  /**
+   * Class TopNFinal is used to merge the candidates of a grouping created by {@link TopNPartials}, and to emit
+   * the {@code n} greatest.
+   */
+  public static class TopNFinal extends BaseOperation<TopNFinal.Context> implements Aggregator<TopNFinal.Context>
+    {
+    private final int n;
+    private final boolean reverseOrder;
+
+    /** Class Context is used to hold intermediate values. */
+    protected static class Context
+      {
+      final Comparator<Tuple> order;
+      final PriorityQueue<Tuple> heap;
+
+      public Context( Comparator<Tuple> order, int n )
+        {
+        this.order = order;
+        this.heap = new PriorityQueue<Tuple>( n + 1, Collections.reverseOrder( order ) );
+        }
+      }
+
+    /**
+     * Constructor TopNFinal creates a new TopNFinal instance.
+     *
+     * @param fieldDeclaration of type Fields
+     * @param n                of type int
+     * @param reverseOrder     of type boolean
+     */
+    @ConstructorProperties({"fieldDeclaration", "n", "reverseOrder"})
+    public TopNFinal( Fields fieldDeclaration, int n, boolean reverseOrder )
+      {
+      super( 1, fieldDeclaration );
+      this.n = n;
+      this.reverseOrder = reverseOrder;
+      }
+
+    @Override
+    public void prepare( FlowProcess flowProcess, OperationCall<Context> operationCall )
+      {
+      operationCall.setContext( new Context( orderFor( getFieldDeclaration(), reverseOrder ), n ) );
+      }
+
+    @Override
+    public void start( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+      {
+      aggregatorCall.getContext().heap.clear();
+      }
+
+    @Override
+    public void aggregate( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+      {
+      Context context = aggregatorCall.getContext();
+      Tuple candidates = (Tuple) aggregatorCall.getArguments().getObject( 0 );
+
+      for( Object candidate : candidates )
+        offer( context.heap, n, context.order, (Tuple) candidate, true );
+      }
+
+    @Override
+    public void complete( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+      {
+      Context context = aggregatorCall.getContext();
+      List<Tuple> results = new ArrayList<Tuple>( context.heap );
+
+      Collections.sort( results, context.order );
+
+      for( Tuple result : results )
+        aggregatorCall.getOutputCollector().add( result );
+      }
+    }
+
+  /**
+   * Constructor TopNBy creates a new TopNBy instance. Use this constructor when used with a {@link AggregateBy}
+   * instance.
+   *
+   * @param topFields    of type Fields
+   * @param n            of type int
+   * @param reverseOrder of type boolean
+   */
+  @ConstructorProperties({"topFields", "n", "reverseOrder"})
+  public TopNBy( Fields topFields, int n, boolean reverseOrder )
+    {
+    super( argumentsFor( topFields ), new TopNPartials( topFields, n, reverseOrder ), new TopNFinal( topFields, n, reverseOrder ) );
+    }
+
+  ///////
+
+  /**
+   * Constructor TopNBy creates a new TopNBy instance.
+   *
+   * @param pipe           of type Pipe
+   * @param groupingFields of type Fields
+   * @param topFields      of type Fields
+   * @param n              of type int
+   */
+  @ConstructorProperties({"pipe", "groupingFields", "topFields", "n"})
+  public TopNBy( Pipe pipe, Fields groupingFields, Fields topFields, int n )
+    {
+    this( null, pipe, groupingFields, topFields, n, false, USE_DEFAULT_THRESHOLD );
+    }
+
+  /**
+   * Constructor TopNBy creates a new TopNBy instance.
+   *
+   * @param pipe           of type Pipe
+   * @param groupingFields of type Fields
+   * @param topFields      of type Fields
+   * @param n              of type int
+   * @param reverseOrder   of type boolean
+   */
+  @ConstructorProperties({"pipe", "groupingFields", "topFields", "n", "reverseOrder"})
+  public TopNBy( Pipe pipe, Fields groupingFields, Fields topFields, int n, boolean reverseOrder )
+    {
+    this( null, pipe, groupingFields, topFields, n, reverseOrder, USE_DEFAULT_THRESHOLD );
+    }
+
+  /**
+   * Constructor TopNBy creates a new TopNBy instance.
+   *
+   * @param name           of type String
+   * @param pipe           of type Pipe
+   * @param groupingFields of type Fields
+   * @param topFields      of type Fields
+   * @param n              of type int
+   * @param reverseOrder   of type boolean
+   * @param threshold      of type int
+   */
+  @ConstructorProperties({"name", "pipe", "groupingFields", "topFields", "n", "reverseOrder", "threshold"})
+  public TopNBy( String name, Pipe pipe, Fields groupingFields, Fields topFields, int n, boolean reverseOrder, int threshold )
+    {
+    this( name, Pipe.pipes( pipe ), groupingFields, topFields, n, reverseOrder, threshold );
+    }
+
+  /**
+   * Constructor TopNBy creates a new TopNBy instance.
+   *
+   * @param name           of type String
+   * @param pipes          of type Pipe[]
+   * @param groupingFields of type Fields
+   * @param topFields      of type Fields
+   * @param n              of type int
+   * @param reverseOrder   of type boolean
+   * @param threshold      of type int
+   */
+  @ConstructorProperties({"name", "pipes", "groupingFields", "topFields", "n", "reverseOrder", "threshold"})
+  public TopNBy( String name, Pipe[] pipes, Fields groupingFields, Fields topFields, int n, boolean reverseOrder, int threshold )
+    {
+    super( name, pipes, groupingFields, argumentsFor( topFields ), new TopNPartials( topFields, n, reverseOrder ), new TopNFinal( topFields, n, reverseOrder ), threshold );
+    }
+  }
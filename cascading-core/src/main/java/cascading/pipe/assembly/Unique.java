@@ -21,8 +21,10 @@
 package cascading.pipe.assembly;
 
 import java.beans.ConstructorProperties;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.Map;
+import java.util.Set;
 
 import cascading.CascadingException;
 import cascading.flow.FlowProcess;
@@ -44,6 +46,7 @@ import cascading.tuple.util.TupleHasher;
 import cascading.util.cache.BaseCacheFactory;
 import cascading.util.cache.CacheEvictionCallback;
 import cascading.util.cache.CascadingCache;
+import cascading.util.cache.OffHeapDirectMappedCacheFactory;
 
 /**
  * Class Unique {@link SubAssembly} is used to filter all duplicates out of a tuple stream.
@@ -66,15 +69,21 @@ import cascading.util.cache.CascadingCache;
  * <p/>
  * The LRU cache is pluggable and defaults to {@link cascading.util.cache.LRUHashMapCache}. It can be changed
  * by setting {@link cascading.pipe.assembly.UniqueProps#UNIQUE_CACHE_FACTORY} property to the name of a sub-class of
- * {@link cascading.util.cache.BaseCacheFactory}.
+ * {@link cascading.util.cache.BaseCacheFactory}. For caches of millions of values, the
+ * {@link cascading.util.cache.OffHeapDirectMappedCacheFactory} keeps the values serialized off-heap.
  * <p/>
  * The {@code capacity} value tells the underlying FilterPartialDuplicates how many values to cache for duplicate
  * comparison before dropping values from the LRU cache.
+ * <p/>
+ * If the values are nearly unique, the cache costs more than it saves. Setting the
+ * {@link cascading.pipe.assembly.UniqueProps#UNIQUE_ADAPTIVE} property samples the cache hit ratio over the
+ * first tuples of each slice, and passes all further tuples through if the ratio is too low.
  *
  * @see cascading.util.cache.LRUHashMapCacheFactory
  * @see cascading.util.cache.DirectMappedCacheFactory
  * @see cascading.util.cache.LRUHashMapCache
  * @see cascading.util.cache.DirectMappedCache
+ * @see cascading.util.cache.OffHeapDirectMappedCacheFactory
  */
 public class Unique extends SubAssembly
   {
@@ -89,7 +98,10 @@ public class Unique extends SubAssembly
     {
       Num_Keys_Flushed,
       Num_Keys_Hit,
-      Num_Keys_Missed
+      Num_Keys_Missed,
+      Num_Keys_Passed_Through,
+      Num_Slices_Cached,
+      Num_Slices_Passed_Through
     }
 
   /**
@@ -106,8 +118,117 @@ public class Unique extends SubAssembly
    */
   public static class FilterPartialDuplicates extends BaseOperation<CascadingCache<Tuple, Object>> implements Filter<CascadingCache<Tuple, Object>>
     {
+    /** Class SampledCache carries the {@link AdaptiveSampler} of a slice along with its cache. */
+    private static class SampledCache implements CascadingCache<Tuple, Object>
+      {
+      final CascadingCache<Tuple, Object> cache;
+      final AdaptiveSampler sampler;
+
+      SampledCache( CascadingCache<Tuple, Object> cache, AdaptiveSampler sampler )
+        {
+        this.cache = cache;
+        this.sampler = sampler;
+        }
+
+      @Override
+      public void initialize()
+        {
+        cache.initialize();
+        }
+
+      @Override
+      public void setCapacity( int capacity )
+        {
+        cache.setCapacity( capacity );
+        }
+
+      @Override
+      public int getCapacity()
+        {
+        return cache.getCapacity();
+        }
+
+      @Override
+      public void setCacheEvictionCallback( CacheEvictionCallback cacheEvictionCallback )
+        {
+        cache.setCacheEvictionCallback( cacheEvictionCallback );
+        }
+
+      @Override
+      public int size()
+        {
+        return cache.size();
+        }
+
+      @Override
+      public boolean isEmpty()
+        {
+        return cache.isEmpty();
+        }
+
+      @Override
+      public boolean containsKey( Object key )
+        {
+        return cache.containsKey( key );
+        }
+
+      @Override
+      public boolean containsValue( Object value )
+        {
+        return cache.containsValue( value );
+        }
+
+      @Override
+      public Object get( Object key )
+        {
+        return cache.get( key );
+        }
+
+      @Override
+      public Object put( Tuple key, Object value )
+        {
+        return cache.put( key, value );
+        }
+
+      @Override
+      public Object remove( Object key )
+        {
+        return cache.remove( key );
+        }
+
+      @Override
+      public void putAll( Map<? extends Tuple, ?> map )
+        {
+        cache.putAll( map );
+        }
+
+      @Override
+      public void clear()
+        {
+        cache.clear();
+        }
+
+      @Override
+      public Set<Tuple> keySet()
+        {
+        return cache.keySet();
+        }
+
+      @Override
+      public Collection<Object> values()
+        {
+        return cache.values();
+        }
+
+      @Override
+      public Set<Map.Entry<Tuple, Object>> entrySet()
+        {
+        return cache.entrySet();
+        }
+      }
+
     /** special null value for the caches, since a cache might not permit 'null' as a value */
-    private final static Object NULL_VALUE = new Object();
+    private final static Object NULL_VALUE = Tuple.NULL;
 
     private int capacity = 0;
     private Include include = Include.ALL;
@@ -173,7 +294,7 @@ public class Unique extends SubAssembly
       if( cacheFactory == null )
         throw new CascadingException( "unable to load cache factory, please check your '" + UniqueProps.UNIQUE_CACHE_FACTORY + "' setting." );
 
-      CascadingCache cache = cacheFactory.create( flowProcess );
+      CascadingCache cache = OffHeapDirectMappedCacheFactory.onHeapIfHashed( cacheFactory.create( flowProcess ), tupleHasher );
       cache.setCacheEvictionCallback( callback );
       Integer cacheCapacity = capacity;
 
@@ -188,12 +309,30 @@ public class Unique extends SubAssembly
       cache.setCapacity( cacheCapacity.intValue() );
       cache.initialize();
 
-      operationCall.setContext( cache );
+      AdaptiveSampler sampler = AdaptiveSampler.create( flowProcess, this,
+        UniqueProps.UNIQUE_ADAPTIVE,
+        UniqueProps.UNIQUE_ADAPTIVE_SAMPLE_SIZE, UniqueProps.UNIQUE_ADAPTIVE_DEFAULT_SAMPLE_SIZE,
+        UniqueProps.UNIQUE_ADAPTIVE_MIN_HIT_RATIO, UniqueProps.UNIQUE_ADAPTIVE_DEFAULT_MIN_HIT_RATIO );
+
+      if( sampler == null )
+        {
+        operationCall.setContext( cache );
+        return;
+        }
+
+      if( sampler.isDecided() )
+        flowProcess.increment( sampler.isPassThrough() ? Cache.Num_Slices_Passed_Through : Cache.Num_Slices_Cached, 1 );
+
+      // the sampler is carried by the context, the operation instance may be shared by concurrent slices
+      operationCall.setContext( new SampledCache( cache, sampler ) );
       }
 
     @Override
     public boolean isRemove( FlowProcess flowProcess, FilterCall<CascadingCache<Tuple, Object>> filterCall )
       {
+      CascadingCache<Tuple, Object> cache = filterCall.getContext();
+      AdaptiveSampler sampler = cache instanceof SampledCache ? ( (SampledCache) cache ).sampler : null;
+
       // we assume its more painful to create lots of tuple copies vs comparisons
       Tuple args = TupleHasher.wrapTuple( tupleHasher, filterCall.getArguments().getTuple() );
 
@@ -209,18 +348,40 @@ public class Unique extends SubAssembly
           break;
         }
 
-      if( filterCall.getContext().containsKey( args ) )
+      if( sampler != null && sampler.isPassThrough() )
+        {
+        flowProcess.increment( Cache.Num_Keys_Passed_Through, 1 );
+        return false;
+        }
+
+      boolean hit = cache.containsKey( args );
+
+      if( hit )
         {
         flowProcess.increment( Cache.Num_Keys_Hit, 1 );
-        return true;
         }
+      else
+        {
+        // only do the copy here
+        cache.put( TupleHasher.wrapTuple( tupleHasher, filterCall.getArguments().getTupleCopy() ), NULL_VALUE );
 
-      // only do the copy here
-      filterCall.getContext().put( TupleHasher.wrapTuple( tupleHasher, filterCall.getArguments().getTupleCopy() ), NULL_VALUE );
+        flowProcess.increment( Cache.Num_Keys_Missed, 1 );
+        }
 
-      flowProcess.increment( Cache.Num_Keys_Missed, 1 );
+      if( sampler != null && sampler.sample( hit ) )
+        {
+        if( sampler.isPassThrough() )
+          {
+          flowProcess.increment( Cache.Num_Slices_Passed_Through, 1 );
+          cache.clear(); // release the cache, all further keys pass through
+          }
+        else
+          {
+          flowProcess.increment( Cache.Num_Slices_Cached, 1 );
+          }
+        }
 
-      return false;
+      return hit;
       }
 
     @Override
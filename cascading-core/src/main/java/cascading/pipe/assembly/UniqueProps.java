@@ -37,6 +37,24 @@ public class UniqueProps extends Props
   /** property to control the capacity of the cache to use. */
   public static final String UNIQUE_CACHE_CAPACITY = "cascading.aggregateby.cache.capacity";
 
+  /**
+   * property to enable sampling the cache hit ratio over the first tuples seen by each slice, passing all further
+   * tuples through un-filtered if the ratio is below {@link #UNIQUE_ADAPTIVE_MIN_HIT_RATIO}.
+   */
+  public static final String UNIQUE_ADAPTIVE = "cascading.unique.cache.adaptive";
+
+  /** property to control the number of tuples sampled before deciding to pass through. */
+  public static final String UNIQUE_ADAPTIVE_SAMPLE_SIZE = "cascading.unique.cache.adaptive.samplesize";
+
+  /** property to control the cache hit ratio below which the cache is disabled. */
+  public static final String UNIQUE_ADAPTIVE_MIN_HIT_RATIO = "cascading.unique.cache.adaptive.minhitratio";
+
+  /** default number of tuples sampled. */
+  public static int UNIQUE_ADAPTIVE_DEFAULT_SAMPLE_SIZE = 100000;
+
+  /** default minimum cache hit ratio. */
+  public static double UNIQUE_ADAPTIVE_DEFAULT_MIN_HIT_RATIO = 0.5;
+
   /** default capacity of caches used in Unique. */
   public static int UNIQUE_DEFAULT_CAPACITY = BaseCacheFactory.DEFAULT_CAPACITY;
 
@@ -100,6 +118,45 @@ public class UniqueProps extends Props
     return Integer.valueOf( capacityValue );
     }
 
+  /**
+   * Enables sampling the cache hit ratio, so that filtering partial duplicates is disabled when it does not pay off.
+   *
+   * @param adaptive true to enable
+   */
+  public UniqueProps setAdaptive( boolean adaptive )
+    {
+    properties.setProperty( UNIQUE_ADAPTIVE, String.valueOf( adaptive ) );
+    return this;
+    }
+
+  /**
+   * Sets the number of tuples sampled before deciding to disable filtering partial duplicates.
+   *
+   * @param sampleSize The number of tuples to sample.
+   */
+  public UniqueProps setAdaptiveSampleSize( int sampleSize )
+    {
+    if( sampleSize < 1 )
+      throw new IllegalArgumentException( "sample size must be larger than 0, got: " + sampleSize );
+
+    properties.setProperty( UNIQUE_ADAPTIVE_SAMPLE_SIZE, String.valueOf( sampleSize ) );
+    return this;
+    }
+
+  /**
+   * Sets the cache hit ratio, between 0 and 1, below which filtering partial duplicates is disabled.
+   *
+   * @param minHitRatio The minimum hit ratio.
+   */
+  public UniqueProps setAdaptiveMinHitRatio( double minHitRatio )
+    {
+    if( minHitRatio < 0 || minHitRatio > 1 )
+      throw new IllegalArgumentException( "hit ratio must be between 0 and 1, got: " + minHitRatio );
+
+    properties.setProperty( UNIQUE_ADAPTIVE_MIN_HIT_RATIO, String.valueOf( minHitRatio ) );
+    return this;
+    }
+
   /**
    * Returns the name of the cache factory.
    *
@@ -68,6 +68,8 @@ public abstract class Scheme<Config, Input, Output, SourceContext, SinkContext>
   Fields sourceFields = Fields.UNKNOWN;
   /** Field numSinkParts */
   int numSinkParts;
+  /** Field sourceProjection */
+  Fields sourceProjection;
   /** Field trace */
   private String trace = TraceUtil.captureDebugTrace( this ); // see TraceUtil.setTrace() to override
 
@@ -265,6 +267,54 @@ public abstract class Scheme<Config, Input, Output, SourceContext, SinkContext>
       setSourceFields( fields );
     }
 
+  /**
+   * Method presentSourceProjection is called after {@link #presentSourceFields(cascading.flow.FlowProcess, cascading.tap.Tap, cascading.tuple.Fields)}
+   * with the source fields read by any element in the Flow, or {@link Fields#ALL} if every field may be read.
+   * <p/>
+   * A Scheme may skip parsing or deserializing the values of the fields not projected, but must still source
+   * tuples of the full size of its source fields, any value not projected may be {@code null}.
+   * <p/>
+   * If a Scheme instance is presented more than once, for example if shared by multiple Taps or Flows, the
+   * projection is the union of all projections presented.
+   *
+   * @param flowProcess      of type FlowProcess
+   * @param tap              of type Tap
+   * @param projectedFields of type Fields
+   */
+  public void presentSourceProjection( FlowProcess<? extends Config> flowProcess, Tap tap, Fields projectedFields )
+    {
+    if( sourceProjection == null )
+      sourceProjection = projectedFields;
+    else if( sourceProjection.isAll() || projectedFields.isAll() )
+      sourceProjection = Fields.ALL;
+    else
+      sourceProjection = Fields.merge( sourceProjection, projectedFields );
+    }
+
+  /**
+   * Method getSourceProjection returns the source fields read by any Flow this Scheme was planned in, or
+   * {@link Fields#ALL} if every field may be read.
+   *
+   * @return the sourceProjection (type Fields) of this Scheme object.
+   */
+  public Fields getSourceProjection()
+    {
+    if( sourceProjection == null )
+      return Fields.ALL;
+
+    return sourceProjection;
+    }
+
+  /**
+   * Method isSourceProjected returns true if only a subset of the source fields of this Scheme are read.
+   *
+   * @return boolean
+   */
+  public boolean isSourceProjected()
+    {
+    return !getSourceProjection().isAll();
+    }
+
   /**
    * Method retrieveSinkFields notifies a Scheme when it is appropriate to dynamically
    * update the fields it sources. By default the current declared fields are returned.
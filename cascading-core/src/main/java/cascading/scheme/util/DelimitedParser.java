@@ -90,6 +90,8 @@ public class DelimitedParser implements Serializable
   protected boolean safe = true;
   /** fieldTypeResolver */
   protected FieldTypeResolver fieldTypeResolver;
+  /** Field projected, null if every value is parsed */
+  protected boolean[] projected;
 
   public DelimitedParser( String delimiter, String quote, Class[] types )
     {
@@ -155,6 +157,7 @@ public class DelimitedParser implements Serializable
       this.types = sourceFields.getTypes(); // gets a copy
 
     this.sourceFields = sourceFields;
+    this.projected = null;
     this.numValues = Math.max( sourceFields.size(), sinkFields.size() ); // if asymmetrical, one is zero
 
     this.enforceStrict = this.strict;
@@ -188,6 +191,71 @@ public class DelimitedParser implements Serializable
     return quote;
     }
 
+  /**
+   * Method getNumValues returns the number of values expected on each line, or zero if unknown. Only valid after
+   * the parser is reset with the source and sink fields.
+   *
+   * @return int
+   */
+  public int getNumValues()
+    {
+    return numValues;
+    }
+
+  public boolean isEnforceStrict()
+    {
+    return enforceStrict;
+    }
+
+  public boolean isSafe()
+    {
+    return safe;
+    }
+
+  /**
+   * Method getCoercibles returns the coercion per value position, or null if no types were given.
+   *
+   * @return CoercibleType[]
+   */
+  public CoercibleType[] getCoercibles()
+    {
+    return types == null ? null : coercibles;
+    }
+
+  /**
+   * Method setSourceProjection sets the source fields whose values must be parsed, the values of any other field
+   * will be {@code null}. Only valid after the parser is reset with the source and sink fields, as any reset
+   * clears the projection.
+   *
+   * @param projectedFields of type Fields
+   * @see cascading.scheme.Scheme#getSourceProjection()
+   */
+  public void setSourceProjection( Fields projectedFields )
+    {
+    this.projected = null;
+
+    if( projectedFields == null || projectedFields.isAll() || sourceFields == null || !sourceFields.isDefined() || numValues == 0 )
+      return;
+
+    boolean[] projected = new boolean[ numValues ];
+
+    for( int i = 0; i < numValues; i++ )
+      projected[ i ] = i >= sourceFields.size() || projectedFields.contains( new Fields( sourceFields.get( i ) ) );
+
+    this.projected = projected;
+    }
+
+  /**
+   * Method isProjected returns true if the value at the given position must be parsed.
+   *
+   * @param pos of type int
+   * @return boolean
+   */
+  public boolean isProjected( int pos )
+    {
+    return projected == null || pos >= projected.length || projected[ pos ];
+    }
+
   /**
    * Method createEscapePatternFor creates a regex {@link java.util.regex.Pattern} cleaning quote escapes from a String.
    * <p/>
@@ -270,6 +338,9 @@ public class DelimitedParser implements Serializable
       {
       for( int i = 0; i < split.length; i++ )
         {
+        if( split[ i ] == null )
+          continue;
+
         split[ i ] = cleanPattern.matcher( (String) split[ i ] ).replaceAll( "$1" );
         split[ i ] = escapePattern.matcher( (String) split[ i ] ).replaceAll( quote );
         }
@@ -277,7 +348,7 @@ public class DelimitedParser implements Serializable
 
     for( int i = 0; i < split.length; i++ )
       {
-      if( ( (String) split[ i ] ).isEmpty() )
+      if( split[ i ] != null && ( (String) split[ i ] ).isEmpty() )
         split[ i ] = null;
       }
 
@@ -340,6 +411,15 @@ public class DelimitedParser implements Serializable
     {
     Object[] split = onlyParseLine( line );
 
+    if( projected != null )
+      {
+      for( int i = 0; i < split.length; i++ )
+        {
+        if( !isProjected( i ) )
+          split[ i ] = null;
+        }
+      }
+
     split = cleanParsedLine( split );
 
     return coerceParsedLine( line, split );
@@ -358,6 +438,9 @@ public class DelimitedParser implements Serializable
 
       for( int i = 0; i < split.length; i++ )
         {
+        if( !isProjected( i ) )
+          continue;
+
         try
           {
           result[ i ] = coercibles[ i ].canonical( split[ i ] );
@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.scheme.util;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+import cascading.tuple.Fields;
+
+/**
+ * Class ScanningDelimitedParser is a {@link DelimitedParser} that splits and cleans each line in a single scan
+ * over its characters, instead of applying the split, clean, and escape regular expressions.
+ * <p/>
+ * The results are identical to those of DelimitedParser, including the treatment of unbalanced quotes, the
+ * strict and safe semantics, and type coercion, so this class may be handed to any scheme accepting a
+ * DelimitedParser, for example {@code new TextDelimited( fields, skipHeader, writeHeader, new ScanningDelimitedParser( ",", "\"" ) )}.
+ * <p/>
+ * The quote must be a single character that has no special meaning in a regular expression, if not, or a
+ * value holds a line terminator, the regular expressions are used.
+ */
+public class ScanningDelimitedParser extends DelimitedParser
+  {
+  /** Field REGEX_META_CHARS */
+  static final String REGEX_META_CHARS = "\\^$.|?*+()[]{}";
+  /** Field LINE_TERMINATORS */
+  static final String LINE_TERMINATORS = "\n\r\u0085\u2028\u2029";
+
+  public ScanningDelimitedParser( String delimiter, String quote )
+    {
+    super( delimiter, quote, (Class[]) null );
+    }
+
+  public ScanningDelimitedParser( String delimiter, String quote, Class[] types )
+    {
+    super( delimiter, quote, types );
+    }
+
+  public ScanningDelimitedParser( String delimiter, String quote, Class[] types, boolean strict, boolean safe )
+    {
+    super( delimiter, quote, types, strict, safe );
+    }
+
+  public ScanningDelimitedParser( String delimiter, String quote, FieldTypeResolver fieldTypeResolver )
+    {
+    super( delimiter, quote, fieldTypeResolver );
+    }
+
+  public ScanningDelimitedParser( String delimiter, String quote, Class[] types, boolean strict, boolean safe, FieldTypeResolver fieldTypeResolver )
+    {
+    super( delimiter, quote, types, strict, safe, fieldTypeResolver );
+    }
+
+  public ScanningDelimitedParser( String delimiter, String quote, Class[] types, boolean strict, boolean safe, Fields sourceFields, Fields sinkFields )
+    {
+    super( delimiter, quote, types, strict, safe, sourceFields, sinkFields );
+    }
+
+  public ScanningDelimitedParser( String delimiter, String quote, Class[] types, boolean strict, boolean safe, Fields sourceFields, Fields sinkFields, FieldTypeResolver fieldTypeResolver )
+    {
+    super( delimiter, quote, types, strict, safe, sourceFields, sinkFields, fieldTypeResolver );
+    }
+
+  /**
+   * Method isScannable returns true if the given quote may be handled without regular expressions.
+   *
+   * @param quote of type String
+   * @return boolean
+   */
+  protected boolean isScannable( String quote )
+    {
+    return quote == null || quote.length() == 1 && REGEX_META_CHARS.indexOf( quote.charAt( 0 ) ) == -1;
+    }
+
+  /**
+   * Method createSplit splits the given {@code value} on the current delimiter, a delimiter is only honored if
+   * it is followed by an even number of quote characters, as with the split pattern. The given
+   * {@code splitPattern} is only used if the quote is not scannable.
+   * <p/>
+   * The values of fields not projected, see {@link #setSourceProjection(Fields)}, are not extracted and are {@code null}.
+   *
+   * @param value        of type String
+   * @param splitPattern of type Pattern
+   * @param numValues    of type int
+   * @return String[]
+   */
+  @Override
+  public String[] createSplit( String value, Pattern splitPattern, int numValues )
+    {
+    if( !isScannable( quote ) )
+      return super.createSplit( value, splitPattern, numValues );
+
+    char quoteChar = quote == null ? 0 : quote.charAt( 0 );
+    int remainingQuotes = quote == null ? 0 : count( value, 0, value.length(), quoteChar );
+    int delimiterQuotes = quote == null ? 0 : count( delimiter, 0, delimiter.length(), quoteChar );
+    int delimiterLength = delimiter.length();
+    int length = value.length();
+
+    int[] ends = new int[ Math.max( 8, this.numValues ) ];
+    int numSplits = 0;
+    int position = 0;
+
+    while( numValues <= 0 || numSplits < numValues - 1 )
+      {
+      int index = value.indexOf( delimiter, position );
+
+      if( index == -1 )
+        break;
+
+      if( remainingQuotes != 0 )
+        remainingQuotes -= count( value, position, index, quoteChar );
+
+      // same as the split pattern look ahead, only split if an even number of quotes follow the delimiter
+      if( ( remainingQuotes - delimiterQuotes ) % 2 != 0 )
+        {
+        if( value.charAt( index ) == quoteChar )
+          remainingQuotes--;
+
+        position = index + 1;
+        continue;
+        }
+
+      if( numSplits == ends.length )
+        ends = Arrays.copyOf( ends, numSplits * 2 );
+
+      ends[ numSplits++ ] = index;
+      remainingQuotes -= delimiterQuotes;
+      position = index + delimiterLength;
+      }
+
+    if( numSplits == 0 )
+      return new String[]{value};
+
+    String[] split = new String[ numSplits + 1 ];
+    int start = 0;
+
+    for( int i = 0; i < split.length; i++ )
+      {
+      int end = i < numSplits ? ends[ i ] : length;
+
+      split[ i ] = numValues != 0 && !isProjected( i ) ? null : value.substring( start, end );
+      start = end + delimiterLength;
+      }
+
+    // as with Pattern#split, a zero limit removes trailing empty values
+    if( numValues == 0 )
+      {
+      int resultSize = split.length;
+
+      while( resultSize > 0 && split[ resultSize - 1 ].isEmpty() )
+        resultSize--;
+
+      if( resultSize != split.length )
+        split = Arrays.copyOf( split, resultSize );
+      }
+
+    return split;
+    }
+
+  /**
+   * Method cleanSplit removes enclosing quotes from each value and un-escapes doubled quotes, as with the clean
+   * and escape patterns, then replaces all empty values with {@code null}.
+   *
+   * @param split         of type Object[]
+   * @param cleanPattern  of type Pattern
+   * @param escapePattern of type Pattern
+   * @param quote         of type String
+   * @return Object[] as a convenience
+   */
+  @Override
+  public Object[] cleanSplit( Object[] split, Pattern cleanPattern, Pattern escapePattern, String quote )
+    {
+    if( cleanPattern == null || !isScannable( quote ) )
+      return super.cleanSplit( split, cleanPattern, escapePattern, quote );
+
+    char quoteChar = quote.charAt( 0 );
+
+    for( int i = 0; i < split.length; i++ )
+      {
+      String value = (String) split[ i ];
+
+      if( value == null )
+        continue;
+
+      if( value.indexOf( quoteChar ) == -1 )
+        {
+        if( value.isEmpty() )
+          split[ i ] = null;
+
+        continue;
+        }
+
+      if( hasLineTerminator( value ) )
+        {
+        value = cleanPattern.matcher( value ).replaceAll( "$1" );
+        value = escapePattern.matcher( value ).replaceAll( quote );
+        }
+      else
+        {
+        value = clean( value, quoteChar );
+        }
+
+      split[ i ] = value.isEmpty() ? null : value;
+      }
+
+    return split;
+    }
+
+  private static String clean( String value, char quoteChar )
+    {
+    int start = 0;
+    int end = value.length();
+
+    if( end > 1 && value.charAt( 0 ) == quoteChar && value.charAt( end - 1 ) == quoteChar )
+      {
+      start++;
+      end--;
+      }
+
+    int index = value.indexOf( quoteChar, start );
+
+    // no escaped quotes, only enclosing quotes, if any
+    if( index == -1 || index >= end - 1 )
+      return value.substring( start, end );
+
+    StringBuilder builder = new StringBuilder( end - start );
+
+    for( int i = start; i < end; i++ )
+      {
+      char current = value.charAt( i );
+
+      builder.append( current );
+
+      if( current == quoteChar && i + 1 < end && value.charAt( i + 1 ) == quoteChar )
+        i++;
+      }
+
+    return builder.toString();
+    }
+
+  private static boolean hasLineTerminator( String value )
+    {
+    for( int i = 0; i < value.length(); i++ )
+      {
+      if( LINE_TERMINATORS.indexOf( value.charAt( i ) ) != -1 )
+        return true;
+      }
+
+    return false;
+    }
+
+  private static int count( String value, int from, int to, char quoteChar )
+    {
+    int count = 0;
+
+    for( int i = from; i < to; i++ )
+      {
+      if( value.charAt( i ) == quoteChar )
+        count++;
+      }
+
+    return count;
+    }
+  }
@@ -25,6 +25,7 @@ import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 import cascading.flow.Flow;
@@ -71,6 +72,13 @@ public abstract class CascadingStats<Child> implements ProvidesCounters, Seriali
   public static final String STATS_STORE_INTERVAL = "cascading.stats.store.interval";
   public static final String STATS_COMPLETE_CHILD_DETAILS_BLOCK_DURATION = "cascading.stats.complete_child_details.block.duration";
 
+  /** Counter group holding the sampled self time, in nanoseconds, of each timed pipe element. */
+  public static final String ELEMENT_SELF_TIME_GROUP = "cascading.flow.stream.ElementSelfTimeNanos";
+  /** Counter group holding the number of tuples sampled by each timed pipe element. */
+  public static final String ELEMENT_SAMPLED_TUPLES_GROUP = "cascading.flow.stream.ElementSampledTuples";
+  /** Counter group holding the start and complete self time, in nanoseconds, of each timed pipe element. */
+  public static final String ELEMENT_LIFECYCLE_TIME_GROUP = "cascading.flow.stream.ElementLifecycleTimeNanos";
+
   /**
    * Method setStatsStoreInterval sets the interval time between store operations against the underlying
    * document storage services. This affects the rate at which metrics and status information is updated.
@@ -631,6 +639,55 @@ public abstract class CascadingStats<Child> implements ProvidesCounters, Seriali
     return getCountersFor( group.getName() );
     }
 
+  /**
+   * Method getElementSelfTimes returns the sampled self time, in nanoseconds, of each timed pipe element keyed by
+   * {@link cascading.flow.stream.element.ElementTimer#getTimingKey}. Elements are only timed when
+   * {@link cascading.flow.stream.graph.NodeStreamGraph#ELEMENT_TIMING_SAMPLE_RATE} is set.
+   *
+   * @return Map<String, Long>
+   */
+  public Map<String, Long> getElementSelfTimes()
+    {
+    return getCounterValuesFor( ELEMENT_SELF_TIME_GROUP );
+    }
+
+  /**
+   * Method getElementSampledTuples returns the number of tuples sampled by each timed pipe element.
+   *
+   * @return Map<String, Long>
+   * @see #getElementSelfTimes()
+   */
+  public Map<String, Long> getElementSampledTuples()
+    {
+    return getCounterValuesFor( ELEMENT_SAMPLED_TUPLES_GROUP );
+    }
+
+  /**
+   * Method getElementLifecycleTimes returns the self time, in nanoseconds, spent by each timed pipe element starting
+   * and completing its stream. These calls are not sampled.
+   *
+   * @return Map<String, Long>
+   * @see #getElementSelfTimes()
+   */
+  public Map<String, Long> getElementLifecycleTimes()
+    {
+    return getCounterValuesFor( ELEMENT_LIFECYCLE_TIME_GROUP );
+    }
+
+  private Map<String, Long> getCounterValuesFor( String group )
+    {
+    Map<String, Long> values = new TreeMap<>();
+    Collection<String> counters = getCountersFor( group );
+
+    if( counters == null )
+      return values;
+
+    for( String counter : counters )
+      values.put( counter, getCounterValue( group, counter ) );
+
+    return values;
+    }
+
   /**
    * Method getCounterGroupsMatching returns all the available counter group names that match
    * the given regular expression.
@@ -191,6 +191,12 @@ public class DecoratorTap<MetaInfo, Config, Input, Output> extends Tap<Config, I
     original.presentSourceFields( flowProcess, fields );
     }
 
+  @Override
+  public void presentSourceProjection( FlowProcess<? extends Config> flowProcess, Fields projectedFields )
+    {
+    original.presentSourceProjection( flowProcess, projectedFields );
+    }
+
   @Override
   public Fields retrieveSinkFields( FlowProcess<? extends Config> flowProcess )
     {
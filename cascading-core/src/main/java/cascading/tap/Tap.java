@@ -372,6 +372,18 @@ public abstract class Tap<Config, Input, Output> implements ScopedElement, FlowE
     getScheme().presentSourceFields( flowProcess, this, fields );
     }
 
+  /**
+   * A hook for presenting the Scheme the source fields read by the current Flow.
+   *
+   * @param flowProcess     of type FlowProcess
+   * @param projectedFields of type Fields
+   * @see Scheme#presentSourceProjection(FlowProcess, Tap, Fields)
+   */
+  public void presentSourceProjection( FlowProcess<? extends Config> flowProcess, Fields projectedFields )
+    {
+    getScheme().presentSourceProjection( flowProcess, this, projectedFields );
+    }
+
   /**
    * A hook for allowing a Scheme to lazily retrieve its sink fields.
    *
@@ -32,6 +32,7 @@ import java.util.Set;
 import cascading.flow.Flow;
 import cascading.flow.FlowProcess;
 import cascading.operation.Filter;
+import cascading.operation.StatelessFilter;
 import cascading.scheme.Scheme;
 import cascading.scheme.SinkCall;
 import cascading.scheme.SourceCall;
@@ -237,6 +238,10 @@ public abstract class BasePartitionTap<Config, Input, Output> extends Tap<Config
   protected Partition partition;
   /** Field sourcePartitionFilters */
   protected final List<PartitionTapFilter> sourcePartitionFilters = new ArrayList<>();
+  /** Field presentedPartitionFilters */
+  private final List<List<PartitionTapFilter>> presentedPartitionFilters = new ArrayList<>();
+  /** Field presentedUnfiltered */
+  private boolean presentedUnfiltered = false;
   /** Field keepParentOnDelete */
   protected boolean keepParentOnDelete = false;
   /** Field openTapsThreshold */
@@ -320,25 +325,35 @@ public abstract class BasePartitionTap<Config, Input, Output> extends Tap<Config
       fullyQualified
     );
 
-    if( sourcePartitionFilters.isEmpty() )
+    if( sourcePartitionFilters.isEmpty() && !isSourcePartitionsPruned() )
       return childIdentifiers;
 
-    return getFilteredPartitionIdentifiers( flowProcess, childIdentifiers );
+    return getFilteredPartitionIdentifiers( flowProcess, childIdentifiers, fullyQualified );
     }
 
   protected String[] getFilteredPartitionIdentifiers( FlowProcess<? extends Config> flowProcess, String[] childIdentifiers )
     {
+    return getFilteredPartitionIdentifiers( flowProcess, childIdentifiers, true );
+    }
+
+  protected String[] getFilteredPartitionIdentifiers( FlowProcess<? extends Config> flowProcess, String[] childIdentifiers, boolean fullyQualified )
+    {
+    // the parent prefix must be in the same form the child identifiers were listed in
+    String parentIdentifier = fullyQualified ? parent.getFullIdentifier( flowProcess ) : parent.getIdentifier();
+
     Fields partitionFields = partition.getPartitionFields();
     TupleEntry partitionEntry = new TupleEntry( partitionFields, Tuple.size( partitionFields.size() ) );
 
     List<String> filteredIdentifiers = new ArrayList<>( childIdentifiers.length );
 
-    for( PartitionTapFilter filter : sourcePartitionFilters )
+    List<PartitionTapFilter> allFilters = getAllSourcePartitionFilters();
+
+    for( PartitionTapFilter filter : allFilters )
       filter.prepare( flowProcess );
 
     for( String childIdentifier : childIdentifiers )
       {
-      partition.toTuple( childIdentifier.substring( parent.getFullIdentifier( flowProcess ).length() + 1 ), partitionEntry );
+      partition.toTuple( childIdentifier.substring( parentIdentifier.length() + 1 ), partitionEntry );
 
       boolean isRemove = false;
       for( PartitionTapFilter filter : sourcePartitionFilters )
@@ -350,16 +365,55 @@ public abstract class BasePartitionTap<Config, Input, Output> extends Tap<Config
           }
         }
 
+      if( !isRemove && isSourcePartitionsPruned() )
+        isRemove = isPrunedRemove( flowProcess, partitionEntry );
+
       if( !isRemove )
         filteredIdentifiers.add( childIdentifier );
       }
 
-    for( PartitionTapFilter filter : sourcePartitionFilters )
+    for( PartitionTapFilter filter : allFilters )
       filter.cleanup( flowProcess );
 
+    if( isSourcePartitionsPruned() )
+      LOG.info( "pruned {} of {} partitions from: {}", childIdentifiers.length - filteredIdentifiers.size(), childIdentifiers.length, parent );
+
     return filteredIdentifiers.toArray( new String[ filteredIdentifiers.size() ] );
     }
 
+  private List<PartitionTapFilter> getAllSourcePartitionFilters()
+    {
+    List<PartitionTapFilter> filters = new ArrayList<>( sourcePartitionFilters );
+
+    for( List<PartitionTapFilter> presentedFilters : presentedPartitionFilters )
+      filters.addAll( presentedFilters );
+
+    return filters;
+    }
+
+  private boolean isPrunedRemove( FlowProcess<? extends Config> flowProcess, TupleEntry partitionEntry )
+    {
+    // only removed if every flow reading this tap would remove it
+    for( List<PartitionTapFilter> presentedFilters : presentedPartitionFilters )
+      {
+      boolean isRemove = false;
+
+      for( PartitionTapFilter filter : presentedFilters )
+        {
+        if( filter.isRemove( flowProcess, partitionEntry ) )
+          {
+          isRemove = true;
+          break;
+          }
+        }
+
+      if( !isRemove )
+        return false;
+      }
+
+    return true;
+    }
+
   /**
    * Add a {@link Filter} with its associated argument selector when using this PartitionTap as a source. On read, each
    * child identifier is converted to a {@link Tuple} using the provided {@link Partition}. Each {@link Filter} will be
@@ -370,6 +424,73 @@ public abstract class BasePartitionTap<Config, Input, Output> extends Tap<Config
    * @param filter           Filter to be applied to each input Tuple
    */
   public void addSourcePartitionFilter( Fields argumentSelector, Filter filter )
+    {
+    sourcePartitionFilters.add( createPartitionTapFilter( argumentSelector, filter ) );
+    }
+
+  /**
+   * Method isSourcePartitionFilter returns true if the given {@link Filter} may be applied to the partition values of
+   * this PartitionTap by the planner, that is, if it is a {@link StatelessFilter} and the given argument selector
+   * only names partition fields.
+   *
+   * @param argumentSelector field selector that selects Filter arguments from the input Tuple
+   * @param filter           Filter applied to each input Tuple
+   * @return true if the filter may be presented via {@link #presentSourcePartitionFilters(FlowProcess, Fields[], Filter[])}
+   */
+  public boolean isSourcePartitionFilter( Fields argumentSelector, Filter filter )
+    {
+    if( !( filter instanceof StatelessFilter ) || !argumentSelector.isDefined() || argumentSelector.size() == 0 )
+      return false;
+
+    for( Comparable field : argumentSelector )
+      {
+      if( !( field instanceof String ) )
+        return false;
+      }
+
+    return partition.getPartitionFields().contains( argumentSelector );
+    }
+
+  /**
+   * Method presentSourcePartitionFilters is called by the planner, after all fields are resolved, with the filters
+   * every value read from this PartitionTap must pass in the planned {@link Flow}, each accepted by
+   * {@link #isSourcePartitionFilter(Fields, Filter)}. If none are found, it is called with empty arrays.
+   * <p/>
+   * Unlike filters added via {@link #addSourcePartitionFilter(Fields, Filter)}, presented filters accumulate across
+   * every Flow planned against this instance, and a partition is only skipped if the filters presented by each Flow
+   * would remove it.
+   *
+   * @param flowProcess       of type FlowProcess
+   * @param argumentSelectors of type Fields[]
+   * @param filters           of type Filter[]
+   */
+  public void presentSourcePartitionFilters( FlowProcess<? extends Config> flowProcess, Fields[] argumentSelectors, Filter[] filters )
+    {
+    if( filters.length == 0 )
+      {
+      presentedUnfiltered = true;
+      return;
+      }
+
+    List<PartitionTapFilter> presentedFilters = new ArrayList<>( filters.length );
+
+    for( int i = 0; i < filters.length; i++ )
+      presentedFilters.add( createPartitionTapFilter( argumentSelectors[ i ], filters[ i ] ) );
+
+    presentedPartitionFilters.add( presentedFilters );
+    }
+
+  /**
+   * Method isSourcePartitionsPruned returns true if filters presented by the planner will skip partitions on read.
+   *
+   * @return boolean
+   */
+  public boolean isSourcePartitionsPruned()
+    {
+    return !presentedUnfiltered && !presentedPartitionFilters.isEmpty();
+    }
+
+  private PartitionTapFilter createPartitionTapFilter( Fields argumentSelector, Filter filter )
     {
     Fields argumentFields;
 
@@ -378,7 +499,7 @@ public abstract class BasePartitionTap<Config, Input, Output> extends Tap<Config
     else
       argumentFields = partition.getPartitionFields().select( argumentSelector );
 
-    sourcePartitionFilters.add( new PartitionTapFilter( argumentFields, filter ) );
+    return new PartitionTapFilter( argumentFields, filter );
     }
 
   @Override
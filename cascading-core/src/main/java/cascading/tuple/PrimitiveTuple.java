@@ -0,0 +1,407 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tuple;
+
+import java.io.Serializable;
+import java.lang.reflect.Type;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import cascading.tuple.coerce.Coercions;
+
+/**
+ * Class PrimitiveTuple is a {@link Tuple} that stores the values of positions declared as a primitive numeric type,
+ * {@code long}, {@code int}, {@code short}, {@code double}, or {@code float}, in primitive arrays.
+ * <p/>
+ * The numeric getters and setters, for example {@link #getDouble(int)} and {@link #setDouble(int, double)}, do not
+ * box when called on a position whose type matches, so aggregation contexts holding running sums or counts do not
+ * allocate per value. Values are only boxed when retrieved as an Object, for example via {@link #getObject(int)}.
+ * <p/>
+ * All other behavior is that of Tuple. A position may hold any value, including {@code null} or a value of another
+ * type, in which case it is held as an Object. If values are added or removed, the storage falls back to a list.
+ * <p/>
+ * PrimitiveTuple is opt-in, Cascading does not create one when reading or emitting tuples. Instantiate it directly,
+ * as the {@link cascading.pipe.assembly.SumBy} and {@link cascading.pipe.assembly.AverageBy} partial aggregates do,
+ * or call {@link Tuple#size(Fields)} to create one only if the given Fields declare primitive types.
+ */
+public class PrimitiveTuple extends Tuple
+  {
+  /**
+   * Method hasPrimitives returns true if any of the given types is a primitive numeric type stored unboxed by
+   * this class.
+   *
+   * @param types of type Type[]
+   * @return boolean
+   */
+  public static boolean hasPrimitives( Type[] types )
+    {
+    if( types == null )
+      return false;
+
+    for( Type type : types )
+      {
+      if( PrimitiveElements.kindOf( type ) != PrimitiveElements.OBJECT )
+        return true;
+      }
+
+    return false;
+    }
+
+  /**
+   * Constructor PrimitiveTuple creates a new PrimitiveTuple instance with a position for each given type, all
+   * positions are initially {@code null}.
+   *
+   * @param types of type Type...
+   */
+  public PrimitiveTuple( Type... types )
+    {
+    super( new PrimitiveElements( types ) );
+    }
+
+  private PrimitiveElements primitives()
+    {
+    // elements may be swapped by Tuple#leave
+    return elements instanceof PrimitiveElements ? (PrimitiveElements) elements : null;
+    }
+
+  @Override
+  public double getDouble( int pos )
+    {
+    PrimitiveElements primitives = primitives();
+
+    if( primitives == null )
+      return super.getDouble( pos );
+
+    return primitives.getDouble( pos );
+    }
+
+  @Override
+  public float getFloat( int pos )
+    {
+    PrimitiveElements primitives = primitives();
+
+    if( primitives == null )
+      return super.getFloat( pos );
+
+    return primitives.getFloat( pos );
+    }
+
+  @Override
+  public long getLong( int pos )
+    {
+    PrimitiveElements primitives = primitives();
+
+    if( primitives == null )
+      return super.getLong( pos );
+
+    return primitives.getLong( pos );
+    }
+
+  @Override
+  public int getInteger( int pos )
+    {
+    PrimitiveElements primitives = primitives();
+
+    if( primitives == null )
+      return super.getInteger( pos );
+
+    return primitives.getInteger( pos );
+    }
+
+  @Override
+  public void setDouble( int index, double value )
+    {
+    PrimitiveElements primitives = primitives();
+
+    if( primitives == null || isUnmodifiable || !primitives.setDouble( index, value ) )
+      super.setDouble( index, value );
+    }
+
+  @Override
+  public void setLong( int index, long value )
+    {
+    PrimitiveElements primitives = primitives();
+
+    if( primitives == null || isUnmodifiable || !primitives.setLong( index, value, PrimitiveElements.LONG ) )
+      super.setLong( index, value );
+    }
+
+  @Override
+  public void setInteger( int index, int value )
+    {
+    PrimitiveElements primitives = primitives();
+
+    if( primitives == null || isUnmodifiable || !primitives.setLong( index, value, PrimitiveElements.INT ) )
+      super.setInteger( index, value );
+    }
+
+  /**
+   * A fixed size list holding primitive values unboxed, falls back to an ArrayList on any structural change.
+   */
+  static class PrimitiveElements extends AbstractList<Object> implements RandomAccess, Serializable
+    {
+    static final byte OBJECT = 0;
+    static final byte LONG = 1;
+    static final byte INT = 2;
+    static final byte SHORT = 3;
+    static final byte DOUBLE = 4;
+    static final byte FLOAT = 5;
+
+    private final byte[] kinds;
+    private final boolean[] isObject;
+    private final Object[] objects;
+    private final long[] longs;
+    private final double[] doubles;
+
+    private List<Object> fallback;
+
+    static byte kindOf( Type type )
+      {
+      if( type == long.class )
+        return LONG;
+      else if( type == int.class )
+        return INT;
+      else if( type == short.class )
+        return SHORT;
+      else if( type == double.class )
+        return DOUBLE;
+      else if( type == float.class )
+        return FLOAT;
+
+      return OBJECT;
+      }
+
+    PrimitiveElements( Type[] types )
+      {
+      int size = types.length;
+
+      kinds = new byte[ size ];
+      isObject = new boolean[ size ];
+      objects = new Object[ size ];
+      longs = new long[ size ];
+      doubles = new double[ size ];
+
+      for( int i = 0; i < size; i++ )
+        {
+        kinds[ i ] = kindOf( types[ i ] );
+        isObject[ i ] = true; // all null
+        }
+      }
+
+    @Override
+    public int size()
+      {
+      if( fallback != null )
+        return fallback.size();
+
+      return kinds.length;
+      }
+
+    @Override
+    public Object get( int index )
+      {
+      if( fallback != null )
+        return fallback.get( index );
+
+      if( isObject[ index ] )
+        return objects[ index ];
+
+      switch( kinds[ index ] )
+        {
+        case LONG:
+          return longs[ index ];
+        case INT:
+          return (int) longs[ index ];
+        case SHORT:
+          return (short) longs[ index ];
+        case DOUBLE:
+          return doubles[ index ];
+        case FLOAT:
+          return (float) doubles[ index ];
+        default:
+          throw new IllegalStateException( "unknown kind: " + kinds[ index ] );
+        }
+      }
+
+    @Override
+    public Object set( int index, Object value )
+      {
+      if( fallback != null )
+        return fallback.set( index, value );
+
+      Object previous = get( index );
+
+      switch( value == null ? OBJECT : kinds[ index ] )
+        {
+        case LONG:
+          if( value instanceof Long && setLong( index, (Long) value, LONG ) )
+            return previous;
+          break;
+        case INT:
+          if( value instanceof Integer && setLong( index, (Integer) value, INT ) )
+            return previous;
+          break;
+        case SHORT:
+          if( value instanceof Short && setLong( index, (Short) value, SHORT ) )
+            return previous;
+          break;
+        case DOUBLE:
+          if( value instanceof Double && setDouble( index, (Double) value ) )
+            return previous;
+          break;
+        case FLOAT:
+          if( value instanceof Float )
+            {
+            doubles[ index ] = (Float) value;
+            isObject[ index ] = false;
+            return previous;
+            }
+          break;
+        }
+
+      objects[ index ] = value;
+      isObject[ index ] = true;
+
+      return previous;
+      }
+
+    /** Sets the value unboxed and returns true if the position holds the given kind. */
+    boolean setLong( int index, long value, byte kind )
+      {
+      if( fallback != null || kinds[ index ] != kind )
+        return false;
+
+      longs[ index ] = value;
+      objects[ index ] = null;
+      isObject[ index ] = false;
+
+      return true;
+      }
+
+    /** Sets the value unboxed and returns true if the position holds a double. */
+    boolean setDouble( int index, double value )
+      {
+      if( fallback != null || kinds[ index ] != DOUBLE )
+        return false;
+
+      doubles[ index ] = value;
+      objects[ index ] = null;
+      isObject[ index ] = false;
+
+      return true;
+      }
+
+    long getLong( int index )
+      {
+      if( fallback != null )
+        return Coercions.LONG.coerce( fallback.get( index ) );
+
+      if( isObject[ index ] )
+        return Coercions.LONG.coerce( objects[ index ] );
+
+      byte kind = kinds[ index ];
+
+      if( kind == DOUBLE || kind == FLOAT )
+        return (long) doubles[ index ];
+
+      return longs[ index ];
+      }
+
+    double getDouble( int index )
+      {
+      if( fallback != null )
+        return Coercions.DOUBLE.coerce( fallback.get( index ) );
+
+      if( isObject[ index ] )
+        return Coercions.DOUBLE.coerce( objects[ index ] );
+
+      byte kind = kinds[ index ];
+
+      if( kind == DOUBLE || kind == FLOAT )
+        return doubles[ index ];
+
+      return longs[ index ];
+      }
+
+    int getInteger( int index )
+      {
+      if( fallback != null )
+        return Coercions.INTEGER.coerce( fallback.get( index ) );
+
+      if( isObject[ index ] )
+        return Coercions.INTEGER.coerce( objects[ index ] );
+
+      byte kind = kinds[ index ];
+
+      if( kind == DOUBLE || kind == FLOAT )
+        return (int) doubles[ index ];
+
+      return (int) longs[ index ];
+      }
+
+    float getFloat( int index )
+      {
+      if( fallback != null )
+        return Coercions.FLOAT.coerce( fallback.get( index ) );
+
+      if( isObject[ index ] )
+        return Coercions.FLOAT.coerce( objects[ index ] );
+
+      byte kind = kinds[ index ];
+
+      if( kind == DOUBLE || kind == FLOAT )
+        return (float) doubles[ index ];
+
+      return (float) longs[ index ];
+      }
+
+    private List<Object> fallback()
+      {
+      if( fallback == null )
+        fallback = new ArrayList<Object>( this );
+
+      modCount++;
+
+      return fallback;
+      }
+
+    @Override
+    public void add( int index, Object element )
+      {
+      fallback().add( index, element );
+      }
+
+    @Override
+    public Object remove( int index )
+      {
+      return fallback().remove( index );
+      }
+
+    @Override
+    public void clear()
+      {
+      fallback().clear();
+      }
+    }
+  }
@@ -90,6 +90,26 @@ public class Tuple implements Comparable<Object>, Iterable<Object>, Serializable
     return size( size, null );
     }
 
+  /**
+   * Method size returns a new Tuple instance sized to the given Fields with nulls as its element values.
+   * <p/>
+   * If the given fields declare primitive numeric types, a {@link PrimitiveTuple} is returned so that those
+   * values are held without boxing. This is opt-in, tuples created by Cascading when reading or emitting values are
+   * not sized this way.
+   *
+   * @param fields of type Fields
+   * @return Tuple
+   */
+  public static Tuple size( Fields fields )
+    {
+    Type[] types = fields.getTypes();
+
+    if( fields.isDefined() && PrimitiveTuple.hasPrimitives( types ) )
+      return new PrimitiveTuple( types );
+
+    return size( fields.size() );
+    }
+
   /**
    * Method size returns a new Tuple instance of the given size with the given Comparable as its element values.
    *
@@ -596,7 +596,12 @@ public class TupleEntry
     if( pos > coercions.length - 1 )
       throw new TupleException( "position value is too large: " + pos + ", positions in field: " + tuple.size() );
 
-    tuple.set( pos, coercions[ pos ].canonical( value ) );
+    CoercibleType coercion = coercions[ pos ];
+
+    if( coercion == Coercions.INTEGER || coercion == Coercions.INTEGER_OBJECT || coercion == Coercions.OBJECT )
+      tuple.setInteger( pos, value );
+    else
+      tuple.set( pos, coercion.canonical( value ) );
     }
 
   /**
@@ -612,7 +617,12 @@ public class TupleEntry
     if( pos > coercions.length - 1 )
       throw new TupleException( "position value is too large: " + pos + ", positions in field: " + tuple.size() );
 
-    tuple.set( pos, coercions[ pos ].canonical( value ) );
+    CoercibleType coercion = coercions[ pos ];
+
+    if( coercion == Coercions.LONG || coercion == Coercions.LONG_OBJECT || coercion == Coercions.OBJECT )
+      tuple.setLong( pos, value );
+    else
+      tuple.set( pos, coercion.canonical( value ) );
     }
 
   /**
@@ -628,7 +638,12 @@ public class TupleEntry
     if( pos > coercions.length - 1 )
       throw new TupleException( "position value is too large: " + pos + ", positions in field: " + tuple.size() );
 
-    tuple.set( pos, coercions[ pos ].canonical( value ) );
+    CoercibleType coercion = coercions[ pos ];
+
+    if( coercion == Coercions.FLOAT || coercion == Coercions.FLOAT_OBJECT || coercion == Coercions.OBJECT )
+      tuple.setFloat( pos, value );
+    else
+      tuple.set( pos, coercion.canonical( value ) );
     }
 
   /**
@@ -644,7 +659,12 @@ public class TupleEntry
     if( pos > coercions.length - 1 )
       throw new TupleException( "position value is too large: " + pos + ", positions in field: " + tuple.size() );
 
-    tuple.set( pos, coercions[ pos ].canonical( value ) );
+    CoercibleType coercion = coercions[ pos ];
+
+    if( coercion == Coercions.DOUBLE || coercion == Coercions.DOUBLE_OBJECT || coercion == Coercions.OBJECT )
+      tuple.setDouble( pos, value );
+    else
+      tuple.set( pos, coercion.canonical( value ) );
     }
 
   /**
@@ -688,7 +708,16 @@ public class TupleEntry
    */
   public float getFloat( Comparable fieldName )
     {
-    return (Float) getObject( fieldName, float.class );
+    int pos = fields.getPos( asFieldName( fieldName ) );
+
+    if( pos > coercions.length - 1 )
+      throw new TupleException( "position value is too large: " + pos + ", positions in field: " + tuple.size() );
+
+    // builtin coercions resolve to the same conversion, let the tuple avoid boxing
+    if( coercions[ pos ] instanceof Coercions.Coerce )
+      return tuple.getFloat( pos );
+
+    return (Float) Coercions.coerce( coercions[ pos ], tuple.getObject( pos ), float.class );
     }
 
   /**
@@ -702,7 +731,16 @@ public class TupleEntry
    */
   public double getDouble( Comparable fieldName )
     {
-    return (Double) getObject( fieldName, double.class );
+    int pos = fields.getPos( asFieldName( fieldName ) );
+
+    if( pos > coercions.length - 1 )
+      throw new TupleException( "position value is too large: " + pos + ", positions in field: " + tuple.size() );
+
+    // builtin coercions resolve to the same conversion, let the tuple avoid boxing
+    if( coercions[ pos ] instanceof Coercions.Coerce )
+      return tuple.getDouble( pos );
+
+    return (Double) Coercions.coerce( coercions[ pos ], tuple.getObject( pos ), double.class );
     }
 
   /**
@@ -716,7 +754,16 @@ public class TupleEntry
    */
   public int getInteger( Comparable fieldName )
     {
-    return (Integer) getObject( fieldName, int.class );
+    int pos = fields.getPos( asFieldName( fieldName ) );
+
+    if( pos > coercions.length - 1 )
+      throw new TupleException( "position value is too large: " + pos + ", positions in field: " + tuple.size() );
+
+    // builtin coercions resolve to the same conversion, let the tuple avoid boxing
+    if( coercions[ pos ] instanceof Coercions.Coerce )
+      return tuple.getInteger( pos );
+
+    return (Integer) Coercions.coerce( coercions[ pos ], tuple.getObject( pos ), int.class );
     }
 
   /**
@@ -730,7 +777,16 @@ public class TupleEntry
    */
   public long getLong( Comparable fieldName )
     {
-    return (Long) getObject( fieldName, long.class );
+    int pos = fields.getPos( asFieldName( fieldName ) );
+
+    if( pos > coercions.length - 1 )
+      throw new TupleException( "position value is too large: " + pos + ", positions in field: " + tuple.size() );
+
+    // builtin coercions resolve to the same conversion, let the tuple avoid boxing
+    if( coercions[ pos ] instanceof Coercions.Coerce )
+      return tuple.getLong( pos );
+
+    return (Long) Coercions.coerce( coercions[ pos ], tuple.getObject( pos ), long.class );
     }
 
   /**
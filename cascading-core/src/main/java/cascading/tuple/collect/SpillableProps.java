@@ -52,6 +52,24 @@ public class SpillableProps extends Props
   /** The total number of tuple values (not keys) to attempt to keep in memory. */
   public static final String MAP_THRESHOLD = "cascading.spill.map.threshold";
 
+  /**
+   * Number of tuples a memory based {@link cascading.pipe.GroupBy} will hold before sorting and spilling them to disk
+   * as a single run. The threshold bounds the tuples held across all threads writing into the GroupBy, each thread
+   * spilling its own tuples once it holds an equal share of it. A value of -1 disables spilling.
+   * <p/>
+   * This is currently honored by the local mode planner. Only values that are {@link java.io.Serializable}, or of a
+   * natively supported type, can be spilled, otherwise all values are held in memory and a warning is logged.
+   */
+  public static final String GROUPBY_THRESHOLD = "cascading.spill.groupby.threshold";
+
+  /**
+   * Maximum number of spilled runs a memory based {@link cascading.pipe.GroupBy} will read at once when merging. If
+   * more runs were spilled, they are first merged into fewer, larger runs, bounding the number of open files.
+   * <p/>
+   * This is currently honored by the local mode planner.
+   */
+  public static final String GROUPBY_MERGE_FACTOR = "cascading.spill.groupby.merge.factor";
+
   /**
    * The initial hash map capacity.
    *
@@ -69,6 +87,8 @@ public class SpillableProps extends Props
   public static final int defaultListThreshold = 10 * 1000;
 
   public static final int defaultMapThreshold = 10 * 1000;
+  public static final int defaultGroupByThreshold = 1000 * 1000;
+  public static final int defaultGroupByMergeFactor = 100;
   public static final int defaultMapInitialCapacity = 100 * 1000;
   public static final float defaultMapLoadFactor = 0.75f;
 
@@ -78,6 +98,8 @@ public class SpillableProps extends Props
   int listSpillThreshold = defaultListThreshold;
 
   int mapSpillThreshold = defaultMapThreshold;
+  int groupBySpillThreshold = defaultGroupByThreshold;
+  int groupByMergeFactor = defaultGroupByMergeFactor;
   int mapInitialCapacity = defaultMapInitialCapacity;
   float mapLoadFactor = defaultMapLoadFactor;
 
@@ -201,6 +223,46 @@ public class SpillableProps extends Props
     return this;
     }
 
+  public int getGroupBySpillThreshold()
+    {
+    return groupBySpillThreshold;
+    }
+
+  /**
+   * Method setGroupBySpillThreshold sets the number of tuples a memory based GroupBy will hold before sorting
+   * and spilling them to disk. Spilled runs are merged back in sort order when the GroupBy completes.
+   * <p/>
+   * Using a value of -1 will disable the spill, all values will remain in memory.
+   *
+   * @param groupBySpillThreshold of type int
+   * @return this
+   */
+  public SpillableProps setGroupBySpillThreshold( int groupBySpillThreshold )
+    {
+    this.groupBySpillThreshold = groupBySpillThreshold;
+
+    return this;
+    }
+
+  public int getGroupByMergeFactor()
+    {
+    return groupByMergeFactor;
+    }
+
+  /**
+   * Method setGroupByMergeFactor sets the maximum number of spilled runs a memory based GroupBy will read at once
+   * when merging. Values less than 2 are treated as 2.
+   *
+   * @param groupByMergeFactor of type int
+   * @return this
+   */
+  public SpillableProps setGroupByMergeFactor( int groupByMergeFactor )
+    {
+    this.groupByMergeFactor = groupByMergeFactor;
+
+    return this;
+    }
+
   public int getMapInitialCapacity()
     {
     return mapInitialCapacity;
@@ -251,6 +313,8 @@ public class SpillableProps extends Props
     properties.setProperty( LIST_THRESHOLD, Integer.toString( listSpillThreshold ) );
 
     properties.setProperty( MAP_THRESHOLD, Integer.toString( mapSpillThreshold ) );
+    properties.setProperty( GROUPBY_THRESHOLD, Integer.toString( groupBySpillThreshold ) );
+    properties.setProperty( GROUPBY_MERGE_FACTOR, Integer.toString( groupByMergeFactor ) );
     properties.setProperty( MAP_CAPACITY, Integer.toString( mapInitialCapacity ) );
     properties.setProperty( MAP_LOADFACTOR, Float.toString( mapLoadFactor ) );
     }
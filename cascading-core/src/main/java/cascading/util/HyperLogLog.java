@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+import cascading.tuple.Tuple;
+
+/**
+ * Class HyperLogLog is a mergeable sketch estimating the number of distinct values added to it, following
+ * <a href="http://algo.inria.fr/flajolet/Publications/FlFuGaMe07.pdf">HyperLogLog: the analysis of a near-optimal
+ * cardinality estimation algorithm</a>, with linear counting for small cardinalities.
+ * <p/>
+ * The {@code precision} is the number of hash bits used to select one of {@code 2^precision} registers. The standard
+ * error of the estimate is about {@code 1.04 / sqrt(2^precision)}, 1.6% for the default precision of 12.
+ * <p/>
+ * A new sketch is sparse, retaining four bytes per non-zero register, and becomes dense, retaining one byte per
+ * register, once that is smaller. So many sketches of few distinct values each, as kept per grouping by
+ * {@link cascading.pipe.assembly.CountDistinctBy}, retain little memory regardless of the precision.
+ * <p/>
+ * A sketch may be encoded into, and decoded from, a String holding only ASCII characters via {@link #encode()} and
+ * {@link #decode(String)}, so that it may be carried in a {@link Tuple} and serialized natively. Sketches with few
+ * non-zero registers are encoded sparsely.
+ */
+public final class HyperLogLog implements Serializable
+  {
+  public static final int MIN_PRECISION = 4;
+  public static final int MAX_PRECISION = 18;
+  public static final int DEFAULT_PRECISION = 12;
+
+  private static final char DENSE = 'D';
+  private static final char SPARSE = 'S';
+  private static final char OFFSET = '0';
+
+  private static final int INITIAL_SPARSE_CAPACITY = 4;
+
+  private final int precision;
+  /** Field registers, null while sparse */
+  private byte[] registers;
+  /** Field sparse, the non-zero registers as {@code index << 8 | rank} sorted by index, null once dense */
+  private int[] sparse;
+  private int sparseSize;
+
+  /**
+   * Method hash returns a 64 bit hash of the given value. Numbers, Strings, and Tuples hash by value, all other
+   * types hash via {@link Object#hashCode()}.
+   *
+   * @param value of type Object
+   * @return long
+   */
+  public static long hash( Object value )
+    {
+    if( value == null )
+      return Murmur3.fmix64( 0 );
+
+    if( value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte )
+      return Murmur3.fmix64( ( (Number) value ).longValue() );
+
+    if( value instanceof Double || value instanceof Float )
+      return Murmur3.fmix64( Double.doubleToLongBits( ( (Number) value ).doubleValue() ) );
+
+    if( value instanceof CharSequence )
+      {
+      CharSequence sequence = (CharSequence) value;
+      long hash = 0xcbf29ce484222325L; // FNV-1a offset basis
+
+      for( int i = 0; i < sequence.length(); i++ )
+        hash = ( hash ^ sequence.charAt( i ) ) * 0x100000001b3L;
+
+      return Murmur3.fmix64( hash ^ sequence.length() );
+      }
+
+    if( value instanceof Tuple )
+      {
+      List<Object> elements = Tuple.elements( (Tuple) value );
+      long hash = elements.size();
+
+      for( int i = 0; i < elements.size(); i++ )
+        hash = hash * 31 + hash( elements.get( i ) );
+
+      return Murmur3.fmix64( hash );
+      }
+
+    return Murmur3.fmix64( value.hashCode() );
+    }
+
+  /**
+   * Method decode returns the sketch encoded into the given String by {@link #encode()}.
+   *
+   * @param encoded of type String
+   * @return HyperLogLog
+   */
+  public static HyperLogLog decode( String encoded )
+    {
+    if( encoded == null || encoded.length() < 2 )
+      throw new IllegalArgumentException( "invalid encoded sketch" );
+
+    HyperLogLog sketch = new HyperLogLog( encoded.charAt( 1 ) - OFFSET );
+
+    if( encoded.charAt( 0 ) == DENSE )
+      {
+      sketch.toDense();
+
+      byte[] registers = sketch.registers;
+
+      if( encoded.length() != registers.length + 2 )
+        throw new IllegalArgumentException( "invalid encoded sketch length: " + encoded.length() );
+
+      for( int i = 0; i < registers.length; i++ )
+        registers[ i ] = (byte) ( encoded.charAt( i + 2 ) - OFFSET );
+      }
+    else if( encoded.charAt( 0 ) == SPARSE )
+      {
+      if( ( encoded.length() - 2 ) % 4 != 0 )
+        throw new IllegalArgumentException( "invalid encoded sketch length: " + encoded.length() );
+
+      for( int i = 2; i < encoded.length(); i += 4 )
+        {
+        int index = ( encoded.charAt( i ) - OFFSET ) << 12 | ( encoded.charAt( i + 1 ) - OFFSET ) << 6 | ( encoded.charAt( i + 2 ) - OFFSET );
+
+        sketch.setMax( index, encoded.charAt( i + 3 ) - OFFSET );
+        }
+      }
+    else
+      {
+      throw new IllegalArgumentException( "invalid encoded sketch type: " + encoded.charAt( 0 ) );
+      }
+
+    return sketch;
+    }
+
+  public HyperLogLog()
+    {
+    this( DEFAULT_PRECISION );
+    }
+
+  public HyperLogLog( int precision )
+    {
+    if( precision < MIN_PRECISION || precision > MAX_PRECISION )
+      throw new IllegalArgumentException( "precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION + ", got: " + precision );
+
+    this.precision = precision;
+    this.sparse = new int[ INITIAL_SPARSE_CAPACITY ];
+    }
+
+  public int getPrecision()
+    {
+    return precision;
+    }
+
+  /**
+   * Method add adds the given value, via {@link #hash(Object)}.
+   *
+   * @param value of type Object
+   */
+  public void add( Object value )
+    {
+    addHash( hash( value ) );
+    }
+
+  /**
+   * Method addHash adds a value by its 64 bit hash.
+   *
+   * @param hash of type long
+   */
+  public void addHash( long hash )
+    {
+    int index = (int) ( hash >>> ( 64 - precision ) );
+    // the guard bit bounds the rank if all remaining bits are zero
+    int rank = Long.numberOfLeadingZeros( ( hash << precision ) | ( 1L << ( precision - 1 ) ) ) + 1;
+
+    setMax( index, rank );
+    }
+
+  private void setMax( int index, int rank )
+    {
+    if( registers != null )
+      {
+      if( registers[ index ] < rank )
+        registers[ index ] = (byte) rank;
+
+      return;
+      }
+
+    // ranks are never zero, so the search never finds the key itself, only where the index is or belongs
+    int position = -Arrays.binarySearch( sparse, 0, sparseSize, index << 8 ) - 1;
+
+    if( position < sparseSize && sparse[ position ] >>> 8 == index )
+      {
+      if( ( sparse[ position ] & 0xFF ) < rank )
+        sparse[ position ] = index << 8 | rank;
+
+      return;
+      }
+
+    // four bytes per sparse register, dense is smaller past a quarter of the registers
+    if( sparseSize >= ( 1 << precision ) / 4 )
+      {
+      toDense();
+      registers[ index ] = (byte) rank;
+      return;
+      }
+
+    if( sparseSize == sparse.length )
+      sparse = Arrays.copyOf( sparse, sparse.length * 2 );
+
+    System.arraycopy( sparse, position, sparse, position + 1, sparseSize - position );
+    sparse[ position ] = index << 8 | rank;
+    sparseSize++;
+    }
+
+  private void toDense()
+    {
+    if( registers != null )
+      return;
+
+    registers = new byte[ 1 << precision ];
+
+    for( int i = 0; i < sparseSize; i++ )
+      registers[ sparse[ i ] >>> 8 ] = (byte) ( sparse[ i ] & 0xFF );
+
+    sparse = null;
+    sparseSize = 0;
+    }
+
+  /** Returns true if this sketch retains only its non-zero registers. */
+  boolean isSparse()
+    {
+    return registers == null;
+    }
+
+  /**
+   * Method merge adds all values added to the given sketch into this sketch. The precisions must be equal.
+   *
+   * @param sketch of type HyperLogLog
+   */
+  public void merge( HyperLogLog sketch )
+    {
+    if( sketch.precision != precision )
+      throw new IllegalArgumentException( "cannot merge sketches of precision: " + sketch.precision + " into: " + precision );
+
+    if( sketch.registers == null )
+      {
+      for( int i = 0; i < sketch.sparseSize; i++ )
+        setMax( sketch.sparse[ i ] >>> 8, sketch.sparse[ i ] & 0xFF );
+
+      return;
+      }
+
+    toDense();
+
+    byte[] other = sketch.registers;
+
+    for( int i = 0; i < registers.length; i++ )
+      {
+      if( registers[ i ] < other[ i ] )
+        registers[ i ] = other[ i ];
+      }
+    }
+
+  private int getRegister( int index, int[] cursor )
+    {
+    if( registers != null )
+      return registers[ index ];
+
+    // sparse registers are visited in index order, the cursor holds the position of the next one
+    if( cursor[ 0 ] < sparseSize && sparse[ cursor[ 0 ] ] >>> 8 == index )
+      return sparse[ cursor[ 0 ]++ ] & 0xFF;
+
+    return 0;
+    }
+
+  /**
+   * Method estimate returns the estimated number of distinct values added.
+   *
+   * @return long
+   */
+  public long estimate()
+    {
+    int count = 1 << precision;
+    int[] cursor = new int[ 1 ];
+    double sum = 0;
+    int zeros = 0;
+
+    for( int i = 0; i < count; i++ )
+      {
+      int register = getRegister( i, cursor );
+
+      sum += 1.0D / ( 1L << register );
+
+      if( register == 0 )
+        zeros++;
+      }
+
+    double estimate = alpha( count ) * count * count / sum;
+
+    if( estimate <= 2.5D * count && zeros != 0 )
+      estimate = count * Math.log( (double) count / zeros ); // linear counting
+
+    return Math.round( estimate );
+    }
+
+  private static double alpha( int count )
+    {
+    switch( count )
+      {
+      case 16:
+        return 0.673D;
+      case 32:
+        return 0.697D;
+      case 64:
+        return 0.709D;
+      default:
+        return 0.7213D / ( 1 + 1.079D / count );
+      }
+    }
+
+  /**
+   * Method encode returns this sketch as a String of ASCII characters, see {@link #decode(String)}.
+   *
+   * @return String
+   */
+  public String encode()
+    {
+    int count = 1 << precision;
+    int nonZero = registers == null ? sparseSize : 0;
+
+    if( registers != null )
+      {
+      for( byte register : registers )
+        {
+        if( register != 0 )
+          nonZero++;
+        }
+      }
+
+    StringBuilder builder;
+
+    if( nonZero * 4 < count )
+      {
+      builder = new StringBuilder( 2 + nonZero * 4 );
+      builder.append( SPARSE ).append( (char) ( OFFSET + precision ) );
+
+      if( registers == null )
+        {
+        for( int i = 0; i < sparseSize; i++ )
+          appendSparse( builder, sparse[ i ] >>> 8, sparse[ i ] & 0xFF );
+        }
+      else
+        {
+        for( int i = 0; i < count; i++ )
+          {
+          if( registers[ i ] != 0 )
+            appendSparse( builder, i, registers[ i ] );
+          }
+        }
+      }
+    else
+      {
+      builder = new StringBuilder( 2 + count );
+      builder.append( DENSE ).append( (char) ( OFFSET + precision ) );
+
+      int[] cursor = new int[ 1 ];
+
+      for( int i = 0; i < count; i++ )
+        builder.append( (char) ( OFFSET + getRegister( i, cursor ) ) );
+      }
+
+    return builder.toString();
+    }
+
+  private static void appendSparse( StringBuilder builder, int index, int register )
+    {
+    builder.append( (char) ( OFFSET + ( index >>> 12 & 0x3F ) ) );
+    builder.append( (char) ( OFFSET + ( index >>> 6 & 0x3F ) ) );
+    builder.append( (char) ( OFFSET + ( index & 0x3F ) ) );
+    builder.append( (char) ( OFFSET + register ) );
+    }
+
+  @Override
+  public String toString()
+    {
+    return "HyperLogLog{precision=" + precision + ", estimate=" + estimate() + "}";
+    }
+  }
@@ -78,4 +78,15 @@ public class Murmur3
     h1 ^= h1 >>> 16;
     return h1;
     }
+
+  // Finalization mix of the 64bit version, force all bits of a hash block to avalanche
+  public static long fmix64( long k )
+    {
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+    }
   }
@@ -0,0 +1,370 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Class TDigest is a mergeable sketch estimating the quantiles of the values added to it, following
+ * <a href="https://arxiv.org/abs/1902.04023">Computing Extremely Accurate Quantiles Using t-Digests</a> in its
+ * merging form.
+ * <p/>
+ * Values are buffered and periodically merged into a sorted list of centroids, each holding a mean and a weight.
+ * The {@code compression} bounds the number of centroids retained, and so the memory, to a small multiple of
+ * itself, while centroids near the tails are kept small so extreme quantiles, like p99, remain accurate. The
+ * centroid arrays grow on demand, so a digest of few values retains little memory.
+ * <p/>
+ * A digest may be encoded into, and decoded from, a String via {@link #encode()} and {@link #decode(String)}, so
+ * that it may be carried in a {@link cascading.tuple.Tuple} and serialized natively.
+ */
+public final class TDigest implements Serializable
+  {
+  public static final double MIN_COMPRESSION = 10;
+  public static final double DEFAULT_COMPRESSION = 100;
+
+  private static final char SEPARATOR = ' ';
+  private static final int INITIAL_CAPACITY = 8;
+
+  private final double compression;
+  private final int capacity;
+
+  /** sorted merged centroids are held in [0, numCentroids), followed by buffered values */
+  private double[] means;
+  private long[] weights;
+  private int numCentroids;
+  private int numBuffered;
+
+  private long totalWeight;
+  private double min = Double.POSITIVE_INFINITY;
+  private double max = Double.NEGATIVE_INFINITY;
+
+  /**
+   * Method decode returns the digest encoded into the given String by {@link #encode()}.
+   *
+   * @param encoded of type String
+   * @return TDigest
+   */
+  public static TDigest decode( String encoded )
+    {
+    if( encoded == null || encoded.isEmpty() )
+      throw new IllegalArgumentException( "invalid encoded digest" );
+
+    String[] tokens = encoded.split( String.valueOf( SEPARATOR ) );
+
+    if( tokens.length < 3 || tokens.length % 2 == 0 )
+      throw new IllegalArgumentException( "invalid encoded digest, found: " + tokens.length + " tokens" );
+
+    try
+      {
+      TDigest digest = new TDigest( Double.parseDouble( tokens[ 0 ] ) );
+
+      for( int i = 3; i < tokens.length; i += 2 )
+        digest.add( Double.parseDouble( tokens[ i ] ), Long.parseLong( tokens[ i + 1 ] ) );
+
+      if( digest.totalWeight != 0 )
+        {
+        digest.min = Double.parseDouble( tokens[ 1 ] );
+        digest.max = Double.parseDouble( tokens[ 2 ] );
+        }
+
+      return digest;
+      }
+    catch( NumberFormatException exception )
+      {
+      throw new IllegalArgumentException( "invalid encoded digest", exception );
+      }
+    }
+
+  public TDigest()
+    {
+    this( DEFAULT_COMPRESSION );
+    }
+
+  public TDigest( double compression )
+    {
+    if( Double.isNaN( compression ) || compression < MIN_COMPRESSION )
+      throw new IllegalArgumentException( "compression must not be less than " + MIN_COMPRESSION + ", got: " + compression );
+
+    this.compression = compression;
+
+    // the k1 scale function bounds the merged centroids to about compression / 2, the remainder buffers values
+    int ceiling = (int) Math.ceil( compression );
+    this.capacity = 6 * ceiling + 10;
+    this.means = new double[ Math.min( INITIAL_CAPACITY, capacity ) ];
+    this.weights = new long[ means.length ];
+    }
+
+  public double getCompression()
+    {
+    return compression;
+    }
+
+  /**
+   * Method size returns the number of values added to this digest.
+   *
+   * @return long
+   */
+  public long size()
+    {
+    return totalWeight;
+    }
+
+  /**
+   * Method add adds the given value. NaN values are ignored.
+   *
+   * @param value of type double
+   */
+  public void add( double value )
+    {
+    add( value, 1 );
+    }
+
+  /**
+   * Method add adds the given value with the given weight. NaN values are ignored.
+   *
+   * @param value  of type double
+   * @param weight of type long
+   */
+  public void add( double value, long weight )
+    {
+    if( Double.isNaN( value ) )
+      return;
+
+    if( weight <= 0 )
+      throw new IllegalArgumentException( "weight must be greater than zero, got: " + weight );
+
+    if( numCentroids + numBuffered == means.length )
+      {
+      if( means.length < capacity )
+        grow();
+      else
+        compress();
+      }
+
+    means[ numCentroids + numBuffered ] = value;
+    weights[ numCentroids + numBuffered ] = weight;
+    numBuffered++;
+
+    totalWeight += weight;
+    min = Math.min( min, value );
+    max = Math.max( max, value );
+    }
+
+  /**
+   * Method merge adds the centroids of the given digest to this digest.
+   *
+   * @param digest of type TDigest
+   */
+  public void merge( TDigest digest )
+    {
+    if( digest.totalWeight == 0 )
+      return;
+
+    digest.compress();
+
+    for( int i = 0; i < digest.numCentroids; i++ )
+      add( digest.means[ i ], digest.weights[ i ] );
+
+    min = Math.min( min, digest.min );
+    max = Math.max( max, digest.max );
+    }
+
+  /**
+   * Method quantile returns the estimated value at the given quantile, between 0 and 1 inclusive, or NaN if no values
+   * were added.
+   *
+   * @param quantile of type double
+   * @return double
+   */
+  public double quantile( double quantile )
+    {
+    if( quantile < 0 || quantile > 1 || Double.isNaN( quantile ) )
+      throw new IllegalArgumentException( "quantile must be between 0 and 1, got: " + quantile );
+
+    if( totalWeight == 0 )
+      return Double.NaN;
+
+    compress();
+
+    if( quantile == 0 )
+      return min;
+
+    if( quantile == 1 )
+      return max;
+
+    double index = quantile * totalWeight;
+
+    // values are assumed spread evenly about each centroid mean, the min and max bound the outer halves
+    double halfFirst = weights[ 0 ] / 2.0;
+
+    if( index < halfFirst )
+      return min + ( means[ 0 ] - min ) * index / halfFirst;
+
+    double weightSoFar = halfFirst;
+
+    for( int i = 0; i < numCentroids - 1; i++ )
+      {
+      double delta = ( weights[ i ] + weights[ i + 1 ] ) / 2.0;
+
+      if( weightSoFar + delta > index )
+        return means[ i ] + ( means[ i + 1 ] - means[ i ] ) * ( index - weightSoFar ) / delta;
+
+      weightSoFar += delta;
+      }
+
+    double halfLast = weights[ numCentroids - 1 ] / 2.0;
+    double last = means[ numCentroids - 1 ];
+
+    return last + ( max - last ) * Math.min( 1.0, ( index - weightSoFar ) / halfLast );
+    }
+
+  /**
+   * Method encode returns this digest as a String, decodable by {@link #decode(String)}.
+   *
+   * @return String
+   */
+  public String encode()
+    {
+    compress();
+
+    StringBuilder builder = new StringBuilder( 16 + numCentroids * 16 );
+
+    builder.append( compression ).append( SEPARATOR ).append( min ).append( SEPARATOR ).append( max );
+
+    for( int i = 0; i < numCentroids; i++ )
+      builder.append( SEPARATOR ).append( means[ i ] ).append( SEPARATOR ).append( weights[ i ] );
+
+    return builder.toString();
+    }
+
+  private void grow()
+    {
+    int length = Math.min( means.length * 2, capacity );
+
+    means = Arrays.copyOf( means, length );
+    weights = Arrays.copyOf( weights, length );
+    }
+
+  private void compress()
+    {
+    if( numBuffered == 0 )
+      return;
+
+    int count = numCentroids + numBuffered;
+
+    sort( means, weights, 0, count - 1 );
+
+    double normalizer = compression / ( 2 * Math.PI );
+    double weightSoFar = 0;
+    double weightLimit = totalWeight * limit( normalizer, 0 );
+    int current = 0;
+
+    for( int i = 1; i < count; i++ )
+      {
+      long proposed = weights[ current ] + weights[ i ];
+
+      if( weightSoFar + proposed <= weightLimit )
+        {
+        means[ current ] += ( means[ i ] - means[ current ] ) * weights[ i ] / proposed;
+        weights[ current ] = proposed;
+        continue;
+        }
+
+      weightSoFar += weights[ current ];
+      weightLimit = totalWeight * limit( normalizer, weightSoFar / totalWeight );
+
+      current++;
+      means[ current ] = means[ i ];
+      weights[ current ] = weights[ i ];
+      }
+
+    numCentroids = current + 1;
+    numBuffered = 0;
+    }
+
+  /** Returns the quantile one unit of the k1 scale function beyond the given quantile. */
+  private static double limit( double normalizer, double quantile )
+    {
+    double k = normalizer * Math.asin( 2 * Math.min( 1.0, quantile ) - 1 ) + 1;
+
+    return ( Math.sin( Math.min( k / normalizer, Math.PI / 2 ) ) + 1 ) / 2;
+    }
+
+  /** Sorts the given range of means, inclusive, moving the weights along. */
+  private static void sort( double[] means, long[] weights, int low, int high )
+    {
+    while( high - low > 16 )
+      {
+      double pivot = means[ ( low + high ) >>> 1 ];
+      int i = low;
+      int j = high;
+
+      while( i <= j )
+        {
+        while( means[ i ] < pivot )
+          i++;
+
+        while( means[ j ] > pivot )
+          j--;
+
+        if( i <= j )
+          swap( means, weights, i++, j-- );
+        }
+
+      // recurse into the smaller side to bound the stack depth
+      if( j - low < high - i )
+        {
+        sort( means, weights, low, j );
+        low = i;
+        }
+      else
+        {
+        sort( means, weights, i, high );
+        high = j;
+        }
+      }
+
+    for( int i = low + 1; i <= high; i++ )
+      {
+      for( int j = i; j > low && means[ j - 1 ] > means[ j ]; j-- )
+        swap( means, weights, j, j - 1 );
+      }
+    }
+
+  private static void swap( double[] means, long[] weights, int i, int j )
+    {
+    double mean = means[ i ];
+    means[ i ] = means[ j ];
+    means[ j ] = mean;
+
+    long weight = weights[ i ];
+    weights[ i ] = weights[ j ];
+    weights[ j ] = weight;
+    }
+
+  @Override
+  public String toString()
+    {
+    return "TDigest{compression=" + compression + ", size=" + totalWeight + "}";
+    }
+  }
@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.util.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import cascading.CascadingException;
+import cascading.tuple.Tuple;
+import cascading.util.Murmur3;
+
+/**
+ * Class BytesCodec encodes Tuples, arrays of Tuples, and their elements into a growable byte array, and decodes them
+ * from a {@link ByteBuffer}.
+ * <p/>
+ * Equal values encode into equal bytes, so encoded keys may be compared by their bytes. Nested Tuples decode as
+ * plain Tuple instances. Values not natively supported fall back to Java serialization, if Serializable.
+ */
+final class BytesCodec
+  {
+  private static final Charset UTF_8 = Charset.forName( "UTF-8" );
+
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte INTEGER = 2;
+  private static final byte LONG = 3;
+  private static final byte DOUBLE = 4;
+  private static final byte FLOAT = 5;
+  private static final byte SHORT = 6;
+  private static final byte BYTE = 7;
+  private static final byte TRUE = 8;
+  private static final byte FALSE = 9;
+  private static final byte CHARACTER = 10;
+  private static final byte TUPLE = 11;
+  private static final byte TUPLE_ARRAY = 12;
+  private static final byte SERIALIZED = 13;
+
+  private byte[] bytes = new byte[ 256 ];
+  private int length;
+
+  byte[] getBytes()
+    {
+    return bytes;
+    }
+
+  int getLength()
+    {
+    return length;
+    }
+
+  /** Returns a hash of the encoded bytes. */
+  int hash()
+    {
+    long hash = 0xcbf29ce484222325L; // FNV-1a offset basis
+
+    for( int i = 0; i < length; i++ )
+      hash = ( hash ^ bytes[ i ] ) * 0x100000001b3L;
+
+    return (int) Murmur3.fmix64( hash ^ length );
+    }
+
+  /** Resets the codec and encodes the given value. */
+  BytesCodec encode( Object value )
+    {
+    length = 0;
+    write( value );
+
+    return this;
+    }
+
+  private void write( Object value )
+    {
+    if( value == null )
+      {
+      writeByte( NULL );
+      }
+    else if( value instanceof String )
+      {
+      byte[] encoded = ( (String) value ).getBytes( UTF_8 );
+
+      writeByte( STRING );
+      writeInt( encoded.length );
+      writeBytes( encoded, encoded.length );
+      }
+    else if( value instanceof Integer )
+      {
+      writeByte( INTEGER );
+      writeInt( (Integer) value );
+      }
+    else if( value instanceof Long )
+      {
+      writeByte( LONG );
+      writeLong( (Long) value );
+      }
+    else if( value instanceof Double )
+      {
+      writeByte( DOUBLE );
+      writeLong( Double.doubleToLongBits( (Double) value ) );
+      }
+    else if( value instanceof Float )
+      {
+      writeByte( FLOAT );
+      writeInt( Float.floatToIntBits( (Float) value ) );
+      }
+    else if( value instanceof Short )
+      {
+      writeByte( SHORT );
+      writeInt( (Short) value );
+      }
+    else if( value instanceof Byte )
+      {
+      writeByte( BYTE );
+      writeByte( (Byte) value );
+      }
+    else if( value instanceof Boolean )
+      {
+      writeByte( (Boolean) value ? TRUE : FALSE );
+      }
+    else if( value instanceof Character )
+      {
+      writeByte( CHARACTER );
+      writeInt( (Character) value );
+      }
+    else if( value instanceof Tuple )
+      {
+      List<Object> elements = Tuple.elements( (Tuple) value );
+
+      writeByte( TUPLE );
+      writeInt( elements.size() );
+
+      for( int i = 0; i < elements.size(); i++ )
+        write( elements.get( i ) );
+      }
+    else if( value instanceof Tuple[] )
+      {
+      Tuple[] tuples = (Tuple[]) value;
+
+      writeByte( TUPLE_ARRAY );
+      writeInt( tuples.length );
+
+      for( Tuple tuple : tuples )
+        write( tuple );
+      }
+    else if( value instanceof Serializable )
+      {
+      byte[] serialized = serialize( value );
+
+      writeByte( SERIALIZED );
+      writeInt( serialized.length );
+      writeBytes( serialized, serialized.length );
+      }
+    else
+      {
+      throw new CascadingException( "unable to encode value of type: " + value.getClass().getName() + ", it is not Serializable" );
+      }
+    }
+
+  /** Decodes a value from the current position of the given buffer, advancing the position. */
+  static Object read( ByteBuffer buffer )
+    {
+    byte tag = buffer.get();
+
+    switch( tag )
+      {
+      case NULL:
+        return null;
+      case STRING:
+        byte[] encoded = new byte[ buffer.getInt() ];
+        buffer.get( encoded );
+        return new String( encoded, UTF_8 );
+      case INTEGER:
+        return buffer.getInt();
+      case LONG:
+        return buffer.getLong();
+      case DOUBLE:
+        return Double.longBitsToDouble( buffer.getLong() );
+      case FLOAT:
+        return Float.intBitsToFloat( buffer.getInt() );
+      case SHORT:
+        return (short) buffer.getInt();
+      case BYTE:
+        return buffer.get();
+      case TRUE:
+        return Boolean.TRUE;
+      case FALSE:
+        return Boolean.FALSE;
+      case CHARACTER:
+        return (char) buffer.getInt();
+      case TUPLE:
+        int size = buffer.getInt();
+        Tuple tuple = Tuple.size( size );
+
+        for( int i = 0; i < size; i++ )
+          tuple.set( i, read( buffer ) );
+
+        return tuple;
+      case TUPLE_ARRAY:
+        Tuple[] tuples = new Tuple[ buffer.getInt() ];
+
+        for( int i = 0; i < tuples.length; i++ )
+          tuples[ i ] = (Tuple) read( buffer );
+
+        return tuples;
+      case SERIALIZED:
+        byte[] serialized = new byte[ buffer.getInt() ];
+        buffer.get( serialized );
+        return deserialize( serialized );
+      default:
+        throw new CascadingException( "unknown encoded type: " + tag );
+      }
+    }
+
+  private static byte[] serialize( Object value )
+    {
+    try
+      {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      ObjectOutputStream output = new ObjectOutputStream( bytes );
+
+      output.writeObject( value );
+      output.close();
+
+      return bytes.toByteArray();
+      }
+    catch( IOException exception )
+      {
+      throw new CascadingException( "unable to serialize value of type: " + value.getClass().getName(), exception );
+      }
+    }
+
+  private static Object deserialize( byte[] serialized )
+    {
+    try
+      {
+      ObjectInputStream input = new ObjectInputStream( new ByteArrayInputStream( serialized ) );
+
+      try
+        {
+        return input.readObject();
+        }
+      finally
+        {
+        input.close();
+        }
+      }
+    catch( IOException | ClassNotFoundException exception )
+      {
+      throw new CascadingException( "unable to deserialize value", exception );
+      }
+    }
+
+  private void writeByte( int value )
+    {
+    ensure( 1 );
+    bytes[ length++ ] = (byte) value;
+    }
+
+  private void writeInt( int value )
+    {
+    ensure( 4 );
+    bytes[ length++ ] = (byte) ( value >>> 24 );
+    bytes[ length++ ] = (byte) ( value >>> 16 );
+    bytes[ length++ ] = (byte) ( value >>> 8 );
+    bytes[ length++ ] = (byte) value;
+    }
+
+  private void writeLong( long value )
+    {
+    writeInt( (int) ( value >>> 32 ) );
+    writeInt( (int) value );
+    }
+
+  private void writeBytes( byte[] source, int count )
+    {
+    ensure( count );
+    System.arraycopy( source, 0, bytes, length, count );
+    length += count;
+    }
+
+  private void ensure( int count )
+    {
+    if( length + count <= bytes.length )
+      return;
+
+    byte[] grown = new byte[ Math.max( bytes.length * 2, length + count ) ];
+    System.arraycopy( bytes, 0, grown, 0, length );
+    bytes = grown;
+    }
+  }
@@ -0,0 +1,482 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.util.cache;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * OffHeapDirectMappedCache is an implementation of the {@link cascading.util.cache.CascadingCache} interface with the
+ * semantics of the {@link DirectMappedCache}, where a hash collision will lead to the entry being overwritten, but
+ * that stores each entry serialized into a fixed size slot of direct, off-heap, {@link ByteBuffer} instances.
+ * <p/>
+ * Keys are compared by their serialized bytes, so no key or value objects are retained between calls and a cache of
+ * millions of entries adds no objects for the garbage collector to trace. The direct memory is allocated on
+ * {@link #initialize()}, {@code capacity * slotBytes} bytes, and released when the cache is garbage collected.
+ * <p/>
+ * Tuples, arrays of Tuples, and their Strings, numbers, Booleans, and nested Tuples, are serialized natively, other
+ * values fall back to Java serialization and so must be {@link java.io.Serializable}. Values are returned as copies,
+ * and the last value returned by {@link #get(Object)} or given to {@link #put(Object, Object)} is written back to its
+ * slot on the next call into the cache, so it may be modified in place, as {@link cascading.pipe.assembly.AggregateBy}
+ * does. An entry that does not fit into its slot, see {@link #setSlotBytes(int)}, is handed to the
+ * {@link CacheEvictionCallback} when written back, and a warning is logged. Once as many entries as the capacity were
+ * written back, and more than half of them did not fit, an {@link IllegalStateException} is thrown naming the slot size
+ * needed, instead of evicting every entry.
+ * <p/>
+ * Keys are compared by their serialized bytes, not by any custom hashers or comparators of the grouping fields, see
+ * {@link OffHeapDirectMappedCacheFactory#onHeapIfHashed(CascadingCache, cascading.tuple.util.TupleHasher)}.
+ * <p/>
+ * OffHeapDirectMappedCache does not permit <code>null</code> keys nor <code>null</code> values, and is not thread safe.
+ *
+ * @see OffHeapDirectMappedCacheFactory
+ * @see DirectMappedCache
+ */
+public final class OffHeapDirectMappedCache<Key, Value> extends AbstractMap<Key, Value> implements CascadingCache<Key, Value>
+  {
+  /** logger */
+  private static final Logger LOG = LoggerFactory.getLogger( OffHeapDirectMappedCache.class );
+
+  /** default number of bytes of each slot, including the header */
+  public static final int DEFAULT_SLOT_BYTES = 256;
+
+  /** slot header, the key hash, key length, and value length, an empty slot has a zero key length */
+  private static final int HEADER_BYTES = 12;
+  private static final int MAX_BUFFER_BYTES = 1 << 30;
+
+  private int capacity;
+  private int slotBytes = DEFAULT_SLOT_BYTES;
+  private boolean initialized = false;
+
+  /** callback that is called whenever an entry is overwritten or removed from the cache. */
+  private CacheEvictionCallback evictionCallBack = CacheEvictionCallback.NULL;
+
+  private ByteBuffer[] buffers;
+  private int slotsPerBuffer;
+  private int actualSize = 0;
+
+  private final BytesCodec keyCodec = new BytesCodec();
+  private final BytesCodec valueCodec = new BytesCodec();
+  private byte[] compare = new byte[ 64 ];
+
+  /** entry to write back on the next call, its key is still encoded in the keyCodec */
+  private Key dirtyKey;
+  private Value dirtyValue;
+  private int dirtySlot;
+  private int dirtyHash;
+
+  private long putCalls = 0;
+  private long collisions = 0;
+  private long writeBacks = 0;
+  private long oversized = 0;
+  private int maxOversizedBytes = 0;
+
+  /**
+   * Method setSlotBytes sets the number of bytes of each slot, including a twelve byte header. Entries larger than
+   * a slot are not cached.
+   *
+   * @param slotBytes of type int
+   */
+  public void setSlotBytes( int slotBytes )
+    {
+    if( initialized )
+      throw new IllegalStateException( "cannot set slot bytes after initialization" );
+
+    if( slotBytes <= HEADER_BYTES )
+      throw new IllegalArgumentException( "slot bytes must be larger than " + HEADER_BYTES + ", got: " + slotBytes );
+
+    this.slotBytes = slotBytes;
+    }
+
+  public int getSlotBytes()
+    {
+    return slotBytes;
+    }
+
+  @Override
+  public int size()
+    {
+    return actualSize;
+    }
+
+  @Override
+  public boolean isEmpty()
+    {
+    return actualSize < 1;
+    }
+
+  @Override
+  public boolean containsKey( Object key )
+    {
+    if( key == null )
+      throw new IllegalArgumentException( "null keys are not permitted" );
+
+    writeBack();
+
+    int slot = locate( key );
+
+    return matches( slot, keyCodec.hash() );
+    }
+
+  @Override
+  public Value get( Object key )
+    {
+    if( key == null )
+      throw new IllegalArgumentException( "null keys are not permitted" );
+
+    writeBack();
+
+    int slot = locate( key );
+    int hash = keyCodec.hash();
+
+    if( !matches( slot, hash ) )
+      return null;
+
+    Value value = (Value) readValue( slot );
+
+    markDirty( (Key) key, value, slot, hash );
+
+    return value;
+    }
+
+  @Override
+  public Value put( Key key, Value value )
+    {
+    if( key == null )
+      throw new IllegalArgumentException( "key cannot be null" );
+
+    if( value == null )
+      throw new IllegalArgumentException( "value cannot be null" );
+
+    putCalls++;
+
+    writeBack();
+
+    int slot = locate( key );
+    int hash = keyCodec.hash();
+    Value previous = null;
+
+    if( matches( slot, hash ) )
+      {
+      previous = (Value) readValue( slot );
+      }
+    else if( isOccupied( slot ) )
+      {
+      collisions++;
+      evictionCallBack.evict( readEntry( slot ) );
+      }
+    else
+      {
+      actualSize++;
+      }
+
+    markDirty( key, value, slot, hash );
+
+    if( putCalls % capacity == 0 )
+      LOG.info( "capacity={}, slot bytes={}, puts={}, collisions={}, oversized={}", capacity, slotBytes, putCalls, collisions, oversized );
+
+    return previous;
+    }
+
+  @Override
+  public Value remove( Object key )
+    {
+    if( key == null )
+      throw new IllegalArgumentException( "key cannot be null" );
+
+    writeBack();
+
+    int slot = locate( key );
+
+    if( !matches( slot, keyCodec.hash() ) )
+      return null;
+
+    Map.Entry<Key, Value> existing = readEntry( slot );
+
+    clearSlot( slot );
+    actualSize--;
+    evictionCallBack.evict( existing );
+
+    return existing.getValue();
+    }
+
+  @Override
+  public void clear()
+    {
+    dirtyKey = null;
+    dirtyValue = null;
+
+    for( int i = 0; i < capacity; i++ )
+      clearSlot( i );
+
+    actualSize = 0;
+    }
+
+  @Override
+  public Set<Map.Entry<Key, Value>> entrySet()
+    {
+    writeBack();
+
+    return new AbstractSet<Map.Entry<Key, Value>>()
+    {
+    @Override
+    public Iterator<Map.Entry<Key, Value>> iterator()
+      {
+      return new EntryIterator();
+      }
+
+    @Override
+    public int size()
+      {
+      return actualSize;
+      }
+    };
+    }
+
+  @Override
+  public int getCapacity()
+    {
+    return capacity;
+    }
+
+  @Override
+  public void setCacheEvictionCallback( CacheEvictionCallback cacheEvictionCallback )
+    {
+    if( initialized )
+      throw new IllegalStateException( "cannot set callback after initialization" );
+
+    this.evictionCallBack = cacheEvictionCallback;
+    }
+
+  @Override
+  public void setCapacity( int capacity )
+    {
+    if( initialized )
+      throw new IllegalArgumentException( "cannot set size after initialization" );
+
+    this.capacity = capacity;
+    }
+
+  @Override
+  public void initialize()
+    {
+    if( capacity < 1 )
+      throw new IllegalStateException( "capacity must be larger than 0" );
+
+    if( evictionCallBack == null )
+      throw new IllegalStateException( "evictionCallback cannot be null" );
+
+    slotsPerBuffer = MAX_BUFFER_BYTES / slotBytes;
+    buffers = new ByteBuffer[ ( capacity + slotsPerBuffer - 1 ) / slotsPerBuffer ];
+
+    for( int i = 0; i < buffers.length; i++ )
+      buffers[ i ] = ByteBuffer.allocateDirect( Math.min( capacity - i * slotsPerBuffer, slotsPerBuffer ) * slotBytes );
+
+    initialized = true;
+    }
+
+  private void markDirty( Key key, Value value, int slot, int hash )
+    {
+    dirtyKey = key;
+    dirtyValue = value;
+    dirtySlot = slot;
+    dirtyHash = hash;
+    }
+
+  /** Writes the dirty entry to its slot, its key must still be encoded in the keyCodec. */
+  private void writeBack()
+    {
+    if( dirtyKey == null )
+      return;
+
+    Key key = dirtyKey;
+    Value value = dirtyValue;
+
+    dirtyKey = null;
+    dirtyValue = null;
+
+    valueCodec.encode( value );
+
+    int keyLength = keyCodec.getLength();
+    int valueLength = valueCodec.getLength();
+
+    int entryBytes = HEADER_BYTES + keyLength + valueLength;
+
+    writeBacks++;
+
+    if( entryBytes > slotBytes )
+      {
+      writeOversized( key, value, entryBytes );
+      return;
+      }
+
+    ByteBuffer buffer = bufferFor( dirtySlot );
+    int offset = offsetFor( dirtySlot );
+
+    buffer.putInt( offset, dirtyHash );
+    buffer.putInt( offset + 4, keyLength );
+    buffer.putInt( offset + 8, valueLength );
+
+    buffer.position( offset + HEADER_BYTES );
+    buffer.put( keyCodec.getBytes(), 0, keyLength );
+    buffer.put( valueCodec.getBytes(), 0, valueLength );
+    }
+
+  /**
+   * Evicts the given entry in place of writing it back. Fails once at least {@code capacity} entries were written back,
+   * and most did not fit into their slots, as then nearly nothing is cached.
+   */
+  private void writeOversized( Key key, Value value, int entryBytes )
+    {
+    if( oversized++ == 0 )
+      LOG.warn( "entry of {} bytes does not fit into a slot of {} bytes and is not cached, set {} to cache it", entryBytes, slotBytes, OffHeapDirectMappedCacheFactory.OFF_HEAP_SLOT_BYTES );
+
+    maxOversizedBytes = Math.max( maxOversizedBytes, entryBytes );
+
+    clearSlot( dirtySlot );
+    actualSize--;
+    evictionCallBack.evict( new SimpleImmutableEntry<>( key, value ) );
+
+    if( writeBacks >= capacity && oversized * 2 > writeBacks )
+      throw new IllegalStateException( oversized + " of " + writeBacks + " entries did not fit into a slot of " + slotBytes + " bytes, the largest was " + maxOversizedBytes + " bytes, set " + OffHeapDirectMappedCacheFactory.OFF_HEAP_SLOT_BYTES + " to at least that size" );
+    }
+
+  /** Encodes the given key into the keyCodec, and returns its slot. */
+  private int locate( Object key )
+    {
+    return ( keyCodec.encode( key ).hash() & Integer.MAX_VALUE ) % capacity;
+    }
+
+  private boolean isOccupied( int slot )
+    {
+    return bufferFor( slot ).getInt( offsetFor( slot ) + 4 ) != 0;
+    }
+
+  /** Returns true if the slot holds the key encoded in the keyCodec. */
+  private boolean matches( int slot, int hash )
+    {
+    ByteBuffer buffer = bufferFor( slot );
+    int offset = offsetFor( slot );
+    int length = keyCodec.getLength();
+
+    if( buffer.getInt( offset + 4 ) != length || buffer.getInt( offset ) != hash )
+      return false;
+
+    if( compare.length < length )
+      compare = new byte[ Math.max( compare.length * 2, length ) ];
+
+    buffer.position( offset + HEADER_BYTES );
+    buffer.get( compare, 0, length );
+
+    byte[] bytes = keyCodec.getBytes();
+
+    for( int i = 0; i < length; i++ )
+      {
+      if( compare[ i ] != bytes[ i ] )
+        return false;
+      }
+
+    return true;
+    }
+
+  private Object readValue( int slot )
+    {
+    ByteBuffer buffer = bufferFor( slot );
+    int offset = offsetFor( slot );
+
+    buffer.position( offset + HEADER_BYTES + buffer.getInt( offset + 4 ) );
+
+    return BytesCodec.read( buffer );
+    }
+
+  private Map.Entry<Key, Value> readEntry( int slot )
+    {
+    ByteBuffer buffer = bufferFor( slot );
+
+    buffer.position( offsetFor( slot ) + HEADER_BYTES );
+
+    Key key = (Key) BytesCodec.read( buffer );
+    Value value = (Value) BytesCodec.read( buffer );
+
+    return new SimpleImmutableEntry<>( key, value );
+    }
+
+  private void clearSlot( int slot )
+    {
+    bufferFor( slot ).putInt( offsetFor( slot ) + 4, 0 );
+    }
+
+  private ByteBuffer bufferFor( int slot )
+    {
+    return buffers[ slot / slotsPerBuffer ];
+    }
+
+  private int offsetFor( int slot )
+    {
+    return ( slot % slotsPerBuffer ) * slotBytes;
+    }
+
+  private class EntryIterator implements Iterator<Map.Entry<Key, Value>>
+    {
+    private int next = advance( 0 );
+
+    private int advance( int slot )
+      {
+      while( slot < capacity && !isOccupied( slot ) )
+        slot++;
+
+      return slot;
+      }
+
+    @Override
+    public boolean hasNext()
+      {
+      return next < capacity;
+      }
+
+    @Override
+    public Map.Entry<Key, Value> next()
+      {
+      if( !hasNext() )
+        throw new NoSuchElementException();
+
+      Map.Entry<Key, Value> entry = readEntry( next );
+
+      next = advance( next + 1 );
+
+      return entry;
+      }
+
+    @Override
+    public void remove()
+      {
+      throw new UnsupportedOperationException( "read only" );
+      }
+    }
+  }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.util.cache;
+
+import cascading.flow.FlowProcess;
+import cascading.tuple.util.TupleHasher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Concrete sub-class of {@link cascading.util.cache.BaseCacheFactory} for creating
+ * {@link cascading.util.cache.OffHeapDirectMappedCache} instances.
+ * <p/>
+ * The number of bytes of each cache slot may be set via the {@link #OFF_HEAP_SLOT_BYTES} property, it defaults to
+ * {@link OffHeapDirectMappedCache#DEFAULT_SLOT_BYTES}.
+ */
+public class OffHeapDirectMappedCacheFactory extends BaseCacheFactory
+  {
+  /** logger */
+  private static final Logger LOG = LoggerFactory.getLogger( OffHeapDirectMappedCacheFactory.class );
+
+  public static final String OFF_HEAP_SLOT_BYTES = "cascading.cache.offheap.slot.bytes";
+
+  /**
+   * Method onHeapIfHashed returns a new {@link DirectMappedCache} in place of the given cache if the given cache is an
+   * {@link OffHeapDirectMappedCache} and its keys are compared by the given tupleHasher, as serialized keys are
+   * compared by their bytes and not by the custom hashers and comparators of the grouping fields.
+   *
+   * @param cache       of type CascadingCache
+   * @param tupleHasher of type TupleHasher, may be null
+   * @return CascadingCache
+   */
+  public static <Key, Value> CascadingCache<Key, Value> onHeapIfHashed( CascadingCache<Key, Value> cache, TupleHasher tupleHasher )
+    {
+    if( tupleHasher == null || !( cache instanceof OffHeapDirectMappedCache ) )
+      return cache;
+
+    LOG.warn( "grouping fields have custom comparators, using an on-heap {} instead", DirectMappedCache.class.getSimpleName() );
+
+    return new DirectMappedCache<>();
+    }
+
+  @Override
+  public CascadingCache create( FlowProcess flowProcess )
+    {
+    OffHeapDirectMappedCache cache = new OffHeapDirectMappedCache();
+    String slotBytes = flowProcess.getStringProperty( OFF_HEAP_SLOT_BYTES );
+
+    if( slotBytes != null && !slotBytes.isEmpty() )
+      cache.setSlotBytes( Integer.parseInt( slotBytes ) );
+
+    return cache;
+    }
+  }
@@ -0,0 +1,613 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.util.cache;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import cascading.tuple.Tuple;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * OpenAddressingCache is an implementation of the {@link CascadingCache} interface backed by an open addressing,
+ * linear probing, hash table.
+ * <p/>
+ * Keys, values, and key hash codes are held in parallel arrays, so no entry object is allocated per key, and a
+ * probe only calls {@link Object#equals(Object)} on a key whose hash code matches. Keys and values themselves are
+ * retained as given, so for typical {@link Tuple} keys the heap retained per entry is only somewhat lower than that of
+ * the {@link LRUHashMapCache}; the larger gain is in the cost of each lookup and eviction.
+ * <p/>
+ * The cache may be bounded by a number of entries via {@link #setCapacity(int)}, or by an approximate number of bytes
+ * via {@link #setCapacityBytes(long)}. When bounded by bytes, the size of the keys and values held is periodically
+ * estimated from a sample of entries, and the number of entries held is grown or shrunk to fit the budget.
+ * <p/>
+ * When full, the cache does not evict a single entry per new key, but a batch of half of the held entries, calling
+ * the {@link CacheEvictionCallback} for each, so the cost of evicting is amortized over many subsequent puts.
+ * <p/>
+ * Use this cache if the number of distinct keys is high and memory, not key locality, bounds the benefit of the cache.
+ * <p/>
+ * OpenAddressingCache does not permit <code>null</code> keys nor <code>null</code> values.
+ *
+ * @see cascading.pipe.assembly.AggregateBy
+ * @see OpenAddressingCacheFactory
+ */
+public class OpenAddressingCache<Key, Value> extends AbstractMap<Key, Value> implements CascadingCache<Key, Value>
+  {
+  /** logger */
+  private static final Logger LOG = LoggerFactory.getLogger( OpenAddressingCache.class );
+
+  /** initial estimate of the bytes retained per entry until a sample is taken. */
+  static final int DEFAULT_ENTRY_BYTES = 128;
+  /** number of entries sampled to estimate the bytes retained per entry. */
+  static final int SAMPLE_SIZE = 64;
+  /** maximum ratio of held entries to table slots. */
+  static final float LOAD_FACTOR = 0.75F;
+  /** largest number of table slots. */
+  static final int MAXIMUM_SLOTS = 1 << 30;
+
+  /** maximum number of entries, if not bounded by bytes. */
+  private int capacity;
+  /** approximate maximum number of bytes retained, zero if not bounded by bytes. */
+  private long capacityBytes;
+
+  /** call-back used, when entries are removed from the cache. */
+  private CacheEvictionCallback callback = CacheEvictionCallback.NULL;
+
+  private boolean initialized = false;
+
+  private int[] hashes;
+  private Object[] keys;
+  private Object[] values;
+  private int mask;
+
+  private int size;
+  /** number of entries held before a batch is evicted. */
+  private int limit;
+  /** slot the next batch eviction starts from. */
+  private int cursor;
+  /** estimated bytes retained per entry. */
+  private long entryBytes = DEFAULT_ENTRY_BYTES;
+
+  private long flushes = 0;
+
+  @Override
+  public int getCapacity()
+    {
+    return capacity;
+    }
+
+  @Override
+  public void setCapacity( int capacity )
+    {
+    if( initialized )
+      throw new IllegalArgumentException( "cannot set size after initialization" );
+
+    this.capacity = capacity;
+    }
+
+  /**
+   * Returns the approximate number of bytes this cache may retain, zero if not bounded by bytes.
+   *
+   * @return long
+   */
+  public long getCapacityBytes()
+    {
+    return capacityBytes;
+    }
+
+  /**
+   * Sets the approximate number of bytes this cache may retain. If greater than zero, it takes precedence over
+   * the entry capacity.
+   *
+   * @param capacityBytes of type long
+   */
+  public void setCapacityBytes( long capacityBytes )
+    {
+    if( initialized )
+      throw new IllegalArgumentException( "cannot set size after initialization" );
+
+    this.capacityBytes = capacityBytes;
+    }
+
+  @Override
+  public void setCacheEvictionCallback( CacheEvictionCallback cacheEvictionCallback )
+    {
+    if( initialized )
+      throw new IllegalStateException( "cannot set callback after initialization" );
+
+    this.callback = cacheEvictionCallback;
+    }
+
+  @Override
+  public void initialize()
+    {
+    if( capacity < 1 && capacityBytes < 1 )
+      throw new IllegalStateException( "capacity must be larger than 0" );
+
+    if( callback == null )
+      throw new IllegalStateException( "evictionCallback cannot be null" );
+
+    limit = computeLimit();
+    allocate( slotsFor( limit ) );
+
+    initialized = true;
+    }
+
+  @Override
+  public int size()
+    {
+    return size;
+    }
+
+  @Override
+  public boolean isEmpty()
+    {
+    return size == 0;
+    }
+
+  @Override
+  public boolean containsKey( Object key )
+    {
+    if( key == null )
+      throw new IllegalArgumentException( "null keys are not permitted" );
+
+    return find( key, hash( key ) ) >= 0;
+    }
+
+  @Override
+  public Value get( Object key )
+    {
+    if( key == null )
+      return null;
+
+    int index = find( key, hash( key ) );
+
+    if( index < 0 )
+      return null;
+
+    return (Value) values[ index ];
+    }
+
+  @Override
+  public Value put( Key key, Value value )
+    {
+    if( key == null )
+      throw new IllegalArgumentException( "key cannot be null" );
+
+    if( value == null )
+      throw new IllegalArgumentException( "value cannot be null" );
+
+    int hash = hash( key );
+    int index = find( key, hash );
+
+    if( index >= 0 )
+      {
+      Object previous = values[ index ];
+      values[ index ] = value;
+      return (Value) previous;
+      }
+
+    if( size >= limit )
+      {
+      makeRoom();
+      index = find( key, hash );
+      }
+
+    index = -index - 1;
+
+    hashes[ index ] = hash;
+    keys[ index ] = key;
+    values[ index ] = value;
+    size++;
+
+    return null;
+    }
+
+  @Override
+  public Value remove( Object key )
+    {
+    if( key == null )
+      throw new IllegalArgumentException( "key cannot be null" );
+
+    int index = find( key, hash( key ) );
+
+    if( index < 0 )
+      return null;
+
+    Object removed = keys[ index ];
+    Object value = values[ index ];
+
+    delete( index );
+
+    callback.evict( new SimpleImmutableEntry<Object, Object>( removed, value ) );
+
+    return (Value) value;
+    }
+
+  @Override
+  public void clear()
+    {
+    if( !initialized )
+      return;
+
+    Arrays.fill( keys, null );
+    Arrays.fill( values, null );
+    size = 0;
+    }
+
+  @Override
+  public Set<Map.Entry<Key, Value>> entrySet()
+    {
+    return new EntrySet();
+    }
+
+  private static int hash( Object key )
+    {
+    int hash = key.hashCode() * 0x9E3779B9; // spread the poor low bits of list hash codes
+
+    return hash ^ ( hash >>> 16 );
+    }
+
+  /** Returns the slot holding the key, or {@code -(insertion slot) - 1} if not held. */
+  private int find( Object key, int hash )
+    {
+    int index = hash & mask;
+
+    while( true )
+      {
+      Object current = keys[ index ];
+
+      if( current == null )
+        return -index - 1;
+
+      if( hashes[ index ] == hash && ( current == key || current.equals( key ) ) )
+        return index;
+
+      index = ( index + 1 ) & mask;
+      }
+    }
+
+  /** Removes the entry in the given slot, shifting back any following entries of the same probe run. */
+  private void delete( int index )
+    {
+    int hole = index;
+    int next = ( hole + 1 ) & mask;
+
+    while( keys[ next ] != null )
+      {
+      int home = hashes[ next ] & mask;
+
+      // move the entry into the hole if the hole lies cyclically between its home slot and its current slot
+      if( ( ( next - home ) & mask ) >= ( ( next - hole ) & mask ) )
+        {
+        hashes[ hole ] = hashes[ next ];
+        keys[ hole ] = keys[ next ];
+        values[ hole ] = values[ next ];
+        hole = next;
+        }
+
+      next = ( next + 1 ) & mask;
+      }
+
+    keys[ hole ] = null;
+    values[ hole ] = null;
+    size--;
+    }
+
+  private void makeRoom()
+    {
+    if( capacityBytes > 0 )
+      {
+      entryBytes = estimateEntryBytes();
+
+      int bytesLimit = computeLimit();
+
+      // the held entries are smaller than estimated, grow instead of evicting
+      if( bytesLimit > size )
+        {
+        limit = bytesLimit;
+
+        if( slotsFor( limit ) > keys.length )
+          rehash( slotsFor( limit ) );
+
+        return;
+        }
+
+      limit = Math.max( 1, bytesLimit );
+      }
+
+    evictBatch();
+    }
+
+  private void evictBatch()
+    {
+    flushes++;
+
+    int evict = Math.max( 1, size - limit / 2 );
+    int index = cursor;
+
+    // evicted slots are left empty, the following rehash restores the probe runs
+    for( int evicted = 0; evicted < evict; index = ( index + 1 ) & mask )
+      {
+      if( keys[ index ] == null )
+        continue;
+
+      callback.evict( new SimpleImmutableEntry<Object, Object>( keys[ index ], values[ index ] ) );
+
+      keys[ index ] = null;
+      values[ index ] = null;
+      evicted++;
+      }
+
+    cursor = index;
+    size -= evict;
+
+    if( flushes % 100 == 0 )
+      LOG.info( "flushed keys num times: {}, with capacity: {}, with estimated entry bytes: {}", flushes, limit, entryBytes );
+
+    rehash( slotsFor( limit ) );
+    }
+
+  private void rehash( int slots )
+    {
+    int[] oldHashes = hashes;
+    Object[] oldKeys = keys;
+    Object[] oldValues = values;
+
+    allocate( slots );
+
+    for( int i = 0; i < oldKeys.length; i++ )
+      {
+      if( oldKeys[ i ] == null )
+        continue;
+
+      int index = oldHashes[ i ] & mask;
+
+      while( keys[ index ] != null )
+        index = ( index + 1 ) & mask;
+
+      hashes[ index ] = oldHashes[ i ];
+      keys[ index ] = oldKeys[ i ];
+      values[ index ] = oldValues[ i ];
+      }
+
+    cursor &= mask;
+    }
+
+  private void allocate( int slots )
+    {
+    hashes = new int[ slots ];
+    keys = new Object[ slots ];
+    values = new Object[ slots ];
+    mask = slots - 1;
+    }
+
+  private int computeLimit()
+    {
+    if( capacityBytes < 1 )
+      return capacity;
+
+    long entries = capacityBytes / entryBytes;
+
+    return (int) Math.max( 1, Math.min( entries, (long) ( MAXIMUM_SLOTS * LOAD_FACTOR ) ) );
+    }
+
+  private static int slotsFor( int limit )
+    {
+    long slots = (long) Math.ceil( limit / LOAD_FACTOR ) + 1;
+
+    if( slots >= MAXIMUM_SLOTS )
+      return MAXIMUM_SLOTS;
+
+    return Integer.highestOneBit( (int) slots - 1 ) << 1;
+    }
+
+  private long estimateEntryBytes()
+    {
+    long bytes = 0;
+    int sampled = 0;
+    int stride = Math.max( 1, keys.length / SAMPLE_SIZE );
+
+    for( int i = 0; i < keys.length && sampled < SAMPLE_SIZE; i += stride )
+      {
+      if( keys[ i ] == null )
+        continue;
+
+      bytes += estimateSize( keys[ i ] ) + estimateSize( values[ i ] );
+      sampled++;
+      }
+
+    if( sampled == 0 )
+      return entryBytes;
+
+    // include the slot arrays, 4 bytes each for the hash, key, and value references
+    return Math.max( 1, bytes / sampled + (long) ( 12 / LOAD_FACTOR ) );
+    }
+
+  /**
+   * Method estimateSize returns an approximation of the bytes retained by the given value, walking into
+   * {@link Tuple} and array values.
+   *
+   * @param value of type Object
+   * @return long
+   */
+  static long estimateSize( Object value )
+    {
+    if( value == null )
+      return 0;
+
+    if( value instanceof Tuple )
+      {
+      List<Object> elements = Tuple.elements( (Tuple) value );
+      long bytes = 16 + 24 + 16 + 4L * elements.size(); // tuple, list, and backing array
+
+      for( int i = 0; i < elements.size(); i++ )
+        bytes += estimateSize( elements.get( i ) );
+
+      return bytes;
+      }
+
+    if( value instanceof Object[] )
+      {
+      Object[] array = (Object[]) value;
+      long bytes = 16 + 4L * array.length;
+
+      for( Object element : array )
+        bytes += estimateSize( element );
+
+      return bytes;
+      }
+
+    if( value instanceof String )
+      return 40 + 2L * ( (String) value ).length();
+
+    if( value instanceof Long || value instanceof Double )
+      return 24;
+
+    return 16;
+    }
+
+  private class EntrySet extends AbstractSet<Map.Entry<Key, Value>>
+    {
+    @Override
+    public int size()
+      {
+      return size;
+      }
+
+    @Override
+    public Iterator<Map.Entry<Key, Value>> iterator()
+      {
+      return new EntryIterator();
+      }
+    }
+
+  private class EntryIterator implements Iterator<Map.Entry<Key, Value>>
+    {
+    private int index = -1;
+    private int next = advance( 0 );
+
+    private int advance( int from )
+      {
+      if( keys == null )
+        return -1;
+
+      for( int i = from; i < keys.length; i++ )
+        {
+        if( keys[ i ] != null )
+          return i;
+        }
+
+      return -1;
+      }
+
+    @Override
+    public boolean hasNext()
+      {
+      return next != -1;
+      }
+
+    @Override
+    public Map.Entry<Key, Value> next()
+      {
+      if( next == -1 )
+        throw new NoSuchElementException();
+
+      index = next;
+      next = advance( next + 1 );
+
+      return new SlotEntry( index );
+      }
+
+    @Override
+    public void remove()
+      {
+      throw new UnsupportedOperationException( "entry set is read only" );
+      }
+    }
+
+  private class SlotEntry implements Map.Entry<Key, Value>
+    {
+    private final int index;
+    private final Key key;
+
+    SlotEntry( int index )
+      {
+      this.index = index;
+      this.key = (Key) keys[ index ];
+      }
+
+    @Override
+    public Key getKey()
+      {
+      return key;
+      }
+
+    @Override
+    public Value getValue()
+      {
+      return (Value) values[ index ];
+      }
+
+    @Override
+    public Value setValue( Value value )
+      {
+      if( value == null )
+        throw new IllegalArgumentException( "value cannot be null" );
+
+      Object previous = values[ index ];
+      values[ index ] = value;
+
+      return (Value) previous;
+      }
+
+    @Override
+    public boolean equals( Object object )
+      {
+      if( !( object instanceof Map.Entry ) )
+        return false;
+
+      Map.Entry that = (Map.Entry) object;
+
+      return key.equals( that.getKey() ) && getValue().equals( that.getValue() );
+      }
+
+    @Override
+    public int hashCode()
+      {
+      return key.hashCode() ^ getValue().hashCode();
+      }
+
+    @Override
+    public String toString()
+      {
+      return key + "=" + getValue();
+      }
+    }
+  }
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.scheme.util;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import cascading.CascadingTestCase;
+import cascading.tap.TapException;
+import cascading.tuple.Fields;
+import org.junit.Test;
+
+/**
+ * Compares the results of the ScanningDelimitedParser with the regular expression based DelimitedParser.
+ */
+public class ScanningDelimitedParserTest extends CascadingTestCase
+  {
+  private static final String ALPHABET = "ab,\"' \t|\u0085";
+
+  public ScanningDelimitedParserTest()
+    {
+    }
+
+  @Test
+  public void testQuoted()
+    {
+    ScanningDelimitedParser parser = createParser( ",", "\"", 3 );
+
+    assertEquals( Arrays.<Object>asList( "a,b", "c\"d", null ), Arrays.asList( parser.parseLine( "\"a,b\",\"c\"\"d\"," ) ) );
+    assertEquals( Arrays.<Object>asList( "a", "b", "c" ), Arrays.asList( parser.parseLine( "a,b,c" ) ) );
+    }
+
+  @Test
+  public void testStrict()
+    {
+    ScanningDelimitedParser parser = createParser( ",", "\"", 3 );
+
+    try
+      {
+      parser.parseLine( "a,\"b,c\"" );
+      fail( "did not fail on too few values" );
+      }
+    catch( TapException exception )
+      {
+      // do nothing
+      }
+    }
+
+  @Test
+  public void testProjection()
+    {
+    Fields fields = new Fields( "a", "b", "c" );
+    Class[] types = new Class[]{String.class, Integer.class, String.class};
+
+    DelimitedParser[] parsers = new DelimitedParser[]{
+      new DelimitedParser( ",", "\"", types, true, false, fields, fields ),
+      new ScanningDelimitedParser( ",", "\"", types, true, false, fields, fields )
+    };
+
+    for( DelimitedParser parser : parsers )
+      {
+      // an unsafe coercion of the value not projected would fail
+      parser.setSourceProjection( new Fields( "a", "c" ) );
+
+      assertEquals( Arrays.<Object>asList( "x", null, "z" ), Arrays.asList( parser.parseLine( "x,\"not a number\",z" ) ) );
+
+      parser.setSourceProjection( Fields.ALL );
+
+      assertEquals( Arrays.<Object>asList( "x", 1, "z" ), Arrays.asList( parser.parseLine( "x,1,z" ) ) );
+      }
+    }
+
+  @Test
+  public void testRandomSplit()
+    {
+    Random random = new Random( 1 );
+
+    for( String delimiter : new String[]{",", "\t", "|", "||", ",\""} )
+      {
+      for( String quote : new String[]{null, "\"", "'", "|"} )
+        {
+        if( delimiter.equals( quote ) )
+          continue;
+
+        DelimitedParser expected = new DelimitedParser( delimiter, quote, null, false, true, Fields.UNKNOWN, Fields.ALL );
+        ScanningDelimitedParser parser = new ScanningDelimitedParser( delimiter, quote, null, false, true, Fields.UNKNOWN, Fields.ALL );
+
+        for( int i = 0; i < 5000; i++ )
+          {
+          String line = randomLine( random );
+
+          for( int limit : new int[]{-1, 0, 1, 3} )
+            {
+            String[] expectedSplit = expected.createSplit( line, expected.splitPattern, limit );
+            String[] split = parser.createSplit( line, parser.splitPattern, limit );
+
+            assertEquals( message( delimiter, quote, line ), Arrays.asList( expectedSplit ), Arrays.asList( split ) );
+
+            Object[] expectedClean = expected.cleanParsedLine( expectedSplit );
+            Object[] clean = parser.cleanParsedLine( split );
+
+            assertEquals( message( delimiter, quote, line ), Arrays.asList( expectedClean ), Arrays.asList( clean ) );
+            }
+          }
+        }
+      }
+    }
+
+  @Test
+  public void testRandomParseLine()
+    {
+    Random random = new Random( 2 );
+
+    DelimitedParser expected = createParser( ",", "\"", 3 );
+    ScanningDelimitedParser parser = createParser( ",", "\"", 3 );
+
+    // unbalanced quotes fail strict parsing in both
+    expected.reset( ",", "\"", null, false, true, new Fields( "a", "b", "c" ), new Fields( "a", "b", "c" ), null );
+    parser.reset( ",", "\"", null, false, true, new Fields( "a", "b", "c" ), new Fields( "a", "b", "c" ), null );
+
+    for( int i = 0; i < 10000; i++ )
+      {
+      String line = randomLine( random );
+
+      assertEquals( message( ",", "\"", line ), Arrays.asList( expected.parseLine( line ) ), Arrays.asList( parser.parseLine( line ) ) );
+      }
+    }
+
+  private ScanningDelimitedParser createParser( String delimiter, String quote, int size )
+    {
+    Fields fields = Fields.size( size );
+
+    return new ScanningDelimitedParser( delimiter, quote, null, true, true, fields, fields );
+    }
+
+  private String randomLine( Random random )
+    {
+    int length = random.nextInt( 16 );
+    StringBuilder builder = new StringBuilder( length );
+
+    for( int i = 0; i < length; i++ )
+      builder.append( ALPHABET.charAt( random.nextInt( ALPHABET.length() ) ) );
+
+    return builder.toString();
+    }
+
+  private String message( String delimiter, String quote, String line )
+    {
+    return "delimiter: " + delimiter + ", quote: " + quote + ", line: " + line;
+    }
+  }
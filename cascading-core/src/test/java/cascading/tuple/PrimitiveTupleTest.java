@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tuple;
+
+import java.lang.reflect.Type;
+
+import cascading.CascadingTestCase;
+import org.junit.Test;
+
+public class PrimitiveTupleTest extends CascadingTestCase
+  {
+  public PrimitiveTupleTest()
+    {
+    }
+
+  @Test
+  public void testNulls()
+    {
+    Tuple tuple = new PrimitiveTuple( double.class, long.class, String.class );
+
+    assertEquals( 3, tuple.size() );
+    assertEquals( Tuple.size( 3 ), tuple );
+    assertEquals( Tuple.size( 3 ).hashCode(), tuple.hashCode() );
+    assertEquals( 0D, tuple.getDouble( 0 ) );
+    assertEquals( 0L, tuple.getLong( 1 ) );
+    }
+
+  @Test
+  public void testSetGet()
+    {
+    Tuple tuple = new PrimitiveTuple( double.class, long.class, int.class, String.class );
+
+    tuple.setDouble( 0, 1.5 );
+    tuple.setLong( 1, 2L );
+    tuple.setInteger( 2, 3 );
+    tuple.setString( 3, "four" );
+
+    assertEquals( new Tuple( 1.5D, 2L, 3, "four" ), tuple );
+    assertEquals( new Tuple( 1.5D, 2L, 3, "four" ).hashCode(), tuple.hashCode() );
+    assertEquals( 0, new Tuple( 1.5D, 2L, 3, "four" ).compareTo( tuple ) );
+
+    assertEquals( 1L, tuple.getLong( 0 ) );
+    assertEquals( 2D, tuple.getDouble( 1 ) );
+    assertEquals( 3L, tuple.getLong( 2 ) );
+    assertEquals( 1, tuple.getInteger( 0 ) );
+    assertEquals( 1.5F, tuple.getFloat( 0 ) );
+    }
+
+  @Test
+  public void testMismatchedTypes()
+    {
+    Tuple tuple = new PrimitiveTuple( double.class, long.class );
+
+    tuple.setLong( 0, 1L );
+    tuple.setString( 1, "2" );
+
+    assertEquals( 1L, tuple.getObject( 0 ) );
+    assertEquals( "2", tuple.getObject( 1 ) );
+    assertEquals( 1D, tuple.getDouble( 0 ) );
+    assertEquals( 2L, tuple.getLong( 1 ) );
+
+    tuple.set( 1, null );
+
+    assertNull( tuple.getObject( 1 ) );
+
+    tuple.set( 1, 5L );
+
+    assertEquals( 5L, tuple.getObject( 1 ) );
+    }
+
+  @Test
+  public void testStructural()
+    {
+    Tuple tuple = new PrimitiveTuple( double.class, long.class );
+
+    tuple.setDouble( 0, 1D );
+    tuple.setLong( 1, 2L );
+
+    tuple.add( "c" );
+
+    assertEquals( new Tuple( 1D, 2L, "c" ), tuple );
+
+    tuple.setDouble( 0, 3D );
+
+    assertEquals( new Tuple( 3D, 2L, "c" ), tuple );
+
+    Tuple removed = tuple.remove( new int[]{1} );
+
+    assertEquals( new Tuple( 2L ), removed );
+    assertEquals( new Tuple( 3D, "c" ), tuple );
+    assertEquals( 3D, tuple.getDouble( 0 ) );
+
+    tuple.clear();
+
+    assertEquals( 0, tuple.size() );
+    }
+
+  @Test
+  public void testUnmodifiable()
+    {
+    Tuple tuple = new PrimitiveTuple( double.class );
+
+    tuple.setDouble( 0, 1D );
+
+    Tuples.asUnmodifiable( tuple );
+
+    try
+      {
+      tuple.setDouble( 0, 2D );
+      fail( "did not fail" );
+      }
+    catch( UnsupportedOperationException exception )
+      {
+      // ignore
+      }
+
+    assertEquals( 1D, tuple.getDouble( 0 ) );
+    }
+
+  @Test
+  public void testTupleEntry()
+    {
+    Fields fields = new Fields( "sum", double.class ).append( new Fields( "count", long.class ) ).append( new Fields( "name", String.class ) );
+    Tuple tuple = Tuple.size( fields );
+
+    assertTrue( tuple instanceof PrimitiveTuple );
+    assertFalse( Tuple.size( new Fields( "name", String.class ) ) instanceof PrimitiveTuple );
+    assertFalse( PrimitiveTuple.hasPrimitives( new Type[]{Double.class, String.class} ) );
+
+    TupleEntry entry = new TupleEntry( fields, tuple );
+
+    entry.setDouble( "sum", 1.5 );
+    entry.setLong( "count", 2 );
+    entry.setInteger( "name", 3 );
+
+    assertEquals( 1.5D, entry.getDouble( "sum" ) );
+    assertEquals( 2L, entry.getLong( "count" ) );
+    assertEquals( 2, entry.getInteger( "count" ) );
+    assertEquals( "3", entry.getObject( "name" ) );
+    assertEquals( new Tuple( 1.5D, 2L, "3" ), entry.getTuple() );
+    }
+  }
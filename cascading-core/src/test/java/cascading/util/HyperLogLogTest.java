@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.util;
+
+import cascading.CascadingTestCase;
+import cascading.tuple.Tuple;
+import org.junit.Test;
+
+public class HyperLogLogTest extends CascadingTestCase
+  {
+  public HyperLogLogTest()
+    {
+    }
+
+  @Test
+  public void testSmallCardinality()
+    {
+    HyperLogLog sketch = new HyperLogLog();
+
+    for( int i = 0; i < 1000; i++ )
+      sketch.add( "value" + ( i % 10 ) );
+
+    assertEquals( 10, sketch.estimate() );
+    assertEquals( 0, new HyperLogLog().estimate() );
+    }
+
+  @Test
+  public void testLargeCardinality()
+    {
+    for( int precision : new int[]{10, 12, 14} )
+      {
+      HyperLogLog sketch = new HyperLogLog( precision );
+      int distinct = 200000;
+
+      for( int i = 0; i < distinct; i++ )
+        sketch.add( (long) i );
+
+      double error = Math.abs( sketch.estimate() - distinct ) / (double) distinct;
+      double expected = 1.04 / Math.sqrt( 1 << precision );
+
+      assertTrue( "error too large: " + error + " for precision: " + precision, error < 4 * expected );
+      }
+    }
+
+  @Test
+  public void testMerge()
+    {
+    HyperLogLog lhs = new HyperLogLog();
+    HyperLogLog rhs = new HyperLogLog();
+    HyperLogLog all = new HyperLogLog();
+
+    for( int i = 0; i < 50000; i++ )
+      {
+      ( i % 2 == 0 ? lhs : rhs ).add( "value" + i );
+      all.add( "value" + i );
+      }
+
+    lhs.merge( rhs );
+
+    assertEquals( all.estimate(), lhs.estimate() );
+    assertEquals( all.encode(), lhs.encode() );
+    }
+
+  @Test
+  public void testEncode()
+    {
+    HyperLogLog sparse = new HyperLogLog( 18 );
+
+    sparse.add( new Tuple( "a", 1 ) );
+    sparse.add( new Tuple( "b", 2 ) );
+
+    String encoded = sparse.encode();
+
+    assertEquals( 2 + 2 * 4, encoded.length() );
+    assertEquals( encoded, HyperLogLog.decode( encoded ).encode() );
+    assertEquals( 2, HyperLogLog.decode( encoded ).estimate() );
+
+    HyperLogLog dense = new HyperLogLog( 8 );
+
+    for( int i = 0; i < 10000; i++ )
+      dense.add( i );
+
+    encoded = dense.encode();
+
+    assertEquals( 2 + 256, encoded.length() );
+    assertEquals( dense.estimate(), HyperLogLog.decode( encoded ).estimate() );
+
+    for( int i = 0; i < encoded.length(); i++ )
+      assertTrue( encoded.charAt( i ) > 0 && encoded.charAt( i ) < 0x80 );
+    }
+
+  @Test
+  public void testSparse()
+    {
+    StringBuilder empty = new StringBuilder().append( 'D' ).append( (char) ( '0' + 12 ) );
+
+    for( int i = 0; i < 4096; i++ )
+      empty.append( '0' );
+
+    HyperLogLog dense = HyperLogLog.decode( empty.toString() );
+    HyperLogLog sketch = new HyperLogLog( 12 );
+
+    assertFalse( dense.isSparse() );
+    assertTrue( sketch.isSparse() );
+
+    for( int i = 0; i < 5000; i++ )
+      {
+      dense.add( i );
+      sketch.add( i );
+
+      if( i == 10 )
+        assertTrue( sketch.isSparse() );
+
+      if( i % 250 == 0 )
+        {
+        assertEquals( dense.estimate(), sketch.estimate() );
+        assertEquals( dense.encode(), sketch.encode() );
+        }
+      }
+
+    assertFalse( sketch.isSparse() );
+
+    HyperLogLog merged = new HyperLogLog( 12 );
+
+    merged.add( "value" );
+    merged.merge( dense );
+
+    dense.add( "value" );
+
+    assertEquals( dense.encode(), merged.encode() );
+    }
+
+  @Test
+  public void testHashByValue()
+    {
+    assertEquals( HyperLogLog.hash( 1 ), HyperLogLog.hash( 1L ) );
+    assertEquals( HyperLogLog.hash( "a" ), HyperLogLog.hash( new StringBuilder( "a" ) ) );
+    assertEquals( HyperLogLog.hash( new Tuple( "a", 1 ) ), HyperLogLog.hash( new Tuple( "a", 1 ) ) );
+    assertFalse( HyperLogLog.hash( new Tuple( "a", 1 ) ) == HyperLogLog.hash( new Tuple( 1, "a" ) ) );
+    }
+  }
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import cascading.tuple.Tuple;
+import cascading.tuple.util.TupleHasher;
+import cascading.util.cache.CacheEvictionCallback;
+import cascading.util.cache.DirectMappedCache;
+import cascading.util.cache.OffHeapDirectMappedCache;
+import cascading.util.cache.OffHeapDirectMappedCacheFactory;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OffHeapDirectMappedCacheTest
+  {
+  class TestCacheEvictionCallBack implements CacheEvictionCallback<Object, Object>
+    {
+    int evictionCounter = 0;
+    List<Map.Entry<Object, Object>> evictedEntries = new ArrayList<Map.Entry<Object, Object>>();
+
+    @Override
+    public void evict( Map.Entry<Object, Object> entry )
+      {
+      assertNotNull( entry );
+      evictionCounter++;
+      evictedEntries.add( entry );
+      }
+    }
+
+  @Test
+  public void testOffHeapCache()
+    {
+    OffHeapDirectMappedCache<Object, Object> cache = getCache( 10, 256, CacheEvictionCallback.NULL );
+    assertEquals( 0, cache.size() );
+
+    Tuple key = new Tuple( "abc", 1 );
+    Tuple value = new Tuple( "def", 2L, 3.0D, null, new Tuple( true ) );
+    cache.put( key, value );
+    assertEquals( 1, cache.size() );
+    assertTrue( cache.containsKey( new Tuple( "abc", 1 ) ) );
+    assertFalse( cache.containsKey( new Tuple( "abc", 1L ) ) );
+    assertTrue( cache.containsValue( value ) );
+    assertEquals( value, cache.get( key ) );
+
+    Set<Object> keys = cache.keySet();
+    assertEquals( 1, keys.size() );
+    assertTrue( keys.contains( key ) );
+
+    cache.clear();
+    assertEquals( 0, cache.size() );
+    assertFalse( cache.containsKey( key ) );
+    assertFalse( cache.containsValue( value ) );
+    }
+
+  @Test
+  public void testWriteBack()
+    {
+    OffHeapDirectMappedCache<Object, Object> cache = getCache( 10, 256, CacheEvictionCallback.NULL );
+
+    Tuple[] context = new Tuple[ 2 ];
+    cache.put( new Tuple( "key" ), context );
+
+    // modified after the put, as AggregateBy does
+    context[ 0 ] = new Tuple( 1L );
+
+    Tuple[] cached = (Tuple[]) cache.get( new Tuple( "key" ) );
+    assertEquals( new Tuple( 1L ), cached[ 0 ] );
+    assertNull( cached[ 1 ] );
+
+    cached[ 0 ].setLong( 0, 2L );
+    cached[ 1 ] = new Tuple( "value" );
+
+    Map<Object, Object> copy = new HashMap<Object, Object>( cache );
+    Tuple[] values = (Tuple[]) copy.get( new Tuple( "key" ) );
+
+    assertEquals( new Tuple( 2L ), values[ 0 ] );
+    assertEquals( new Tuple( "value" ), values[ 1 ] );
+    }
+
+  @Test
+  public void testEviction()
+    {
+    TestCacheEvictionCallBack callBack = new TestCacheEvictionCallBack();
+    OffHeapDirectMappedCache<Object, Object> cache = getCache( 1, 256, callBack );
+
+    cache.put( "key", "value" );
+    assertEquals( 1, cache.size() );
+    assertEquals( 0, callBack.evictionCounter );
+
+    cache.put( "anotherKey", "value" );
+    assertEquals( 1, cache.size() );
+    assertEquals( 1, callBack.evictionCounter );
+    assertTrue( cache.containsKey( "anotherKey" ) );
+    assertEquals( "key", callBack.evictedEntries.get( 0 ).getKey() );
+    assertEquals( "value", callBack.evictedEntries.get( 0 ).getValue() );
+
+    assertEquals( "value", cache.remove( "anotherKey" ) );
+    assertEquals( 0, cache.size() );
+    assertEquals( 2, callBack.evictionCounter );
+    }
+
+  @Test
+  public void testMaxCapacity()
+    {
+    TestCacheEvictionCallBack callBack = new TestCacheEvictionCallBack();
+    OffHeapDirectMappedCache<Object, Object> cache = getCache( 10, 256, callBack );
+    int puts = cache.getCapacity() * 10;
+
+    for( int i = 0; i < puts; i++ )
+      cache.put( i, i );
+
+    assertTrue( cache.size() <= cache.getCapacity() );
+    assertEquals( puts, cache.size() + callBack.evictionCounter );
+    }
+
+  @Test
+  public void testOversized()
+    {
+    TestCacheEvictionCallBack callBack = new TestCacheEvictionCallBack();
+    OffHeapDirectMappedCache<Object, Object> cache = getCache( 10, 32, callBack );
+
+    cache.put( "key", "a value too large to fit into the slot" );
+
+    // evicted when written back on the next call
+    assertFalse( cache.containsKey( "key" ) );
+    assertEquals( 0, cache.size() );
+    assertEquals( 1, callBack.evictionCounter );
+    assertEquals( "a value too large to fit into the slot", callBack.evictedEntries.get( 0 ).getValue() );
+    }
+
+  @Test
+  public void testOversizedRejected()
+    {
+    TestCacheEvictionCallBack callBack = new TestCacheEvictionCallBack();
+    OffHeapDirectMappedCache<Object, Object> cache = getCache( 10, 32, callBack );
+
+    try
+      {
+      for( int i = 0; i < 20; i++ )
+        cache.put( i, "a value too large to fit into the slot" );
+
+      fail( "did not reject oversized entries" );
+      }
+    catch( IllegalStateException exception )
+      {
+      // expected
+      }
+
+    assertEquals( 10, callBack.evictionCounter );
+    }
+
+  @Test
+  public void testOnHeapIfHashed()
+    {
+    OffHeapDirectMappedCache<Object, Object> cache = new OffHeapDirectMappedCache<Object, Object>();
+    TupleHasher tupleHasher = new TupleHasher( null, new Comparator[]{String.CASE_INSENSITIVE_ORDER} );
+
+    assertSame( cache, OffHeapDirectMappedCacheFactory.onHeapIfHashed( cache, null ) );
+    assertTrue( OffHeapDirectMappedCacheFactory.onHeapIfHashed( cache, tupleHasher ) instanceof DirectMappedCache );
+    }
+
+  @Test
+  public void testSerializableValue()
+    {
+    OffHeapDirectMappedCache<Object, Object> cache = getCache( 10, 8192, CacheEvictionCallback.NULL );
+    HyperLogLog sketch = new HyperLogLog();
+
+    sketch.add( "value" );
+    cache.put( "key", new Tuple( sketch ) );
+
+    assertEquals( 1, ( (HyperLogLog) ( (Tuple) cache.get( "key" ) ).getObject( 0 ) ).estimate() );
+    }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullKey()
+    {
+    getCache( 10, 256, CacheEvictionCallback.NULL ).put( null, "a" );
+    }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullValue()
+    {
+    getCache( 10, 256, CacheEvictionCallback.NULL ).put( "a", null );
+    }
+
+  @Test(expected = IllegalStateException.class)
+  public void testCreateCacheNegative()
+    {
+    getCache( -1, 256, CacheEvictionCallback.NULL );
+    }
+
+  private OffHeapDirectMappedCache<Object, Object> getCache( int capacity, int slotBytes, CacheEvictionCallback cacheEvictionCallback )
+    {
+    OffHeapDirectMappedCache<Object, Object> map = new OffHeapDirectMappedCache<Object, Object>();
+    map.setCacheEvictionCallback( cacheEvictionCallback );
+    map.setCapacity( capacity );
+    map.setSlotBytes( slotBytes );
+    map.initialize();
+    return map;
+    }
+  }
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import cascading.tuple.Tuple;
+import cascading.util.cache.CacheEvictionCallback;
+import cascading.util.cache.CascadingCache;
+import cascading.util.cache.OpenAddressingCache;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OpenAddressingCacheTest
+  {
+  class TestCacheEvictionCallBack implements CacheEvictionCallback<Object, Object>
+    {
+    List<Map.Entry<Object, Object>> evictedEntries = new ArrayList<Map.Entry<Object, Object>>();
+
+    @Override
+    public void evict( Map.Entry<Object, Object> entry )
+      {
+      assertNotNull( entry );
+      evictedEntries.add( entry );
+      }
+    }
+
+  class Collider
+    {
+    private final int value;
+
+    Collider( int value )
+      {
+      this.value = value;
+      }
+
+    @Override
+    public int hashCode()
+      {
+      // produce hash collisions
+      return value % 3;
+      }
+
+    @Override
+    public boolean equals( Object object )
+      {
+      return object instanceof Collider && ( (Collider) object ).value == value;
+      }
+    }
+
+  @Test
+  public void testOpenAddressingCache()
+    {
+    CascadingCache<Object, Object> cache = getCache( 10, 0, CacheEvictionCallback.NULL );
+
+    assertEquals( 0, cache.size() );
+
+    cache.put( "abc", "def" );
+
+    assertEquals( 1, cache.size() );
+    assertTrue( cache.containsKey( "abc" ) );
+    assertTrue( cache.containsValue( "def" ) );
+    assertSame( "def", cache.get( "abc" ) );
+    assertEquals( "def", cache.put( "abc", "ghi" ) );
+    assertEquals( 1, cache.keySet().size() );
+    assertTrue( cache.values().contains( "ghi" ) );
+
+    cache.clear();
+
+    assertEquals( 0, cache.size() );
+    assertFalse( cache.containsKey( "abc" ) );
+    }
+
+  @Test
+  public void testCollisionsAndRemove()
+    {
+    TestCacheEvictionCallBack callBack = new TestCacheEvictionCallBack();
+    CascadingCache<Object, Object> cache = getCache( 100, 0, callBack );
+    Map<Object, Object> expected = new HashMap<Object, Object>();
+    Random random = new Random( 1 );
+
+    for( int i = 0; i < 10000; i++ )
+      {
+      Collider key = new Collider( random.nextInt( 60 ) );
+
+      if( random.nextBoolean() )
+        assertEquals( expected.put( key, i ), cache.put( key, i ) );
+      else
+        assertEquals( expected.remove( key ), cache.remove( key ) );
+
+      assertEquals( expected.size(), cache.size() );
+      }
+
+    for( Map.Entry<Object, Object> entry : expected.entrySet() )
+      assertEquals( entry.getValue(), cache.get( entry.getKey() ) );
+
+    assertEquals( expected, new HashMap<Object, Object>( cache ) );
+    }
+
+  @Test
+  public void testBatchEviction()
+    {
+    TestCacheEvictionCallBack callBack = new TestCacheEvictionCallBack();
+    CascadingCache<Object, Object> cache = getCache( 10, 0, callBack );
+
+    for( int i = 0; i < 10; i++ )
+      cache.put( i, i );
+
+    assertEquals( 10, cache.size() );
+    assertEquals( 0, callBack.evictedEntries.size() );
+
+    cache.put( 10, 10 );
+
+    assertEquals( 6, cache.size() );
+    assertEquals( 5, callBack.evictedEntries.size() );
+    assertTrue( cache.containsKey( 10 ) );
+
+    for( Map.Entry<Object, Object> entry : callBack.evictedEntries )
+      {
+      assertEquals( entry.getKey(), entry.getValue() );
+      assertFalse( cache.containsKey( entry.getKey() ) );
+      }
+    }
+
+  @Test
+  public void testCapacityBytes()
+    {
+    TestCacheEvictionCallBack callBack = new TestCacheEvictionCallBack();
+    OpenAddressingCache<Object, Object> cache = getCache( 10, 64 * 1024, callBack );
+
+    for( int i = 0; i < 100000; i++ )
+      cache.put( new Tuple( "key", i ), new Tuple[]{new Tuple( (long) i )} );
+
+    assertEquals( 100000, cache.size() + callBack.evictedEntries.size() );
+    assertTrue( "too few entries held: " + cache.size(), cache.size() > 10 );
+    assertTrue( "too many entries held: " + cache.size(), cache.size() < 64 * 1024 / 100 );
+    }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullKey()
+    {
+    getCache( 10, 0, CacheEvictionCallback.NULL ).put( null, "a" );
+    }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullValue()
+    {
+    getCache( 10, 0, CacheEvictionCallback.NULL ).put( "a", null );
+    }
+
+  @Test(expected = IllegalStateException.class)
+  public void testCreateCacheNegative()
+    {
+    getCache( -1, 0, CacheEvictionCallback.NULL );
+    }
+
+  private OpenAddressingCache<Object, Object> getCache( int capacity, long capacityBytes, CacheEvictionCallback cacheEvictionCallback )
+    {
+    OpenAddressingCache<Object, Object> map = new OpenAddressingCache<Object, Object>();
+    map.setCacheEvictionCallback( cacheEvictionCallback );
+    map.setCapacity( capacity );
+    map.setCapacityBytes( capacityBytes );
+    map.initialize();
+    return map;
+    }
+  }
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.util;
+
+import java.util.Random;
+
+import cascading.CascadingTestCase;
+import org.junit.Test;
+
+public class TDigestTest extends CascadingTestCase
+  {
+  public TDigestTest()
+    {
+    }
+
+  @Test
+  public void testSmallDigest()
+    {
+    TDigest digest = new TDigest();
+
+    for( int i = 1; i <= 5; i++ )
+      digest.add( i );
+
+    assertEquals( 5, digest.size() );
+    assertEquals( 1.0, digest.quantile( 0 ) );
+    assertEquals( 3.0, digest.quantile( 0.5 ) );
+    assertEquals( 5.0, digest.quantile( 1 ) );
+
+    assertTrue( Double.isNaN( new TDigest().quantile( 0.5 ) ) );
+    }
+
+  @Test
+  public void testQuantiles()
+    {
+    TDigest digest = new TDigest();
+    Random random = new Random( 1 );
+    int size = 100000;
+
+    for( int i = 0; i < size; i++ )
+      digest.add( random.nextDouble() );
+
+    for( double quantile : new double[]{0.01, 0.1, 0.5, 0.9, 0.99, 0.999} )
+      {
+      double error = Math.abs( digest.quantile( quantile ) - quantile );
+
+      assertTrue( "error too large: " + error + " for quantile: " + quantile, error < 0.01 );
+      }
+    }
+
+  @Test
+  public void testBoundedSize()
+    {
+    TDigest digest = new TDigest( 50 );
+
+    for( int i = 0; i < 100000; i++ )
+      digest.add( i );
+
+    // centroids only, the k1 scale function bounds their count to about the compression
+    String[] tokens = digest.encode().split( " " );
+
+    assertTrue( "too many centroids: " + ( tokens.length - 3 ) / 2, ( tokens.length - 3 ) / 2 <= 50 );
+    assertEquals( 100000, digest.size() );
+    }
+
+  @Test
+  public void testMerge()
+    {
+    TDigest lhs = new TDigest();
+    TDigest rhs = new TDigest();
+    Random random = new Random( 1 );
+
+    for( int i = 0; i < 50000; i++ )
+      ( i % 3 == 0 ? lhs : rhs ).add( random.nextGaussian() );
+
+    lhs.merge( rhs );
+
+    assertEquals( 50000, lhs.size() );
+    assertEquals( 0.0, lhs.quantile( 0.5 ), 0.02 );
+    assertEquals( 2.326, lhs.quantile( 0.99 ), 0.05 );
+    }
+
+  @Test
+  public void testEncodeDecode()
+    {
+    TDigest digest = new TDigest();
+
+    for( int i = 0; i < 10000; i++ )
+      digest.add( i % 1000, 1 + i % 3 );
+
+    TDigest decoded = TDigest.decode( digest.encode() );
+
+    assertEquals( digest.size(), decoded.size() );
+    assertEquals( digest.encode(), decoded.encode() );
+
+    for( double quantile : new double[]{0, 0.25, 0.5, 0.75, 1} )
+      assertEquals( digest.quantile( quantile ), decoded.quantile( quantile ) );
+
+    TDigest empty = TDigest.decode( new TDigest().encode() );
+
+    assertEquals( 0, empty.size() );
+    }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidCompression()
+    {
+    new TDigest( 1 );
+    }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidEncoding()
+    {
+    TDigest.decode( "100.0 1.0" );
+    }
+  }
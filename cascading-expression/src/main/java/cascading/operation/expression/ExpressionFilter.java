@@ -25,6 +25,7 @@ import java.beans.ConstructorProperties;
 import cascading.flow.FlowProcess;
 import cascading.operation.Filter;
 import cascading.operation.FilterCall;
+import cascading.operation.StatelessFilter;
 import cascading.tuple.Tuple;
 import org.codehaus.janino.ExpressionEvaluator;
 
@@ -47,7 +48,7 @@ import org.codehaus.janino.ExpressionEvaluator;
  * Field names used in the expression should be valid Java variable names; for example, '+' or '-' are not allowed.
  * Also the use of a field name that begins with an upper-case character is likely to fail and should be avoided.
  */
-public class ExpressionFilter extends ExpressionOperation implements Filter<ScriptOperation.Context>
+public class ExpressionFilter extends ExpressionOperation implements StatelessFilter<ScriptOperation.Context>
   {
   /**
    * Constructor ExpressionFilter creates a new ExpressionFilter instance.
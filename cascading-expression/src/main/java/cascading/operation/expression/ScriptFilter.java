@@ -23,8 +23,8 @@ package cascading.operation.expression;
 import java.beans.ConstructorProperties;
 
 import cascading.flow.FlowProcess;
-import cascading.operation.Filter;
 import cascading.operation.FilterCall;
+import cascading.operation.StatelessFilter;
 
 /**
  * Class ScriptFilter dynamically resolves a given expression using argument {@link cascading.tuple.Tuple} values.
@@ -46,7 +46,7 @@ import cascading.operation.FilterCall;
  * Further, the types of the tuple elements will be coerced into the given parameterTypes. Regardless of the actual
  * tuple element values, they will be converted to the types expected by the script if possible.
  */
-public class ScriptFilter extends ScriptOperation implements Filter<ScriptOperation.Context>
+public class ScriptFilter extends ScriptOperation implements StatelessFilter<ScriptOperation.Context>
   {
   /**
    * Constructor ScriptFilter creates a new ScriptFilter instance.
@@ -81,12 +81,29 @@ public class SequenceFile extends Scheme<Configuration, RecordReader, OutputColl
   @Override
   public void sourcePrepare( FlowProcess<? extends Configuration> flowProcess, SourceCall<Object[], RecordReader> sourceCall )
     {
-    Object[] pair = new Object[]{
+    Object[] context = new Object[]{
       sourceCall.getInput().createKey(),
-      sourceCall.getInput().createValue()
+      sourceCall.getInput().createValue(),
+      createProjectedMask()
     };
 
-    sourceCall.setContext( pair );
+    sourceCall.setContext( context );
+    }
+
+  private boolean[] createProjectedMask()
+    {
+    Fields sourceFields = getSourceFields();
+
+    if( !isSourceProjected() || !sourceFields.isDefined() )
+      return null;
+
+    Fields sourceProjection = getSourceProjection();
+    boolean[] projected = new boolean[ sourceFields.size() ];
+
+    for( int i = 0; i < projected.length; i++ )
+      projected[ i ] = sourceProjection.contains( new Fields( sourceFields.get( i ) ) );
+
+    return projected;
     }
 
   @Override
@@ -101,6 +118,18 @@ public class SequenceFile extends Scheme<Configuration, RecordReader, OutputColl
 
     TupleEntry entry = sourceCall.getIncomingEntry();
 
+    boolean[] projected = (boolean[]) sourceCall.getContext()[ 2 ];
+
+    // each tuple is deserialized whole, but values of fields nobody reads are not coerced
+    if( projected != null && projected.length == value.size() )
+      {
+      for( int i = 0; i < projected.length; i++ )
+        {
+        if( !projected[ i ] )
+          value.set( i, null );
+        }
+      }
+
     if( entry.hasTypes() )
       entry.setCanonicalTuple( value );
     else
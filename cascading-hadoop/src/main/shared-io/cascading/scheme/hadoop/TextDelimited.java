@@ -994,6 +994,9 @@ public class TextDelimited extends TextLine
     {
     super.sourcePrepare( flowProcess, sourceCall );
 
+    // values of fields nobody reads are left unparsed
+    delimitedParser.setSourceProjection( getSourceProjection() );
+
     sourceCall.getIncomingEntry().setTuple( TupleViews.createObjectArray() );
     }
 
@@ -601,6 +601,22 @@ public class Hfs extends Tap<Configuration, RecordReader, OutputCollector> imple
     return getFileSystem( conf ).getFileStatus( getPath() ).getLen();
     }
 
+  /**
+   * Method getContentLength returns the total length in bytes of the file, or of all the files under the directory,
+   * this resource represents, or -1 if the resource does not exist.
+   *
+   * @param conf of type Configuration
+   * @return long
+   * @throws IOException when
+   */
+  public long getContentLength( Configuration conf ) throws IOException
+    {
+    if( !resourceExists( conf ) )
+      return -1;
+
+    return getFileSystem( conf ).getContentSummary( getPath() ).getLength();
+    }
+
   /**
    * Method getBlockSize returns the {@code blocksize} specified by the underlying file system for this resource.
    *
@@ -46,6 +46,8 @@ public class TempHfs extends Hfs
   {
   /** Field name */
   final String name;
+  /** Field unique */
+  final boolean unique;
   /** Field schemeClass */
   private Class<? extends Scheme> schemeClass;
   /** Field temporaryPath */
@@ -91,6 +93,7 @@ public class TempHfs extends Hfs
     {
     } );
     this.name = name;
+    this.unique = true;
     this.stringPath = initTemporaryPath( conf, true );
     }
 
@@ -107,6 +110,7 @@ public class TempHfs extends Hfs
   public TempHfs( Configuration conf, String name, Class<? extends Scheme> schemeClass, boolean unique )
     {
     this.name = name;
+    this.unique = unique;
 
     if( schemeClass == null )
       this.schemeClass = SequenceFile.class;
@@ -116,6 +120,26 @@ public class TempHfs extends Hfs
     this.stringPath = initTemporaryPath( conf, unique );
     }
 
+  /**
+   * Method getName returns the name this temporary tap was created with.
+   *
+   * @return String
+   */
+  public String getName()
+    {
+    return name;
+    }
+
+  /**
+   * Method isUnique returns true if the path of this tap was made unique from the given name.
+   *
+   * @return boolean
+   */
+  public boolean isUnique()
+    {
+    return unique;
+    }
+
   public Class<? extends Scheme> getSchemeClass()
     {
     return schemeClass;
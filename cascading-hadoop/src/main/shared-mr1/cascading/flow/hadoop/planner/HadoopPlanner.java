@@ -20,6 +20,7 @@
 
 package cascading.flow.hadoop.planner;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.Map;
 import java.util.Properties;
@@ -231,4 +232,33 @@ public class HadoopPlanner extends FlowPlanner<HadoopFlow, JobConf>
     // must give Taps unique names
     return new TempHfs( defaultJobConf, Util.makePath( prefix, name ), intermediateSchemeClass, prefix == null );
     }
+
+  @Override
+  public Tap makeTempTapLike( Tap tap )
+    {
+    // checkpoint and decorated taps cannot be re-created
+    if( tap.getClass() != TempHfs.class || !( (TempHfs) tap ).isUnique() )
+      return null;
+
+    return makeTempTap( ( (TempHfs) tap ).getName() );
+    }
+
+  @Override
+  public long getResourceSize( Tap tap )
+    {
+    // directories are sized by their contents
+    if( !( tap instanceof Hfs ) )
+      return super.getResourceSize( tap );
+
+    try
+      {
+      return ( (Hfs) tap ).getContentLength( defaultJobConf );
+      }
+    catch( IOException exception )
+      {
+      LOG.warn( "unable to determine size of resource: {}", tap.getIdentifier(), exception );
+
+      return -1;
+      }
+    }
   }
@@ -55,7 +55,9 @@ import cascading.flow.planner.rule.assertion.MissingGroupAssert;
 import cascading.flow.planner.rule.assertion.SplitBeforeEveryAssert;
 import cascading.flow.planner.rule.transformer.ApplyAssertionLevelTransformer;
 import cascading.flow.planner.rule.transformer.ApplyDebugLevelTransformer;
+import cascading.flow.planner.rule.transformer.PartialAggregateTransformer;
 import cascading.flow.planner.rule.transformer.RemoveNoOpPipeTransformer;
+import cascading.flow.planner.rule.transformer.SelectJoinBySizeTransformer;
 
 /**
  *
@@ -72,6 +74,8 @@ public class MapReduceHadoopRuleRegistry extends RuleRegistry
     addRule( new BufferAfterEveryAssert() );
     addRule( new EveryAfterBufferAssert() );
     addRule( new SplitBeforeEveryAssert() );
+    addRule( new SelectJoinBySizeTransformer() );
+    addRule( new PartialAggregateTransformer() );
 
     // Balance with temporary Taps
     addRule( new TapBalanceGroupSplitTransformer() );
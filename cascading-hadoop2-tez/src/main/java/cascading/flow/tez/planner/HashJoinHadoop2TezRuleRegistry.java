@@ -32,7 +32,9 @@ import cascading.flow.planner.rule.assertion.SplitBeforeEveryAssert;
 import cascading.flow.planner.rule.partitioner.WholeGraphStepPartitioner;
 import cascading.flow.planner.rule.transformer.ApplyAssertionLevelTransformer;
 import cascading.flow.planner.rule.transformer.ApplyDebugLevelTransformer;
+import cascading.flow.planner.rule.transformer.PartialAggregateTransformer;
 import cascading.flow.planner.rule.transformer.RemoveNoOpPipeTransformer;
+import cascading.flow.planner.rule.transformer.SelectJoinBySizeTransformer;
 import cascading.flow.tez.planner.rule.annotator.AccumulatedPostNodeAnnotator;
 import cascading.flow.tez.planner.rule.assertion.DualStreamedAccumulatedMergeNodeAssert;
 import cascading.flow.tez.planner.rule.partitioner.BottomUpBoundariesNodePartitioner;
@@ -76,6 +78,8 @@ public class HashJoinHadoop2TezRuleRegistry extends RuleRegistry
     addRule( new BufferAfterEveryAssert() );
     addRule( new EveryAfterBufferAssert() );
     addRule( new SplitBeforeEveryAssert() );
+    addRule( new SelectJoinBySizeTransformer() );
+    addRule( new PartialAggregateTransformer() );
 
     addRule( new BoundaryBalanceGroupSplitTransformer() );
     addRule( new BoundaryBalanceGroupSplitSpliceTransformer() ); // prevents AssemblyHelpersPlatformTest#testSameSourceMerge deadlock
@@ -31,6 +31,7 @@ import cascading.flow.planner.rule.assertion.SplitBeforeEveryAssert;
 import cascading.flow.planner.rule.partitioner.WholeGraphStepPartitioner;
 import cascading.flow.planner.rule.transformer.ApplyAssertionLevelTransformer;
 import cascading.flow.planner.rule.transformer.ApplyDebugLevelTransformer;
+import cascading.flow.planner.rule.transformer.PartialAggregateTransformer;
 import cascading.flow.planner.rule.transformer.RemoveNoOpPipeTransformer;
 import cascading.flow.tez.planner.rule.assertion.NoHashJoinAssert;
 import cascading.flow.tez.planner.rule.partitioner.ConsecutiveGroupOrMergesNodePartitioner;
@@ -61,6 +62,7 @@ public class NoHashJoinHadoop2TezRuleRegistry extends RuleRegistry
     addRule( new BufferAfterEveryAssert() );
     addRule( new EveryAfterBufferAssert() );
     addRule( new SplitBeforeEveryAssert() );
+    addRule( new PartialAggregateTransformer() );
 
     addRule( new BoundaryBalanceGroupSplitSpliceTransformer() ); // prevents AssemblyHelpersPlatformTest#testSameSourceMerge deadlock
     addRule( new BoundaryBalanceCheckpointTransformer() );
@@ -39,6 +39,8 @@ public class LocalFlowProcess extends FlowProcess<Properties>
   {
   private final Properties config;
   private LocalStepStats stepStats;
+  private int numProcessSlices = 1;
+  private int currentSliceNum = 0;
 
   public LocalFlowProcess()
     {
@@ -61,6 +63,23 @@ public class LocalFlowProcess extends FlowProcess<Properties>
     super( flowProcess );
     this.config = properties;
     this.stepStats = flowProcess.stepStats;
+    this.numProcessSlices = flowProcess.numProcessSlices;
+    this.currentSliceNum = flowProcess.currentSliceNum;
+    }
+
+  /**
+   * Constructor LocalFlowProcess creates a copy of the given flowProcess for one of many slices processing
+   * the same {@link cascading.flow.FlowNode} in parallel.
+   *
+   * @param flowProcess      of type LocalFlowProcess
+   * @param numProcessSlices of type int
+   * @param currentSliceNum  of type int
+   */
+  public LocalFlowProcess( LocalFlowProcess flowProcess, int numProcessSlices, int currentSliceNum )
+    {
+    this( flowProcess, flowProcess.getConfig() );
+    this.numProcessSlices = numProcessSlices;
+    this.currentSliceNum = currentSliceNum;
     }
 
   public void setStepStats( LocalStepStats stepStats )
@@ -71,13 +90,13 @@ public class LocalFlowProcess extends FlowProcess<Properties>
   @Override
   public int getNumProcessSlices()
     {
-    return 1;
+    return numProcessSlices;
     }
 
   @Override
   public int getCurrentSliceNum()
     {
-    return 0;
+    return currentSliceNum;
     }
 
   @Override
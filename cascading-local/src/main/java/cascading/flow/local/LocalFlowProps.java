@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.flow.local;
+
+import java.util.Properties;
+
+import cascading.property.Props;
+
+/**
+ * Class LocalFlowProps is a fluent helper class for setting local mode specific runtime properties through
+ * a {@link LocalFlowConnector}.
+ * <p/>
+ * Available properties are:
+ * <p/>
+ * <ul>
+ * <li>source splits max - the maximum number of byte range splits a single splittable
+ * {@link cascading.tap.local.FileTap} source will be read as. Each split is read by a copy of the
+ * {@link cascading.flow.FlowNode} stream graph in its own thread. The default is 1, disabling splitting.</li>
+ * <li>source split size min - the minimum number of bytes in a single split, 32MB by default.</li>
+ * <li>group partitions - the number of threads the groups emitted by a {@link cascading.pipe.GroupBy} are
+ * hash partitioned across, each thread pushing its groups through its own copy of the downstream pipeline.
+ * The default is 1, disabling partitioning.</li>
+ * <li>fork batch size - the number of tuples handed at once to the threads downstream of a
+ * {@link cascading.flow.local.stream.duct.ParallelFork}, 256 by default.</li>
+ * <li>fork capacity - the maximum number of batches a ParallelFork may hold for its slowest downstream thread
+ * before blocking. The default is 0, unbounded, as a bound may deadlock flows where a forked branch joins back
+ * through a {@link cascading.pipe.HashJoin}.</li>
+ * <li>fork wait strategy - how threads wait on a ParallelFork, one of SPIN, YIELD, or BLOCK, the default.</li>
+ * <li>source mmap - if true, {@link cascading.tap.local.FileTap} sources are memory mapped and read by
+ * {@link cascading.scheme.local.TextLine} and {@link cascading.scheme.local.TextDelimited} without copying
+ * lines into intermediate strings, delimited fields are decoded only when retrieved. Only files smaller than 2GB
+ * read with a UTF-8, US-ASCII, or ISO-8859-1 charset are mapped. The default is false.</li>
+ * </ul>
+ * <p/>
+ * Only nodes that read a single splittable source, and that contain no grouping, joining, or traps are split. See
+ * {@link cascading.scheme.local.SplittableScheme}.
+ * <p/>
+ * Only nodes with a single GroupBy, and no other grouping, joining, or traps are partitioned. Within a partition,
+ * groups are pushed in key order.
+ * <p/>
+ * As with slices on a cluster, each copy of a pipeline prepares its own operations, so an operation that writes
+ * a side file via {@link cascading.flow.FlowProcess#openTapForWrite(cascading.tap.Tap)} should not be used when
+ * splitting or partitioning.
+ * <p/>
+ * Note that when splitting or partitioning, the order of tuples written to a sink is no longer guaranteed to match
+ * the order of the source or of the grouping keys.
+ */
+public class LocalFlowProps extends Props
+  {
+  public static final String SOURCE_SPLITS_MAX = "cascading.flow.local.source.splits.max";
+  public static final String SOURCE_SPLIT_SIZE_MIN = "cascading.flow.local.source.split.size.min";
+  public static final String GROUP_PARTITIONS = "cascading.flow.local.group.partitions";
+  public static final String FORK_BATCH_SIZE = "cascading.flow.local.fork.batch.size";
+  public static final String FORK_CAPACITY = "cascading.flow.local.fork.capacity";
+  public static final String FORK_WAIT_STRATEGY = "cascading.flow.local.fork.wait.strategy";
+  public static final String SOURCE_MMAP = "cascading.flow.local.source.mmap";
+
+  public static final int DEFAULT_SOURCE_SPLITS_MAX = 1;
+  public static final long DEFAULT_SOURCE_SPLIT_SIZE_MIN = 32L * 1024 * 1024;
+  public static final int DEFAULT_GROUP_PARTITIONS = 1;
+  public static final int DEFAULT_FORK_BATCH_SIZE = 256;
+  public static final int DEFAULT_FORK_CAPACITY = 0;
+
+  public enum WaitStrategy
+    {
+      /** busy spin, lowest latency, burns a core per waiting thread until backing off to yielding, then parking */
+      SPIN,
+      /** yield the processor between checks, backing off to parking */
+      YIELD,
+      /** block until signaled */
+      BLOCK
+    }
+
+  int sourceSplitsMax = DEFAULT_SOURCE_SPLITS_MAX;
+  long sourceSplitSizeMin = DEFAULT_SOURCE_SPLIT_SIZE_MIN;
+  int groupPartitions = DEFAULT_GROUP_PARTITIONS;
+  int forkBatchSize = DEFAULT_FORK_BATCH_SIZE;
+  int forkCapacity = DEFAULT_FORK_CAPACITY;
+  WaitStrategy forkWaitStrategy = WaitStrategy.BLOCK;
+  boolean sourceMmap = false;
+
+  public static LocalFlowProps localFlowProps()
+    {
+    return new LocalFlowProps();
+    }
+
+  public LocalFlowProps()
+    {
+    }
+
+  public int getSourceSplitsMax()
+    {
+    return sourceSplitsMax;
+    }
+
+  /**
+   * Method setSourceSplitsMax sets the maximum number of splits a single splittable source file will be read as.
+   * <p/>
+   * A value of {@code Runtime.getRuntime().availableProcessors()} is a reasonable choice for CPU bound pipelines.
+   *
+   * @param sourceSplitsMax the maximum number of splits per source
+   * @return this
+   */
+  public LocalFlowProps setSourceSplitsMax( int sourceSplitsMax )
+    {
+    if( sourceSplitsMax < 1 )
+      throw new IllegalArgumentException( "sourceSplitsMax value must be greater than zero" );
+
+    this.sourceSplitsMax = sourceSplitsMax;
+
+    return this;
+    }
+
+  public long getSourceSplitSizeMin()
+    {
+    return sourceSplitSizeMin;
+    }
+
+  /**
+   * Method setSourceSplitSizeMin sets the minimum number of bytes a single split must contain. Files smaller than
+   * twice this value are never split.
+   *
+   * @param sourceSplitSizeMin the minimum split size in bytes
+   * @return this
+   */
+  public LocalFlowProps setSourceSplitSizeMin( long sourceSplitSizeMin )
+    {
+    if( sourceSplitSizeMin < 1 )
+      throw new IllegalArgumentException( "sourceSplitSizeMin value must be greater than zero" );
+
+    this.sourceSplitSizeMin = sourceSplitSizeMin;
+
+    return this;
+    }
+
+  public int getGroupPartitions()
+    {
+    return groupPartitions;
+    }
+
+  /**
+   * Method setGroupPartitions sets the number of threads the groups emitted by a GroupBy are partitioned across.
+   * <p/>
+   * This is most useful when the {@link cascading.pipe.Every} pipes following the GroupBy are CPU bound.
+   *
+   * @param groupPartitions the number of partitions
+   * @return this
+   */
+  public LocalFlowProps setGroupPartitions( int groupPartitions )
+    {
+    if( groupPartitions < 1 )
+      throw new IllegalArgumentException( "groupPartitions value must be greater than zero" );
+
+    this.groupPartitions = groupPartitions;
+
+    return this;
+    }
+
+  public int getForkBatchSize()
+    {
+    return forkBatchSize;
+    }
+
+  /**
+   * Method setForkBatchSize sets the number of tuples handed at once to each thread downstream of a fork.
+   *
+   * @param forkBatchSize the batch size
+   * @return this
+   */
+  public LocalFlowProps setForkBatchSize( int forkBatchSize )
+    {
+    if( forkBatchSize < 1 )
+      throw new IllegalArgumentException( "forkBatchSize value must be greater than zero" );
+
+    this.forkBatchSize = forkBatchSize;
+
+    return this;
+    }
+
+  public int getForkCapacity()
+    {
+    return forkCapacity;
+    }
+
+  /**
+   * Method setForkCapacity sets the maximum number of batches held by a fork for its slowest downstream thread,
+   * zero for unbounded.
+   *
+   * @param forkCapacity the capacity in batches
+   * @return this
+   */
+  public LocalFlowProps setForkCapacity( int forkCapacity )
+    {
+    if( forkCapacity < 0 )
+      throw new IllegalArgumentException( "forkCapacity value must not be negative" );
+
+    this.forkCapacity = forkCapacity;
+
+    return this;
+    }
+
+  public WaitStrategy getForkWaitStrategy()
+    {
+    return forkWaitStrategy;
+    }
+
+  /**
+   * Method setForkWaitStrategy sets how threads wait on each other when handing tuples through a fork.
+   *
+   * @param forkWaitStrategy the wait strategy
+   * @return this
+   */
+  public LocalFlowProps setForkWaitStrategy( WaitStrategy forkWaitStrategy )
+    {
+    if( forkWaitStrategy == null )
+      throw new IllegalArgumentException( "forkWaitStrategy may not be null" );
+
+    this.forkWaitStrategy = forkWaitStrategy;
+
+    return this;
+    }
+
+  public boolean isSourceMmap()
+    {
+    return sourceMmap;
+    }
+
+  /**
+   * Method setSourceMmap sets whether file sources are read through a memory mapped buffer.
+   *
+   * @param sourceMmap true to memory map sources
+   * @return this
+   */
+  public LocalFlowProps setSourceMmap( boolean sourceMmap )
+    {
+    this.sourceMmap = sourceMmap;
+
+    return this;
+    }
+
+  @Override
+  protected void addPropertiesTo( Properties properties )
+    {
+    properties.setProperty( SOURCE_SPLITS_MAX, Integer.toString( sourceSplitsMax ) );
+    properties.setProperty( SOURCE_SPLIT_SIZE_MIN, Long.toString( sourceSplitSizeMin ) );
+    properties.setProperty( GROUP_PARTITIONS, Integer.toString( groupPartitions ) );
+    properties.setProperty( FORK_BATCH_SIZE, Integer.toString( forkBatchSize ) );
+    properties.setProperty( FORK_CAPACITY, Integer.toString( forkCapacity ) );
+    properties.setProperty( FORK_WAIT_STRATEGY, forkWaitStrategy.toString() );
+    properties.setProperty( SOURCE_MMAP, Boolean.toString( sourceMmap ) );
+    }
+  }
@@ -33,9 +33,14 @@ import cascading.flow.planner.rule.partitioner.WholeGraphStepPartitioner;
 import cascading.flow.planner.rule.transformer.ApplyAssertionLevelTransformer;
 import cascading.flow.planner.rule.transformer.ApplyDebugLevelTransformer;
 import cascading.flow.planner.rule.transformer.RemoveNoOpPipeTransformer;
+import cascading.flow.planner.rule.transformer.SelectJoinBySizeTransformer;
 
 /**
- *
+ * Class LocalRuleRegistry holds the rules used to plan local mode flows.
+ * <p/>
+ * The whole assembly is always planned as a single {@link cascading.flow.local.LocalFlowStep} holding a single
+ * node, so all pipes between the sources and sinks are streamed in memory, no intermediate results are written
+ * to temporary taps.
  */
 public class LocalRuleRegistry extends RuleRegistry
   {
@@ -48,6 +53,8 @@ public class LocalRuleRegistry extends RuleRegistry
     addRule( new EveryAfterBufferAssert() );
     addRule( new SplitBeforeEveryAssert() );
 
+    addRule( new SelectJoinBySizeTransformer() );
+
     addRule( new RemoveNoOpPipeTransformer() );
 
     addRule( new ApplyAssertionLevelTransformer() );
@@ -20,21 +20,35 @@
 
 package cascading.flow.local.planner;
 
+import java.io.File;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
+import cascading.flow.FlowElement;
 import cascading.flow.FlowNode;
 import cascading.flow.FlowProcess;
+import cascading.flow.local.LocalFlowProcess;
+import cascading.flow.local.LocalFlowProps;
 import cascading.flow.local.LocalFlowStep;
+import cascading.flow.local.stream.element.LocalGroupByGate;
+import cascading.flow.local.stream.element.SharedSinkStage;
 import cascading.flow.local.stream.graph.LocalStepStreamGraph;
 import cascading.flow.stream.duct.Duct;
+import cascading.flow.stream.element.SourceStage;
 import cascading.flow.stream.graph.StreamGraph;
+import cascading.pipe.GroupBy;
+import cascading.pipe.Splice;
+import cascading.tap.Tap;
+import cascading.tap.local.FileTap;
+import cascading.tap.local.io.FileRangeInputStream;
+import cascading.tap.local.io.MappedFileInputStream;
 import cascading.util.Util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,17 +68,24 @@ public class LocalStepRunner implements Callable<Throwable>
   private boolean complete = false;
   private boolean successful = false;
 
+  private final LocalFlowStep step;
   private final FlowNode flowNode;
-  private final StreamGraph streamGraph;
-  private final Collection<Duct> heads;
+  private final List<StreamGraph> streamGraphs = new ArrayList<>();
+  private final List<Callable<Throwable>> heads = new ArrayList<>();
   private Throwable throwable = null;
 
   public LocalStepRunner( FlowProcess<Properties> flowProcess, LocalFlowStep step )
     {
     this.currentProcess = flowProcess;
+    this.step = step;
     this.flowNode = Util.getFirst( step.getFlowNodeGraph().vertexSet() );
-    this.streamGraph = new LocalStepStreamGraph( this.currentProcess, step, flowNode );
-    this.heads = streamGraph.getHeads();
+
+    StreamGraph streamGraph = new LocalStepStreamGraph( this.currentProcess, step, flowNode );
+
+    this.streamGraphs.add( streamGraph );
+
+    for( Duct head : streamGraph.getHeads() )
+      this.heads.add( (Callable<Throwable>) head );
     }
 
   public FlowProcess<Properties> getFlowProcess()
@@ -96,7 +117,11 @@ public class LocalStepRunner implements Callable<Throwable>
       {
       try
         {
-        streamGraph.prepare();
+        createSplitGraphs();
+        createPartitionGraphs();
+
+        for( StreamGraph streamGraph : streamGraphs )
+          streamGraph.prepare();
 
         logMemory( LOG, "flow node id: " + flowNode.getID() + ", mem on start" );
         }
@@ -137,7 +162,7 @@ public class LocalStepRunner implements Callable<Throwable>
         attemptedCleanup = true; // set so we don't try again regardless
 
         if( !( throwable instanceof OutOfMemoryError ) )
-          streamGraph.cleanup();
+          cleanupGraphs();
         }
       catch( Throwable currentThrowable )
         {
@@ -158,7 +183,7 @@ public class LocalStepRunner implements Callable<Throwable>
       try
         {
         if( !attemptedCleanup )
-          streamGraph.cleanup();
+          cleanupGraphs();
         }
       catch( Throwable currentThrowable )
         {
@@ -177,6 +202,177 @@ public class LocalStepRunner implements Callable<Throwable>
       }
     }
 
+  private void cleanupGraphs()
+    {
+    Throwable cleanupThrowable = null;
+
+    for( StreamGraph streamGraph : streamGraphs )
+      {
+      try
+        {
+        streamGraph.cleanup();
+        }
+      catch( Throwable currentThrowable )
+        {
+        if( cleanupThrowable == null )
+          cleanupThrowable = currentThrowable;
+        }
+      }
+
+    if( cleanupThrowable instanceof RuntimeException )
+      throw (RuntimeException) cleanupThrowable;
+
+    if( cleanupThrowable instanceof Error )
+      throw (Error) cleanupThrowable;
+    }
+
+  /**
+   * Method createSplitGraphs replaces the single stream graph with one copy per byte range split of the source
+   * file, if enabled via {@link LocalFlowProps#SOURCE_SPLITS_MAX} and the node is eligible.
+   * <p/>
+   * This happens here and not in the constructor as the source file may be written by a prior step.
+   */
+  private void createSplitGraphs() throws Exception
+    {
+    int maxSplits = currentProcess.getIntegerProperty( LocalFlowProps.SOURCE_SPLITS_MAX, LocalFlowProps.DEFAULT_SOURCE_SPLITS_MAX );
+
+    if( maxSplits < 2 || !isSplittableNode() )
+      return;
+
+    FileTap source = (FileTap) Util.getFirst( flowNode.getSourceTaps() );
+
+    if( !source.isSplittable( currentProcess.getConfig() ) )
+      return;
+
+    String minSizeProperty = currentProcess.getStringProperty( LocalFlowProps.SOURCE_SPLIT_SIZE_MIN );
+    long minSplitSize = minSizeProperty == null ? LocalFlowProps.DEFAULT_SOURCE_SPLIT_SIZE_MIN : Long.parseLong( minSizeProperty );
+    long length = new File( source.getIdentifier() ).length();
+    int numSplits = (int) Math.min( maxSplits, length / Math.max( 1, minSplitSize ) );
+
+    if( numSplits < 2 )
+      return;
+
+    LOG.info( "reading source: {}, as {} splits", source.getIdentifier(), numSplits );
+
+    streamGraphs.clear();
+    heads.clear();
+
+    Map<Tap, SharedSinkStage.SharedCollector> sharedCollectors = new HashMap<>();
+    long splitSize = length / numSplits;
+    final boolean mapped = source.isMapped( currentProcess );
+
+    for( int i = 0; i < numSplits; i++ )
+      {
+      LocalFlowProcess splitProcess = new LocalFlowProcess( (LocalFlowProcess) currentProcess, numSplits, i );
+      StreamGraph streamGraph = new LocalStepStreamGraph( splitProcess, step, flowNode, sharedCollectors, i );
+
+      streamGraphs.add( streamGraph );
+
+      final SourceStage head = (SourceStage) Util.getFirst( streamGraph.getHeads() );
+      final String path = source.getIdentifier();
+      final long start = i * splitSize;
+      final long end = i == numSplits - 1 ? length : start + splitSize;
+
+      heads.add( new Callable<Throwable>()
+        {
+        @Override
+        public Throwable call() throws Exception
+          {
+          try
+            {
+            if( mapped )
+              head.run( new MappedFileInputStream( path, start, end ) );
+            else
+              head.run( new FileRangeInputStream( path, start, end ) );
+            }
+          catch( Throwable currentThrowable )
+            {
+            return currentThrowable;
+            }
+
+          return null;
+          }
+        } );
+      }
+    }
+
+  /**
+   * Method createPartitionGraphs replaces the single stream graph with one copy per group partition, if enabled
+   * via {@link LocalFlowProps#GROUP_PARTITIONS} and the node holds a single GroupBy. Only the heads of the first
+   * copy are run, its GroupBy gate hands the completed groups to the gates of all copies.
+   */
+  private void createPartitionGraphs()
+    {
+    int numPartitions = currentProcess.getIntegerProperty( LocalFlowProps.GROUP_PARTITIONS, LocalFlowProps.DEFAULT_GROUP_PARTITIONS );
+
+    if( numPartitions < 2 || streamGraphs.size() != 1 || !isPartitionableNode() )
+      return;
+
+    LOG.info( "partitioning groups across {} threads", numPartitions );
+
+    streamGraphs.clear();
+    heads.clear();
+
+    Map<Tap, SharedSinkStage.SharedCollector> sharedCollectors = new HashMap<>();
+    List<LocalGroupByGate> gates = new ArrayList<>();
+
+    for( int i = 0; i < numPartitions; i++ )
+      {
+      StreamGraph streamGraph = new LocalStepStreamGraph( currentProcess, step, flowNode, sharedCollectors, i );
+
+      streamGraphs.add( streamGraph );
+
+      for( Duct duct : streamGraph.getAllDucts() )
+        {
+        if( duct instanceof LocalGroupByGate )
+          gates.add( (LocalGroupByGate) duct );
+        }
+      }
+
+    gates.get( 0 ).setPartitionGates( gates );
+
+    for( Duct head : streamGraphs.get( 0 ).getHeads() )
+      heads.add( (Callable<Throwable>) head );
+    }
+
+  private boolean isPartitionableNode()
+    {
+    if( !flowNode.getTrapMap().isEmpty() )
+      return false;
+
+    int numGroupBy = 0;
+
+    for( FlowElement flowElement : flowNode.getElementGraph().vertexSet() )
+      {
+      if( !( flowElement instanceof Splice ) )
+        continue;
+
+      if( !( flowElement instanceof GroupBy ) )
+        return false;
+
+      numGroupBy++;
+      }
+
+    return numGroupBy == 1;
+    }
+
+  private boolean isSplittableNode()
+    {
+    if( flowNode.getSourceTaps().size() != 1 || !flowNode.getTrapMap().isEmpty() )
+      return false;
+
+    if( !( Util.getFirst( flowNode.getSourceTaps() ) instanceof FileTap ) )
+      return false;
+
+    for( FlowElement flowElement : flowNode.getElementGraph().vertexSet() )
+      {
+      if( flowElement instanceof Splice )
+        return false;
+      }
+
+    return true;
+    }
+
   private List<Future<Throwable>> spawnHeads()
     {
     // todo: consider a CyclicBarrier to syn all threads after the openForRead
@@ -184,8 +380,8 @@ public class LocalStepRunner implements Callable<Throwable>
     ExecutorService executors = Executors.newFixedThreadPool( heads.size() );
     List<Future<Throwable>> futures = new ArrayList<Future<Throwable>>();
 
-    for( Duct head : heads )
-      futures.add( executors.submit( (Callable) head ) );
+    for( Callable<Throwable> head : heads )
+      futures.add( executors.submit( head ) );
 
     executors.shutdown();
 
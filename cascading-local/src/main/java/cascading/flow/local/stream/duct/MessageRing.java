@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.flow.local.stream.duct;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import cascading.flow.local.LocalFlowProps.WaitStrategy;
+
+/**
+ * Class MessageRing is a single producer, multiple consumer broadcast ring, every consumer sees every published
+ * item in publish order.
+ * <p/>
+ * Items are stored in linked fixed size chunks, so the ring is unbounded unless a capacity is given, in which
+ * case the producer waits while the slowest consumer is capacity items behind. Chunks are released to the garbage
+ * collector once all consumers have moved past them.
+ * <p/>
+ * All methods of a {@link Consumer} must be called from a single thread, as must {@link #publish(Object)}.
+ * <p/>
+ * With the SPIN and YIELD wait strategies, a waiting thread backs off to yielding, then to briefly parking, the
+ * longer it waits, so a waiting thread cannot starve the thread it waits on when processors are scarce.
+ */
+class MessageRing<T>
+  {
+  /** Number of checks a SPIN wait busy spins before yielding. */
+  private static final int SPIN_TRIES = 1000;
+  /** Number of checks a SPIN or YIELD wait yields before parking. */
+  private static final int YIELD_TRIES = 100;
+  /** Longest a backed off wait parks between checks. */
+  private static final long MAX_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos( 100 );
+
+  /** A state a waiting thread waits to reach, changed by another thread before it calls {@link #signal()}. */
+  private abstract static class Barrier
+    {
+    abstract boolean isPassable();
+    }
+
+  private static final class Chunk
+    {
+    final Object[] items;
+    volatile Chunk next;
+
+    Chunk( int size )
+      {
+      items = new Object[ size ];
+      }
+    }
+
+  class Consumer
+    {
+    private final AtomicLong consumed = new AtomicLong( 0 );
+    private Chunk chunk = head;
+    private int index = 0;
+    private long stalledNanos = 0;
+
+    /**
+     * Method take returns the next item, waiting for it to be published if necessary.
+     *
+     * @return T
+     * @throws InterruptedException when interrupted while blocked
+     */
+    public T take() throws InterruptedException
+      {
+      long next = consumed.get() + 1;
+
+      if( published.get() < next )
+        stalledNanos += await( published, next );
+
+      if( index == chunkSize )
+        {
+        chunk = chunk.next;
+        index = 0;
+        }
+
+      T item = (T) chunk.items[ index++ ];
+
+      consumed.set( next );
+
+      if( capacity > 0 )
+        signal();
+
+      return item;
+      }
+
+    public long getStalledNanos()
+      {
+      return stalledNanos;
+      }
+
+    /** Stops this consumer from holding back the producer, no further items may be taken. */
+    public void close()
+      {
+      consumed.set( Long.MAX_VALUE );
+      chunk = null;
+
+      signal();
+      }
+    }
+
+  private final int chunkSize;
+  private final int capacity;
+  private final WaitStrategy waitStrategy;
+
+  private final AtomicLong published = new AtomicLong( 0 );
+  private final Consumer[] consumers;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition progress = lock.newCondition();
+  private final AtomicInteger waiting = new AtomicInteger( 0 );
+
+  private Chunk head;
+  private Chunk tail;
+  private int tailIndex = 0;
+  private long stalledNanos = 0;
+  private long depthSum = 0;
+
+  /**
+   * Constructor MessageRing creates a new MessageRing instance.
+   *
+   * @param numConsumers the number of consumers
+   * @param chunkSize    the number of items per chunk
+   * @param capacity     the maximum number of unconsumed items, or zero if unbounded
+   * @param waitStrategy how to wait on the producer or slowest consumer
+   */
+  MessageRing( int numConsumers, int chunkSize, int capacity, WaitStrategy waitStrategy )
+    {
+    this.chunkSize = chunkSize;
+    this.capacity = capacity;
+    this.waitStrategy = waitStrategy;
+    this.head = new Chunk( chunkSize );
+    this.tail = head;
+    this.consumers = new MessageRing.Consumer[ numConsumers ];
+
+    for( int i = 0; i < numConsumers; i++ )
+      consumers[ i ] = new Consumer();
+
+    this.head = null; // consumers hold the first chunk
+    }
+
+  public Consumer getConsumer( int ordinal )
+    {
+    return consumers[ ordinal ];
+    }
+
+  /**
+   * Method publish appends the given item for all consumers, waiting for the slowest consumer if the ring is
+   * at capacity.
+   *
+   * @param item of type T
+   * @throws InterruptedException when interrupted while blocked
+   */
+  public void publish( T item ) throws InterruptedException
+    {
+    long sequence = published.get() + 1;
+
+    if( capacity > 0 && sequence - minConsumed() > capacity )
+      stalledNanos += awaitCapacity( sequence );
+
+    if( tailIndex == chunkSize )
+      {
+      Chunk chunk = new Chunk( chunkSize );
+
+      tail.next = chunk;
+      tail = chunk;
+      tailIndex = 0;
+      }
+
+    tail.items[ tailIndex++ ] = item;
+
+    published.set( sequence ); // makes the item, and any new chunk, visible to consumers
+
+    depthSum += Math.max( 0, sequence - minConsumed() );
+
+    signal();
+    }
+
+  /** Returns the sum of the unconsumed items observed after each publish. */
+  public long getDepthSum()
+    {
+    return depthSum;
+    }
+
+  /** Returns the time the producer waited on consumers. */
+  public long getStalledNanos()
+    {
+    return stalledNanos;
+    }
+
+  private long minConsumed()
+    {
+    long min = Long.MAX_VALUE;
+
+    for( Consumer consumer : consumers )
+      min = Math.min( min, consumer.consumed.get() );
+
+    return min;
+    }
+
+  private long await( final AtomicLong sequence, final long value ) throws InterruptedException
+    {
+    return await( new Barrier()
+    {
+    @Override
+    boolean isPassable()
+      {
+      return sequence.get() >= value;
+      }
+    } );
+    }
+
+  private long awaitCapacity( final long sequence ) throws InterruptedException
+    {
+    return await( new Barrier()
+    {
+    @Override
+    boolean isPassable()
+      {
+      return sequence - minConsumed() <= capacity;
+      }
+    } );
+    }
+
+  private long await( Barrier barrier ) throws InterruptedException
+    {
+    long start = System.nanoTime();
+
+    if( waitStrategy == WaitStrategy.BLOCK )
+      block( barrier );
+    else
+      backOff( barrier );
+
+    return System.nanoTime() - start;
+    }
+
+  private void block( Barrier barrier ) throws InterruptedException
+    {
+    lock.lock();
+
+    try
+      {
+      // counted before checking, so a thread passing the barrier either sees this waiter or is seen by it
+      waiting.incrementAndGet();
+
+      // checked under the lock signal() takes, so a signal cannot be lost between the check and the await
+      while( !barrier.isPassable() )
+        progress.await();
+      }
+    finally
+      {
+      waiting.decrementAndGet();
+      lock.unlock();
+      }
+    }
+
+  private void backOff( Barrier barrier ) throws InterruptedException
+    {
+    int tries = waitStrategy == WaitStrategy.SPIN ? 0 : SPIN_TRIES;
+    long parkNanos = 1000;
+
+    while( !barrier.isPassable() )
+      {
+      if( Thread.interrupted() )
+        throw new InterruptedException();
+
+      if( tries < SPIN_TRIES )
+        {
+        tries++;
+        }
+      else if( tries < SPIN_TRIES + YIELD_TRIES )
+        {
+        tries++;
+        Thread.yield();
+        }
+      else
+        {
+        LockSupport.parkNanos( parkNanos );
+        parkNanos = Math.min( parkNanos * 2, MAX_PARK_NANOS );
+        }
+      }
+    }
+
+  private void signal()
+    {
+    if( waitStrategy != WaitStrategy.BLOCK || waiting.get() == 0 )
+      return;
+
+    lock.lock();
+
+    try
+      {
+      progress.signalAll();
+      }
+    finally
+      {
+      lock.unlock();
+      }
+    }
+  }
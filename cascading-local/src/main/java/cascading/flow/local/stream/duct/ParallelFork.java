@@ -30,8 +30,10 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
+import cascading.flow.FlowProcess;
+import cascading.flow.local.LocalFlowProps;
 import cascading.flow.stream.duct.Duct;
 import cascading.flow.stream.duct.Fork;
 import cascading.tuple.TupleEntry;
@@ -40,11 +42,22 @@ import org.slf4j.LoggerFactory;
 
 /**
  * This "Fork" avoids a possible deadlock in Fork-and-Join scenarios by running downstream edges into parallel threads.
+ * <p/>
+ * Incoming tuples are copied once, collected into batches, and handed to all downstream threads through a single
+ * {@link MessageRing}. The ring is unbounded by default, as a bounded ring could again deadlock when one branch
+ * blocks until another branch completes, see {@link LocalFlowProps#FORK_CAPACITY}.
+ * <p/>
+ * Only a single upstream thread may call {@link #receive(Duct, int, TupleEntry)} at a time.
  */
 public class ParallelFork<Outgoing> extends Fork<TupleEntry, Outgoing>
   {
   private static final Logger LOG = LoggerFactory.getLogger( ParallelFork.class );
 
+  public enum Handoff
+    {
+      Num_Batches_Published, Sum_Queue_Depth, Duration_Millis_Producer_Stalled, Duration_Millis_Consumer_Stalled
+    }
+
   abstract static class Message
     {
     final protected Duct previous;
@@ -83,21 +96,34 @@ public class ParallelFork<Outgoing> extends Fork<TupleEntry, Outgoing>
 
   static final class ReceiveMessage extends Message
     {
-    final int ordinal;
-    final TupleEntry tuple;
+    final int[] ordinals;
+    final TupleEntry[] tuples;
+    int size = 0;
 
-    public ReceiveMessage( Duct previous, int ordinal, TupleEntry tuple )
+    public ReceiveMessage( Duct previous, int batchSize )
       {
       super( previous );
-      this.ordinal = ordinal;
+      this.ordinals = new int[ batchSize ];
+      this.tuples = new TupleEntry[ batchSize ];
+      }
+
+    boolean isFull()
+      {
+      return size == tuples.length;
+      }
+
+    void add( int ordinal, TupleEntry tuple )
+      {
+      ordinals[ size ] = ordinal;
 
       // we make a new copy right here, to avoid cross-thread trouble when upstream changes the tuple
-      this.tuple = new TupleEntry( tuple );
+      tuples[ size++ ] = new TupleEntry( tuple );
       }
 
     public void passOn( Duct next )
       {
-      next.receive( previous, ordinal, tuple );
+      for( int i = 0; i < size; i++ )
+        next.receive( previous, ordinals[ i ], tuples[ i ] );
       }
 
     public boolean isTermination()
@@ -124,15 +150,33 @@ public class ParallelFork<Outgoing> extends Fork<TupleEntry, Outgoing>
       }
     }
 
-  private final ArrayList<LinkedBlockingQueue<Message>> buffers;
+  private final FlowProcess flowProcess;
+  private final MessageRing<Message> ring;
+  private final int batchSize;
   private final ExecutorService executor;
   private final ArrayList<Callable<Throwable>> actions;
   private final ArrayList<Future<Throwable>> futures;
 
+  private ReceiveMessage batch;
+  private long numBatches = 0;
+
   public ParallelFork( Duct[] allNext )
+    {
+    this( null, allNext );
+    }
+
+  public ParallelFork( FlowProcess flowProcess, Duct[] allNext )
     {
     super( allNext );
 
+    this.flowProcess = flowProcess;
+    this.batchSize = getIntegerProperty( flowProcess, LocalFlowProps.FORK_BATCH_SIZE, LocalFlowProps.DEFAULT_FORK_BATCH_SIZE );
+
+    int capacity = getIntegerProperty( flowProcess, LocalFlowProps.FORK_CAPACITY, LocalFlowProps.DEFAULT_FORK_CAPACITY );
+    LocalFlowProps.WaitStrategy waitStrategy = getWaitStrategy( flowProcess );
+
+    this.ring = new MessageRing<>( allNext.length, 64, capacity, waitStrategy );
+
     // Obvious choices for nThread in newFixedThreadPool:
     // nThreads = allNext.length. Potential to create a lot of thread-thrashing on machines with few cores, but
     // the OS scheduler should ensure any executable thread gets a chance to proceed (and possibly
@@ -149,15 +193,14 @@ public class ParallelFork<Outgoing> extends Fork<TupleEntry, Outgoing>
     //
     this.executor = Executors.newFixedThreadPool( allNext.length );
 
-    ArrayList<LinkedBlockingQueue<Message>> buffers = new ArrayList<>( allNext.length );
     ArrayList<Future<Throwable>> futures = new ArrayList<>( allNext.length );
     ArrayList<Callable<Throwable>> actions = new ArrayList<>( allNext.length );
 
-    for( final Duct anAllNext : allNext )
+    for( int i = 0; i < allNext.length; i++ )
       {
-      final LinkedBlockingQueue<Message> queue = new LinkedBlockingQueue<>();
+      final Duct anAllNext = allNext[ i ];
+      final MessageRing<Message>.Consumer consumer = ring.getConsumer( i );
 
-      buffers.add( queue );
       Callable<Throwable> action = new Callable<Throwable>()
         {
         @Override
@@ -167,7 +210,7 @@ public class ParallelFork<Outgoing> extends Fork<TupleEntry, Outgoing>
             {
             while( true )
               {
-              Message message = queue.take();
+              Message message = consumer.take();
               message.passOn( anAllNext );
 
               if( message.isTermination() )
@@ -178,13 +221,17 @@ public class ParallelFork<Outgoing> extends Fork<TupleEntry, Outgoing>
             {
             return throwable;
             }
+          finally
+            {
+            consumer.close();
+            increment( Handoff.Duration_Millis_Consumer_Stalled, TimeUnit.NANOSECONDS.toMillis( consumer.getStalledNanos() ) );
+            }
           }
         };
 
       actions.add( action );
       }
 
-    this.buffers = buffers;
     this.actions = actions;
     this.futures = futures;
     }
@@ -195,10 +242,51 @@ public class ParallelFork<Outgoing> extends Fork<TupleEntry, Outgoing>
     super.initialize();
     }
 
+  private static int getIntegerProperty( FlowProcess flowProcess, String key, int defaultValue )
+    {
+    if( flowProcess == null )
+      return defaultValue;
+
+    return flowProcess.getIntegerProperty( key, defaultValue );
+    }
+
+  private static LocalFlowProps.WaitStrategy getWaitStrategy( FlowProcess flowProcess )
+    {
+    String value = flowProcess == null ? null : flowProcess.getStringProperty( LocalFlowProps.FORK_WAIT_STRATEGY );
+
+    if( value == null || value.isEmpty() )
+      return LocalFlowProps.WaitStrategy.BLOCK;
+
+    return LocalFlowProps.WaitStrategy.valueOf( value.toUpperCase() );
+    }
+
+  private void increment( Enum counter, long amount )
+    {
+    if( flowProcess != null )
+      flowProcess.increment( counter, amount );
+    }
+
   private void broadcastMessage( Message message )
     {
-    for( LinkedBlockingQueue<Message> queue : buffers )
-      queue.offer( message );
+    try
+      {
+      ring.publish( message );
+      }
+    catch( InterruptedException iex )
+      {
+      throw new UndeclaredThrowableException( iex );
+      }
+    }
+
+  private void flushBatch()
+    {
+    if( batch == null )
+      return;
+
+    broadcastMessage( batch );
+    numBatches++;
+
+    batch = null;
     }
 
   private WeakReference<Duct> started = null;
@@ -241,8 +329,17 @@ public class ParallelFork<Outgoing> extends Fork<TupleEntry, Outgoing>
   @Override
   public void receive( Duct previous, int ordinal, TupleEntry incoming )
     {
-    // incoming is copied once for each downstream pipe, within the current thread.
-    broadcastMessage( new ReceiveMessage( previous, ordinal, incoming ) );
+    // incoming is copied once for all downstream pipes, within the current thread.
+    if( batch != null && batch.previous != previous )
+      flushBatch();
+
+    if( batch == null )
+      batch = new ReceiveMessage( previous, batchSize );
+
+    batch.add( ordinal, incoming );
+
+    if( batch.isFull() )
+      flushBatch();
     }
 
   private WeakReference<Duct> completed = null; /* records origin duct */
@@ -261,9 +358,15 @@ public class ParallelFork<Outgoing> extends Fork<TupleEntry, Outgoing>
       completed = new WeakReference<>( previous );
       }
 
+    flushBatch();
+
     // the CompleteMessage will cause the downstream threads to complete
     broadcastMessage( new CompleteMessage( previous ) );
 
+    increment( Handoff.Num_Batches_Published, numBatches );
+    increment( Handoff.Sum_Queue_Depth, ring.getDepthSum() );
+    increment( Handoff.Duration_Millis_Producer_Stalled, TimeUnit.NANOSECONDS.toMillis( ring.getStalledNanos() ) );
+
     try
       {
       for( Future<Throwable> future : futures )
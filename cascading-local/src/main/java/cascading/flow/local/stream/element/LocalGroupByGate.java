@@ -21,26 +21,108 @@
 
 package cascading.flow.local.stream.element;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 import cascading.flow.FlowProcess;
 import cascading.flow.stream.duct.Duct;
+import cascading.flow.stream.duct.DuctException;
 import cascading.flow.stream.element.MemorySpliceGate;
 import cascading.pipe.Splice;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
+import cascading.tuple.TupleException;
+import cascading.tuple.collect.SpillableProps;
+import cascading.tuple.local.io.LocalTupleInputStream;
+import cascading.tuple.local.io.LocalTupleOutputStream;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
-import com.google.common.collect.Multimaps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- *
+ * Class LocalGroupByGate groups and sorts all incoming tuples in memory.
+ * <p/>
+ * Each producer thread writes into its own buffer without locking. The {@link SpillableProps#GROUPBY_THRESHOLD}
+ * bounds the tuples held across all buffers, each producer is given an equal share of it and counts only its own
+ * tuples. When a buffer meets its share, it is written to disk as a sorted run and cleared. On {@link #complete(Duct)} any spilled runs are merged with the tuples remaining
+ * in all buffers, in grouping and sort order. If more runs were spilled than the
+ * {@link SpillableProps#GROUPBY_MERGE_FACTOR}, they are first merged into fewer, larger runs so the number of files
+ * open at once stays bounded.
+ * <p/>
+ * Spills are compressed unless {@link SpillableProps#SPILL_COMPRESS} is false. Values that are not
+ * {@link java.io.Serializable} cannot be spilled, if one is found all remaining values are held in memory and a
+ * warning is logged.
  */
 public class LocalGroupByGate extends MemorySpliceGate
   {
-  private ListMultimap<Tuple, Tuple> valueMap;
+  private static final Logger LOG = LoggerFactory.getLogger( LocalGroupByGate.class );
+
+  public enum Spill
+    {
+      Num_Spills_Written, Num_Spills_Read, Num_Spills_Merged, Num_Tuples_Spilled, Duration_Millis_Written
+    }
+
+  /** Per thread grouped values. */
+  private class Buffer
+    {
+    Set<Tuple> keys = new TreeSet<>( getKeyComparator() );
+    ListMultimap<Tuple, Tuple> valueMap = ArrayListMultimap.create();
+    int numValues;
+    }
+
+  private final ProducerBuffers<Buffer> buffers = new ProducerBuffers<Buffer>()
+  {
+  @Override
+  protected Buffer createBuffer()
+    {
+    return new Buffer();
+    }
+
+  @Override
+  protected int size( Buffer buffer )
+    {
+    return buffer.numValues;
+    }
+  };
+
+  private static final int QUEUE_CAPACITY = 1024;
+
+  private Partitioner partitioner;
+  private int spillThreshold;
+  private int mergeFactor;
+  private boolean compressSpill;
+  private final List<File> spills = Collections.synchronizedList( new ArrayList<File>() );
+  private volatile boolean isSpillable = true;
 
   public LocalGroupByGate( FlowProcess flowProcess, Splice splice )
     {
@@ -53,17 +135,41 @@ public class LocalGroupByGate extends MemorySpliceGate
     return true;
     }
 
-  private ListMultimap<Tuple, Tuple> initNewValueMap()
-    {
-    return Multimaps.synchronizedListMultimap( ArrayListMultimap.<Tuple, Tuple>create() );
-    }
-
   @Override
   public void prepare()
     {
     super.prepare();
 
-    valueMap = initNewValueMap();
+    spillThreshold = getSpillThreshold( flowProcess );
+    mergeFactor = getMergeFactor( flowProcess );
+    compressSpill = isCompressSpill( flowProcess );
+    }
+
+  private static int getSpillThreshold( FlowProcess flowProcess )
+    {
+    String value = (String) flowProcess.getProperty( SpillableProps.GROUPBY_THRESHOLD );
+
+    if( value == null || value.length() == 0 )
+      return SpillableProps.defaultGroupByThreshold;
+
+    return Integer.parseInt( value );
+    }
+
+  private static int getMergeFactor( FlowProcess flowProcess )
+    {
+    String value = (String) flowProcess.getProperty( SpillableProps.GROUPBY_MERGE_FACTOR );
+
+    if( value == null || value.length() == 0 )
+      return SpillableProps.defaultGroupByMergeFactor;
+
+    return Math.max( 2, Integer.parseInt( value ) );
+    }
+
+  private static boolean isCompressSpill( FlowProcess flowProcess )
+    {
+    String value = (String) flowProcess.getProperty( SpillableProps.SPILL_COMPRESS );
+
+    return value == null || value.length() == 0 || Boolean.parseBoolean( value );
     }
 
   @Override
@@ -80,8 +186,22 @@ public class LocalGroupByGate extends MemorySpliceGate
 
     groupTuple = getDelegatedTuple( groupTuple ); // wrap so hasher/comparator is honored
 
-    keys.add( groupTuple );
-    valueMap.put( groupTuple, valuesTuple );
+    Buffer buffer = buffers.get();
+
+    buffer.keys.add( groupTuple );
+    buffer.valueMap.put( groupTuple, valuesTuple );
+
+    buffer.numValues++;
+
+    // the threshold bounds the values held by all producers, each spills its own buffer at its share
+    if( spillThreshold >= 0 && isSpillable && buffer.numValues >= getSpillShare() )
+      spill( buffer );
+    }
+
+  private int getSpillShare()
+    {
+    // producers may still be joining, a buffer over a shrinking share is spilled on its next receive
+    return Math.max( 1, spillThreshold / Math.max( 1, buffers.getNumBuffers() ) );
     }
 
   @Override
@@ -90,21 +210,112 @@ public class LocalGroupByGate extends MemorySpliceGate
     if( count.decrementAndGet() != 0 )
       return;
 
+    // no need to synchronize here as we are guaranteed all writer threads are completed
+    List<Buffer> completed = buffers.drain();
+
+    if( !isSpillable )
+      LOG.warn( "holding {} tuples in memory, exceeding the group by spill threshold of {} as not all values could be spilled", getNumValues( completed ), spillThreshold );
+
+    if( partitioner != null )
+      {
+      completePartitioned( completed );
+      return;
+      }
+
     next.start( this );
 
+    completeGroups( completed );
+
+    count.set( numIncomingEventingPaths );
+
+    next.complete( this );
+    }
+
+  private static long getNumValues( List<Buffer> completed )
+    {
+    long numValues = 0;
+
+    for( Buffer buffer : completed )
+      numValues += buffer.numValues;
+
+    return numValues;
+    }
+
+  private void completePartitioned( List<Buffer> completed )
+    {
+    partitioner.start();
+
+    try
+      {
+      completeGroups( completed );
+      }
+    catch( RuntimeException | Error exception )
+      {
+      partitioner.abort();
+
+      throw exception;
+      }
+
+    count.set( numIncomingEventingPaths );
+
+    partitioner.complete();
+    }
+
+  private void completeGroups( List<Buffer> completed )
+    {
+    if( spills.isEmpty() && completed.size() == 1 )
+      completeInMemory( completed.get( 0 ) );
+    else if( !spills.isEmpty() || !completed.isEmpty() )
+      completeMerged( completed );
+    }
+
+  /**
+   * Method setPartitionGates sets the gates, one per partition, the groups completed by this gate are
+   * hash partitioned across. Each gate pushes its groups downstream in its own thread. The first gate should
+   * be this instance.
+   *
+   * @param partitionGates of type List
+   */
+  public void setPartitionGates( List<LocalGroupByGate> partitionGates )
+    {
+    if( partitionGates == null || partitionGates.size() < 2 )
+      this.partitioner = null;
+    else
+      this.partitioner = new Partitioner( partitionGates );
+    }
+
+  private void pushGroup( Tuple groupTuple, List<Tuple> tuples )
+    {
+    keyEntry.setTuple( groupTuple );
+
+    if( valueComparators != null )
+      Collections.sort( tuples, valueComparators[ 0 ] );
+
+    tupleEntryIterator.reset( tuples.iterator() );
+
+    next.receive( this, 0, grouping );
+    }
+
+  private void completeInMemory( Buffer buffer )
+    {
     // drain the keys and keyValues collections to preserve memory
-    Iterator<Tuple> iterator = keys.iterator();
+    Iterator<Tuple> iterator = buffer.keys.iterator();
 
-    // no need to synchronize here as we are guaranteed all writer threads are completed
     while( iterator.hasNext() )
       {
       Tuple groupTuple = iterator.next();
 
       iterator.remove();
 
+      if( partitioner != null )
+        {
+        partitioner.dispatch( groupTuple, new ArrayList<>( buffer.valueMap.removeAll( groupTuple ) ) );
+        continue;
+        }
+
       keyEntry.setTuple( groupTuple );
 
-      List<Tuple> tuples = valueMap.get( groupTuple ); // can't removeAll, returns unmodifiable collection
+      List<Tuple> tuples = buffer.valueMap.get( groupTuple ); // can't removeAll, returns unmodifiable collection
 
       if( valueComparators != null )
         Collections.sort( tuples, valueComparators[ 0 ] );
@@ -115,11 +326,609 @@ public class LocalGroupByGate extends MemorySpliceGate
 
       tuples.clear();
       }
+    }
 
-    keys = createKeySet();
-    valueMap = initNewValueMap();
-    count.set( numIncomingEventingPaths );
+  private Comparator<Run> createRunComparator()
+    {
+    final Comparator<Tuple> keyComparator = getKeyComparator();
+    final Comparator<Tuple> valueComparator = valueComparators == null ? null : valueComparators[ 0 ];
 
-    next.complete( this );
+    return new Comparator<Run>()
+    {
+    @Override
+    public int compare( Run lhs, Run rhs )
+      {
+      int result = keyComparator.compare( lhs.key, rhs.key );
+
+      if( result == 0 && valueComparator != null )
+        result = valueComparator.compare( lhs.current, rhs.current );
+
+      if( result != 0 )
+        return result;
+
+      return lhs.ordinal - rhs.ordinal; // retain arrival order across runs
+      }
+    };
+    }
+
+  private void completeMerged( List<Buffer> completed )
+    {
+    final Comparator<Tuple> keyComparator = getKeyComparator();
+    Comparator<Run> runComparator = createRunComparator();
+
+    final PriorityQueue<Run> queue = new PriorityQueue<>( Math.min( spills.size(), mergeFactor ) + completed.size(), runComparator );
+
+    try
+      {
+      mergeSpills( runComparator );
+
+      int ordinal = 0;
+
+      for( File spill : spills )
+        {
+        flowProcess.increment( Spill.Num_Spills_Read, 1 );
+        addRun( queue, new Run( ordinal++, createSpillIterator( spill ) ) );
+        }
+
+      for( Buffer buffer : completed )
+        addRun( queue, new Run( ordinal++, createSortedIterator( buffer ) ) );
+
+      while( !queue.isEmpty() )
+        {
+        final Tuple groupTuple = queue.peek().key;
+
+        Iterator<Tuple> groupIterator = new Iterator<Tuple>()
+        {
+        @Override
+        public boolean hasNext()
+          {
+          return !queue.isEmpty() && keyComparator.compare( queue.peek().key, groupTuple ) == 0;
+          }
+
+        @Override
+        public Tuple next()
+          {
+          if( !hasNext() )
+            throw new NoSuchElementException();
+
+          Run run = queue.poll();
+          Tuple tuple = run.current;
+
+          addRun( queue, run );
+
+          return tuple;
+          }
+
+        @Override
+        public void remove()
+          {
+          throw new UnsupportedOperationException( "remove is not supported" );
+          }
+        };
+
+        if( partitioner != null )
+          {
+          List<Tuple> tuples = new ArrayList<>();
+
+          while( groupIterator.hasNext() )
+            tuples.add( groupIterator.next() );
+
+          partitioner.dispatch( getDelegatedTuple( groupTuple ), tuples );
+          continue;
+          }
+
+        keyEntry.setTuple( getDelegatedTuple( groupTuple ) );
+
+        tupleEntryIterator.reset( groupIterator );
+
+        next.receive( this, 0, grouping );
+
+        // skip any values not consumed downstream
+        while( groupIterator.hasNext() )
+          groupIterator.next();
+        }
+      }
+    finally
+      {
+      for( Run run : queue )
+        run.close();
+
+      for( File spill : spills )
+        {
+        if( !spill.delete() )
+          LOG.warn( "unable to delete spill file: {}", spill );
+        }
+
+      spills.clear();
+      }
+    }
+
+  /** Merges consecutive spilled runs, in arrival order, until no more than the merge factor remain. */
+  private void mergeSpills( Comparator<Run> runComparator )
+    {
+    while( spills.size() > mergeFactor )
+      {
+      List<File> merged = new ArrayList<>();
+
+      for( int i = 0; i < spills.size(); i += mergeFactor )
+        {
+        List<File> runs = spills.subList( i, Math.min( i + mergeFactor, spills.size() ) );
+
+        merged.add( runs.size() == 1 ? runs.get( 0 ) : mergeSpills( runComparator, runs ) );
+        }
+
+      spills.clear();
+      spills.addAll( merged );
+      }
+    }
+
+  private File mergeSpills( Comparator<Run> runComparator, List<File> runs )
+    {
+    long start = System.currentTimeMillis();
+    PriorityQueue<Run> queue = new PriorityQueue<>( runs.size(), runComparator );
+    File file = createTempFile();
+    long numValues = 0;
+
+    try
+      {
+      int ordinal = 0;
+
+      for( File spill : runs )
+        {
+        SpillIterator iterator = createSpillIterator( spill );
+
+        numValues += iterator.size;
+
+        flowProcess.increment( Spill.Num_Spills_Read, 1 );
+        addRun( queue, new Run( ordinal++, iterator ) );
+        }
+
+      LOG.info( "merging {} spills holding {} tuples in group by into one", runs.size(), numValues );
+
+      try( LocalTupleOutputStream outputStream = new LocalTupleOutputStream( createOutputStream( file ) ) )
+        {
+        outputStream.writeLong( numValues );
+
+        while( !queue.isEmpty() )
+          {
+          Run run = queue.poll();
+
+          outputStream.writeTuple( run.current );
+
+          addRun( queue, run );
+          }
+        }
+      catch( IOException exception )
+        {
+        throw new TupleException( "unable to write spill file: " + file, exception );
+        }
+      }
+    catch( RuntimeException | Error exception )
+      {
+      if( !file.delete() )
+        LOG.warn( "unable to delete spill file: {}", file );
+
+      throw exception;
+      }
+    finally
+      {
+      for( Run run : queue )
+        run.close();
+      }
+
+    for( File spill : runs )
+      {
+      if( !spill.delete() )
+        LOG.warn( "unable to delete spill file: {}", spill );
+      }
+
+    flowProcess.increment( Spill.Num_Spills_Merged, runs.size() );
+    flowProcess.increment( Spill.Duration_Millis_Written, System.currentTimeMillis() - start );
+
+    return file;
+    }
+
+  private void addRun( PriorityQueue<Run> queue, Run run )
+    {
+    if( run.advance() )
+      queue.add( run );
+    else
+      run.close();
+    }
+
+  private void spill( Buffer buffer )
+    {
+    long start = System.currentTimeMillis();
+    int numValues = buffer.numValues;
+
+    LOG.info( "spilling {} tuples in group by to spill number {}", numValues, spills.size() + 1 );
+
+    File file = createTempFile();
+
+    try( LocalTupleOutputStream outputStream = new LocalTupleOutputStream( createOutputStream( file ) ) )
+      {
+      outputStream.writeLong( numValues );
+
+      // values are only released once the whole run is written, so a failed spill loses nothing
+      for( Tuple groupTuple : buffer.keys )
+        {
+        List<Tuple> tuples = buffer.valueMap.get( groupTuple );
+
+        if( valueComparators != null )
+          Collections.sort( tuples, valueComparators[ 0 ] );
+
+        for( Tuple tuple : tuples )
+          outputStream.writeTuple( tuple );
+        }
+      }
+    catch( IOException exception )
+      {
+      throw new TupleException( "unable to write spill file: " + file, exception );
+      }
+    catch( TupleException exception )
+      {
+      if( !( exception.getCause() instanceof NotSerializableException ) )
+        throw exception;
+
+      if( !file.delete() )
+        LOG.warn( "unable to delete spill file: {}", file );
+
+      isSpillable = false;
+
+      LOG.warn( "unable to spill group by values, the spill threshold of {} can no longer be honored, holding all remaining values in memory", spillThreshold, exception );
+
+      return;
+      }
+
+    spills.add( file );
+
+    flowProcess.increment( Spill.Num_Spills_Written, 1 );
+    flowProcess.increment( Spill.Num_Tuples_Spilled, numValues );
+    flowProcess.increment( Spill.Duration_Millis_Written, System.currentTimeMillis() - start );
+
+    buffer.keys = new TreeSet<>( getKeyComparator() );
+    buffer.valueMap = ArrayListMultimap.create();
+    buffer.numValues = 0;
+    }
+
+  /**
+   * Returns an iterator over all values currently held in the given buffer, in grouping and sort order. Values
+   * are released as they are iterated.
+   */
+  private Iterator<Tuple> createSortedIterator( final Buffer buffer )
+    {
+    final Iterator<Tuple> keysIterator = buffer.keys.iterator();
+
+    return new Iterator<Tuple>()
+    {
+    Iterator<Tuple> values = Collections.emptyIterator();
+
+    @Override
+    public boolean hasNext()
+      {
+      while( !values.hasNext() && keysIterator.hasNext() )
+        {
+        Tuple groupTuple = keysIterator.next();
+
+        keysIterator.remove();
+
+        List<Tuple> tuples = new ArrayList<>( buffer.valueMap.removeAll( groupTuple ) );
+
+        if( valueComparators != null )
+          Collections.sort( tuples, valueComparators[ 0 ] );
+
+        values = tuples.iterator();
+        }
+
+      return values.hasNext();
+      }
+
+    @Override
+    public Tuple next()
+      {
+      if( !hasNext() )
+        throw new NoSuchElementException();
+
+      return values.next();
+      }
+
+    @Override
+    public void remove()
+      {
+      throw new UnsupportedOperationException( "remove is not supported" );
+      }
+    };
+    }
+
+  private SpillIterator createSpillIterator( File file )
+    {
+    final LocalTupleInputStream inputStream = new LocalTupleInputStream( createInputStream( file ) );
+    final long size;
+
+    try
+      {
+      size = inputStream.readLong();
+      }
+    catch( IOException exception )
+      {
+      closeSilent( inputStream );
+      throw new TupleException( "unable to read 'size' of spill from file: " + file, exception );
+      }
+
+    return new SpillIterator( inputStream, size );
+    }
+
+  private OutputStream createOutputStream( File file )
+    {
+    try
+      {
+      OutputStream outputStream = new FileOutputStream( file );
+
+      if( compressSpill )
+        outputStream = new DeflaterOutputStream( outputStream, new Deflater( Deflater.BEST_SPEED ), 64 * 1024 );
+
+      return new BufferedOutputStream( outputStream, 64 * 1024 );
+      }
+    catch( FileNotFoundException exception )
+      {
+      throw new TupleException( "unable to create spill file: " + file, exception );
+      }
+    }
+
+  private InputStream createInputStream( File file )
+    {
+    try
+      {
+      InputStream inputStream = new FileInputStream( file );
+
+      if( compressSpill )
+        inputStream = new InflaterInputStream( inputStream );
+
+      return new BufferedInputStream( inputStream, 64 * 1024 );
+      }
+    catch( FileNotFoundException exception )
+      {
+      throw new TupleException( "unable to open spill file: " + file, exception );
+      }
+    }
+
+  private File createTempFile()
+    {
+    try
+      {
+      File file = File.createTempFile( "cascading-groupby-spill", null );
+      file.deleteOnExit();
+
+      return file;
+      }
+    catch( IOException exception )
+      {
+      throw new TupleException( "unable to create temporary file", exception );
+      }
+    }
+
+  private static void closeSilent( Closeable closeable )
+    {
+    try
+      {
+      closeable.close();
+      }
+    catch( IOException exception )
+      {
+      // ignore
+      }
+    }
+
+  /** A sorted source of values taking part in the merge, keeps the current value and its grouping key. */
+  private class Run
+    {
+    final int ordinal;
+    final Iterator<Tuple> iterator;
+    Tuple current;
+    Tuple key;
+
+    Run( int ordinal, Iterator<Tuple> iterator )
+      {
+      this.ordinal = ordinal;
+      this.iterator = iterator;
+      }
+
+    boolean advance()
+      {
+      if( !iterator.hasNext() )
+        return false;
+
+      current = iterator.next();
+      key = keyBuilder[ 0 ].makeResult( current, null ); // view on current
+
+      return true;
+      }
+
+    void close()
+      {
+      if( iterator instanceof Closeable )
+        closeSilent( (Closeable) iterator );
+      }
+    }
+
+  private static class SpillIterator implements Iterator<Tuple>, Closeable
+    {
+    private final LocalTupleInputStream inputStream;
+    private final long size;
+    private long count = 0;
+
+    SpillIterator( LocalTupleInputStream inputStream, long size )
+      {
+      this.inputStream = inputStream;
+      this.size = size;
+      }
+
+    @Override
+    public boolean hasNext()
+      {
+      return count < size;
+      }
+
+    @Override
+    public Tuple next()
+      {
+      if( !hasNext() )
+        throw new NoSuchElementException();
+
+      try
+        {
+        return inputStream.readTuple(); // new instance, values are retained by the merge
+        }
+      catch( IOException exception )
+        {
+        throw new TupleException( "unable to read next tuple from spill containing: " + size + " tuples, successfully read tuples: " + count, exception );
+        }
+      finally
+        {
+        count++;
+        }
+      }
+
+    @Override
+    public void remove()
+      {
+      throw new UnsupportedOperationException( "remove is not supported" );
+      }
+
+    @Override
+    public void close() throws IOException
+      {
+      inputStream.close();
+      }
+    }
+
+  /**
+   * Class Partitioner hands each completed group to one of many partition gates by the hash of the grouping key.
+   * Each partition gate pushes its groups downstream, in the order received, from its own thread.
+   */
+  private class Partitioner
+    {
+    private final Object[] END = new Object[ 0 ];
+
+    private final List<LocalGroupByGate> gates;
+    private final List<BlockingQueue<Object[]>> queues = new ArrayList<>();
+    private final List<Future<Throwable>> futures = new ArrayList<>();
+    private ExecutorService executor;
+
+    Partitioner( List<LocalGroupByGate> gates )
+      {
+      this.gates = gates;
+      }
+
+    void start()
+      {
+      queues.clear();
+      futures.clear();
+      executor = Executors.newFixedThreadPool( gates.size() );
+
+      for( final LocalGroupByGate gate : gates )
+        {
+        final BlockingQueue<Object[]> queue = new LinkedBlockingQueue<>( QUEUE_CAPACITY );
+
+        queues.add( queue );
+        futures.add( executor.submit( new Callable<Throwable>()
+          {
+          @Override
+          public Throwable call() throws Exception
+            {
+            try
+              {
+              gate.next.start( gate );
+
+              Object[] group;
+
+              while( ( group = queue.take() ) != END )
+                gate.pushGroup( (Tuple) group[ 0 ], (List<Tuple>) group[ 1 ] );
+
+              gate.next.complete( gate );
+              }
+            catch( Throwable throwable )
+              {
+              return throwable;
+              }
+
+            return null;
+            }
+          } ) );
+        }
+
+      executor.shutdown();
+      }
+
+    void dispatch( Tuple groupTuple, List<Tuple> tuples )
+      {
+      int partition = ( groupTuple.hashCode() & Integer.MAX_VALUE ) % gates.size();
+
+      put( partition, new Object[]{groupTuple, tuples} );
+      }
+
+    private void put( int partition, Object[] group )
+      {
+      try
+        {
+        // a failed partition will never drain its queue
+        while( !queues.get( partition ).offer( group, 100, TimeUnit.MILLISECONDS ) )
+          {
+          if( futures.get( partition ).isDone() )
+            throw rethrow( futures.get( partition ).get() );
+          }
+        }
+      catch( InterruptedException | ExecutionException exception )
+        {
+        throw new DuctException( "unable to hand group to partition: " + partition, exception );
+        }
+      }
+
+    void complete()
+      {
+      for( int i = 0; i < gates.size(); i++ )
+        {
+        if( !futures.get( i ).isDone() )
+          put( i, END );
+        }
+
+      Throwable throwable = null;
+
+      for( Future<Throwable> future : futures )
+        {
+        try
+          {
+          Throwable current = future.get();
+
+          if( throwable == null )
+            throwable = current;
+          }
+        catch( InterruptedException | ExecutionException exception )
+          {
+          if( throwable == null )
+            throwable = exception;
+          }
+        }
+
+      if( throwable != null )
+        throw rethrow( throwable );
+      }
+
+    void abort()
+      {
+      if( executor != null )
+        executor.shutdownNow();
+      }
+
+    private RuntimeException rethrow( Throwable throwable )
+      {
+      if( throwable instanceof Error )
+        throw (Error) throwable;
+
+      if( throwable instanceof RuntimeException )
+        return (RuntimeException) throwable;
+
+      return new DuctException( "partition failed", throwable );
+      }
     }
-  }
+}
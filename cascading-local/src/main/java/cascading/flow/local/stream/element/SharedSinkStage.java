@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.flow.local.stream.element;
+
+import java.io.IOException;
+
+import cascading.flow.FlowProcess;
+import cascading.flow.stream.element.SinkStage;
+import cascading.tap.Tap;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+import cascading.tuple.TupleEntryCollector;
+
+/**
+ * A version of SinkStage that writes through a single {@link SharedCollector} shared by all parallel copies of
+ * a stream graph, for local mode.
+ */
+public class SharedSinkStage extends SinkStage
+  {
+  private final SharedCollector sharedCollector;
+
+  public SharedSinkStage( FlowProcess flowProcess, Tap sink, SharedCollector sharedCollector )
+    {
+    super( flowProcess, sink );
+    this.sharedCollector = sharedCollector;
+    }
+
+  @Override
+  protected TupleEntryCollector openCollector() throws IOException
+    {
+    return sharedCollector.open( flowProcess, getSink() );
+    }
+
+  /**
+   * Class SharedCollector synchronizes all writes to the underlying sink collector, which is opened on first use
+   * and closed when the last of the parallel sink stages is closed.
+   */
+  public static class SharedCollector extends TupleEntryCollector
+    {
+    private TupleEntryCollector collector;
+    private int references = 0;
+
+    synchronized SharedCollector open( FlowProcess flowProcess, Tap sink ) throws IOException
+      {
+      if( collector == null )
+        collector = sink.openForWrite( flowProcess, null );
+
+      references++;
+
+      return this;
+      }
+
+    @Override
+    public synchronized void setFields( Fields declared )
+      {
+      collector.setFields( declared );
+      }
+
+    @Override
+    public synchronized void add( TupleEntry tupleEntry )
+      {
+      collector.add( tupleEntry );
+      }
+
+    @Override
+    public synchronized void add( Tuple tuple )
+      {
+      collector.add( tuple );
+      }
+
+    @Override
+    protected void collect( TupleEntry tupleEntry )
+      {
+      add( tupleEntry );
+      }
+
+    @Override
+    public synchronized void close()
+      {
+      if( collector == null || --references != 0 )
+        return;
+
+      try
+        {
+        collector.close();
+        }
+      finally
+        {
+        collector = null;
+        }
+      }
+    }
+  }
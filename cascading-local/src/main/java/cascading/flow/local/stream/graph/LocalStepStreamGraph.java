@@ -21,6 +21,7 @@
 
 package cascading.flow.local.stream.graph;
 
+import java.util.Map;
 import java.util.Properties;
 
 import cascading.flow.FlowElement;
@@ -30,6 +31,7 @@ import cascading.flow.local.LocalFlowProcess;
 import cascading.flow.local.LocalFlowStep;
 import cascading.flow.local.stream.duct.ParallelFork;
 import cascading.flow.local.stream.element.LocalGroupByGate;
+import cascading.flow.local.stream.element.SharedSinkStage;
 import cascading.flow.local.stream.element.SyncMergeStage;
 import cascading.flow.stream.duct.Duct;
 import cascading.flow.stream.duct.Gate;
@@ -50,21 +52,38 @@ import cascading.tap.Tap;
 public class LocalStepStreamGraph extends NodeStreamGraph
   {
   private LocalFlowStep step;
+  private Map<Tap, SharedSinkStage.SharedCollector> sharedCollectors;
 
   public LocalStepStreamGraph( FlowProcess<Properties> flowProcess, LocalFlowStep step, FlowNode node )
+    {
+    this( flowProcess, step, node, null, 0 );
+    }
+
+  /**
+   * Constructor LocalStepStreamGraph creates one of many parallel copies of the given node, where all copies
+   * write to their sinks through the given shared collectors.
+   *
+   * @param flowProcess      of type FlowProcess
+   * @param step             of type LocalFlowStep
+   * @param node             of type FlowNode
+   * @param sharedCollectors of type Map, may be null if the node is not copied
+   * @param ordinal          of type int, the copy number
+   */
+  public LocalStepStreamGraph( FlowProcess<Properties> flowProcess, LocalFlowStep step, FlowNode node, Map<Tap, SharedSinkStage.SharedCollector> sharedCollectors, int ordinal )
     {
     super( flowProcess, node );
     this.step = step;
+    this.sharedCollectors = sharedCollectors;
 
     buildGraph();
     setTraps();
     setScopes();
 
-    printGraph( node.getID(), "local", 0 );
+    printGraph( node.getID(), "local", ordinal );
 
     bind();
 
-    printBoundGraph( node.getID(), "local", 0 );
+    printBoundGraph( node.getID(), "local", ordinal );
     }
 
   protected void buildGraph()
@@ -82,7 +101,7 @@ public class LocalStepStreamGraph extends NodeStreamGraph
   @Override
   protected Duct createFork( Duct[] allNext )
     {
-    return new ParallelFork( allNext );
+    return new ParallelFork( flowProcess, allNext );
     }
 
   protected Gate createCoGroupGate( CoGroup element, IORole role )
@@ -104,9 +123,28 @@ public class LocalStepStreamGraph extends NodeStreamGraph
   @Override
   protected SinkStage createSinkStage( Tap element )
     {
+    if( sharedCollectors != null )
+      return new SharedSinkStage( tapFlowProcess( element ), element, getSharedCollector( element ) );
+
     return new SinkStage( tapFlowProcess( element ), element );
     }
 
+  private SharedSinkStage.SharedCollector getSharedCollector( Tap element )
+    {
+    synchronized( sharedCollectors )
+      {
+      SharedSinkStage.SharedCollector sharedCollector = sharedCollectors.get( element );
+
+      if( sharedCollector == null )
+        {
+        sharedCollector = new SharedSinkStage.SharedCollector();
+        sharedCollectors.put( element, sharedCollector );
+        }
+
+      return sharedCollector;
+      }
+    }
+
   private LocalFlowProcess tapFlowProcess( Tap tap )
     {
     Properties defaultProperties = ( (LocalFlowProcess) flowProcess ).getConfig();
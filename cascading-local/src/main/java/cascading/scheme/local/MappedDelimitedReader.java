@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.scheme.local;
+
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.Arrays;
+
+import cascading.scheme.util.DelimitedParser;
+import cascading.scheme.util.ScanningDelimitedParser;
+import cascading.tap.local.io.MappedFileInputStream;
+import cascading.tap.local.io.MappedLineReader;
+import cascading.tuple.Tuple;
+import cascading.tuple.Tuples;
+import cascading.tuple.type.CoercibleType;
+import cascading.tuple.util.Resettable;
+
+/**
+ * Class MappedDelimitedReader is a {@link MappedLineReader} that splits each line into fields by finding delimiters
+ * in the underlying bytes, and only decodes, and coerces, a field value when it is first retrieved from the
+ * {@link Tuple} returned by {@link #createTuple()}.
+ * <p/>
+ * Lines holding a quote, or not holding the expected number of fields, are decoded and handed to the
+ * {@link DelimitedParser} so that quoting, strict, and safe semantics are retained.
+ */
+class MappedDelimitedReader extends MappedLineReader
+  {
+  private final DelimitedParser delimitedParser;
+  private final byte[] delimiter;
+  private final byte[] quote;
+  private final int numValues;
+  private final CoercibleType[] coercibles;
+  private final FieldList fieldList;
+
+  /**
+   * Method canParse returns true if the given parser does not override any parsing behavior and the number of
+   * values per line is known, and coercion failures may be deferred until a value is retrieved.
+   *
+   * @param delimitedParser of type DelimitedParser
+   * @return boolean
+   */
+  static boolean canParse( DelimitedParser delimitedParser )
+    {
+    Class<?> type = delimitedParser.getClass();
+
+    if( type != DelimitedParser.class && type != ScanningDelimitedParser.class || delimitedParser.getNumValues() == 0 )
+      return false;
+
+    return delimitedParser.getCoercibles() == null || delimitedParser.isSafe();
+    }
+
+  MappedDelimitedReader( MappedFileInputStream inputStream, Charset charset, DelimitedParser delimitedParser )
+    {
+    super( inputStream, charset );
+
+    this.delimitedParser = delimitedParser;
+    this.delimiter = delimitedParser.getDelimiter().getBytes( charset );
+    this.quote = delimitedParser.getQuote() == null ? null : delimitedParser.getQuote().getBytes( charset );
+    this.numValues = delimitedParser.getNumValues();
+    this.coercibles = delimitedParser.getCoercibles();
+    this.fieldList = new FieldList( numValues );
+    }
+
+  Tuple createTuple()
+    {
+    return Tuples.create( fieldList );
+    }
+
+  /**
+   * Method nextTuple advances to the next line and resets the fields of the tuple returned by
+   * {@link #createTuple()} to it, returning false if there are no more lines.
+   *
+   * @return boolean
+   */
+  boolean nextTuple()
+    {
+    if( !nextLine() )
+      return false;
+
+    int lineStart = getLineStart();
+    int lineEnd = getLineEnd();
+
+    if( quote != null && indexOf( quote, lineStart, lineEnd ) != -1 )
+      {
+      fieldList.reset( delimitedParser.parseLine( decodeLine() ) );
+      return true;
+      }
+
+    int[] starts = fieldList.starts;
+    int[] ends = fieldList.ends;
+    int count = 0;
+    int start = lineStart;
+
+    while( count < numValues )
+      {
+      int index = indexOf( delimiter, start, lineEnd );
+
+      starts[ count ] = start;
+      ends[ count++ ] = index == -1 ? lineEnd : index;
+
+      if( index == -1 )
+        break;
+
+      start = index + delimiter.length;
+      }
+
+    // too few or too many fields, let the parser pad, or fail as expected
+    if( count != numValues || ends[ count - 1 ] != lineEnd )
+      {
+      fieldList.reset( delimitedParser.parseLine( decodeLine() ) );
+      return true;
+      }
+
+    fieldList.resetLazy();
+
+    return true;
+    }
+
+  /** A list of values decoded on first retrieval, or a plain array when reset with values. */
+  private class FieldList extends AbstractList<Object> implements Resettable<Object>
+    {
+    final int[] starts;
+    final int[] ends;
+    final Object[] decoded;
+    final boolean[] isDecoded;
+
+    boolean lazy;
+    Object[] values;
+
+    FieldList( int size )
+      {
+      starts = new int[ size ];
+      ends = new int[ size ];
+      decoded = new Object[ size ];
+      isDecoded = new boolean[ size ];
+      }
+
+    void resetLazy()
+      {
+      this.lazy = true;
+      this.values = null;
+
+      Arrays.fill( isDecoded, false );
+      }
+
+    @Override
+    public void reset( Object... values )
+      {
+      this.lazy = false;
+      this.values = values;
+      }
+
+    @Override
+    public Object get( int index )
+      {
+      if( !lazy )
+        return values[ index ];
+
+      if( !isDecoded[ index ] )
+        {
+        decoded[ index ] = decodeField( index );
+        isDecoded[ index ] = true;
+        }
+
+      return decoded[ index ];
+      }
+
+    private Object decodeField( int index )
+      {
+      if( starts[ index ] == ends[ index ] )
+        return coerce( index, null );
+
+      return coerce( index, MappedDelimitedReader.this.decode( starts[ index ], ends[ index ] ) );
+      }
+
+    private Object coerce( int index, Object value )
+      {
+      if( coercibles == null )
+        return value;
+
+      try
+        {
+        return coercibles[ index ].canonical( value );
+        }
+      catch( Exception exception )
+        {
+        return null; // only deferred when safe
+        }
+      }
+
+    @Override
+    public Object set( int index, Object element )
+      {
+      if( !lazy )
+        return values[ index ] = element;
+
+      Object previous = get( index );
+
+      decoded[ index ] = element;
+      isDecoded[ index ] = true;
+
+      return previous;
+      }
+
+    @Override
+    public int size()
+      {
+      return !lazy ? values.length : numValues;
+      }
+    }
+  }
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.scheme.local;
+
+/**
+ * Interface SplittableScheme is implemented by local mode {@link cascading.scheme.Scheme} classes that can read
+ * a file as a number of independent byte range splits, aligned to line boundaries.
+ * <p/>
+ * When splitting is enabled via {@link cascading.flow.local.LocalFlowProps}, a
+ * {@link cascading.tap.local.FileTap} source with a splittable Scheme will be handed a
+ * {@link cascading.tap.local.io.FileRangeInputStream} per split.
+ */
+public interface SplittableScheme
+  {
+  /**
+   * Method isSplittable returns true if the current configuration of this Scheme allows reading a file as independent
+   * line aligned byte ranges.
+   *
+   * @return boolean
+   */
+  boolean isSplittable();
+  }
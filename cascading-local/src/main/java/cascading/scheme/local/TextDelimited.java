@@ -45,6 +45,9 @@ import cascading.tap.CompositeTap;
 import cascading.tap.Tap;
 import cascading.tap.TapException;
 import cascading.tap.local.FileTap;
+import cascading.tap.local.io.FileRangeInputStream;
+import cascading.tap.local.io.MappedFileInputStream;
+import cascading.tap.local.io.MappedLineReader;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
@@ -111,7 +114,7 @@ import cascading.tuple.util.TupleViews;
  *
  * @see TextLine
  */
-public class TextDelimited extends Scheme<Properties, InputStream, OutputStream, LineNumberReader, PrintWriter>
+public class TextDelimited extends Scheme<Properties, InputStream, OutputStream, LineNumberReader, PrintWriter> implements SplittableScheme
   {
   public static final String DEFAULT_CHARSET = "UTF-8";
 
@@ -566,11 +569,23 @@ public class TextDelimited extends Scheme<Properties, InputStream, OutputStream,
     return delimitedParser.getQuote();
     }
 
+  @Override
+  public boolean isSplittable()
+    {
+    return FileRangeInputStream.isSupported( charsetName );
+    }
+
   public LineNumberReader createInput( InputStream inputStream )
     {
     try
       {
-      return new LineNumberReader( new InputStreamReader( inputStream, charsetName ) );
+      LineNumberReader reader = createReader( inputStream );
+
+      // only the first split of a file holds the header, so start the count past it on all others
+      if( !FileRangeInputStream.isFileStart( inputStream ) )
+        reader.setLineNumber( 1 );
+
+      return reader;
       }
     catch( UnsupportedEncodingException exception )
       {
@@ -578,6 +593,19 @@ public class TextDelimited extends Scheme<Properties, InputStream, OutputStream,
       }
     }
 
+  private LineNumberReader createReader( InputStream inputStream ) throws UnsupportedEncodingException
+    {
+    Charset charset = Charset.forName( charsetName );
+
+    if( !( inputStream instanceof MappedFileInputStream ) || !MappedLineReader.isSupported( charset ) )
+      return new LineNumberReader( new InputStreamReader( inputStream, charsetName ) );
+
+    if( MappedDelimitedReader.canParse( delimitedParser ) )
+      return new MappedDelimitedReader( (MappedFileInputStream) inputStream, charset, delimitedParser );
+
+    return new MappedLineReader( (MappedFileInputStream) inputStream, charset );
+    }
+
   public PrintWriter createOutput( OutputStream outputStream )
     {
     try
@@ -654,20 +682,36 @@ public class TextDelimited extends Scheme<Properties, InputStream, OutputStream,
   @Override
   public void sourcePrepare( FlowProcess<? extends Properties> flowProcess, SourceCall<LineNumberReader, InputStream> sourceCall ) throws IOException
     {
-    sourceCall.setContext( createInput( sourceCall.getInput() ) );
-
-    sourceCall.getIncomingEntry().setTuple( TupleViews.createObjectArray() );
+    prepareContext( sourceCall );
     }
 
   @Override
   public void sourceRePrepare( FlowProcess<? extends Properties> flowProcess, SourceCall<LineNumberReader, InputStream> sourceCall ) throws IOException
     {
-    sourceCall.setContext( createInput( sourceCall.getInput() ) );
+    prepareContext( sourceCall );
+    }
+
+  private void prepareContext( SourceCall<LineNumberReader, InputStream> sourceCall )
+    {
+    delimitedParser.setSourceProjection( getSourceProjection() );
+
+    LineNumberReader reader = createInput( sourceCall.getInput() );
+
+    sourceCall.setContext( reader );
+
+    // a mapped reader decodes each field of the current line only when retrieved from its own tuple
+    if( reader instanceof MappedDelimitedReader )
+      sourceCall.getIncomingEntry().setTuple( ( (MappedDelimitedReader) reader ).createTuple() );
+    else
+      sourceCall.getIncomingEntry().setTuple( TupleViews.createObjectArray() );
     }
 
   @Override
   public boolean source( FlowProcess<? extends Properties> flowProcess, SourceCall<LineNumberReader, InputStream> sourceCall ) throws IOException
     {
+    if( sourceCall.getContext() instanceof MappedDelimitedReader )
+      return sourceMapped( (MappedDelimitedReader) sourceCall.getContext() );
+
     String line = sourceCall.getContext().readLine();
 
     if( line == null )
@@ -689,6 +733,17 @@ public class TextDelimited extends Scheme<Properties, InputStream, OutputStream,
     return true;
     }
 
+  private boolean sourceMapped( MappedDelimitedReader reader )
+    {
+    if( !reader.nextTuple() )
+      return false;
+
+    if( skipHeader && reader.getLineNumber() == 1 )
+      return reader.nextTuple();
+
+    return true;
+    }
+
   @Override
   public void sourceCleanup( FlowProcess<? extends Properties> flowProcess, SourceCall<LineNumberReader, InputStream> sourceCall ) throws IOException
     {
@@ -42,6 +42,9 @@ import cascading.scheme.SinkCall;
 import cascading.scheme.SourceCall;
 import cascading.tap.Tap;
 import cascading.tap.TapException;
+import cascading.tap.local.io.FileRangeInputStream;
+import cascading.tap.local.io.MappedFileInputStream;
+import cascading.tap.local.io.MappedLineReader;
 import cascading.tuple.Fields;
 import cascading.tuple.TupleEntry;
 
@@ -64,8 +67,11 @@ import cascading.tuple.TupleEntry;
  * <p/>
  * By default, all text is encoded/decoded as UTF-8. This can be changed via the {@code charsetName} constructor
  * argument.
+ * <p/>
+ * If only the "line" field is sourced, a file may be read as multiple splits in parallel, see
+ * {@link cascading.flow.local.LocalFlowProps}.
  */
-public class TextLine extends Scheme<Properties, InputStream, OutputStream, LineNumberReader, PrintWriter>
+public class TextLine extends Scheme<Properties, InputStream, OutputStream, LineNumberReader, PrintWriter> implements SplittableScheme
   {
   public static final String DEFAULT_CHARSET = "UTF-8";
   public static final Fields DEFAULT_SOURCE_FIELDS = new Fields( "num", "line" ).applyTypes( Integer.TYPE, String.class );
@@ -162,6 +168,18 @@ public class TextLine extends Scheme<Properties, InputStream, OutputStream, Line
     return charsetName;
     }
 
+  /**
+   * Method isSplittable returns true if only the "line" field is sourced, line numbers are not known within
+   * a split.
+   *
+   * @return boolean
+   */
+  @Override
+  public boolean isSplittable()
+    {
+    return getSourceFields().size() == 1 && FileRangeInputStream.isSupported( charsetName );
+    }
+
   protected void verify( Fields sourceFields )
     {
     if( sourceFields.size() < 1 || sourceFields.size() > 2 )
@@ -172,6 +190,11 @@ public class TextLine extends Scheme<Properties, InputStream, OutputStream, Line
     {
     try
       {
+      Charset charset = Charset.forName( charsetName );
+
+      if( inputStream instanceof MappedFileInputStream && MappedLineReader.isSupported( charset ) )
+        return new MappedLineReader( (MappedFileInputStream) inputStream, charset );
+
       return new LineNumberReader( new InputStreamReader( inputStream, charsetName ) );
       }
     catch( UnsupportedEncodingException exception )
@@ -34,9 +34,12 @@ import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import cascading.flow.FlowProcess;
+import cascading.flow.local.LocalFlowProps;
 import cascading.scheme.Scheme;
+import cascading.scheme.local.SplittableScheme;
 import cascading.tap.SinkMode;
 import cascading.tap.Tap;
+import cascading.tap.local.io.MappedFileInputStream;
 import cascading.tap.local.io.TapFileOutputStream;
 import cascading.tap.type.FileType;
 import cascading.tuple.TupleEntryCollector;
@@ -99,12 +102,49 @@ public class FileTap extends Tap<Properties, InputStream, OutputStream> implemen
   @Override
   public TupleEntryIterator openForRead( FlowProcess<? extends Properties> flowProcess, InputStream input ) throws IOException
     {
-    if( input == null )
+    if( input == null && isMapped( flowProcess ) )
+      input = new MappedFileInputStream( getIdentifier() );
+    else if( input == null )
       input = new FileInputStream( getIdentifier() );
 
     return new TupleEntrySchemeIterator<Properties, InputStream>( flowProcess, getScheme(), input, getIdentifier() );
     }
 
+  /**
+   * Method isSplittable returns true if the underlying file may be read as multiple line aligned byte range
+   * splits, each handed to {@link #openForRead(FlowProcess, InputStream)} as a
+   * {@link cascading.tap.local.io.FileRangeInputStream}.
+   * <p/>
+   * Sub-classes that transform the underlying bytes, for example by decompressing them, should return false.
+   *
+   * @param conf of type Properties
+   * @return boolean
+   * @throws IOException when
+   */
+  public boolean isSplittable( Properties conf ) throws IOException
+    {
+    if( !( getScheme() instanceof SplittableScheme ) || !( (SplittableScheme) getScheme() ).isSplittable() )
+      return false;
+
+    return Files.isRegularFile( Paths.get( getIdentifier() ) );
+    }
+
+  /**
+   * Method isMapped returns true if {@link cascading.flow.local.LocalFlowProps#SOURCE_MMAP} is enabled and the
+   * underlying file is splittable, and small enough, to be read through a {@link MappedFileInputStream}.
+   *
+   * @param flowProcess of type FlowProcess
+   * @return boolean
+   * @throws IOException when
+   */
+  public boolean isMapped( FlowProcess<? extends Properties> flowProcess ) throws IOException
+    {
+    if( !Boolean.parseBoolean( flowProcess.getStringProperty( LocalFlowProps.SOURCE_MMAP ) ) )
+      return false;
+
+    return isSplittable( flowProcess.getConfig() ) && MappedFileInputStream.isMappable( new File( getIdentifier() ).length() );
+    }
+
   @Override
   public TupleEntryCollector openForWrite( FlowProcess<? extends Properties> flowProcess, OutputStream output ) throws IOException
     {
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tap.local.io;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Class FileRangeInputStream reads the lines of a file whose first byte falls within the given byte range.
+ * <p/>
+ * If the range does not start at the beginning of the file, any partial line at the start of the range is skipped,
+ * as it belongs to the previous range. The last line is read through to its end, even if past the end of the range.
+ * Thus adjacent ranges read every line of a file exactly once.
+ * <p/>
+ * Only line-feed terminated lines are supported, in character sets where a line-feed is encoded as a single byte.
+ *
+ * @see #isSupported(String)
+ */
+public class FileRangeInputStream extends InputStream
+  {
+  private static final byte LINE_FEED = '\n';
+
+  private final InputStream inputStream;
+  private final long start;
+  private final long end;
+
+  private final byte[] buffer = new byte[ 64 * 1024 ];
+  private final byte[] single = new byte[ 1 ];
+  private int bufferPos = 0;
+  private int bufferLen = 0;
+
+  /** absolute position in the file of the next byte to be read */
+  private long position;
+  private byte lastByte = LINE_FEED;
+  private boolean complete = false;
+
+  /**
+   * Method isSupported returns true if the given charset encodes a line-feed as a single byte, so line boundaries
+   * may be found without decoding the file.
+   *
+   * @param charsetName of type String
+   * @return boolean
+   */
+  public static boolean isSupported( String charsetName )
+    {
+    return Arrays.equals( "\n".getBytes( Charset.forName( charsetName ) ), new byte[]{LINE_FEED} );
+    }
+
+  /**
+   * Method isFileStart returns false if the given input is a FileRangeInputStream or {@link MappedFileInputStream}
+   * not beginning at the start of the file, and so will not return any header line.
+   *
+   * @param inputStream of type InputStream
+   * @return boolean
+   */
+  public static boolean isFileStart( InputStream inputStream )
+    {
+    if( inputStream instanceof MappedFileInputStream )
+      return ( (MappedFileInputStream) inputStream ).getStart() == 0;
+
+    return !( inputStream instanceof FileRangeInputStream ) || ( (FileRangeInputStream) inputStream ).getStart() == 0;
+    }
+
+  public FileRangeInputStream( String path, long start, long end ) throws IOException
+    {
+    if( start < 0 || end < start )
+      throw new IllegalArgumentException( "invalid range, start: " + start + ", end: " + end );
+
+    this.start = start;
+    this.end = end;
+
+    FileInputStream fileInputStream = new FileInputStream( path );
+
+    this.inputStream = fileInputStream;
+
+    if( start == 0 )
+      return;
+
+    // back up one byte, if it is a line-feed, the line at start belongs to this range
+    position = start - 1;
+
+    try
+      {
+      fileInputStream.getChannel().position( position );
+
+      skipPartialLine();
+      }
+    catch( IOException exception )
+      {
+      fileInputStream.close();
+      throw exception;
+      }
+    }
+
+  public long getStart()
+    {
+    return start;
+    }
+
+  public long getEnd()
+    {
+    return end;
+    }
+
+  private void skipPartialLine() throws IOException
+    {
+    while( true )
+      {
+      if( bufferPos == bufferLen && !fill() )
+        {
+        complete = true;
+        return;
+        }
+
+      position++;
+
+      if( buffer[ bufferPos++ ] == LINE_FEED )
+        return;
+      }
+    }
+
+  private boolean fill() throws IOException
+    {
+    bufferPos = 0;
+    bufferLen = Math.max( inputStream.read( buffer ), 0 );
+
+    return bufferLen != 0;
+    }
+
+  private boolean isComplete()
+    {
+    return complete || position >= end && lastByte == LINE_FEED;
+    }
+
+  @Override
+  public int read() throws IOException
+    {
+    if( read( single, 0, 1 ) == -1 )
+      return -1;
+
+    return single[ 0 ] & 0xFF;
+    }
+
+  @Override
+  public int read( byte[] bytes, int offset, int length ) throws IOException
+    {
+    if( length == 0 )
+      return 0;
+
+    int count = 0;
+
+    while( count < length && !isComplete() )
+      {
+      if( bufferPos == bufferLen && !fill() )
+        {
+        complete = true;
+        break;
+        }
+
+      if( position < end )
+        {
+        int size = (int) Math.min( Math.min( length - count, bufferLen - bufferPos ), end - position );
+
+        System.arraycopy( buffer, bufferPos, bytes, offset + count, size );
+
+        bufferPos += size;
+        position += size;
+        count += size;
+        }
+      else
+        {
+        // past the end of the range, finish the current line
+        bytes[ offset + count++ ] = buffer[ bufferPos++ ];
+        position++;
+        }
+
+      lastByte = bytes[ offset + count - 1 ];
+      }
+
+    return count == 0 ? -1 : count;
+    }
+
+  @Override
+  public void close() throws IOException
+    {
+    inputStream.close();
+    }
+  }
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tap.local.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Class MappedFileInputStream reads a file, or the lines of a file whose first byte falls within a given byte range,
+ * through a read-only {@link java.nio.MappedByteBuffer}.
+ * <p/>
+ * Ranges are line aligned exactly as with {@link FileRangeInputStream}.
+ * <p/>
+ * Readers aware of this class may scan the underlying bytes directly via {@link #getBuffer()}, all others read it
+ * as any other InputStream.
+ * <p/>
+ * Files larger than {@link Integer#MAX_VALUE} bytes cannot be mapped, see {@link #isMappable(long)}.
+ */
+public class MappedFileInputStream extends InputStream
+  {
+  private static final byte LINE_FEED = '\n';
+
+  private final long start;
+  private final ByteBuffer buffer;
+
+  /**
+   * Method isMappable returns true if a file of the given length can be mapped as a single buffer.
+   *
+   * @param length of type long
+   * @return boolean
+   */
+  public static boolean isMappable( long length )
+    {
+    return length <= Integer.MAX_VALUE;
+    }
+
+  public MappedFileInputStream( String path ) throws IOException
+    {
+    this( path, 0, Long.MAX_VALUE );
+    }
+
+  public MappedFileInputStream( String path, long start, long end ) throws IOException
+    {
+    if( start < 0 || end < start )
+      throw new IllegalArgumentException( "invalid range, start: " + start + ", end: " + end );
+
+    this.start = start;
+
+    try( RandomAccessFile file = new RandomAccessFile( path, "r" ); FileChannel channel = file.getChannel() )
+      {
+      long length = channel.size();
+
+      if( !isMappable( length ) )
+        throw new IOException( "file too large to map: " + path + ", length: " + length );
+
+      // the mapping remains valid after the channel is closed
+      ByteBuffer mapped = channel.map( FileChannel.MapMode.READ_ONLY, 0, length );
+
+      int limit = (int) Math.min( end, length );
+      int from = start == 0 ? 0 : lineEndFrom( mapped, (int) Math.min( start - 1, length ) );
+      int to = limit == length || limit == 0 ? limit : lineEndFrom( mapped, limit - 1 );
+
+      mapped.limit( Math.max( from, to ) );
+      mapped.position( from );
+
+      this.buffer = mapped.slice();
+      }
+    }
+
+  /** Returns the position after the first line-feed found at or after the given position. */
+  private static int lineEndFrom( ByteBuffer buffer, int position )
+    {
+    int limit = buffer.limit();
+
+    for( int i = position; i < limit; i++ )
+      {
+      if( buffer.get( i ) == LINE_FEED )
+        return i + 1;
+      }
+
+    return limit;
+    }
+
+  public long getStart()
+    {
+    return start;
+    }
+
+  /**
+   * Method getBuffer returns a new read-only view of the remaining bytes of this stream, starting at position zero.
+   * Reading from the view does not advance this stream.
+   *
+   * @return ByteBuffer
+   */
+  public ByteBuffer getBuffer()
+    {
+    return buffer.slice().asReadOnlyBuffer();
+    }
+
+  @Override
+  public int read() throws IOException
+    {
+    if( !buffer.hasRemaining() )
+      return -1;
+
+    return buffer.get() & 0xFF;
+    }
+
+  @Override
+  public int read( byte[] bytes, int offset, int length ) throws IOException
+    {
+    if( length == 0 )
+      return 0;
+
+    if( !buffer.hasRemaining() )
+      return -1;
+
+    int size = Math.min( length, buffer.remaining() );
+
+    buffer.get( bytes, offset, size );
+
+    return size;
+    }
+
+  @Override
+  public long skip( long count ) throws IOException
+    {
+    int size = (int) Math.max( 0, Math.min( count, buffer.remaining() ) );
+
+    buffer.position( buffer.position() + size );
+
+    return size;
+    }
+
+  @Override
+  public int available() throws IOException
+    {
+    return buffer.remaining();
+    }
+
+  @Override
+  public void close() throws IOException
+    {
+    buffer.position( buffer.limit() );
+    }
+  }
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tap.local.io;
+
+import java.io.LineNumberReader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Class MappedLineReader finds the lines of a {@link MappedFileInputStream} by scanning its bytes directly, and only
+ * decodes the bytes of a line, or a part of a line, when asked.
+ * <p/>
+ * As with {@link LineNumberReader}, a line is terminated by a line-feed, a carriage-return, or a carriage-return
+ * followed by a line-feed.
+ * <p/>
+ * Only {@link #readLine()} and the byte level methods are supported, all character level read methods throw
+ * an {@link UnsupportedOperationException}.
+ * <p/>
+ * Only character sets where any byte below 0x80 always represents the equivalent ASCII character are supported,
+ * see {@link #isSupported(Charset)}.
+ */
+public class MappedLineReader extends LineNumberReader
+  {
+  private static final byte LINE_FEED = '\n';
+  private static final byte CARRIAGE_RETURN = '\r';
+
+  private final ByteBuffer buffer;
+  private final ByteBuffer reading;
+  private final Charset charset;
+  private final int limit;
+
+  private int position = 0;
+  private int lineStart = 0;
+  private int lineEnd = 0;
+  private int lineNumber = 0;
+  private byte[] bytes = new byte[ 1024 ];
+
+  /**
+   * Method isSupported returns true if the given charset is UTF-8, US-ASCII, or ISO-8859-1. In these character sets
+   * line terminators and ASCII delimiters never appear within the encoding of another character.
+   *
+   * @param charset of type Charset
+   * @return boolean
+   */
+  public static boolean isSupported( Charset charset )
+    {
+    String name = charset.name();
+
+    return name.equals( "UTF-8" ) || name.equals( "US-ASCII" ) || name.equals( "ISO-8859-1" );
+    }
+
+  public MappedLineReader( MappedFileInputStream inputStream, Charset charset )
+    {
+    super( new StringReader( "" ) ); // all lines are served from the buffer
+
+    this.buffer = inputStream.getBuffer();
+    this.reading = buffer.duplicate();
+    this.charset = charset;
+    this.limit = buffer.limit();
+    }
+
+  /**
+   * Method nextLine advances to the next line, returning false if there are no more lines.
+   *
+   * @return boolean
+   */
+  public boolean nextLine()
+    {
+    if( position >= limit )
+      return false;
+
+    int index = position;
+
+    while( index < limit )
+      {
+      byte current = buffer.get( index );
+
+      if( current == LINE_FEED || current == CARRIAGE_RETURN )
+        break;
+
+      index++;
+      }
+
+    lineStart = position;
+    lineEnd = index;
+
+    if( index < limit )
+      {
+      if( buffer.get( index ) == CARRIAGE_RETURN && index + 1 < limit && buffer.get( index + 1 ) == LINE_FEED )
+        index++;
+
+      index++;
+      }
+
+    position = index;
+    lineNumber++;
+
+    return true;
+    }
+
+  /** Returns the buffer position of the first byte of the current line. */
+  public int getLineStart()
+    {
+    return lineStart;
+    }
+
+  /** Returns the buffer position after the last byte of the current line, excluding any line terminator. */
+  public int getLineEnd()
+    {
+    return lineEnd;
+    }
+
+  /**
+   * Method indexOf returns the position of the first occurrence of the given bytes within the given range of
+   * the buffer, or -1 if not found.
+   *
+   * @param sequence of type byte[]
+   * @param from     of type int
+   * @param to       of type int
+   * @return int
+   */
+  public int indexOf( byte[] sequence, int from, int to )
+    {
+    byte first = sequence[ 0 ];
+    int last = to - sequence.length;
+
+    for( int i = from; i <= last; i++ )
+      {
+      if( buffer.get( i ) != first )
+        continue;
+
+      int j = 1;
+
+      while( j < sequence.length && buffer.get( i + j ) == sequence[ j ] )
+        j++;
+
+      if( j == sequence.length )
+        return i;
+      }
+
+    return -1;
+    }
+
+  /**
+   * Method decode returns the String value of the given range of the buffer.
+   *
+   * @param from of type int
+   * @param to   of type int
+   * @return String
+   */
+  public String decode( int from, int to )
+    {
+    int length = to - from;
+
+    if( length == 0 )
+      return "";
+
+    if( bytes.length < length )
+      bytes = new byte[ Math.max( length, bytes.length * 2 ) ];
+
+    reading.position( from );
+    reading.get( bytes, 0, length );
+
+    return new String( bytes, 0, length, charset );
+    }
+
+  /** Returns the current line as a String. */
+  public String decodeLine()
+    {
+    return decode( lineStart, lineEnd );
+    }
+
+  @Override
+  public String readLine()
+    {
+    if( !nextLine() )
+      return null;
+
+    return decodeLine();
+    }
+
+  @Override
+  public int getLineNumber()
+    {
+    return lineNumber;
+    }
+
+  @Override
+  public void setLineNumber( int lineNumber )
+    {
+    this.lineNumber = lineNumber;
+    }
+
+  @Override
+  public int read()
+    {
+    throw new UnsupportedOperationException( "only line reads are supported" );
+    }
+
+  @Override
+  public int read( char[] chars, int offset, int length )
+    {
+    throw new UnsupportedOperationException( "only line reads are supported" );
+    }
+
+  @Override
+  public long skip( long count )
+    {
+    throw new UnsupportedOperationException( "only line reads are supported" );
+    }
+
+  @Override
+  public boolean ready()
+    {
+    return position < limit;
+    }
+
+  @Override
+  public boolean markSupported()
+    {
+    return false;
+    }
+
+  @Override
+  public void close()
+    {
+    position = limit;
+    }
+  }
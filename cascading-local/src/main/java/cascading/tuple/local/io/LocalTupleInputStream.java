@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tuple.local.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+
+import cascading.tuple.io.IndexTuple;
+import cascading.tuple.io.TupleInputStream;
+
+/**
+ * Class LocalTupleInputStream is used by the local mode platform to read {@link cascading.tuple.Tuple} instances
+ * written by a {@link LocalTupleOutputStream}.
+ */
+public class LocalTupleInputStream extends TupleInputStream
+  {
+  /**
+   * Class SerializableElementReader reads any element written by
+   * {@link cascading.tuple.local.io.LocalTupleOutputStream.SerializableElementWriter}.
+   */
+  public static class SerializableElementReader implements ElementReader
+    {
+    @Override
+    public Object read( int token, DataInputStream inputStream ) throws IOException
+      {
+      if( token != LocalTupleOutputStream.SERIALIZABLE_TOKEN )
+        throw new IOException( "unknown tuple element token: " + token );
+
+      byte[] bytes = new byte[ readVInt( inputStream ) ];
+
+      inputStream.readFully( bytes );
+
+      try( ObjectInputStream objectInputStream = new ObjectInputStream( new ByteArrayInputStream( bytes ) ) )
+        {
+        return objectInputStream.readObject();
+        }
+      catch( ClassNotFoundException exception )
+        {
+        throw new IOException( "unable to read serialized tuple element", exception );
+        }
+      }
+
+    @Override
+    public Object read( Class type, DataInputStream inputStream ) throws IOException
+      {
+      return ( (TupleInputStream) inputStream ).getNextElement();
+      }
+
+    @Override
+    public Comparator getComparatorFor( int type, DataInputStream inputStream ) throws IOException
+      {
+      return null;
+      }
+
+    @Override
+    public void close()
+      {
+      }
+    }
+
+  /**
+   * Method readVInt reads a variable length int written by {@link LocalTupleOutputStream#writeVInt}.
+   *
+   * @param stream of type DataInputStream
+   * @return int
+   * @throws IOException when
+   */
+  public static int readVInt( DataInputStream stream ) throws IOException
+    {
+    int value = 0;
+    int shift = 0;
+    int b;
+
+    do
+      {
+      b = stream.readUnsignedByte();
+      value |= ( b & 0x7F ) << shift;
+      shift += 7;
+      }
+    while( ( b & 0x80 ) != 0 );
+
+    return value;
+    }
+
+  public static String readString( DataInputStream stream ) throws IOException
+    {
+    byte[] bytes = new byte[ readVInt( stream ) ];
+
+    stream.readFully( bytes );
+
+    return new String( bytes, StandardCharsets.UTF_8 );
+    }
+
+  public LocalTupleInputStream( InputStream inputStream )
+    {
+    this( inputStream, new SerializableElementReader() );
+    }
+
+  public LocalTupleInputStream( InputStream inputStream, ElementReader elementReader )
+    {
+    super( inputStream, elementReader );
+    }
+
+  @Override
+  public int getNumElements() throws IOException
+    {
+    return readVInt( this );
+    }
+
+  @Override
+  public int readToken() throws IOException
+    {
+    return readVInt( this );
+    }
+
+  @Override
+  public Object getNextElement() throws IOException
+    {
+    return readType( readToken() );
+    }
+
+  @Override
+  public IndexTuple readIndexTuple( IndexTuple tuple ) throws IOException
+    {
+    tuple.setIndex( readVInt( this ) );
+    tuple.setTuple( readTuple() );
+
+    return tuple;
+    }
+
+  @Override
+  protected final Object readType( int type ) throws IOException
+    {
+    switch( type )
+      {
+      case 0:
+        return null;
+      case 1:
+        return readString( this );
+      case 2:
+        return readFloat();
+      case 3:
+        return readDouble();
+      case 4:
+        return readInt();
+      case 5:
+        return readLong();
+      case 6:
+        return readBoolean();
+      case 7:
+        return readShort();
+      case 8:
+        return readTuple();
+      case 9:
+        return readTuplePair();
+      case 10:
+        return readIndexTuple();
+      default:
+        return elementReader.read( type, this );
+      }
+    }
+
+  @Override
+  public final Object readType( Class type ) throws IOException
+    {
+    return elementReader.read( type, this );
+    }
+  }
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.tuple.local.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleException;
+import cascading.tuple.io.IndexTuple;
+import cascading.tuple.io.TupleOutputStream;
+import cascading.tuple.io.TuplePair;
+
+/**
+ * Class LocalTupleOutputStream is used by the local mode platform to write {@link Tuple} instances to temporary
+ * storage, for example when spilling.
+ * <p/>
+ * Common Java types are written in a compact form, all other types must implement {@link java.io.Serializable}.
+ *
+ * @see LocalTupleInputStream
+ */
+public class LocalTupleOutputStream extends TupleOutputStream
+  {
+  /** Field SERIALIZABLE_TOKEN */
+  public static final int SERIALIZABLE_TOKEN = 32;
+
+  private static final Map<Class, TupleElementWriter> staticTupleUnTypedElementWriters = new IdentityHashMap<Class, TupleElementWriter>();
+  private static final Map<Class, TupleElementWriter> staticTupleTypedElementWriters = new IdentityHashMap<Class, TupleElementWriter>();
+
+  static
+    {
+    staticTupleUnTypedElementWriters.put( String.class, new TupleElementWriter()
+    {
+    @Override
+    public void write( TupleOutputStream stream, Object element ) throws IOException
+      {
+      writeVInt( stream, 1 );
+      writeString( stream, (String) element );
+      }
+    } );
+
+    staticTupleUnTypedElementWriters.put( Float.class, new TupleElementWriter()
+    {
+    @Override
+    public void write( TupleOutputStream stream, Object element ) throws IOException
+      {
+      writeVInt( stream, 2 );
+      stream.writeFloat( (Float) element );
+      }
+    } );
+
+    staticTupleUnTypedElementWriters.put( Double.class, new TupleElementWriter()
+    {
+    @Override
+    public void write( TupleOutputStream stream, Object element ) throws IOException
+      {
+      writeVInt( stream, 3 );
+      stream.writeDouble( (Double) element );
+      }
+    } );
+
+    staticTupleUnTypedElementWriters.put( Integer.class, new TupleElementWriter()
+    {
+    @Override
+    public void write( TupleOutputStream stream, Object element ) throws IOException
+      {
+      writeVInt( stream, 4 );
+      stream.writeInt( (Integer) element );
+      }
+    } );
+
+    staticTupleUnTypedElementWriters.put( Long.class, new TupleElementWriter()
+    {
+    @Override
+    public void write( TupleOutputStream stream, Object element ) throws IOException
+      {
+      writeVInt( stream, 5 );
+      stream.writeLong( (Long) element );
+      }
+    } );
+
+    staticTupleUnTypedElementWriters.put( Boolean.class, new TupleElementWriter()
+    {
+    @Override
+    public void write( TupleOutputStream stream, Object element ) throws IOException
+      {
+      writeVInt( stream, 6 );
+      stream.writeBoolean( (Boolean) element );
+      }
+    } );
+
+    staticTupleUnTypedElementWriters.put( Short.class, new TupleElementWriter()
+    {
+    @Override
+    public void write( TupleOutputStream stream, Object element ) throws IOException
+      {
+      writeVInt( stream, 7 );
+      stream.writeShort( (Short) element );
+      }
+    } );
+
+    staticTupleUnTypedElementWriters.put( Tuple.class, new TupleElementWriter()
+    {
+    @Override
+    public void write( TupleOutputStream stream, Object element ) throws IOException
+      {
+      writeVInt( stream, 8 );
+      stream.writeTuple( (Tuple) element );
+      }
+    } );
+
+    staticTupleUnTypedElementWriters.put( TuplePair.class, new TupleElementWriter()
+    {
+    @Override
+    public void write( TupleOutputStream stream, Object element ) throws IOException
+      {
+      writeVInt( stream, 9 );
+      stream.writeTuplePair( (TuplePair) element );
+      }
+    } );
+
+    staticTupleUnTypedElementWriters.put( IndexTuple.class, new TupleElementWriter()
+    {
+    @Override
+    public void write( TupleOutputStream stream, Object element ) throws IOException
+      {
+      writeVInt( stream, 10 );
+      stream.writeIndexTuple( (IndexTuple) element );
+      }
+    } );
+    }
+
+  /**
+   * Method writeVInt writes the given int as a variable length value, seven bits at a time.
+   *
+   * @param stream of type DataOutputStream
+   * @param value  of type int
+   * @throws IOException when
+   */
+  public static void writeVInt( DataOutputStream stream, int value ) throws IOException
+    {
+    while( ( value & ~0x7F ) != 0 )
+      {
+      stream.writeByte( ( value & 0x7F ) | 0x80 );
+      value >>>= 7;
+      }
+
+    stream.writeByte( value );
+    }
+
+  public static void writeString( DataOutputStream stream, String value ) throws IOException
+    {
+    byte[] bytes = value.getBytes( StandardCharsets.UTF_8 );
+
+    writeVInt( stream, bytes.length );
+    stream.write( bytes );
+    }
+
+  /**
+   * Class SerializableElementWriter writes any element not natively supported using Java serialization. As the
+   * local platform does not carry type information, typed writes fall back to the token based untyped form.
+   */
+  public static class SerializableElementWriter implements ElementWriter
+    {
+    @Override
+    public void write( DataOutputStream outputStream, Object object ) throws IOException
+      {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+      try( ObjectOutputStream objectOutputStream = new ObjectOutputStream( bytes ) )
+        {
+        objectOutputStream.writeObject( object );
+        }
+      catch( NotSerializableException exception )
+        {
+        throw new TupleException( "unable to write tuple element, type must implement java.io.Serializable: " + object.getClass().getName(), exception );
+        }
+
+      writeVInt( outputStream, SERIALIZABLE_TOKEN );
+      writeVInt( outputStream, bytes.size() );
+      bytes.writeTo( outputStream );
+      }
+
+    @Override
+    public void write( DataOutputStream outputStream, Class<?> type, Object object ) throws IOException
+      {
+      ( (TupleOutputStream) outputStream ).writeElement( object );
+      }
+
+    @Override
+    public void close()
+      {
+      }
+    }
+
+  public LocalTupleOutputStream( OutputStream outputStream )
+    {
+    this( outputStream, new SerializableElementWriter() );
+    }
+
+  public LocalTupleOutputStream( OutputStream outputStream, ElementWriter elementWriter )
+    {
+    super( staticTupleUnTypedElementWriters, staticTupleTypedElementWriters, outputStream, elementWriter );
+    }
+
+  @Override
+  protected void writeIntInternal( int value ) throws IOException
+    {
+    writeVInt( this, value );
+    }
+
+  public void writeIndexTuple( IndexTuple indexTuple ) throws IOException
+    {
+    writeIntInternal( indexTuple.getIndex() );
+    writeTuple( indexTuple.getTuple() );
+    }
+  }
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.flow.local;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import cascading.PlatformTestCase;
+import cascading.flow.Flow;
+import cascading.flow.FlowException;
+import cascading.flow.FlowProcess;
+import cascading.operation.BaseOperation;
+import cascading.operation.Buffer;
+import cascading.operation.BufferCall;
+import cascading.operation.OperationException;
+import cascading.operation.aggregator.Count;
+import cascading.pipe.Each;
+import cascading.pipe.Every;
+import cascading.pipe.GroupBy;
+import cascading.pipe.Pipe;
+import cascading.operation.regex.RegexSplitter;
+import cascading.tap.SinkMode;
+import cascading.tap.Tap;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+import org.junit.Test;
+
+import static data.InputData.inputFileApache;
+import static data.InputData.inputFileLhs;
+
+/**
+ *
+ */
+public class LocalGroupPartitionPlatformTest extends PlatformTestCase
+  {
+  static final Set<String> threads = Collections.newSetFromMap( new ConcurrentHashMap<String, Boolean>() );
+
+  /** Concatenates all values of a group in the order received. */
+  public static class ConcatBuffer extends BaseOperation implements Buffer
+    {
+    public ConcatBuffer()
+      {
+      super( new Fields( "concat" ) );
+      }
+
+    @Override
+    public void operate( FlowProcess flowProcess, BufferCall bufferCall )
+      {
+      threads.add( Thread.currentThread().getName() );
+
+      StringBuilder builder = new StringBuilder();
+      Iterator<TupleEntry> iterator = bufferCall.getArgumentsIterator();
+
+      while( iterator.hasNext() )
+        builder.append( iterator.next().getString( "lower" ) );
+
+      bufferCall.getOutputCollector().add( new Tuple( builder.toString() ) );
+      }
+    }
+
+  /** Fails on the given key. */
+  public static class FailBuffer extends BaseOperation implements Buffer
+    {
+    @Override
+    public void operate( FlowProcess flowProcess, BufferCall bufferCall )
+      {
+      if( bufferCall.getGroup().getString( 0 ).equals( "3" ) )
+        throw new OperationException( "failed on group" );
+      }
+    }
+
+  @Test
+  public void testPartitionedCount() throws Exception
+    {
+    Flow flow = createCountFlow( "count/partitioned", 4 );
+
+    flow.complete();
+
+    Flow expectedFlow = createCountFlow( "count/single", 1 );
+
+    expectedFlow.complete();
+
+    List<Tuple> results = getSinkAsList( flow );
+    List<Tuple> expected = getSinkAsList( expectedFlow );
+
+    Collections.sort( results );
+    Collections.sort( expected );
+
+    assertEquals( 10, results.size() );
+    assertEquals( expected, results );
+    }
+
+  @Test
+  public void testPartitionedSortedBuffer() throws Exception
+    {
+    threads.clear();
+
+    Tap source = getPlatform().getDelimitedFile( new Fields( "num", "lower" ), " ", inputFileLhs );
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "num", "concat" ), "\t", getOutputPath( "buffer" ), SinkMode.REPLACE );
+
+    Pipe pipe = new GroupBy( new Pipe( "test" ), new Fields( "num" ), new Fields( "lower" ), true );
+
+    pipe = new Every( pipe, new Fields( "lower" ), new ConcatBuffer(), new Fields( "num", "concat" ) );
+
+    Flow flow = getPlatform().getFlowConnector( partitionProperties() ).connect( source, sink, pipe );
+
+    flow.complete();
+
+    List<Tuple> results = getSinkAsList( flow );
+
+    Collections.sort( results );
+
+    assertEquals( 5, results.size() );
+    assertEquals( new Tuple( "1", "cba" ), results.get( 0 ) );
+    assertEquals( new Tuple( "2", "dcb" ), results.get( 1 ) );
+    assertEquals( new Tuple( "3", "c" ), results.get( 2 ) );
+    assertEquals( new Tuple( "4", "dcb" ), results.get( 3 ) );
+    assertEquals( new Tuple( "5", "eba" ), results.get( 4 ) );
+
+    assertTrue( "used threads: " + threads, threads.size() > 1 );
+    }
+
+  @Test
+  public void testPartitionedFailure() throws Exception
+    {
+    Tap source = getPlatform().getDelimitedFile( new Fields( "num", "lower" ), " ", inputFileLhs );
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "num", "lower" ), "\t", getOutputPath( "failure" ), SinkMode.REPLACE );
+
+    Pipe pipe = new GroupBy( new Pipe( "test" ), new Fields( "num" ) );
+
+    pipe = new Every( pipe, new FailBuffer(), Fields.RESULTS );
+
+    Flow flow = getPlatform().getFlowConnector( partitionProperties() ).connect( source, sink, pipe );
+
+    try
+      {
+      flow.complete();
+      fail( "did not fail" );
+      }
+    catch( FlowException exception )
+      {
+      // expected
+      }
+    }
+
+  private Flow createCountFlow( String path, int numPartitions )
+    {
+    Tap source = getPlatform().getTextFile( new Fields( "line" ), inputFileApache );
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "ip", "count" ), "\t", getOutputPath( path ), SinkMode.REPLACE );
+
+    Pipe pipe = new Each( new Pipe( "test" ), new Fields( "line" ), new RegexSplitter( new Fields( "ip" ), "\\s+" ), new Fields( "ip" ) );
+
+    pipe = new GroupBy( pipe, new Fields( "ip" ) );
+    pipe = new Every( pipe, new Count(), new Fields( "ip", "count" ) );
+
+    Properties properties = LocalFlowProps.localFlowProps()
+      .setGroupPartitions( numPartitions )
+      .buildProperties();
+
+    return getPlatform().getFlowConnector( properties ).connect( source, sink, pipe );
+    }
+
+  private Properties partitionProperties()
+    {
+    return LocalFlowProps.localFlowProps()
+      .setGroupPartitions( 4 )
+      .buildProperties();
+    }
+  }
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.flow.local;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import cascading.PlatformTestCase;
+import cascading.flow.Flow;
+import cascading.pipe.Pipe;
+import cascading.scheme.Scheme;
+import cascading.scheme.local.TextDelimited;
+import cascading.scheme.local.TextLine;
+import cascading.tap.SinkMode;
+import cascading.tap.Tap;
+import cascading.tap.local.FileTap;
+import cascading.tap.local.io.MappedFileInputStream;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class LocalSourceMmapPlatformTest extends PlatformTestCase
+  {
+  private static final String LINES = "num,name,value\r\n" +
+    "1,a,1.5\n" +
+    "2,\"b,c\",2.5\n" +
+    "3,,\n" +
+    "4,d\n" +
+    "5,e,not-a-number\r\n" +
+    "\n" +
+    "6,f,6.5,extra\r" +
+    "7,ü,7.5";
+
+  @Test
+  public void testMappedFileInputStream() throws IOException
+    {
+    File file = writeFile( "ranges", LINES );
+    long length = file.length();
+    byte[] expected = Files.readAllBytes( file.toPath() );
+
+    for( long splitSize = 1; splitSize < length + 2; splitSize += 3 )
+      {
+      ByteBuffer buffer = ByteBuffer.allocate( expected.length );
+
+      for( long start = 0; start < length; start += splitSize )
+        {
+        try( MappedFileInputStream inputStream = new MappedFileInputStream( file.getPath(), start, Math.min( length, start + splitSize ) ) )
+          {
+          int read;
+
+          while( ( read = inputStream.read() ) != -1 )
+            buffer.put( (byte) read );
+          }
+        }
+
+      assertEquals( "split size: " + splitSize, ByteBuffer.wrap( expected ), buffer.flip() );
+      }
+    }
+
+  @Test
+  public void testMappedTextLine() throws IOException
+    {
+    File file = writeFile( "textline", LINES );
+
+    assertMapped( file, new TextLine( new Fields( "num", "line" ) ), new Properties() );
+    }
+
+  @Test
+  public void testMappedTextDelimited() throws IOException
+    {
+    File file = writeFile( "delimited", LINES );
+    Fields fields = new Fields( "num", "name", "value" ).applyTypes( Integer.class, String.class, Double.class );
+
+    assertMapped( file, new TextDelimited( fields, true, true, ",", false, "\"", null, true ), new Properties() );
+    }
+
+  @Test
+  public void testMappedTextDelimitedUnquoted() throws IOException
+    {
+    File file = writeFile( "unquoted", LINES );
+
+    assertMapped( file, new TextDelimited( Fields.UNKNOWN, true, true, ",", false, null, null, true ), new Properties() );
+    }
+
+  @Test
+  public void testMappedSplitTextDelimited() throws IOException
+    {
+    StringBuilder builder = new StringBuilder( "num\tvalue\n" );
+
+    for( int i = 0; i < 1000; i++ )
+      builder.append( i ).append( "\tvalue" ).append( i ).append( "\n" );
+
+    File file = writeFile( "split", builder.toString() );
+
+    Properties properties = LocalFlowProps.localFlowProps()
+      .setSourceSplitsMax( 4 )
+      .setSourceSplitSizeMin( 1024 )
+      .buildProperties();
+
+    assertMapped( file, new TextDelimited( true, "\t" ), properties );
+    }
+
+  private void assertMapped( File file, Scheme scheme, Properties properties ) throws IOException
+    {
+    List<Tuple> expected = read( file, scheme, properties, "unmapped" );
+
+    Properties mapped = new Properties( properties );
+
+    mapped.setProperty( LocalFlowProps.SOURCE_MMAP, "true" );
+
+    List<Tuple> results = read( file, scheme, mapped, "mapped" );
+
+    Collections.sort( expected );
+    Collections.sort( results );
+
+    assertEquals( expected, results );
+    }
+
+  private List<Tuple> read( File file, Scheme scheme, Properties properties, String name ) throws IOException
+    {
+    Tap source = new FileTap( scheme, file.getPath() );
+    Tap sink = new FileTap( new TextLine(), getOutputPath( file.getParentFile().getName() + "/" + name ), SinkMode.REPLACE );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( source, sink, new Pipe( "mmap" ) );
+
+    flow.complete();
+
+    List<Tuple> results = new ArrayList<>();
+
+    for( Tuple tuple : getSinkAsList( flow ) )
+      results.add( new Tuple( tuple.getString( 1 ) ) ); // drop the offset
+
+    return results;
+    }
+
+  private File writeFile( String name, String value ) throws IOException
+    {
+    File file = new File( getOutputPath( name + "/source.txt" ) );
+
+    file.getParentFile().mkdirs();
+
+    try( PrintWriter writer = new PrintWriter( file, "UTF-8" ) )
+      {
+      writer.print( value );
+      }
+
+    return file;
+    }
+  }
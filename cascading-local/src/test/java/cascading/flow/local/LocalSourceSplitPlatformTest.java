@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.flow.local;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import cascading.PlatformTestCase;
+import cascading.flow.Flow;
+import cascading.flow.FlowProcess;
+import cascading.operation.BaseOperation;
+import cascading.operation.Filter;
+import cascading.operation.FilterCall;
+import cascading.operation.filter.Limit;
+import cascading.pipe.Each;
+import cascading.pipe.Pipe;
+import cascading.scheme.local.TextDelimited;
+import cascading.scheme.local.TextLine;
+import cascading.tap.SinkMode;
+import cascading.tap.Tap;
+import cascading.tap.local.FileTap;
+import cascading.tap.local.io.FileRangeInputStream;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class LocalSourceSplitPlatformTest extends PlatformTestCase
+  {
+  public static final String SPLIT_GROUP = "split";
+
+  /** Counts the tuples seen by each slice. */
+  public static class SliceCounter extends BaseOperation implements Filter
+    {
+    @Override
+    public boolean isRemove( FlowProcess flowProcess, FilterCall filterCall )
+      {
+      flowProcess.increment( SPLIT_GROUP, "slice-" + flowProcess.getCurrentSliceNum(), 1 );
+
+      return false;
+      }
+    }
+
+  @Test
+  public void testFileRangeInputStream() throws IOException
+    {
+    File file = writeLines( "ranges", 1000, false );
+    long length = file.length();
+
+    for( long splitSize = 1; splitSize < 200; splitSize += 7 )
+      {
+      StringBuilder builder = new StringBuilder();
+
+      for( long start = 0; start < length; start += splitSize )
+        {
+        try( FileRangeInputStream inputStream = new FileRangeInputStream( file.getPath(), start, Math.min( length, start + splitSize ) ) )
+          {
+          int read;
+
+          while( ( read = inputStream.read() ) != -1 )
+            builder.append( (char) read );
+          }
+        }
+
+      assertEquals( "split size: " + splitSize, readFile( file ), builder.toString() );
+      }
+    }
+
+  @Test
+  public void testSplitTextLine() throws IOException
+    {
+    File file = writeLines( "textline", 1000, false );
+
+    Tap source = new FileTap( new TextLine( new Fields( "line" ) ), file.getPath() );
+    Tap sink = new FileTap( new TextLine( new Fields( "line" ) ), getOutputPath( "textline/sink" ), SinkMode.REPLACE );
+
+    Pipe pipe = new Each( new Pipe( "split" ), new SliceCounter() );
+
+    Flow flow = getPlatform().getFlowConnector( splitProperties() ).connect( source, sink, pipe );
+
+    flow.complete();
+
+    assertEquals( 4, flow.getFlowStats().getCountersFor( SPLIT_GROUP ).size() );
+    assertEquals( sortedLines( readFile( file ) ), sortedLines( readFile( new File( sink.getIdentifier() ) ) ) );
+    }
+
+  @Test
+  public void testSplitTextDelimitedHeader() throws IOException
+    {
+    File file = writeLines( "delimited", 1000, true );
+
+    Tap source = new FileTap( new TextDelimited( true, "\t" ), file.getPath() );
+    Tap sink = new FileTap( new TextDelimited( true, "\t" ), getOutputPath( "delimited/sink" ), SinkMode.REPLACE );
+
+    Pipe pipe = new Each( new Pipe( "split" ), new SliceCounter() );
+
+    Flow flow = getPlatform().getFlowConnector( splitProperties() ).connect( source, sink, pipe );
+
+    flow.complete();
+
+    assertEquals( 4, flow.getFlowStats().getCountersFor( SPLIT_GROUP ).size() );
+
+    List<Tuple> results = getSinkAsList( flow );
+
+    assertEquals( 1000, results.size() );
+
+    for( Tuple result : results )
+      assertFalse( result.getString( 0 ).equals( "num" ) );
+
+    assertEquals( sortedLines( readFile( file ) ), sortedLines( readFile( new File( sink.getIdentifier() ) ) ) );
+    }
+
+  @Test
+  public void testSplitLimit() throws IOException
+    {
+    File file = writeLines( "limit", 1000, false );
+
+    Tap source = new FileTap( new TextLine( new Fields( "line" ) ), file.getPath() );
+    Tap sink = new FileTap( new TextLine( new Fields( "line" ) ), getOutputPath( "limit/sink" ), SinkMode.REPLACE );
+
+    Pipe pipe = new Each( new Pipe( "split" ), new Limit( 100 ) );
+
+    Flow flow = getPlatform().getFlowConnector( splitProperties() ).connect( source, sink, pipe );
+
+    flow.complete();
+
+    assertEquals( 100, getSinkAsList( flow ).size() );
+    }
+
+  private Properties splitProperties()
+    {
+    return LocalFlowProps.localFlowProps()
+      .setSourceSplitsMax( 4 )
+      .setSourceSplitSizeMin( 1024 )
+      .buildProperties();
+    }
+
+  private File writeLines( String name, int count, boolean header ) throws IOException
+    {
+    File file = new File( getOutputPath( name + "/source.txt" ) );
+
+    file.getParentFile().mkdirs();
+
+    try( PrintWriter writer = new PrintWriter( file, "UTF-8" ) )
+      {
+      if( header )
+        writer.print( "num\tvalue\n" );
+
+      for( int i = 0; i < count; i++ )
+        writer.print( i + "\tvalue" + i + "\n" );
+      }
+
+    return file;
+    }
+
+  private String readFile( File file ) throws IOException
+    {
+    StringBuilder builder = new StringBuilder();
+
+    try( FileInputStream inputStream = new FileInputStream( file ) )
+      {
+      int read;
+
+      while( ( read = inputStream.read() ) != -1 )
+        builder.append( (char) read );
+      }
+
+    return builder.toString();
+    }
+
+  private List<String> sortedLines( String value )
+    {
+    List<String> lines = new ArrayList<>();
+
+    Collections.addAll( lines, value.split( "\n" ) );
+    Collections.sort( lines );
+
+    return lines;
+    }
+  }
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.flow.local.stream.duct;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import cascading.CascadingTestCase;
+import cascading.flow.local.LocalFlowProps.WaitStrategy;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class MessageRingTest extends CascadingTestCase
+  {
+  public MessageRingTest()
+    {
+    }
+
+  @Test
+  public void testUnboundedSpin() throws Exception
+    {
+    runBroadcast( 10000, 0, WaitStrategy.SPIN );
+    }
+
+  @Test
+  public void testUnboundedYield() throws Exception
+    {
+    runBroadcast( 10000, 0, WaitStrategy.YIELD );
+    }
+
+  @Test
+  public void testUnboundedBlock() throws Exception
+    {
+    runBroadcast( 10000, 0, WaitStrategy.BLOCK );
+    }
+
+  @Test
+  public void testBoundedSpin() throws Exception
+    {
+    runBroadcast( 1000, 3, WaitStrategy.SPIN );
+    }
+
+  @Test
+  public void testBoundedBlock() throws Exception
+    {
+    runBroadcast( 1000, 3, WaitStrategy.BLOCK );
+    }
+
+  @Test
+  public void testBoundedClosedConsumer() throws Exception
+    {
+    MessageRing<Integer> ring = new MessageRing<>( 2, 4, 2, WaitStrategy.BLOCK );
+
+    ring.getConsumer( 1 ).close();
+
+    // would wait forever on the second consumer if not closed
+    for( int i = 0; i < 2; i++ )
+      ring.publish( i );
+
+    assertEquals( 0, (int) ring.getConsumer( 0 ).take() );
+    assertEquals( 1, (int) ring.getConsumer( 0 ).take() );
+    }
+
+  private void runBroadcast( final int numItems, int capacity, WaitStrategy waitStrategy ) throws Exception
+    {
+    final int numConsumers = 3;
+    final MessageRing<Integer> ring = new MessageRing<>( numConsumers, 7, capacity, waitStrategy );
+
+    ExecutorService executor = Executors.newFixedThreadPool( numConsumers );
+    List<Future<Long>> futures = new ArrayList<>();
+
+    for( int i = 0; i < numConsumers; i++ )
+      {
+      final MessageRing<Integer>.Consumer consumer = ring.getConsumer( i );
+
+      futures.add( executor.submit( new Callable<Long>()
+        {
+        @Override
+        public Long call() throws Exception
+          {
+          long sum = 0;
+
+          for( int j = 0; j < numItems; j++ )
+            {
+            int value = consumer.take();
+
+            assertEquals( j, value );
+
+            sum += value;
+            }
+
+          return sum;
+          }
+        } ) );
+      }
+
+    for( int i = 0; i < numItems; i++ )
+      ring.publish( i );
+
+    executor.shutdown();
+
+    long expected = (long) numItems * ( numItems - 1 ) / 2;
+
+    for( Future<Long> future : futures )
+      assertEquals( expected, (long) future.get() );
+
+    if( capacity > 0 )
+      assertTrue( ring.getDepthSum() <= (long) numItems * capacity );
+    }
+  }
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.flow.local.stream.element;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import cascading.PlatformTestCase;
+import cascading.flow.Flow;
+import cascading.flow.FlowProcess;
+import cascading.flow.stream.element.MemorySpliceGate;
+import cascading.operation.BaseOperation;
+import cascading.operation.Function;
+import cascading.operation.FunctionCall;
+import cascading.pipe.Each;
+import cascading.pipe.GroupBy;
+import cascading.pipe.Pipe;
+import cascading.pipe.assembly.Rename;
+import cascading.tap.SinkMode;
+import cascading.tap.Tap;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.collect.SpillableProps;
+import org.junit.Test;
+
+import static data.InputData.inputFileLhs;
+import static data.InputData.inputFileRhs;
+
+/**
+ *
+ */
+public class LocalGroupByGatePlatformTest extends PlatformTestCase
+  {
+  /** A value type that cannot be written to a spill. */
+  public static class Unserializable
+    {
+    private final String value;
+
+    public Unserializable( String value )
+      {
+      this.value = value;
+      }
+
+    @Override
+    public String toString()
+      {
+      return value;
+      }
+    }
+
+  public static class ToUnserializable extends BaseOperation implements Function
+    {
+    public ToUnserializable( Fields fieldDeclaration )
+      {
+      super( 1, fieldDeclaration );
+      }
+
+    @Override
+    public void operate( FlowProcess flowProcess, FunctionCall functionCall )
+      {
+      functionCall.getOutputCollector().add( new Tuple( new Unserializable( functionCall.getArguments().getString( 0 ) ) ) );
+      }
+    }
+
+  @Test
+  public void testSpillGroupBy() throws Exception
+    {
+    runSpillGroupBy( false, false );
+    }
+
+  @Test
+  public void testSpillGroupBySecondarySort() throws Exception
+    {
+    runSpillGroupBy( true, false );
+    }
+
+  @Test
+  public void testSpillGroupBySecondarySortReversed() throws Exception
+    {
+    runSpillGroupBy( true, true );
+    }
+
+  @Test
+  public void testSpillGroupByMergePasses() throws Exception
+    {
+    Flow memoryFlow = createGroupByFlow( "mergepasses/memory", -1, 2, true, false );
+
+    memoryFlow.complete();
+
+    Flow spillFlow = createGroupByFlow( "mergepasses/spill", 3, 2, true, false );
+
+    spillFlow.complete();
+
+    List<Tuple> expected = getSinkAsList( memoryFlow );
+    List<Tuple> results = getSinkAsList( spillFlow );
+
+    assertEquals( 13, results.size() );
+    assertEquals( expected, results );
+
+    // four runs with a merge factor of two are merged into two before the final merge
+    assertEquals( 4, spillFlow.getFlowStats().getCounterValue( LocalGroupByGate.Spill.Num_Spills_Written ) );
+    assertEquals( 4, spillFlow.getFlowStats().getCounterValue( LocalGroupByGate.Spill.Num_Spills_Merged ) );
+    }
+
+  @Test
+  public void testMultipleProducersGroupBy() throws Exception
+    {
+    runMultipleProducersGroupBy( -1 );
+    }
+
+  @Test
+  public void testMultipleProducersSpillGroupBy() throws Exception
+    {
+    runMultipleProducersGroupBy( 3 );
+    }
+
+  @Test
+  public void testSpillGroupByUnserializable() throws Exception
+    {
+    Tap source = getPlatform().getDelimitedFile( new Fields( "num", "lower" ), " ", inputFileLhs );
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "num", "lower" ), "\t", getOutputPath( "unserializable" ), SinkMode.REPLACE );
+
+    Pipe pipe = new Pipe( "test" );
+
+    pipe = new Each( pipe, new Fields( "lower" ), new ToUnserializable( new Fields( "lower" ) ), Fields.REPLACE );
+    pipe = new GroupBy( pipe, new Fields( "num" ) );
+
+    Properties properties = SpillableProps.spillableProps()
+      .setGroupBySpillThreshold( 3 )
+      .buildProperties();
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( source, sink, pipe );
+
+    flow.complete();
+
+    assertEquals( 13, getSinkAsList( flow ).size() );
+    assertEquals( 0, flow.getFlowStats().getCounterValue( LocalGroupByGate.Spill.Num_Spills_Written ) );
+    }
+
+  private void runMultipleProducersGroupBy( int threshold ) throws Exception
+    {
+    Tap lhs = getPlatform().getDelimitedFile( new Fields( "num", "lower" ), " ", inputFileLhs );
+    Tap rhs = getPlatform().getDelimitedFile( new Fields( "num", "upper" ), " ", inputFileRhs );
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "num", "char" ), "\t", getOutputPath( "producers" + threshold ), SinkMode.REPLACE );
+
+    Map<String, Tap> sources = new HashMap<>();
+
+    sources.put( "lhs", lhs );
+    sources.put( "rhs", rhs );
+
+    Pipe pipeLower = new Rename( new Pipe( "lhs" ), new Fields( "lower" ), new Fields( "char" ) );
+    Pipe pipeUpper = new Rename( new Pipe( "rhs" ), new Fields( "upper" ), new Fields( "char" ) );
+
+    Pipe pipe = new GroupBy( Pipe.pipes( pipeLower, pipeUpper ), new Fields( "num" ), new Fields( "char" ) );
+
+    Properties properties = SpillableProps.spillableProps()
+      .setGroupBySpillThreshold( threshold )
+      .buildProperties();
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( sources, sink, pipe );
+
+    flow.complete();
+
+    List<Tuple> results = getSinkAsList( flow );
+
+    assertEquals( 26, results.size() );
+
+    for( int i = 1; i < results.size(); i++ )
+      {
+      Tuple previous = results.get( i - 1 );
+      Tuple current = results.get( i );
+      int comparison = previous.getString( 0 ).compareTo( current.getString( 0 ) );
+
+      assertTrue( comparison < 0 || comparison == 0 && previous.getString( 1 ).compareTo( current.getString( 1 ) ) <= 0 );
+      }
+
+    assertEquals( 2, flow.getFlowStats().getCounterValue( MemorySpliceGate.Contention.Num_Producer_Threads ) );
+    }
+
+  private void runSpillGroupBy( boolean secondarySort, boolean reverseOrder ) throws Exception
+    {
+    String name = "spill" + ( secondarySort ? "sorted" : "" ) + ( reverseOrder ? "reversed" : "" );
+
+    Flow memoryFlow = createGroupByFlow( name + "/memory", -1, secondarySort, reverseOrder );
+
+    memoryFlow.complete();
+
+    Flow spillFlow = createGroupByFlow( name + "/spill", 3, secondarySort, reverseOrder );
+
+    spillFlow.complete();
+
+    List<Tuple> expected = getSinkAsList( memoryFlow );
+    List<Tuple> results = getSinkAsList( spillFlow );
+
+    assertEquals( 13, results.size() );
+    assertEquals( expected, results );
+
+    assertEquals( 4, spillFlow.getFlowStats().getCounterValue( LocalGroupByGate.Spill.Num_Spills_Written ) );
+    assertEquals( 12, spillFlow.getFlowStats().getCounterValue( LocalGroupByGate.Spill.Num_Tuples_Spilled ) );
+    }
+
+  private Flow createGroupByFlow( String path, int threshold, boolean secondarySort, boolean reverseOrder )
+    {
+    return createGroupByFlow( path, threshold, SpillableProps.defaultGroupByMergeFactor, secondarySort, reverseOrder );
+    }
+
+  private Flow createGroupByFlow( String path, int threshold, int mergeFactor, boolean secondarySort, boolean reverseOrder )
+    {
+    Tap source = getPlatform().getDelimitedFile( new Fields( "num", "lower" ), " ", inputFileLhs );
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "num", "lower" ), "\t", getOutputPath( path ), SinkMode.REPLACE );
+
+    Pipe pipe = new Pipe( "test" );
+
+    if( !secondarySort )
+      pipe = new GroupBy( pipe, new Fields( "num" ) );
+    else
+      pipe = new GroupBy( pipe, new Fields( "num" ), new Fields( "lower" ), reverseOrder );
+
+    Properties properties = SpillableProps.spillableProps()
+      .setGroupBySpillThreshold( threshold )
+      .setGroupByMergeFactor( mergeFactor )
+      .buildProperties();
+
+    return getPlatform().getFlowConnector( properties ).connect( source, sink, pipe );
+    }
+  }
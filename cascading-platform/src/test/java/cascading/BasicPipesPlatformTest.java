@@ -27,12 +27,20 @@ import java.util.Map;
 import java.util.regex.Pattern;
 
 import cascading.flow.Flow;
+import cascading.flow.FlowProcess;
+import cascading.flow.stream.graph.NodeStreamGraph;
 import cascading.operation.Aggregator;
+import cascading.operation.BaseOperation;
+import cascading.operation.BatchFilter;
+import cascading.operation.BatchFunction;
 import cascading.operation.Filter;
+import cascading.operation.FilterCall;
 import cascading.operation.Function;
+import cascading.operation.FunctionCall;
 import cascading.operation.Identity;
 import cascading.operation.aggregator.Count;
 import cascading.operation.expression.ExpressionFilter;
+import cascading.operation.filter.FilterNull;
 import cascading.operation.function.UnGroup;
 import cascading.operation.regex.RegexFilter;
 import cascading.operation.regex.RegexParser;
@@ -46,6 +54,7 @@ import cascading.tap.SinkMode;
 import cascading.tap.Tap;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
 import org.junit.Test;
 
 import static data.InputData.*;
@@ -360,6 +369,103 @@ public class BasicPipesPlatformTest extends PlatformTestCase
     validateLength( flow, 3 );
     }
 
+  @Test
+  public void testBatchOperations() throws Exception
+    {
+    runBatchOperations( "batch", 4 );
+    }
+
+  @Test
+  public void testBatchOperationsDisabled() throws Exception
+    {
+    runBatchOperations( "batchdisabled", 0 );
+    }
+
+  private void runBatchOperations( String path, int batchSize ) throws Exception
+    {
+    copyFromLocal( inputFileLhs );
+
+    Tap source = getPlatform().getTextFile( new Fields( "offset", "line" ), inputFileLhs );
+    Tap sink = getPlatform().getTextFile( getOutputPath( path ), SinkMode.REPLACE );
+
+    Pipe pipe = new Pipe( "test" );
+
+    pipe = new Each( pipe, new Fields( "line" ), new TestBatchFunction(), new Fields( "num" ) );
+    pipe = new Each( pipe, new FilterNull() );
+    pipe = new Each( pipe, new TestBatchFilter() );
+    pipe = new Each( pipe, new Identity() ); // not batched, so each entry is received in turn
+
+    Map<Object, Object> properties = getProperties();
+
+    properties.put( NodeStreamGraph.BATCH_SIZE, Integer.toString( batchSize ) );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( source, sink, pipe );
+
+    flow.complete();
+
+    validateLength( flow, 9 );
+
+    long batches = flow.getFlowStats().getCounterValue( "batch", "calls" );
+
+    if( batchSize == 0 )
+      assertEquals( 0, batches );
+    else
+      assertTrue( batches >= 4 ); // 13 lines, in batches of 4, through both the function and the filter
+    }
+
+  /** Returns the num of each "num char" line, dropping lines with the char e. */
+  public static class TestBatchFunction extends BaseOperation implements BatchFunction
+    {
+    public TestBatchFunction()
+      {
+      super( 1, new Fields( "num" ) );
+      }
+
+    @Override
+    public void operate( FlowProcess flowProcess, FunctionCall functionCall )
+      {
+      Tuple result = resultFor( functionCall.getArguments() );
+
+      if( result != null )
+        functionCall.getOutputCollector().add( result );
+      }
+
+    @Override
+    public void operate( FlowProcess flowProcess, FunctionCall functionCall, TupleEntry[] arguments, Tuple[] results, int size )
+      {
+      flowProcess.increment( "batch", "calls", 1 );
+
+      for( int i = 0; i < size; i++ )
+        results[ i ] = resultFor( arguments[ i ] );
+      }
+
+    private Tuple resultFor( TupleEntry argument )
+      {
+      String[] split = argument.getString( 0 ).split( " " );
+
+      return split[ 1 ].equals( "e" ) ? null : new Tuple( split[ 0 ] );
+      }
+    }
+
+  /** Removes the num 2. */
+  public static class TestBatchFilter extends BaseOperation implements BatchFilter
+    {
+    @Override
+    public boolean isRemove( FlowProcess flowProcess, FilterCall filterCall )
+      {
+      return filterCall.getArguments().getString( 0 ).equals( "2" );
+      }
+
+    @Override
+    public void isRemove( FlowProcess flowProcess, FilterCall filterCall, TupleEntry[] arguments, boolean[] remove, int size )
+      {
+      flowProcess.increment( "batch", "calls", 1 );
+
+      for( int i = 0; i < size; i++ )
+        remove[ i ] = arguments[ i ].getString( 0 ).equals( "2" );
+      }
+    }
+
   @Test
   public void testSimpleChain() throws Exception
     {
@@ -27,12 +27,15 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import cascading.flow.Flow;
+import cascading.flow.FlowConnectorProps;
 import cascading.flow.FlowDef;
+import cascading.flow.FlowElement;
 import cascading.flow.FlowStep;
 import cascading.flow.planner.graph.ElementGraph;
 import cascading.operation.Aggregator;
@@ -2464,4 +2467,92 @@ public class JoinFieldedPipesPlatformTest extends PlatformTestCase
     assertTrue( values.contains( new Tuple( "1\ta\t1\tA\t1\ta\t1\tA\t1\tA\t1\ta" ) ) );
     assertTrue( values.contains( new Tuple( "2\tb\t2\tB\t2\tb\t2\tB\t2\tB\t2\tb" ) ) );
     }
-  }
\ No newline at end of file
+
+  @Test
+  public void testCoGroupSelectedAsHashJoin() throws Exception
+    {
+    Flow flow = runJoinSelectedBySize( "cogrouptohashjoin", false, FlowConnectorProps.HASH_JOIN_THRESHOLD, 1024 * 1024 );
+
+    assertEquals( 1, countSplices( flow, HashJoin.class ) );
+    assertEquals( 0, countSplices( flow, CoGroup.class ) );
+    }
+
+  @Test
+  public void testCoGroupNotSelectedAsHashJoin() throws Exception
+    {
+    Flow flow = runJoinSelectedBySize( "cogroupnothashjoin", false, FlowConnectorProps.HASH_JOIN_THRESHOLD, 1 );
+
+    assertEquals( 0, countSplices( flow, HashJoin.class ) );
+    assertEquals( 1, countSplices( flow, CoGroup.class ) );
+    }
+
+  @Test
+  public void testHashJoinSelectedAsCoGroup() throws Exception
+    {
+    Flow flow = runJoinSelectedBySize( "hashjointocogroup", true, FlowConnectorProps.CO_GROUP_THRESHOLD, 1 );
+
+    assertEquals( 0, countSplices( flow, HashJoin.class ) );
+    assertEquals( 1, countSplices( flow, CoGroup.class ) );
+    }
+
+  private Flow runJoinSelectedBySize( String path, boolean hashJoin, String property, long threshold ) throws Exception
+    {
+    getPlatform().copyFromLocal( inputFileLower );
+    getPlatform().copyFromLocal( inputFileUpper );
+
+    Tap sourceLower = getPlatform().getTextFile( new Fields( "offset", "line" ), inputFileLower );
+    Tap sourceUpper = getPlatform().getTextFile( new Fields( "offset", "line" ), inputFileUpper );
+
+    Map sources = new HashMap();
+
+    sources.put( "lower", sourceLower );
+    sources.put( "upper", sourceUpper );
+
+    Tap sink = getPlatform().getTextFile( new Fields( "line" ), getOutputPath( path ), SinkMode.REPLACE );
+
+    Function splitter = new RegexSplitter( new Fields( "num", "char" ), " " );
+
+    Pipe pipeLower = new Each( new Pipe( "lower" ), new Fields( "line" ), splitter );
+    Pipe pipeUpper = new Each( new Pipe( "upper" ), new Fields( "line" ), splitter );
+
+    Pipe splice;
+
+    if( hashJoin )
+      splice = new HashJoin( pipeLower, new Fields( "num" ), pipeUpper, new Fields( "num" ), Fields.size( 4 ) );
+    else
+      splice = new CoGroup( pipeLower, new Fields( "num" ), pipeUpper, new Fields( "num" ), Fields.size( 4 ) );
+
+    Map<Object, Object> properties = getProperties();
+
+    properties.put( property, Long.toString( threshold ) );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( sources, sink, splice );
+
+    flow.complete();
+
+    validateLength( flow, 5 );
+
+    List<Tuple> values = getSinkAsList( flow );
+
+    assertTrue( values.contains( new Tuple( "1\ta\t1\tA" ) ) );
+    assertTrue( values.contains( new Tuple( "2\tb\t2\tB" ) ) );
+
+    return flow;
+    }
+
+  private static int countSplices( Flow flow, Class<? extends Pipe> type )
+    {
+    Set<FlowElement> splices = Collections.newSetFromMap( new IdentityHashMap<FlowElement, Boolean>() );
+
+    for( Object flowStep : flow.getFlowSteps() )
+      {
+      for( FlowElement flowElement : ( (FlowStep) flowStep ).getElementGraph().vertexSet() )
+        {
+        if( type.isInstance( flowElement ) )
+          splices.add( flowElement );
+        }
+      }
+
+    return splices.size();
+    }
+  }
@@ -27,7 +27,13 @@ import java.util.regex.Pattern;
 import cascading.cascade.Cascades;
 import cascading.flow.Flow;
 import cascading.flow.FlowDef;
+import cascading.flow.FlowProcess;
+import cascading.flow.stream.graph.NodeStreamGraph;
 import cascading.operation.AssertionLevel;
+import cascading.operation.BaseOperation;
+import cascading.operation.Filter;
+import cascading.operation.FilterCall;
+import cascading.operation.OperationCall;
 import cascading.operation.aggregator.Count;
 import cascading.operation.assertion.AssertNotEquals;
 import cascading.operation.regex.RegexParser;
@@ -275,6 +281,93 @@ public class TrapPlatformTest extends PlatformTestCase
     validateLength( flow.openTrap(), 4 );
     }
 
+  @Test
+  public void testTrapEachFilterChained() throws Exception
+    {
+    runTrapEachFilterChained( "filterchain", true );
+    }
+
+  @Test
+  public void testTrapEachFilterChainedNoFusion() throws Exception
+    {
+    runTrapEachFilterChained( "filterchainnofusion", false );
+    }
+
+  @Test
+  public void testTrapEachFilterChainedBatch() throws Exception
+    {
+    runTrapEachFilterChained( "filterchainbatch", true, 4 );
+    }
+
+  private void runTrapEachFilterChained( String path, boolean fusion ) throws Exception
+    {
+    runTrapEachFilterChained( path, fusion, 0 );
+    }
+
+  private void runTrapEachFilterChained( String path, boolean fusion, int batchSize ) throws Exception
+    {
+    getPlatform().copyFromLocal( inputFileApache );
+
+    Tap source = getPlatform().getTextFile( inputFileApache );
+
+    Pipe pipe = new Pipe( "map" );
+
+    pipe = new Each( pipe, new Fields( "line" ), new RegexParser( new Fields( "ip" ), "^[^ ]*" ), new Fields( "ip" ) );
+
+    // consecutive filters are fused into the function before them, each fails once
+    pipe = new Each( pipe, new TestFailFilter( 1 ) );
+    pipe = new Each( pipe, new TestFailFilter( 2 ) );
+    pipe = new Each( pipe, new TestFailFilter( 3 ) );
+    pipe = new Each( pipe, new TestFunction( new Fields( "test" ), new Tuple( 1 ), 4 ), Fields.ALL );
+
+    Tap sink = getPlatform().getTextFile( getOutputPath( path + "/tap-nondeterministic" ), SinkMode.REPLACE );
+    Tap trap = getPlatform().getTextFile( getOutputPath( path + "/trap-nondeterministic" ), SinkMode.REPLACE );
+
+    Map<Object, Object> properties = getProperties();
+
+    properties.put( NodeStreamGraph.FILTER_FUSION, Boolean.toString( fusion ) );
+    properties.put( NodeStreamGraph.BATCH_SIZE, Integer.toString( batchSize ) );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( "trap test", source, sink, trap, pipe );
+
+    flow.complete();
+
+    validateLength( flow, 6, null );
+    validateLength( flow.openTrap(), 4 );
+    }
+
+  public static class TestFailFilter extends BaseOperation<Integer> implements Filter<Integer>
+    {
+    private final int failon;
+
+    public TestFailFilter( int failon )
+      {
+      this.failon = failon;
+      }
+
+    @Override
+    public void prepare( FlowProcess flowProcess, OperationCall<Integer> operationCall )
+      {
+      operationCall.setContext( 0 );
+      }
+
+    @Override
+    public boolean isRemove( FlowProcess flowProcess, FilterCall<Integer> filterCall )
+      {
+      try
+        {
+        if( filterCall.getContext() == failon )
+          throw new RuntimeException( "filter failed intentionally on tuple number: " + failon );
+        }
+      finally
+        {
+        filterCall.setContext( filterCall.getContext() + 1 );
+        }
+
+      return false;
+      }
+    }
+
   /**
    * This test verifies traps can cross m/r and step boundaries.
    *
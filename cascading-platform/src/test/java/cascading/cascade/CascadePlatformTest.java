@@ -197,6 +197,34 @@ public class CascadePlatformTest extends PlatformTestCase
     assertTrue( cascade.getSinkTaps().containsAll( fourth.getSinksCollection() ) );
     }
 
+  @Test
+  public void testSharedScanCascade() throws IOException
+    {
+    getPlatform().copyFromLocal( inputFileIps );
+
+    String path = "sharedscan";
+
+    Flow first = firstFlow( path + "/first", false );
+    Flow second = secondFlow( first.getSink(), path + "/second" );
+    Flow fourth = fourthFlow( first.getSink(), path + "/fourth" );
+
+    Map<Object, Object> properties = getProperties();
+
+    CascadeProps.setEnableSharedScan( properties, true );
+
+    Cascade cascade = new CascadeConnector( properties ).connect( fourth, second, first );
+
+    assertEquals( 2, cascade.getFlows().size() );
+    assertTrue( cascade.getHeadFlows().contains( first ) );
+    assertFalse( cascade.getFlows().contains( second ) );
+    assertFalse( cascade.getFlows().contains( fourth ) );
+
+    cascade.complete();
+
+    validateLength( second, 20 );
+    validateLength( fourth, 20 );
+    }
+
   @Test
   public void testSimpleCascadeFail() throws IOException
     {
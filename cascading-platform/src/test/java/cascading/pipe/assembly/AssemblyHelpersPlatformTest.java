@@ -26,11 +26,14 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.regex.Pattern;
 
 import cascading.PlatformTestCase;
 import cascading.cascade.Cascades;
 import cascading.flow.Flow;
+import cascading.flow.FlowConnectorProps;
+import cascading.flow.FlowElement;
 import cascading.flow.FlowProcess;
 import cascading.flow.FlowStep;
 import cascading.operation.AssertionLevel;
@@ -38,11 +41,17 @@ import cascading.operation.BaseOperation;
 import cascading.operation.Function;
 import cascading.operation.FunctionCall;
 import cascading.operation.Identity;
+import cascading.operation.aggregator.Average;
+import cascading.operation.aggregator.Count;
+import cascading.operation.aggregator.Percentile;
+import cascading.operation.aggregator.Sum;
 import cascading.operation.assertion.AssertExpression;
 import cascading.operation.expression.ExpressionFunction;
 import cascading.operation.regex.RegexSplitter;
 import cascading.pipe.CoGroup;
 import cascading.pipe.Each;
+import cascading.pipe.Every;
+import cascading.pipe.GroupBy;
 import cascading.pipe.Merge;
 import cascading.pipe.Pipe;
 import cascading.tap.SinkMode;
@@ -52,6 +61,8 @@ import cascading.tuple.Hasher;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
 import cascading.tuple.TupleEntryIterator;
+import cascading.util.cache.OffHeapDirectMappedCacheFactory;
+import cascading.util.cache.OpenAddressingCacheFactory;
 import org.junit.Test;
 
 import static data.InputData.*;
@@ -247,6 +258,65 @@ public class AssemblyHelpersPlatformTest extends PlatformTestCase
     validateLength( flow, 5, 1, Pattern.compile( "^\\d+\\s\\w+$" ) );
     }
 
+  @Test
+  public void testUniqueAdaptive() throws IOException
+    {
+    getPlatform().copyFromLocal( inputFileLhs );
+
+    Tap source = getPlatform().getTextFile( inputFileLhs );
+    Tap sink = getPlatform().getTextFile( new Fields( "item" ), new Fields( "num", "char" ), getOutputPath( "uniqueadaptive" ), SinkMode.REPLACE );
+
+    Pipe pipe = new Pipe( "shape" );
+
+    Function splitter = new RegexSplitter( new Fields( "num", "char" ), " " );
+    pipe = new Each( pipe, new Fields( "line" ), splitter );
+
+    pipe = new Unique( pipe, new Fields( "num" ) );
+
+    // a cold cache never reaches a hit ratio of one, so the cache is disabled after two tuples
+    Properties properties = UniqueProps.uniqueProps()
+      .setAdaptive( true )
+      .setAdaptiveSampleSize( 2 )
+      .setAdaptiveMinHitRatio( 1.0 )
+      .buildProperties( getProperties() );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( source, sink, pipe );
+
+    flow.complete();
+
+    validateLength( flow, 5, 1, Pattern.compile( "^\\d+\\s\\w+$" ) );
+
+    assertTrue( flow.getFlowStats().getCounterValue( Unique.Cache.Num_Slices_Passed_Through ) > 0 );
+    assertTrue( flow.getFlowStats().getCounterValue( Unique.Cache.Num_Keys_Passed_Through ) > 0 );
+    }
+
+  @Test
+  public void testUniqueOffHeapCache() throws IOException
+    {
+    getPlatform().copyFromLocal( inputFileLhs );
+
+    Tap source = getPlatform().getTextFile( inputFileLhs );
+    Tap sink = getPlatform().getTextFile( new Fields( "item" ), new Fields( "num", "char" ), getOutputPath( "uniqueoffheap" ), SinkMode.REPLACE );
+
+    Pipe pipe = new Pipe( "shape" );
+
+    Function splitter = new RegexSplitter( new Fields( "num", "char" ), " " );
+    pipe = new Each( pipe, new Fields( "line" ), splitter );
+
+    pipe = new Unique( pipe, new Fields( "num" ) );
+
+    Properties properties = UniqueProps.uniqueProps()
+      .setCacheFactoryClass( OffHeapDirectMappedCacheFactory.class )
+      .setCapacity( 3 )
+      .buildProperties( getProperties() );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( source, sink, pipe );
+
+    flow.complete();
+
+    validateLength( flow, 5, 1, Pattern.compile( "^\\d+\\s\\w+$" ) );
+    }
+
   @Test
   public void testUniqueMerge() throws IOException
     {
@@ -345,6 +415,163 @@ public class AssemblyHelpersPlatformTest extends PlatformTestCase
     iterator.close();
     }
 
+  @Test
+  public void testCountDistinctBy() throws IOException
+    {
+    getPlatform().copyFromLocal( inputFileLhs );
+
+    Tap source = getPlatform().getDelimitedFile( new Fields( "num", "char" ), " ", inputFileLhs );
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "char", "count" ), "\t",
+      new Class[]{String.class, Long.TYPE}, getOutputPath( "countdistinct" ), SinkMode.REPLACE );
+
+    Pipe pipe = new Pipe( "count" );
+
+    pipe = new CountDistinctBy( pipe, new Fields( "char" ), new Fields( "num" ), new Fields( "count" ) );
+
+    Flow flow = getPlatform().getFlowConnector().connect( source, sink, pipe );
+
+    flow.complete();
+
+    validateLength( flow, 5, 2, Pattern.compile( "^\\w+\\s\\d+$" ) );
+
+    Tuple[] results = new Tuple[]{
+      new Tuple( "a", 2L ),
+      new Tuple( "b", 4L ),
+      new Tuple( "c", 4L ),
+      new Tuple( "d", 2L ),
+      new Tuple( "e", 1L ),
+    };
+
+    TupleEntryIterator iterator = flow.openSink();
+    int count = 0;
+
+    while( iterator.hasNext() )
+      assertEquals( results[ count++ ], iterator.next().getTuple() );
+
+    iterator.close();
+    }
+
+  @Test
+  public void testTopNBy() throws IOException
+    {
+    Tuple[] results = new Tuple[]{
+      new Tuple( "a", 5 ),
+      new Tuple( "a", 1 ),
+      new Tuple( "b", 5 ),
+      new Tuple( "b", 4 ),
+      new Tuple( "c", 4 ),
+      new Tuple( "c", 3 ),
+      new Tuple( "d", 4 ),
+      new Tuple( "d", 2 ),
+      new Tuple( "e", 5 ),
+    };
+
+    runTopNBy( "topn", false, AggregateBy.USE_DEFAULT_THRESHOLD, results );
+    }
+
+  @Test
+  public void testTopNByReverseOrder() throws IOException
+    {
+    Tuple[] results = new Tuple[]{
+      new Tuple( "a", 1 ),
+      new Tuple( "a", 5 ),
+      new Tuple( "b", 1 ),
+      new Tuple( "b", 2 ),
+      new Tuple( "c", 1 ),
+      new Tuple( "c", 2 ),
+      new Tuple( "d", 2 ),
+      new Tuple( "d", 4 ),
+      new Tuple( "e", 5 ),
+    };
+
+    // a small threshold forces partial heaps to be flushed and merged reduce side
+    runTopNBy( "topnreverse", true, 2, results );
+    }
+
+  private void runTopNBy( String path, boolean reverseOrder, int threshold, Tuple[] results ) throws IOException
+    {
+    getPlatform().copyFromLocal( inputFileLhs );
+
+    Tap source = getPlatform().getDelimitedFile( new Fields( "num", "char" ).applyTypes( Integer.TYPE, String.class ), " ", inputFileLhs );
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "char", "num" ), "\t",
+      new Class[]{String.class, Integer.TYPE}, getOutputPath( path ), SinkMode.REPLACE );
+
+    Pipe pipe = new Pipe( "top" );
+
+    pipe = new TopNBy( null, Pipe.pipes( pipe ), new Fields( "char" ), new Fields( "num" ), 2, reverseOrder, threshold );
+
+    Flow flow = getPlatform().getFlowConnector().connect( source, sink, pipe );
+
+    flow.complete();
+
+    validateLength( flow, 9, 2, Pattern.compile( "^\\w+\\s\\d+$" ) );
+
+    TupleEntryIterator iterator = flow.openSink();
+    int count = 0;
+
+    while( iterator.hasNext() )
+      assertEquals( results[ count++ ], iterator.next().getTuple() );
+
+    iterator.close();
+    }
+
+  @Test
+  public void testPercentileBy() throws IOException
+    {
+    runPercentile( "percentileby", true );
+    }
+
+  @Test
+  public void testPercentile() throws IOException
+    {
+    runPercentile( "percentile", false );
+    }
+
+  private void runPercentile( String path, boolean aggregateBy ) throws IOException
+    {
+    getPlatform().copyFromLocal( inputFileLhs );
+
+    Tap source = getPlatform().getDelimitedFile( new Fields( "num", "char" ), " ", inputFileLhs );
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "char", "median", "max" ), "\t",
+      new Class[]{String.class, Double.TYPE, Double.TYPE}, getOutputPath( path ), SinkMode.REPLACE );
+
+    Pipe pipe = new Pipe( "percentile" );
+
+    Fields percentileFields = new Fields( "median", "max" );
+
+    if( aggregateBy )
+      {
+      pipe = new PercentileBy( pipe, new Fields( "char" ), new Fields( "num" ), percentileFields, 50, 100 );
+      }
+    else
+      {
+      pipe = new GroupBy( pipe, new Fields( "char" ) );
+      pipe = new Every( pipe, new Fields( "num" ), new Percentile( percentileFields, 50, 100 ) );
+      }
+
+    Flow flow = getPlatform().getFlowConnector().connect( source, sink, pipe );
+
+    flow.complete();
+
+    validateLength( flow, 5, 3, Pattern.compile( "^\\w+\\s[\\d.]+\\s[\\d.]+$" ) );
+
+    Tuple[] results = new Tuple[]{
+      new Tuple( "a", 3.0, 5.0 ),
+      new Tuple( "b", 3.0, 5.0 ),
+      new Tuple( "c", 2.5, 4.0 ),
+      new Tuple( "d", 3.0, 4.0 ),
+      new Tuple( "e", 5.0, 5.0 ),
+    };
+
+    TupleEntryIterator iterator = flow.openSink();
+    int count = 0;
+
+    while( iterator.hasNext() )
+      assertEquals( results[ count++ ], iterator.next().getTuple() );
+
+    iterator.close();
+    }
+
   @Test
   public void testCountNullNotNull() throws IOException
     {
@@ -462,6 +689,141 @@ public class AssemblyHelpersPlatformTest extends PlatformTestCase
     iterator.close();
     }
 
+  @Test
+  public void testAggregateByOffHeapCache() throws IOException
+    {
+    getPlatform().copyFromLocal( inputFileLhs );
+
+    Tap source = getPlatform().getDelimitedFile( new Fields( "num", "char" ), " ", inputFileLhs );
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "char", "sum", "count" ), "\t",
+      new Class[]{String.class, Integer.TYPE, Long.TYPE}, getOutputPath( "aggregatebyoffheap" ), SinkMode.REPLACE );
+
+    Pipe pipe = new Pipe( "sum" );
+
+    SumBy sumBy = new SumBy( new Fields( "num" ), new Fields( "sum" ), long.class );
+    CountDistinctBy countDistinctBy = new CountDistinctBy( new Fields( "num" ), new Fields( "count" ) );
+
+    pipe = new AggregateBy( pipe, new Fields( "char" ), sumBy, countDistinctBy );
+
+    // few slots force collisions, the sketches are larger than the slots and so are evicted on write back
+    Properties properties = AggregateByProps.aggregateByProps()
+      .setCacheFactoryClass( OffHeapDirectMappedCacheFactory.class )
+      .setCapacity( 3 )
+      .buildProperties( getProperties() );
+
+    properties.setProperty( OffHeapDirectMappedCacheFactory.OFF_HEAP_SLOT_BYTES, "128" );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( source, sink, pipe );
+
+    flow.complete();
+
+    validateLength( flow, 5, 3, Pattern.compile( "^\\w+\\s\\d+\\s\\d+$" ) );
+
+    Tuple[] results = new Tuple[]{
+      new Tuple( "a", 6, 2L ),
+      new Tuple( "b", 12, 4L ),
+      new Tuple( "c", 10, 4L ),
+      new Tuple( "d", 6, 2L ),
+      new Tuple( "e", 5, 1L ),
+    };
+
+    TupleEntryIterator iterator = flow.openSink();
+    int count = 0;
+
+    while( iterator.hasNext() )
+      assertEquals( results[ count++ ], iterator.next().getTuple() );
+
+    iterator.close();
+    }
+
+  @Test
+  public void testSumByOpenAddressingCache() throws IOException
+    {
+    getPlatform().copyFromLocal( inputFileLhs );
+
+    Tap source = getPlatform().getDelimitedFile( new Fields( "num", "char" ), " ", inputFileLhs );
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "char", "sum" ), "\t",
+      new Class[]{String.class, Integer.TYPE}, getOutputPath( "sumopenaddressing" ), SinkMode.REPLACE );
+
+    Pipe pipe = new Pipe( "sum" );
+
+    pipe = new SumBy( pipe, new Fields( "char" ), new Fields( "num" ), new Fields( "sum" ), long.class );
+
+    // a budget too small to hold all keys forces batches to be evicted
+    Properties properties = AggregateByProps.aggregateByProps()
+      .setCacheFactoryClass( OpenAddressingCacheFactory.class )
+      .setCapacityBytes( 300 )
+      .buildProperties( getProperties() );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( source, sink, pipe );
+
+    flow.complete();
+
+    validateLength( flow, 5, 2, Pattern.compile( "^\\w+\\s\\d+$" ) );
+
+    Tuple[] results = new Tuple[]{
+      new Tuple( "a", 6 ),
+      new Tuple( "b", 12 ),
+      new Tuple( "c", 10 ),
+      new Tuple( "d", 6 ),
+      new Tuple( "e", 5 ),
+    };
+
+    TupleEntryIterator iterator = flow.openSink();
+    int count = 0;
+
+    while( iterator.hasNext() )
+      assertEquals( results[ count++ ], iterator.next().getTuple() );
+
+    iterator.close();
+    }
+
+  @Test
+  public void testSumByAdaptive() throws IOException
+    {
+    getPlatform().copyFromLocal( inputFileLhs );
+
+    Tap source = getPlatform().getDelimitedFile( new Fields( "num", "char" ), " ", inputFileLhs );
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "char", "sum" ), "\t",
+      new Class[]{String.class, Integer.TYPE}, getOutputPath( "sumadaptive" ), SinkMode.REPLACE );
+
+    Pipe pipe = new Pipe( "sum" );
+
+    pipe = new SumBy( pipe, new Fields( "char" ), new Fields( "num" ), new Fields( "sum" ), long.class );
+
+    // a cold cache never reaches a hit ratio of one, so the cache is disabled after two tuples
+    Properties properties = AggregateByProps.aggregateByProps()
+      .setAdaptive( true )
+      .setAdaptiveSampleSize( 2 )
+      .setAdaptiveMinHitRatio( 1.0 )
+      .buildProperties( getProperties() );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( source, sink, pipe );
+
+    flow.complete();
+
+    validateLength( flow, 5, 2, Pattern.compile( "^\\w+\\s\\d+$" ) );
+
+    Tuple[] results = new Tuple[]{
+      new Tuple( "a", 6 ),
+      new Tuple( "b", 12 ),
+      new Tuple( "c", 10 ),
+      new Tuple( "d", 6 ),
+      new Tuple( "e", 5 ),
+    };
+
+    TupleEntryIterator iterator = flow.openSink();
+    int count = 0;
+
+    while( iterator.hasNext() )
+      assertEquals( results[ count++ ], iterator.next().getTuple() );
+
+    iterator.close();
+
+    assertTrue( flow.getFlowStats().getCounterValue( AggregateBy.Cache.Num_Slices_Passed_Through ) > 0 );
+    assertTrue( flow.getFlowStats().getCounterValue( AggregateBy.Cache.Num_Keys_Passed_Through ) > 0 );
+    }
+
   @Test
   public void testSumByNulls() throws IOException
     {
@@ -581,6 +943,63 @@ public class AssemblyHelpersPlatformTest extends PlatformTestCase
     iterator.close();
     }
 
+  @Test
+  public void testPartialAggregateRewrite() throws IOException
+    {
+    getPlatform().copyFromLocal( inputFileLhs );
+
+    Tap source = getPlatform().getDelimitedFile( new Fields( "num", "char" ), " ", inputFileLhs );
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "char", "sum", "count", "average" ), "\t",
+      new Class[]{String.class, Integer.TYPE, Long.TYPE, Double.TYPE}, getOutputPath( "partialaggregate" ), SinkMode.REPLACE );
+
+    Pipe pipe = new Pipe( "partial" );
+
+    pipe = new GroupBy( pipe, new Fields( "char" ) );
+    pipe = new Every( pipe, new Fields( "num" ), new Sum( new Fields( "sum" ), long.class ) );
+    pipe = new Every( pipe, new Count( new Fields( "count" ) ) );
+    pipe = new Every( pipe, new Fields( "num" ), new Average( new Fields( "average" ) ) );
+
+    Map<Object, Object> properties = getProperties();
+
+    FlowConnectorProps.setEnablePartialAggregation( properties, true );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( source, sink, pipe );
+
+    flow.complete();
+
+    validateLength( flow, 5, 4, Pattern.compile( "^\\w+\\s\\d+\\s\\d+\\s[\\d.]+$" ) );
+
+    // partial aggregation is only planned where a grouping is shuffled
+    if( getPlatform().isMapReduce() || getPlatform().isDAG() )
+      {
+      boolean found = false;
+
+      for( Object flowStep : flow.getFlowSteps() )
+        {
+        for( FlowElement flowElement : ( (FlowStep) flowStep ).getElementGraph().vertexSet() )
+          found |= flowElement instanceof Each && ( (Each) flowElement ).getOperation() instanceof AggregateBy.CompositeFunction;
+        }
+
+      assertTrue( "partial aggregation not planned", found );
+      }
+
+    Tuple[] results = new Tuple[]{
+      new Tuple( "a", 6, 2L, (double) 6 / 2 ),
+      new Tuple( "b", 12, 4L, (double) 12 / 4 ),
+      new Tuple( "c", 10, 4L, (double) 10 / 4 ),
+      new Tuple( "d", 6, 2L, (double) 6 / 2 ),
+      new Tuple( "e", 5, 1L, (double) 5 / 1 ),
+    };
+
+    TupleEntryIterator iterator = flow.openSink();
+    int count = 0;
+
+    while( iterator.hasNext() )
+      assertEquals( results[ count++ ], iterator.next().getTuple() );
+
+    iterator.close();
+    }
+
   @Test
   public void testAverageByNull() throws IOException
     {
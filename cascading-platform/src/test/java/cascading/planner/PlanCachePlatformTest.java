@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2018 Chris K Wensel <chris@wensel.net>. All Rights Reserved.
+ * Copyright (c) 2007-2017 Xplenty, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cascading.planner;
+
+import java.util.List;
+import java.util.Map;
+
+import cascading.PlatformTestCase;
+import cascading.flow.Flow;
+import cascading.flow.planner.rule.PlanCache;
+import cascading.operation.Identity;
+import cascading.operation.aggregator.Count;
+import cascading.operation.regex.RegexParser;
+import cascading.pipe.Each;
+import cascading.pipe.Every;
+import cascading.pipe.GroupBy;
+import cascading.pipe.Pipe;
+import cascading.tap.SinkMode;
+import cascading.tap.Tap;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import org.junit.Test;
+
+import static data.InputData.inputFileApache;
+
+public class PlanCachePlatformTest extends PlatformTestCase
+  {
+  public PlanCachePlatformTest()
+    {
+    super( false );
+    }
+
+  @Test
+  public void testPlanCache() throws Exception
+    {
+    copyFromLocal( inputFileApache );
+
+    PlanCache.clear();
+
+    try
+      {
+      Flow first = connectCounts( "first", 10 );
+
+      assertEquals( 0, PlanCache.getHitCount() );
+      assertEquals( 1, PlanCache.size() );
+
+      Flow second = connectCounts( "second", 10 );
+
+      assertEquals( 1, PlanCache.getHitCount() );
+      assertEquals( 1, PlanCache.size() );
+      assertEquals( first.getFlowSteps().size(), second.getFlowSteps().size() );
+
+      first.complete();
+      second.complete();
+
+      validateLength( first, 8 );
+      validateLength( second, 8 );
+
+      List<Tuple> firstResults = asList( first, first.getSink() );
+      List<Tuple> secondResults = asList( second, second.getSink() );
+
+      assertEquals( firstResults, secondResults );
+      }
+    finally
+      {
+      PlanCache.clear();
+      }
+    }
+
+  @Test
+  public void testPlanCacheConfigDef() throws Exception
+    {
+    copyFromLocal( inputFileApache );
+
+    PlanCache.clear();
+
+    try
+      {
+      connectCounts( "configfirst", 10, null );
+      connectCounts( "configsecond", 10, "2" );
+
+      assertEquals( 0, PlanCache.getHitCount() );
+      assertEquals( 2, PlanCache.size() );
+
+      Flow third = connectCounts( "configthird", 10, "2" );
+
+      assertEquals( 1, PlanCache.getHitCount() );
+
+      third.complete();
+
+      validateLength( third, 8 );
+      }
+    finally
+      {
+      PlanCache.clear();
+      }
+    }
+
+  @Test
+  public void testPlanCacheDisabled() throws Exception
+    {
+    copyFromLocal( inputFileApache );
+
+    PlanCache.clear();
+
+    try
+      {
+      connectCounts( "disabledfirst", 0 );
+      Flow second = connectCounts( "disabledsecond", 0 );
+
+      assertEquals( 0, PlanCache.getHitCount() );
+      assertEquals( 0, PlanCache.size() );
+
+      second.complete();
+
+      validateLength( second, 8 );
+      }
+    finally
+      {
+      PlanCache.clear();
+      }
+    }
+
+  private Flow connectCounts( String path, int cacheSize )
+    {
+    return connectCounts( path, cacheSize, null );
+    }
+
+  private Flow connectCounts( String path, int cacheSize, String stepValue )
+    {
+    Tap source = getPlatform().getTextFile( new Fields( "offset", "line" ), inputFileApache );
+    Tap sink = getPlatform().getTextFile( getOutputPath( "plancache/" + path ), SinkMode.REPLACE );
+
+    Pipe pipe = new Each( new Pipe( "counts" ), new Fields( "line" ), new RegexParser( new Fields( "ip" ), "^[^ ]*" ), new Fields( "ip" ) );
+
+    pipe = new GroupBy( pipe, new Fields( "ip" ) );
+
+    if( stepValue != null )
+      pipe.getStepConfigDef().setProperty( "cascading.plancache.test.value", stepValue );
+
+    pipe = new Every( pipe, new Count(), new Fields( "ip", "count" ) );
+
+    pipe = new Each( pipe, new Identity() );
+    pipe = new GroupBy( pipe, new Fields( "count" ) );
+
+    Map<Object, Object> properties = getProperties();
+
+    properties.put( PlanCache.PLAN_CACHE_SIZE, Integer.toString( cacheSize ) );
+
+    return getPlatform().getFlowConnector( properties ).connect( source, sink, pipe );
+    }
+  }
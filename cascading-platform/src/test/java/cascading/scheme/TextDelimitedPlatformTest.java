@@ -23,16 +23,20 @@ package cascading.scheme;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.Locale;
+import java.util.Map;
 import java.util.TimeZone;
 
 import cascading.ComparePlatformsTest;
 import cascading.PlatformTestCase;
 import cascading.TestConstants;
 import cascading.flow.Flow;
+import cascading.flow.FlowConnectorProps;
 import cascading.operation.AssertionLevel;
 import cascading.operation.assertion.AssertExpression;
+import cascading.operation.regex.RegexFilter;
 import cascading.pipe.Each;
 import cascading.pipe.Pipe;
+import cascading.pipe.assembly.Retain;
 import cascading.tap.MultiSinkTap;
 import cascading.tap.SinkMode;
 import cascading.tap.Tap;
@@ -278,4 +282,62 @@ public class TextDelimitedPlatformTest extends PlatformTestCase
 
     validateLength( flow, 9, 10 );
     }
+
+  @Test
+  public void testProjectionPushdown() throws IOException
+    {
+    Class[] types = new Class[]{String.class, String.class, String.class, String.class, long.class};
+    Fields fields = new Fields( "first", "second", "third", "fourth", "fifth" );
+
+    Tap input = getPlatform().getDelimitedFile( fields, true, true, ",", "\"", types, testDelimited, SinkMode.KEEP );
+    Tap output = getPlatform().getDelimitedFile( new Fields( "first", "fifth" ), true, true, ",", "\"", null, getOutputPath( "projection" ), SinkMode.REPLACE );
+
+    Pipe pipe = new Pipe( "pipe" );
+
+    pipe = new Retain( pipe, new Fields( "first", "fifth" ) );
+
+    Map<Object, Object> properties = getProperties();
+
+    FlowConnectorProps.setEnableProjectionPushdown( properties, true );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( input, output, pipe );
+
+    Fields projection = input.getScheme().getSourceProjection();
+
+    assertEquals( 2, projection.size() );
+    assertTrue( projection.contains( new Fields( "first", "fifth" ) ) );
+
+    flow.complete();
+
+    validateLength( flow, 11, 2 );
+    }
+
+  @Test
+  public void testProjectionPushdownFilter() throws IOException
+    {
+    Class[] types = new Class[]{String.class, String.class, String.class, String.class, long.class};
+    Fields fields = new Fields( "first", "second", "third", "fourth", "fifth" );
+
+    Tap input = getPlatform().getDelimitedFile( fields, true, true, ",", "\"", types, testDelimited, SinkMode.KEEP );
+    Tap output = getPlatform().getDelimitedFile( fields, true, true, ",", "\"", types, getOutputPath( "projectionfilter" ), SinkMode.REPLACE );
+
+    Pipe pipe = new Pipe( "pipe" );
+
+    // the filter only reads its argument, every other field is still written by the sink
+    pipe = new Each( pipe, new Fields( "first" ), new RegexFilter( ".*" ) );
+
+    Map<Object, Object> properties = getProperties();
+
+    FlowConnectorProps.setEnableProjectionPushdown( properties, true );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( input, output, pipe );
+
+    assertTrue( input.getScheme().getSourceProjection().isAll() );
+
+    flow.complete();
+
+    validateLength( flow, 11, 5 );
+
+    assertEquals( asList( flow, input ), asList( flow, output ) );
+    }
   }
@@ -20,6 +20,7 @@
 
 package cascading.stats;
 
+import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -30,6 +31,9 @@ import cascading.flow.Flow;
 import cascading.flow.FlowConnector;
 import cascading.flow.FlowRuntimeProps;
 import cascading.flow.SliceCounters;
+import cascading.flow.planner.BaseFlowStep;
+import cascading.flow.stream.element.ElementTimer;
+import cascading.flow.stream.graph.NodeStreamGraph;
 import cascading.operation.Function;
 import cascading.operation.regex.RegexParser;
 import cascading.operation.regex.RegexSplitter;
@@ -69,9 +73,10 @@ public class CascadingStatsPlatformTest extends PlatformTestCase
 
     Pipe pipe = new Pipe( "first" );
 
-    pipe = new Each( pipe, new Fields( "line" ), new RegexParser( new Fields( "ip" ), "^[^ ]*" ), new Fields( "ip" ) );
-    pipe = new GroupBy( pipe, new Fields( "ip" ) );
-    pipe = new Each( pipe, new Counter( TestEnum.FIRST ) );
+    Pipe parser = new Each( pipe, new Fields( "line" ), new RegexParser( new Fields( "ip" ), "^[^ ]*" ), new Fields( "ip" ) );
+    Pipe groupBy = new GroupBy( parser, new Fields( "ip" ) );
+    Pipe counter = new Each( groupBy, new Counter( TestEnum.FIRST ) );
+    pipe = new Each( counter, new Counter( TestEnum.FIRST ) ); // same name and operation type, timed apart
     pipe = new GroupBy( pipe, new Fields( "ip" ) );
     pipe = new Each( pipe, new Counter( TestEnum.FIRST ) );
     pipe = new Each( pipe, new Counter( TestEnum.SECOND ) );
@@ -174,4 +179,48 @@ public class CascadingStatsPlatformTest extends PlatformTestCase
     assertNotSame( 0, secondCounter ); // verifies accumulated side counters fired
     assertEquals( firstCounter + secondCounter, flowStats.getCounterValue( SliceCounters.Tuples_Read ) );
     }
+
+  @Test
+  public void testElementTimings() throws Exception
+    {
+    getPlatform().copyFromLocal( inputFileApache );
+
+    Tap source = getPlatform().getTextFile( inputFileApache );
+
+    Pipe pipe = new Pipe( "timed" );
+
+    Pipe parser = new Each( pipe, new Fields( "line" ), new RegexParser( new Fields( "ip" ), "^[^ ]*" ), new Fields( "ip" ) );
+    Pipe groupBy = new GroupBy( parser, new Fields( "ip" ) );
+    Pipe counter = new Each( groupBy, new Counter( TestEnum.FIRST ) );
+    pipe = new Each( counter, new Counter( TestEnum.FIRST ) ); // same name and operation type, timed apart
+
+    Tap sink = getPlatform().getTextFile( getOutputPath( "elementtimings" ), SinkMode.REPLACE );
+
+    Map<Object, Object> properties = getProperties();
+
+    properties.put( NodeStreamGraph.ELEMENT_TIMING_SAMPLE_RATE, "2" );
+
+    Flow flow = getPlatform().getFlowConnector( properties ).connect( source, sink, pipe );
+
+    flow.complete();
+
+    validateLength( flow, 10 );
+
+    FlowStats flowStats = flow.getFlowStats();
+
+    Map<String, Long> sampledTuples = flowStats.getElementSampledTuples();
+
+    assertEquals( 5, (long) sampledTuples.get( ElementTimer.getTimingKey( parser ) ) );
+    assertEquals( 5, (long) sampledTuples.get( ElementTimer.getTimingKey( counter ) ) );
+    assertEquals( 5, (long) sampledTuples.get( ElementTimer.getTimingKey( pipe ) ) );
+    assertTrue( sampledTuples.containsKey( ElementTimer.getTimingKey( groupBy ) ) );
+    assertTrue( flowStats.getElementSelfTimes().containsKey( ElementTimer.getTimingKey( parser ) ) );
+    assertTrue( flowStats.getElementLifecycleTimes().containsKey( ElementTimer.getTimingKey( groupBy ) ) );
+
+    String filename = getOutputPath( "elementtimings.dot" );
+
+    ( (BaseFlowStep) flow.getFlowSteps().get( 0 ) ).writeTimingsDOT( filename );
+
+    assertTrue( new File( filename ).exists() );
+    }
   }
@@ -32,15 +32,18 @@ import java.util.regex.Pattern;
 import cascading.PlatformTestCase;
 import cascading.TestBuffer;
 import cascading.flow.Flow;
+import cascading.flow.FlowConnectorProps;
 import cascading.flow.FlowDef;
 import cascading.flow.FlowTapException;
 import cascading.operation.Debug;
 import cascading.operation.Identity;
+import cascading.operation.regex.RegexFilter;
 import cascading.operation.regex.RegexSplitter;
 import cascading.pipe.Each;
 import cascading.pipe.Every;
 import cascading.pipe.GroupBy;
 import cascading.pipe.Pipe;
+import cascading.tap.partition.BasePartitionTap;
 import cascading.tap.partition.DelimitedPartition;
 import cascading.tap.partition.Partition;
 import cascading.tuple.Fields;
@@ -231,6 +234,54 @@ public class TapPlatformTest extends PlatformTestCase implements Serializable
     validateLength( secondFlow.openTapForRead( test ), 74, Pattern.compile( "[0-9]\\+[a-z]\\+[A-Z]" ) );
     }
 
+  @Test
+  public void testPartitionTapPruning() throws IOException
+    {
+    getPlatform().copyFromLocal( inputFileCrossX2 );
+
+    Tap source = getPlatform().getDelimitedFile( new Fields( "number", "lower", "upper" ), " ", inputFileCrossX2 );
+
+    String outputPath = getOutputPath( "/partitioned" );
+    Tap partitionTap = getPlatform().getDelimitedFile( new Fields( "upper" ), "+", outputPath, SinkMode.REPLACE );
+
+    Partition partition = new DelimitedPartition( new Fields( "lower", "number" ) );
+    partitionTap = getPlatform().getPartitionTap( partitionTap, partition, 1 );
+
+    Flow firstFlow = getPlatform().getFlowConnector().connect( source, partitionTap, new Pipe( "partition" ) );
+
+    firstFlow.complete();
+
+    BasePartitionTap sourcePartitionTap = (BasePartitionTap) getPlatform().getPartitionTap( getPlatform().getDelimitedFile( new Fields( "upper" ), "+", outputPath, SinkMode.KEEP ), partition, 1 );
+
+    Tap sink = getPlatform().getDelimitedFile( new Fields( "number", "lower", "upper" ), "+", getOutputPath( "/pruned" ), SinkMode.REPLACE );
+
+    Pipe pipe = new Each( new Pipe( "prune" ), new Fields( "lower" ), new RegexFilter( "^a$" ) );
+
+    Map<Object, Object> properties = getProperties();
+
+    FlowConnectorProps.setEnablePartitionPruning( properties, true );
+
+    Flow secondFlow = getPlatform().getFlowConnector( properties ).connect( sourcePartitionTap, sink, pipe );
+
+    assertTrue( sourcePartitionTap.isSourcePartitionsPruned() );
+
+    String[] identifiers = sourcePartitionTap.getChildPartitionIdentifiers( secondFlow.getFlowProcess(), false );
+
+    assertTrue( identifiers.length != 0 );
+
+    for( String identifier : identifiers )
+      assertTrue( identifier, identifier.contains( "/a/" ) );
+
+    secondFlow.complete();
+
+    List<Tuple> tuples = asList( secondFlow, sink );
+
+    assertFalse( tuples.isEmpty() );
+
+    for( Tuple tuple : tuples )
+      assertEquals( "a", tuple.getObject( 1 ) );
+    }
+
   @Test
   public void testTupleEntrySchemeIteratorExceptionHandling() throws IOException
     {